@@ -0,0 +1,72 @@
+package com.inmobiliaria.gestion.agent;
+
+import com.google.adk.agents.BaseAgent;
+import com.google.adk.agents.LlmAgent;
+import com.inmobiliaria.gestion.agent.routing.CatalogRouterAgent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single conversational entry point for every catalog. A coordinator agent owns the Inmobiliaria,
+ * Propiedad and Persona agents as sub-agents, so one session can move between catalogs (e.g.
+ * "registra la inmobiliaria Norte y dale de alta dos casas") without the client picking an
+ * endpoint per domain. The root {@link CatalogRouterAgent} skips the coordinator's model call
+ * whenever the target catalog is obvious from the message or the conversation.
+ */
+@Component
+public class AssistantAgent {
+
+  public static final String ROOT_AGENT = "catalog-assistant";
+
+  public static final String COORDINATOR_AGENT = "catalog-coordinator";
+
+  private final BaseAgent agent;
+
+  public AssistantAgent(
+      InmobiliariaAgent inmobiliariaAgent,
+      PropiedadAgent propiedadAgent,
+      PersonaAgent personaAgent,
+      MeterRegistry meterRegistry) {
+    LlmAgent coordinator =
+        LlmAgent.builder()
+            .name(COORDINATOR_AGENT)
+            .description("Decides which catalog agent handles the user's request.")
+            .model("gemini-2.0-flash")
+            .instruction(
+                "You coordinate the assistants of a real estate management system. You do not "
+                    + "answer catalog questions yourself: transfer to the assistant that owns the "
+                    + "data.\n\n"
+                    + "- inmobiliaria-assistant: real estate agencies (inmobiliarias).\n"
+                    + "- propiedad-assistant: properties (propiedades) and the agency they "
+                    + "belong to.\n"
+                    + "- persona-assistant: people and companies (personas físicas y morales).\n\n"
+                    + "**Guidelines:**\n"
+                    + "- When a request spans several catalogs, transfer to the assistant of the "
+                    + "first step; it transfers onwards when its part is done.\n"
+                    + "- If the request is unclear, ask one short question in the user's "
+                    + "language.\n"
+                    + "- Understand questions in Spanish or English.\n")
+            .subAgents(
+                inmobiliariaAgent.newAgent(), propiedadAgent.newAgent(), personaAgent.newAgent())
+            .build();
+    this.agent = new CatalogRouterAgent(ROOT_AGENT, coordinator, meterRegistry);
+  }
+
+  /**
+   * Get the root agent of the assistant.
+   *
+   * @return The routing agent
+   */
+  public BaseAgent getAgent() {
+    return agent;
+  }
+
+  /**
+   * Get the agent name/ID.
+   *
+   * @return The root agent identifier
+   */
+  public String getAgentName() {
+    return ROOT_AGENT;
+  }
+}
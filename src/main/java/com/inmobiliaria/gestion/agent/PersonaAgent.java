@@ -2,6 +2,7 @@ package com.inmobiliaria.gestion.agent;
 
 import com.google.adk.agents.LlmAgent;
 import com.google.adk.tools.FunctionTool;
+import com.inmobiliaria.gestion.agent.service.ToolResultMemo;
 import com.inmobiliaria.gestion.agent.tools.PersonaTool;
 import org.springframework.stereotype.Component;
 
@@ -15,26 +16,43 @@ public class PersonaAgent {
   public static final String ROOT_AGENT = "persona-assistant";
 
   private final PersonaTool personaTool;
+  private final ToolResultMemo toolResultMemo;
   private LlmAgent agent;
 
-  public PersonaAgent(PersonaTool personaTool) {
+  public PersonaAgent(PersonaTool personaTool, ToolResultMemo toolResultMemo) {
     this.personaTool = personaTool;
+    this.toolResultMemo = toolResultMemo;
     initializeAgent();
   }
 
   private void initializeAgent() {
-    this.agent =
-        LlmAgent.builder()
-            .name(ROOT_AGENT)
-            .model("gemini-2.0-flash")
-            .instruction(buildInstruction())
-            .tools(
-                FunctionTool.create(personaTool, "listAllPersonas"),
-                FunctionTool.create(personaTool, "getPersonaById"),
-                FunctionTool.create(personaTool, "createPersona"),
-                FunctionTool.create(personaTool, "updatePersona"),
-                FunctionTool.create(personaTool, "deletePersona"))
-            .build();
+    this.agent = newAgent();
+  }
+
+  /**
+   * Builds a new instance of the agent. An ADK agent can belong to only one parent, so the
+   * multi-domain assistant mounts its own instance while {@link #getAgent()} keeps serving the
+   * standalone endpoint.
+   */
+  public LlmAgent newAgent() {
+    return LlmAgent.builder()
+        .name(ROOT_AGENT)
+        .description(
+            "Manages personas (clients and contacts, FISICA or MORAL): listing, searching,"
+                + " creating, updating and deleting them.")
+        .model("gemini-2.0-flash")
+        .instruction(buildInstruction())
+        .tools(
+            FunctionTool.create(personaTool, "listAllPersonas"),
+            FunctionTool.create(personaTool, "searchPersonas"),
+            FunctionTool.create(personaTool, "getPersonaById"),
+            FunctionTool.create(personaTool, "createPersona"),
+            FunctionTool.create(personaTool, "updatePersona"),
+            FunctionTool.create(personaTool, "updatePersonas"),
+            FunctionTool.create(personaTool, "deletePersona"))
+        .beforeToolCallback(toolResultMemo::beforeTool)
+        .afterToolCallback(toolResultMemo::afterTool)
+        .build();
   }
 
   private String buildInstruction() {
@@ -42,11 +60,16 @@ public class PersonaAgent {
         + " inmobiliaria management platform. Personas can be either individuals (FISICA) or"
         + " companies (MORAL).\n\n"
         + "**Available Operations:**\n"
-        + "1. List personas → call listAllPersonas()\n"
-        + "2. Get persona details → call getPersonaById()\n"
-        + "3. Create persona → call createPersona()\n"
-        + "4. Update persona → call updatePersona()\n"
-        + "5. Delete persona → call deletePersona()\n\n"
+        + "1. List personas → call listAllPersonas(tipoPersona, activo, texto, fields, cursor,"
+        + " limit); every parameter is optional\n"
+        + "2. Find a persona by name, razón social, RFC, CURP or email → call"
+        + " searchPersonas(query, cursor, limit); best matches come first\n"
+        + "3. Get persona details → call getPersonaById()\n"
+        + "4. Create persona → call createPersona()\n"
+        + "5. Update persona → call updatePersona()\n"
+        + "6. Update several personas → call updatePersonas(personas) once with every change (id"
+        + " plus only the fields to change, up to 50) instead of calling updatePersona repeatedly\n"
+        + "7. Delete persona → call deletePersona()\n\n"
         + "**Important Rules:**\n"
         + "- When creating a persona you must provide: tipoPersona (FISICA or MORAL), fechaAlta in"
         + " ISO format (yyyy-MM-ddTHH:mm:ss) and the activo flag (true/false). Include other"
@@ -59,9 +82,12 @@ public class PersonaAgent {
         + " user. Do not prompt for additional data; any unspecified field must be passed as null so"
         + " it remains unchanged.\n"
         + "- RFC must be at most 13 characters. CURP must be at most 18.\n"
-        + "- When a list is requested with filters (for example personas morales), call"
-        + " listAllPersonas() and filter the result; do not respond that none exist without"
-        + " checking.\n"
+        + "- When a list is requested with filters (for example personas morales), pass them to"
+        + " listAllPersonas() (tipoPersona, activo, texto) instead of filtering yourself; do not"
+        + " respond that none exist without checking.\n"
+        + "- listAllPersonas() returns one page at a time. Request only the fields you need. When"
+        + " the result has hasMore=true, tell the user there are more and call it again with"
+        + " cursor=nextCursor and the same filters to continue.\n"
         + "- When getPersonaById(id) returns data you MUST present those fields clearly; never say it"
         + " was not found if the tool succeeds. Only report \"no encontrado\" when the tool throws a"
         + " not-found error.\n"
@@ -76,8 +102,8 @@ public class PersonaAgent {
         + " data.\n"
         + "- If an operation fails, explain the error and suggest how to fix it.\n\n"
         + "**Example interactions:**\n"
-        + "- \"Lista todas las personas activas\" → call listAllPersonas() and filter/describe"
-        + " results.\n"
+        + "- \"Lista todas las personas activas\" → call listAllPersonas(activo=true) and describe"
+        + " the results.\n"
         + "- \"Registra una persona moral llamada Servicios Delta con RFC DEL920101AA1 y correo"
         + " contacto@delta.com\" → call createPersona() with tipoPersona MORAL and provided fields."
         + " Use current timestamp when the user does not provide fechaAlta explicitly.\n"
@@ -2,6 +2,7 @@ package com.inmobiliaria.gestion.agent;
 
 import com.google.adk.agents.LlmAgent;
 import com.google.adk.tools.FunctionTool;
+import com.inmobiliaria.gestion.agent.service.ToolResultMemo;
 import com.inmobiliaria.gestion.agent.tools.PropiedadTool;
 import org.springframework.stereotype.Component;
 
@@ -15,50 +16,78 @@ public class PropiedadAgent {
   public static final String ROOT_AGENT = "propiedad-assistant";
 
   private final PropiedadTool propiedadTool;
+  private final ToolResultMemo toolResultMemo;
   private LlmAgent agent;
 
-  public PropiedadAgent(PropiedadTool propiedadTool) {
+  public PropiedadAgent(PropiedadTool propiedadTool, ToolResultMemo toolResultMemo) {
     this.propiedadTool = propiedadTool;
+    this.toolResultMemo = toolResultMemo;
     initializeAgent();
   }
 
   private void initializeAgent() {
-    this.agent =
-        LlmAgent.builder()
-            .name(ROOT_AGENT)
-            .model("gemini-2.0-flash")
-            .instruction(
-                "You are a helpful assistant that manages properties (propiedades) for a real estate "
-                    + "management system. Use the available tools to fulfil the user's tasks.\n\n"
-                    + "**Available tools:**\n"
-                    + "1. listAllPropiedades() - When the user wants to see the complete property catalog.\n"
-                    + "2. listPropiedadesByInmobiliaria(inmobiliariaId) - When the user wants "
-                    + "properties belonging to a specific inmobiliaria.\n"
-                    + "3. getPropiedadById(id) - When the user needs details of a particular property.\n"
-                    + "4. createPropiedad(nombre, tipo, inmobiliariaId, direccion, observaciones) - "
-                    + "When the user wants to register a new property. 'tipo' must come from the catalog "
-                    + "(CASA, DEPARTAMENTO, OFICINA, LOCAL, ESTACIONAMIENTO, EDIFICIO, TERRENO, OTRO).\n"
-                    + "5. updatePropiedad(id, ...) - When the user wants to modify an existing property. "
-                    + "Only send the fields that change. Leave other parameters null for partial updates. "
-                    + "If the user wants to move the property to another inmobiliaria, set inmobiliariaId.\n"
-                    + "6. deletePropiedad(id) - When the user wants to remove a property. Confirm intention first.\n\n"
-                    + "**Guidelines:**\n"
-                    + "- Understand questions in Spanish or English.\n"
-                    + "- Always prefer partial updates. Never ask for data the user did not mention.\n"
-                    + "- Validate the property type against the catalog values listed above.\n"
-                    + "- When a user mentions an inmobiliaria name but not the ID, politely ask for the ID.\n"
-                    + "- Provide friendly, formatted responses summarizing the action taken.\n"
-                    + "- When listing properties, include key details like ID, name, type, and owning inmobiliaria.\n"
-                    + "- When deleting, confirm the action and mention that the property was deleted.\n"
-                    + "- Explain errors in plain language if an operation fails.\n")
-            .tools(
-                FunctionTool.create(propiedadTool, "listAllPropiedades"),
-                FunctionTool.create(propiedadTool, "listPropiedadesByInmobiliaria"),
-                FunctionTool.create(propiedadTool, "getPropiedadById"),
-                FunctionTool.create(propiedadTool, "createPropiedad"),
-                FunctionTool.create(propiedadTool, "updatePropiedad"),
-                FunctionTool.create(propiedadTool, "deletePropiedad"))
-            .build();
+    this.agent = newAgent();
+  }
+
+  /**
+   * Builds a new instance of the agent. An ADK agent can belong to only one parent, so the
+   * multi-domain assistant mounts its own instance while {@link #getAgent()} keeps serving the
+   * standalone endpoint.
+   */
+  public LlmAgent newAgent() {
+    return LlmAgent.builder()
+        .name(ROOT_AGENT)
+        .description(
+            "Manages the property catalog (propiedades): listing, searching, creating, updating and"
+                + " deleting properties and moving them between agencies.")
+        .model("gemini-2.0-flash")
+        .instruction(
+            "You are a helpful assistant that manages properties (propiedades) for a real estate "
+                + "management system. Use the available tools to fulfil the user's tasks.\n\n"
+                + "**Available tools:**\n"
+                + "1. listAllPropiedades(inmobiliariaId, tipo, nombre, fields, cursor, limit) - "
+                + "When the user wants to browse or search the property catalog. Every parameter "
+                + "is optional: filter by agency, type or name fragment instead of listing everything.\n"
+                + "2. listPropiedadesByInmobiliaria(inmobiliariaId, fields, cursor, limit) - When the "
+                + "user wants properties belonging to a specific inmobiliaria.\n"
+                + "3. searchPropiedades(query, cursor, limit) - When the user describes a property "
+                + "by words in its name, address or notes (e.g. 'the house on Av. Central'). Returns "
+                + "the best matches first; follow up with getPropiedadById for full details.\n"
+                + "4. getPropiedadById(id) - When the user needs details of a particular property.\n"
+                + "5. createPropiedad(nombre, tipo, inmobiliariaId, direccion, observaciones) - "
+                + "When the user wants to register a new property. 'tipo' must come from the catalog "
+                + "(CASA, DEPARTAMENTO, OFICINA, LOCAL, ESTACIONAMIENTO, EDIFICIO, TERRENO, OTRO).\n"
+                + "6. createPropiedades(propiedades) - When the user wants to register more than one "
+                + "property: pass them all in a single call (up to 50, each with nombre, tipo, "
+                + "inmobiliariaId, direccion, observaciones) instead of calling createPropiedad repeatedly.\n"
+                + "7. updatePropiedad(id, ...) - When the user wants to modify an existing property. "
+                + "Only send the fields that change. Leave other parameters null for partial updates. "
+                + "If the user wants to move the property to another inmobiliaria, set inmobiliariaId.\n"
+                + "8. deletePropiedad(id) - When the user wants to remove a property. Confirm intention first.\n\n"
+                + "**Guidelines:**\n"
+                + "- Understand questions in Spanish or English.\n"
+                + "- Always prefer partial updates. Never ask for data the user did not mention.\n"
+                + "- Validate the property type against the catalog values listed above.\n"
+                + "- When a user mentions an inmobiliaria name but not the ID, politely ask for the ID.\n"
+                + "- Provide friendly, formatted responses summarizing the action taken.\n"
+                + "- When listing properties, include key details like ID, name, type, and owning inmobiliaria.\n"
+                + "- List tools return one page at a time. Request only the fields you need (e.g. "
+                + "fields='id,nombre,direccion'). When a result has hasMore=true, tell the user there "
+                + "are more and call the same tool with cursor=nextCursor if they want to continue.\n"
+                + "- When deleting, confirm the action and mention that the property was deleted.\n"
+                + "- Explain errors in plain language if an operation fails.\n")
+        .tools(
+            FunctionTool.create(propiedadTool, "listAllPropiedades"),
+            FunctionTool.create(propiedadTool, "listPropiedadesByInmobiliaria"),
+            FunctionTool.create(propiedadTool, "searchPropiedades"),
+            FunctionTool.create(propiedadTool, "getPropiedadById"),
+            FunctionTool.create(propiedadTool, "createPropiedad"),
+            FunctionTool.create(propiedadTool, "createPropiedades"),
+            FunctionTool.create(propiedadTool, "updatePropiedad"),
+            FunctionTool.create(propiedadTool, "deletePropiedad"))
+        .beforeToolCallback(toolResultMemo::beforeTool)
+        .afterToolCallback(toolResultMemo::afterTool)
+        .build();
   }
 
   public LlmAgent getAgent() {
@@ -1,38 +1,81 @@
 package com.inmobiliaria.gestion.agent.config;
 
-import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.agents.BaseAgent;
+import com.google.adk.artifacts.InMemoryArtifactService;
+import com.google.adk.runner.Runner;
+import com.google.adk.sessions.BaseSessionService;
+import com.inmobiliaria.gestion.agent.AssistantAgent;
 import com.inmobiliaria.gestion.agent.InmobiliariaAgent;
 import com.inmobiliaria.gestion.agent.PersonaAgent;
 import com.inmobiliaria.gestion.agent.PropiedadAgent;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.util.concurrent.Executors;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
 
 /**
  * Spring configuration for ADK (Agent Development Kit) components. This configuration sets up the
- * agent runner and manages the lifecycle of conversational AI agents.
+ * agent runners and manages the lifecycle of conversational AI agents. All runners share the
+ * database-backed {@link BaseSessionService}, so conversations survive restarts and can be resumed
+ * by any instance.
  */
 @Configuration
 public class AgentConfig {
 
   /**
-   * Creates an InMemoryRunner bean for executing the Inmobiliaria agent. The runner manages
-   * sessions and executes agent interactions.
+   * Creates a Runner bean for executing the Inmobiliaria agent. The runner executes agent
+   * interactions and stores sessions through the shared session service.
    *
    * @param inmobiliariaAgent The configured Inmobiliaria agent
-   * @return InMemoryRunner configured with the agent
+   * @param sessionService Persistent session store
+   * @return Runner configured with the agent
    */
   @Bean(name = "inmobiliariaAgentRunner")
-  public InMemoryRunner inmobiliariaAgentRunner(InmobiliariaAgent inmobiliariaAgent) {
-    return new InMemoryRunner(inmobiliariaAgent.getAgent());
+  public Runner inmobiliariaAgentRunner(
+      InmobiliariaAgent inmobiliariaAgent, BaseSessionService sessionService) {
+    return runnerFor(inmobiliariaAgent.getAgent(), sessionService);
   }
 
   @Bean(name = "propiedadAgentRunner")
-  public InMemoryRunner propiedadAgentRunner(PropiedadAgent propiedadAgent) {
-    return new InMemoryRunner(propiedadAgent.getAgent());
+  public Runner propiedadAgentRunner(
+      PropiedadAgent propiedadAgent, BaseSessionService sessionService) {
+    return runnerFor(propiedadAgent.getAgent(), sessionService);
   }
 
   @Bean(name = "personaAgentRunner")
-  public InMemoryRunner personaAgentRunner(PersonaAgent personaAgent) {
-    return new InMemoryRunner(personaAgent.getAgent());
+  public Runner personaAgentRunner(PersonaAgent personaAgent, BaseSessionService sessionService) {
+    return runnerFor(personaAgent.getAgent(), sessionService);
+  }
+
+  /**
+   * Creates the Runner for the multi-domain assistant, which serves every catalog from one session
+   * by routing each turn to the matching domain agent.
+   *
+   * @param assistantAgent The assistant holding the routing agent
+   * @param sessionService Persistent session store
+   * @return Runner configured with the routing agent
+   */
+  @Bean(name = "assistantAgentRunner")
+  public Runner assistantAgentRunner(
+      AssistantAgent assistantAgent, BaseSessionService sessionService) {
+    return runnerFor(assistantAgent.getAgent(), sessionService);
+  }
+
+  /**
+   * Scheduler used to subscribe to streamed agent runs. Each run gets its own virtual thread, so
+   * blocking waits on the model park the virtual thread instead of holding a platform thread. The
+   * caller's security context travels with each task, so tool writes made during the run are
+   * attributed to the user, as read-your-writes routing needs.
+   */
+  @Bean(name = "agentStreamScheduler")
+  public Scheduler agentStreamScheduler() {
+    return Schedulers.from(
+        new DelegatingSecurityContextExecutorService(Executors.newVirtualThreadPerTaskExecutor()));
+  }
+
+  private Runner runnerFor(BaseAgent agent, BaseSessionService sessionService) {
+    return new Runner(agent, agent.name(), new InMemoryArtifactService(), sessionService);
   }
 }
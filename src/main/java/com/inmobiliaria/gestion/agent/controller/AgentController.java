@@ -1,6 +1,6 @@
 package com.inmobiliaria.gestion.agent.controller;
 
-import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.runner.Runner;
 import com.inmobiliaria.gestion.agent.dto.ChatRequest;
 import com.inmobiliaria.gestion.agent.dto.ChatResponse;
 import com.inmobiliaria.gestion.agent.exception.AgentChatException;
@@ -12,11 +12,13 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * REST Controller for conversational AI agent interactions. Provides endpoints for chatting with
@@ -31,12 +33,11 @@ public class AgentController {
 
   private static final Logger log = LoggerFactory.getLogger(AgentController.class);
 
-  private final InMemoryRunner agentRunner;
+  private final Runner agentRunner;
   private final AgentChatService chatService;
 
   public AgentController(
-      @Qualifier("inmobiliariaAgentRunner") InMemoryRunner agentRunner,
-      AgentChatService chatService) {
+      @Qualifier("inmobiliariaAgentRunner") Runner agentRunner, AgentChatService chatService) {
     this.agentRunner = agentRunner;
     this.chatService = chatService;
   }
@@ -56,6 +57,7 @@ public class AgentController {
               + "Examples: 'List all agencies', 'Create agency named X', 'Update agency 1', etc.")
   @ApiResponse(responseCode = "200", description = "Agent response received successfully")
   @ApiResponse(responseCode = "400", description = "Invalid request")
+  @ApiResponse(responseCode = "429", description = "Agent saturated, retry after the given delay")
   @ApiResponse(responseCode = "500", description = "Agent execution error")
   public ResponseEntity<ChatResponse> chat(@Valid @RequestBody ChatRequest request) {
     log.info(
@@ -73,4 +75,26 @@ public class AgentController {
           .body(ChatResponse.error("Unexpected error: " + e.getMessage(), null));
     }
   }
+
+  /**
+   * Streaming variant of {@link #chat(ChatRequest)}. Each partial and final agent event is pushed
+   * as a Server-Sent Event as soon as it is produced; the stream ends with a {@code done} event
+   * carrying the complete {@link ChatResponse}.
+   *
+   * @param request The chat request containing the user's message
+   * @return SseEmitter producing the agent's events
+   */
+  @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(
+      summary = "Stream a chat with the AI agent",
+      description =
+          "Same as /chat but streams the answer as Server-Sent Events: 'partial' frames with text "
+              + "chunks, 'final' frames with complete turns and a closing 'done' frame.")
+  @ApiResponse(responseCode = "200", description = "Event stream started")
+  @ApiResponse(responseCode = "400", description = "Invalid request")
+  @ApiResponse(responseCode = "429", description = "Agent saturated, retry after the given delay")
+  public SseEmitter chatStream(@Valid @RequestBody ChatRequest request) {
+    log.info("Received streaming chat request: sessionId='{}'", request.getSessionId());
+    return chatService.streamChat(agentRunner, request);
+  }
 }
@@ -0,0 +1,88 @@
+package com.inmobiliaria.gestion.agent.controller;
+
+import com.google.adk.runner.Runner;
+import com.inmobiliaria.gestion.agent.dto.ChatRequest;
+import com.inmobiliaria.gestion.agent.dto.ChatResponse;
+import com.inmobiliaria.gestion.agent.exception.AgentChatException;
+import com.inmobiliaria.gestion.agent.service.AgentChatService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller exposing the multi-domain assistant, which answers about inmobiliarias,
+ * propiedades and personas in the same session.
+ */
+@RestController
+@RequestMapping("/api/agent/assistant")
+@Tag(
+    name = "Assistant AI Agent",
+    description = "Conversational agent for every catalog, routed to the matching domain agent")
+public class AssistantAgentController {
+
+  private static final Logger log = LoggerFactory.getLogger(AssistantAgentController.class);
+
+  private final Runner agentRunner;
+  private final AgentChatService chatService;
+
+  public AssistantAgentController(
+      @Qualifier("assistantAgentRunner") Runner agentRunner, AgentChatService chatService) {
+    this.agentRunner = agentRunner;
+    this.chatService = chatService;
+  }
+
+  @PostMapping("/chat")
+  @Operation(
+      summary = "Chat with the multi-domain AI assistant",
+      description =
+          "Send a natural language message about inmobiliarias, propiedades or personas. Each "
+              + "turn is handed to the matching domain agent, so one session can span catalogs. "
+              + "Examples: 'Lista las inmobiliarias', 'Registra dos casas para la inmobiliaria 2', "
+              + "'Actualiza el correo de la persona 7'.")
+  @ApiResponse(responseCode = "200", description = "Agent response generated successfully")
+  @ApiResponse(responseCode = "400", description = "Invalid request payload")
+  @ApiResponse(responseCode = "429", description = "Agent saturated, retry after the given delay")
+  @ApiResponse(responseCode = "500", description = "Agent execution error")
+  public ResponseEntity<ChatResponse> chat(@Valid @RequestBody ChatRequest request) {
+    log.info(
+        "Received assistant chat request: message='{}', sessionId='{}'",
+        request.getMessage(),
+        request.getSessionId());
+    try {
+      ChatResponse response = chatService.executeChat(agentRunner, request);
+      log.info(
+          "Assistant response generated successfully for session '{}'",
+          response.getSessionId());
+      return ResponseEntity.ok(response);
+    } catch (AgentChatException ex) {
+      log.error("Unexpected error in assistant chat endpoint", ex);
+      return ResponseEntity.status(500)
+          .body(ChatResponse.error("Unexpected error: " + ex.getMessage(), null));
+    }
+  }
+
+  @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(
+      summary = "Stream a chat with the multi-domain AI assistant",
+      description =
+          "Same as /chat but streams the answer as Server-Sent Events: 'partial' frames with text "
+              + "chunks, 'final' frames with complete turns and a closing 'done' frame.")
+  @ApiResponse(responseCode = "200", description = "Event stream started")
+  @ApiResponse(responseCode = "400", description = "Invalid request payload")
+  @ApiResponse(responseCode = "429", description = "Agent saturated, retry after the given delay")
+  public SseEmitter chatStream(@Valid @RequestBody ChatRequest request) {
+    log.info("Received streaming assistant chat request: sessionId='{}'", request.getSessionId());
+    return chatService.streamChat(agentRunner, request);
+  }
+}
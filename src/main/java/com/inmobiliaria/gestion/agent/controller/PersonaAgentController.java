@@ -1,6 +1,6 @@
 package com.inmobiliaria.gestion.agent.controller;
 
-import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.runner.Runner;
 import com.inmobiliaria.gestion.agent.dto.ChatRequest;
 import com.inmobiliaria.gestion.agent.dto.ChatResponse;
 import com.inmobiliaria.gestion.agent.exception.AgentChatException;
@@ -12,11 +12,13 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /** REST controller exposing conversational access to the Persona agent. */
 @RestController
@@ -28,12 +30,11 @@ public class PersonaAgentController {
 
   private static final Logger log = LoggerFactory.getLogger(PersonaAgentController.class);
 
-  private final InMemoryRunner personaAgentRunner;
+  private final Runner personaAgentRunner;
   private final AgentChatService chatService;
 
   public PersonaAgentController(
-      @Qualifier("personaAgentRunner") InMemoryRunner personaAgentRunner,
-      AgentChatService chatService) {
+      @Qualifier("personaAgentRunner") Runner personaAgentRunner, AgentChatService chatService) {
     this.personaAgentRunner = personaAgentRunner;
     this.chatService = chatService;
   }
@@ -45,6 +46,9 @@ public class PersonaAgentController {
           "Envia un mensaje en lenguaje natural para listar, crear, actualizar o eliminar personas.")
   @ApiResponse(responseCode = "200", description = "Respuesta generada correctamente por el agente")
   @ApiResponse(responseCode = "400", description = "Solicitud inválida")
+  @ApiResponse(
+      responseCode = "429",
+      description = "Agente saturado, reintentar tras la espera indicada")
   @ApiResponse(responseCode = "500", description = "Error al ejecutar la conversación")
   public ResponseEntity<ChatResponse> chat(@Valid @RequestBody ChatRequest request) {
     log.info(
@@ -60,4 +64,20 @@ public class PersonaAgentController {
           .body(ChatResponse.error("Unexpected error: " + ex.getMessage(), null));
     }
   }
+
+  @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(
+      summary = "Conversar con el agente de personas en streaming",
+      description =
+          "Igual que /chat pero envía la respuesta como Server-Sent Events: fragmentos 'partial', "
+              + "turnos completos 'final' y un evento 'done' de cierre.")
+  @ApiResponse(responseCode = "200", description = "Flujo de eventos iniciado")
+  @ApiResponse(responseCode = "400", description = "Solicitud inválida")
+  @ApiResponse(
+      responseCode = "429",
+      description = "Agente saturado, reintentar tras la espera indicada")
+  public SseEmitter chatStream(@Valid @RequestBody ChatRequest request) {
+    log.info("Received streaming persona chat request: sessionId='{}'", request.getSessionId());
+    return chatService.streamChat(personaAgentRunner, request);
+  }
 }
@@ -1,6 +1,6 @@
 package com.inmobiliaria.gestion.agent.controller;
 
-import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.runner.Runner;
 import com.inmobiliaria.gestion.agent.dto.ChatRequest;
 import com.inmobiliaria.gestion.agent.dto.ChatResponse;
 import com.inmobiliaria.gestion.agent.exception.AgentChatException;
@@ -12,11 +12,13 @@ import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /** REST controller exposing the Propiedad conversational agent. */
 @RestController
@@ -26,11 +28,11 @@ public class PropiedadAgentController {
 
   private static final Logger log = LoggerFactory.getLogger(PropiedadAgentController.class);
 
-  private final InMemoryRunner agentRunner;
+  private final Runner agentRunner;
   private final AgentChatService chatService;
 
   public PropiedadAgentController(
-      @Qualifier("propiedadAgentRunner") InMemoryRunner agentRunner, AgentChatService chatService) {
+      @Qualifier("propiedadAgentRunner") Runner agentRunner, AgentChatService chatService) {
     this.agentRunner = agentRunner;
     this.chatService = chatService;
   }
@@ -44,6 +46,7 @@ public class PropiedadAgentController {
               + "'Muestra las propiedades de la inmobiliaria 2'.")
   @ApiResponse(responseCode = "200", description = "Agent response generated successfully")
   @ApiResponse(responseCode = "400", description = "Invalid request payload")
+  @ApiResponse(responseCode = "429", description = "Agent saturated, retry after the given delay")
   @ApiResponse(responseCode = "500", description = "Agent execution error")
   public ResponseEntity<ChatResponse> chat(@Valid @RequestBody ChatRequest request) {
     log.info(
@@ -62,4 +65,18 @@ public class PropiedadAgentController {
           .body(ChatResponse.error("Unexpected error: " + ex.getMessage(), null));
     }
   }
+
+  @PostMapping(value = "/chat/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(
+      summary = "Stream a chat with the Propiedad AI agent",
+      description =
+          "Same as /chat but streams the answer as Server-Sent Events: 'partial' frames with text "
+              + "chunks, 'final' frames with complete turns and a closing 'done' frame.")
+  @ApiResponse(responseCode = "200", description = "Event stream started")
+  @ApiResponse(responseCode = "400", description = "Invalid request payload")
+  @ApiResponse(responseCode = "429", description = "Agent saturated, retry after the given delay")
+  public SseEmitter chatStream(@Valid @RequestBody ChatRequest request) {
+    log.info("Received streaming propiedad chat request: sessionId='{}'", request.getSessionId());
+    return chatService.streamChat(agentRunner, request);
+  }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 /** Request DTO for sending messages to the conversational AI agent. */
 @Schema(description = "Request for chatting with the Inmobiliaria AI agent")
@@ -32,7 +33,9 @@ public final class ChatRequest {
       description =
           "Optional session ID for maintaining conversation context. If not provided, a new"
               + " session will be created.",
-      example = "user-123")
+      example = "user-123",
+      maxLength = 64)
+  @Size(max = 64, message = "Session ID must be at most 64 characters")
   public String getSessionId() {
     return sessionId;
   }
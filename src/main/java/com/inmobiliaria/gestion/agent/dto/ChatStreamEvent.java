@@ -0,0 +1,44 @@
+package com.inmobiliaria.gestion.agent.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Payload of a single Server-Sent Events frame produced while the agent is still answering. The SSE
+ * event name tells the frame kind: {@code partial} for incremental text chunks and {@code final}
+ * for the complete answer of a turn.
+ */
+@Schema(description = "Fragment of the AI agent's response delivered over Server-Sent Events")
+public final class ChatStreamEvent {
+
+  private final String sessionId;
+  private final String author;
+  private final String content;
+  private final boolean partial;
+
+  public ChatStreamEvent(String sessionId, String author, String content, boolean partial) {
+    this.sessionId = sessionId;
+    this.author = author;
+    this.content = content;
+    this.partial = partial;
+  }
+
+  @Schema(description = "Session ID for maintaining conversation context", example = "user-123")
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  @Schema(description = "Agent that produced the fragment", example = "propiedad-assistant")
+  public String getAuthor() {
+    return author;
+  }
+
+  @Schema(description = "Text produced by the agent", example = "Encontré 3 propiedades")
+  public String getContent() {
+    return content;
+  }
+
+  @Schema(description = "Whether more text will follow for this turn", example = "true")
+  public boolean isPartial() {
+    return partial;
+  }
+}
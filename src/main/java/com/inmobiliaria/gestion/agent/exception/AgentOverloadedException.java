@@ -0,0 +1,21 @@
+package com.inmobiliaria.gestion.agent.exception;
+
+import java.time.Duration;
+
+/**
+ * Raised when the agent cannot take a request in time because every model call slot is busy.
+ * Carries how long the client should wait before retrying.
+ */
+public class AgentOverloadedException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public AgentOverloadedException(Duration retryAfter) {
+    super("El agente está saturado, intenta de nuevo en " + retryAfter.getSeconds() + " segundos");
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
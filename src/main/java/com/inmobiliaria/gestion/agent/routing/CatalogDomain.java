@@ -0,0 +1,73 @@
+package com.inmobiliaria.gestion.agent.routing;
+
+import com.inmobiliaria.gestion.agent.InmobiliariaAgent;
+import com.inmobiliaria.gestion.agent.PersonaAgent;
+import com.inmobiliaria.gestion.agent.PropiedadAgent;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+
+/** Catalogs served by the domain agents, with the words that unambiguously point at each one. */
+public enum CatalogDomain {
+  INMOBILIARIA(
+      InmobiliariaAgent.ROOT_AGENT,
+      Set.of("inmobiliaria", "inmobiliarias", "agencia", "agencias", "agency", "agencies")),
+  PROPIEDAD(
+      PropiedadAgent.ROOT_AGENT,
+      Set.of(
+          "propiedad",
+          "propiedades",
+          "property",
+          "properties",
+          "inmueble",
+          "inmuebles",
+          "casa",
+          "casas",
+          "departamento",
+          "departamentos",
+          "depto",
+          "deptos",
+          "oficina",
+          "oficinas",
+          "terreno",
+          "terrenos",
+          "edificio",
+          "edificios",
+          "estacionamiento",
+          "estacionamientos")),
+  PERSONA(
+      PersonaAgent.ROOT_AGENT,
+      Set.of(
+          "persona",
+          "personas",
+          "person",
+          "people",
+          "cliente",
+          "clientes",
+          "client",
+          "clients",
+          "curp",
+          "rfc"));
+
+  private final String agentName;
+  private final Set<String> keywords;
+
+  CatalogDomain(String agentName, Set<String> keywords) {
+    this.agentName = agentName;
+    this.keywords = keywords;
+  }
+
+  /** Name of the domain agent that handles this catalog. */
+  public String getAgentName() {
+    return agentName;
+  }
+
+  Set<String> getKeywords() {
+    return keywords;
+  }
+
+  /** The catalog whose agent has the given name, if any. */
+  public static Optional<CatalogDomain> forAgent(String agentName) {
+    return Arrays.stream(values()).filter(domain -> domain.agentName.equals(agentName)).findFirst();
+  }
+}
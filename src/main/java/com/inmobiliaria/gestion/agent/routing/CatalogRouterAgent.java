@@ -0,0 +1,128 @@
+package com.inmobiliaria.gestion.agent.routing;
+
+import com.google.adk.agents.BaseAgent;
+import com.google.adk.agents.InvocationContext;
+import com.google.adk.agents.LlmAgent;
+import com.google.adk.events.Event;
+import com.google.adk.sessions.Session;
+import com.google.genai.types.Content;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Root of the multi-domain assistant. Each turn is handed to the domain agent that can answer it
+ * without asking the coordinator model first whenever the target is obvious:
+ *
+ * <ol>
+ *   <li>the message names exactly one catalog ({@link IntentClassifier});
+ *   <li>the message names no catalog at all and the session is already talking to a domain agent,
+ *       which keeps follow-ups such as "y la 5?" with that agent.
+ * </ol>
+ *
+ * <p>Everything else, including messages naming several catalogs, goes to the coordinator, which
+ * transfers to the right domain agent itself. Domain agents stay sub-agents of the coordinator, so
+ * they can still transfer to each other or back to it mid-conversation. Decisions are counted in
+ * {@code agent.router.routes}, tagged by {@code route}.
+ */
+public class CatalogRouterAgent extends BaseAgent {
+
+  private static final Logger log = LoggerFactory.getLogger(CatalogRouterAgent.class);
+
+  private final LlmAgent coordinator;
+  private final Map<CatalogDomain, BaseAgent> domainAgents = new EnumMap<>(CatalogDomain.class);
+  private final Counter keywordRoutes;
+  private final Counter sessionRoutes;
+  private final Counter modelRoutes;
+
+  public CatalogRouterAgent(String name, LlmAgent coordinator, MeterRegistry meterRegistry) {
+    super(
+        name,
+        "Routes each turn to the catalog agent that can answer it.",
+        List.of(coordinator),
+        null,
+        null);
+    this.coordinator = coordinator;
+    for (BaseAgent subAgent : coordinator.subAgents()) {
+      CatalogDomain.forAgent(subAgent.name())
+          .ifPresent(domain -> domainAgents.put(domain, subAgent));
+    }
+    this.keywordRoutes = routeCounter(meterRegistry, "keyword");
+    this.sessionRoutes = routeCounter(meterRegistry, "session");
+    this.modelRoutes = routeCounter(meterRegistry, "model");
+  }
+
+  @Override
+  protected Flowable<Event> runAsyncImpl(InvocationContext invocationContext) {
+    return Flowable.defer(() -> route(invocationContext).runAsync(invocationContext));
+  }
+
+  @Override
+  protected Flowable<Event> runLiveImpl(InvocationContext invocationContext) {
+    return Flowable.defer(() -> route(invocationContext).runLive(invocationContext));
+  }
+
+  /** The agent that handles the current turn. */
+  BaseAgent route(InvocationContext invocationContext) {
+    String message = invocationContext.userContent().map(CatalogRouterAgent::text).orElse("");
+    Set<CatalogDomain> named = IntentClassifier.domains(message);
+    if (named.size() == 1) {
+      BaseAgent target = domainAgents.get(named.iterator().next());
+      if (target != null) {
+        keywordRoutes.increment();
+        log.debug("Routing turn to '{}' by keyword", target.name());
+        return target;
+      }
+    }
+    if (named.isEmpty()) {
+      Optional<BaseAgent> current =
+          currentDomain(invocationContext.session()).map(domainAgents::get);
+      if (current.isPresent()) {
+        sessionRoutes.increment();
+        log.debug("Routing turn to '{}', which answered the previous turn", current.get().name());
+        return current.get();
+      }
+    }
+    modelRoutes.increment();
+    log.debug("Routing turn to coordinator '{}'", coordinator.name());
+    return coordinator;
+  }
+
+  /**
+   * Catalog of the domain agent that answered last in the session. User messages and answers
+   * authored by this agent (replayed from the response cache) carry no domain and are skipped; a
+   * coordinator answer means the conversation is not settled on any catalog.
+   */
+  private Optional<CatalogDomain> currentDomain(Session session) {
+    List<Event> events = session.events();
+    for (int i = events.size() - 1; i >= 0; i--) {
+      String author = events.get(i).author();
+      if ("user".equals(author) || name().equals(author)) {
+        continue;
+      }
+      return CatalogDomain.forAgent(author);
+    }
+    return Optional.empty();
+  }
+
+  private static String text(Content content) {
+    return content.parts().orElse(List.of()).stream()
+        .map(part -> part.text().orElse(""))
+        .collect(Collectors.joining(" "));
+  }
+
+  private static Counter routeCounter(MeterRegistry meterRegistry, String route) {
+    return Counter.builder("agent.router.routes")
+        .description("Turns routed by the multi-domain assistant, by how the target was chosen")
+        .tag("route", route)
+        .register(meterRegistry);
+  }
+}
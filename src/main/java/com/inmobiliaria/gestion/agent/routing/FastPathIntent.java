@@ -0,0 +1,43 @@
+package com.inmobiliaria.gestion.agent.routing;
+
+/** A simple read command recognized by {@link FastPathIntentParser}. */
+public final class FastPathIntent {
+
+  /** What the command asks for. */
+  public enum Action {
+    /** The first page of a catalog. */
+    LIST,
+    /** One record by id. */
+    GET
+  }
+
+  private final CatalogDomain domain;
+  private final Action action;
+  private final Integer id;
+  private final boolean english;
+
+  FastPathIntent(CatalogDomain domain, Action action, Integer id, boolean english) {
+    this.domain = domain;
+    this.action = action;
+    this.id = id;
+    this.english = english;
+  }
+
+  public CatalogDomain getDomain() {
+    return domain;
+  }
+
+  public Action getAction() {
+    return action;
+  }
+
+  /** Record id for {@link Action#GET}, null for {@link Action#LIST}. */
+  public Integer getId() {
+    return id;
+  }
+
+  /** Whether the command was written in English, so the answer should be too. */
+  public boolean isEnglish() {
+    return english;
+  }
+}
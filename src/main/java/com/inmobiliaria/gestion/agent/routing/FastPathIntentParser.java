@@ -0,0 +1,96 @@
+package com.inmobiliaria.gestion.agent.routing;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Grammar for the handful of commands that need no reasoning: listing a catalog ("lista las
+ * propiedades", "list agencies") and showing one record by id ("muestra la persona 12", "show
+ * property 5"). The whole message has to match, compared lower-cased and without accents or
+ * punctuation, so anything with extra conditions ("las propiedades de la inmobiliaria 2") is left
+ * to the model. Writes are never recognized: the agents confirm deletions and validate changes.
+ */
+public final class FastPathIntentParser {
+
+  private static final Map<String, CatalogDomain> ES_PLURAL =
+      Map.ofEntries(
+          Map.entry("inmobiliarias", CatalogDomain.INMOBILIARIA),
+          Map.entry("agencias", CatalogDomain.INMOBILIARIA),
+          Map.entry("propiedades", CatalogDomain.PROPIEDAD),
+          Map.entry("inmuebles", CatalogDomain.PROPIEDAD),
+          Map.entry("personas", CatalogDomain.PERSONA),
+          Map.entry("clientes", CatalogDomain.PERSONA));
+  private static final Map<String, CatalogDomain> ES_SINGULAR =
+      Map.ofEntries(
+          Map.entry("inmobiliaria", CatalogDomain.INMOBILIARIA),
+          Map.entry("agencia", CatalogDomain.INMOBILIARIA),
+          Map.entry("propiedad", CatalogDomain.PROPIEDAD),
+          Map.entry("inmueble", CatalogDomain.PROPIEDAD),
+          Map.entry("persona", CatalogDomain.PERSONA),
+          Map.entry("cliente", CatalogDomain.PERSONA));
+  private static final Map<String, CatalogDomain> EN_PLURAL =
+      Map.ofEntries(
+          Map.entry("agencies", CatalogDomain.INMOBILIARIA),
+          Map.entry("properties", CatalogDomain.PROPIEDAD),
+          Map.entry("people", CatalogDomain.PERSONA),
+          Map.entry("persons", CatalogDomain.PERSONA),
+          Map.entry("clients", CatalogDomain.PERSONA));
+  private static final Map<String, CatalogDomain> EN_SINGULAR =
+      Map.ofEntries(
+          Map.entry("agency", CatalogDomain.INMOBILIARIA),
+          Map.entry("property", CatalogDomain.PROPIEDAD),
+          Map.entry("person", CatalogDomain.PERSONA),
+          Map.entry("client", CatalogDomain.PERSONA));
+
+  private static final Pattern ES_LIST =
+      Pattern.compile(
+          "(?:por favor )?(?:lista|listar|listame|muestra|muestrame|mostrar|ver|dame|consulta)"
+              + " (?:todas |todos )?(?:las |los )?(\\p{L}+)(?: por favor)?");
+  private static final Pattern ES_GET =
+      Pattern.compile(
+          "(?:por favor )?(?:muestra|muestrame|mostrar|ver|dame|consulta|busca|obten)"
+              + " (?:el detalle de |los datos de )?(?:la |el )?(\\p{L}+)"
+              + " (?:(?:con )?(?:id|numero|no) )?#?(\\d{1,9})(?: por favor)?");
+  private static final Pattern EN_LIST =
+      Pattern.compile(
+          "(?:please )?(?:list|show|show me|display|get) (?:all )?(?:the )?(\\p{L}+)(?: please)?");
+  private static final Pattern EN_GET =
+      Pattern.compile(
+          "(?:please )?(?:show|show me|display|get|view|find) (?:the details of )?(?:the )?"
+              + "(\\p{L}+) (?:(?:with )?(?:id|number|no) )?#?(\\d{1,9})(?: please)?");
+
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}#]+");
+
+  private FastPathIntentParser() {}
+
+  /** The command the whole message spells out, or empty when the model has to interpret it. */
+  public static Optional<FastPathIntent> parse(String message) {
+    if (message == null || message.isBlank()) {
+      return Optional.empty();
+    }
+    String text = SEPARATORS.matcher(IntentClassifier.normalize(message)).replaceAll(" ").trim();
+    return match(ES_GET, ES_SINGULAR, text, false)
+        .or(() -> match(ES_LIST, ES_PLURAL, text, false))
+        .or(() -> match(EN_GET, EN_SINGULAR, text, true))
+        .or(() -> match(EN_LIST, EN_PLURAL, text, true));
+  }
+
+  private static Optional<FastPathIntent> match(
+      Pattern pattern, Map<String, CatalogDomain> nouns, String text, boolean english) {
+    Matcher matcher = pattern.matcher(text);
+    if (!matcher.matches()) {
+      return Optional.empty();
+    }
+    CatalogDomain domain = nouns.get(matcher.group(1));
+    if (domain == null) {
+      return Optional.empty();
+    }
+    if (matcher.groupCount() < 2) {
+      return Optional.of(new FastPathIntent(domain, FastPathIntent.Action.LIST, null, english));
+    }
+    int id = Integer.parseInt(matcher.group(2));
+    return Optional.of(new FastPathIntent(domain, FastPathIntent.Action.GET, id, english));
+  }
+}
@@ -0,0 +1,50 @@
+package com.inmobiliaria.gestion.agent.routing;
+
+import java.text.Normalizer;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Keyword classifier deciding which catalog a user message is about without calling the model.
+ * Words are compared lower-cased and without accents, so {@code "Propiedades"} and {@code
+ * "propiedádes"} count alike. A message is classified only when its words point at exactly one
+ * catalog; messages naming several catalogs, or none, are left to the coordinator model.
+ */
+public final class IntentClassifier {
+
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+  private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+  private IntentClassifier() {}
+
+  /** The single catalog the message is about, or empty when it names none or several. */
+  public static Optional<CatalogDomain> classify(String message) {
+    Set<CatalogDomain> matched = domains(message);
+    return matched.size() == 1 ? Optional.of(matched.iterator().next()) : Optional.empty();
+  }
+
+  /** Every catalog named by a word of the message. */
+  public static Set<CatalogDomain> domains(String message) {
+    Set<CatalogDomain> matched = EnumSet.noneOf(CatalogDomain.class);
+    if (message == null || message.isBlank()) {
+      return matched;
+    }
+    for (String word : NON_WORD.split(normalize(message))) {
+      for (CatalogDomain domain : CatalogDomain.values()) {
+        if (domain.getKeywords().contains(word)) {
+          matched.add(domain);
+        }
+      }
+    }
+    return matched;
+  }
+
+  /** Lower-cased text without accents or other combining marks. */
+  static String normalize(String message) {
+    String decomposed = Normalizer.normalize(message, Normalizer.Form.NFD);
+    return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+  }
+}
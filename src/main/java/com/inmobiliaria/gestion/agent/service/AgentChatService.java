@@ -2,18 +2,33 @@ package com.inmobiliaria.gestion.agent.service;
 
 import com.google.adk.agents.RunConfig;
 import com.google.adk.events.Event;
-import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.runner.Runner;
+import com.google.adk.sessions.BaseSessionService;
 import com.google.adk.sessions.Session;
+import com.google.common.util.concurrent.Striped;
 import com.google.genai.types.Content;
 import com.google.genai.types.Part;
 import com.inmobiliaria.gestion.agent.dto.ChatRequest;
 import com.inmobiliaria.gestion.agent.dto.ChatResponse;
 import com.inmobiliaria.gestion.agent.exception.AgentChatException;
+import com.inmobiliaria.gestion.agent.exception.AgentOverloadedException;
+import com.inmobiliaria.gestion.auth.domain.UserAccount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Scheduler;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Shared service encapsulating the interaction flow with ADK agents. Controllers delegate to this
@@ -22,36 +37,233 @@ import org.springframework.stereotype.Service;
 @Service
 public class AgentChatService {
 
+  static final String EMPTY_RESPONSE = "I processed your request but have no specific response.";
+
   private static final Logger log = LoggerFactory.getLogger(AgentChatService.class);
 
+  private static final RunConfig STREAMING_RUN_CONFIG =
+      RunConfig.builder().setStreamingMode(RunConfig.StreamingMode.SSE).build();
+
+  /** Lock stripes serializing session creation per session id within this instance. */
+  private static final int SESSION_LOCK_STRIPES = 64;
+
+  private final Scheduler streamScheduler;
+  private final AgentConcurrencyLimiter concurrencyLimiter;
+  private final AgentResponseCache responseCache;
+  private final FastPathResponder fastPath;
+  private final long streamTimeoutMillis;
+  private final Striped<Lock> sessionCreationLocks = Striped.lock(SESSION_LOCK_STRIPES);
+  private final Counter sessionHits;
+  private final Counter sessionMisses;
+  private final Counter sessionCreationContention;
+
+  public AgentChatService(
+      @Qualifier("agentStreamScheduler") Scheduler streamScheduler,
+      @Value("${agent.stream.timeout-ms:120000}") long streamTimeoutMillis,
+      AgentConcurrencyLimiter concurrencyLimiter,
+      AgentResponseCache responseCache,
+      FastPathResponder fastPath,
+      MeterRegistry meterRegistry) {
+    this.streamScheduler = streamScheduler;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.responseCache = responseCache;
+    this.fastPath = fastPath;
+    this.streamTimeoutMillis = streamTimeoutMillis;
+    this.sessionHits = lookupCounter(meterRegistry, "hit");
+    this.sessionMisses = lookupCounter(meterRegistry, "miss");
+    this.sessionCreationContention =
+        Counter.builder("agent.sessions.creation.contention")
+            .description("Session creations that waited on, or lost to, a concurrent creation")
+            .register(meterRegistry);
+  }
+
   /**
-   * Execute a chat request against the provided {@link InMemoryRunner}.
+   * Execute a chat request against the provided {@link Runner}. Read-only prompts that open a
+   * session and were already answered for the current data are served from {@link
+   * AgentResponseCache}, and simple list and show commands by {@link FastPathResponder}, without
+   * calling the model.
    *
    * @param agentRunner Runner bound to the desired agent.
    * @param request Incoming chat request with the user message and optional session id.
    * @return Successful chat response.
    * @throws AgentChatException if something fails during execution.
+   * @throws AgentOverloadedException if no model call slot frees up in time.
    */
-  public ChatResponse executeChat(InMemoryRunner agentRunner, ChatRequest request) {
-    try {
-      String userId = resolveUserId(request.getSessionId());
-      Session session = resolveSession(agentRunner, userId);
+  public ChatResponse executeChat(Runner agentRunner, ChatRequest request) {
+    String userId = resolveUserId(request.getSessionId());
+    Content userContent = Content.fromParts(Part.fromText(request.getMessage()));
+    Session session = resolveSessionForTurn(agentRunner, userId);
+    AgentResponseCache.Key cacheKey =
+        responseCache.keyFor(agentRunner.appName(), session, request.getMessage());
 
-      Content userContent = Content.fromParts(Part.fromText(request.getMessage()));
+    String cached = responseCache.get(cacheKey);
+    if (cached != null) {
+      try {
+        replayTurn(agentRunner, session, userContent, agentRunner.agent().name(), cached);
+        return ChatResponse.success(cached, userId);
+      } catch (Exception ex) {
+        throw new AgentChatException("Failed to execute agent conversation", ex);
+      }
+    }
+    Optional<FastPathResponder.Answer> direct =
+        fastPath.answer(agentRunner.agent().name(), request.getMessage());
+    if (direct.isPresent()) {
+      try {
+        FastPathResponder.Answer answer = direct.get();
+        replayTurn(agentRunner, session, userContent, answer.getAuthor(), answer.getText());
+        return ChatResponse.success(answer.getText(), userId);
+      } catch (Exception ex) {
+        throw new AgentChatException("Failed to execute agent conversation", ex);
+      }
+    }
+
+    AgentConcurrencyLimiter.Permit permit = concurrencyLimiter.acquire(currentUserKey());
+    Throwable failure = null;
+    try {
       RunConfig runConfig = RunConfig.builder().build();
+      AgentResponseCache.TurnTracker turn = new AgentResponseCache.TurnTracker();
 
       Flowable<Event> events =
-          agentRunner.runAsync(session.userId(), session.id(), userContent, runConfig);
+          agentRunner.runAsync(session, userContent, runConfig).doOnNext(turn::observe);
 
       String responseText = collectResponse(events);
+      if (turn.isCacheable()) {
+        responseCache.put(cacheKey, responseText);
+      }
       log.debug("Agent produced response for session '{}': {}", userId, responseText);
 
       return ChatResponse.success(responseText, userId);
     } catch (Exception ex) {
+      failure = ex;
       throw new AgentChatException("Failed to execute agent conversation", ex);
+    } finally {
+      permit.release(failure);
     }
   }
 
+  /**
+   * Execute a chat request and push every partial and final agent event to the client as a
+   * Server-Sent Event as soon as it is produced. The agent run is subscribed on a virtual-thread
+   * scheduler, so neither the request thread nor a carrier thread waits on the model; events are
+   * pulled one at a time as frames are written. The model call slot is taken before the emitter is
+   * returned and held until the stream terminates or is cancelled.
+   *
+   * @param agentRunner Runner bound to the desired agent.
+   * @param request Incoming chat request with the user message and optional session id.
+   * @return Emitter that completes with a {@code done} frame carrying the full response.
+   * @throws AgentOverloadedException if no model call slot frees up in time.
+   */
+  public SseEmitter streamChat(Runner agentRunner, ChatRequest request) {
+    SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+    streamChat(agentRunner, request, emitter);
+    return emitter;
+  }
+
+  void streamChat(Runner agentRunner, ChatRequest request, SseEmitter emitter) {
+    String userId = resolveUserId(request.getSessionId());
+    Content userContent = Content.fromParts(Part.fromText(request.getMessage()));
+    Session session = resolveSessionForTurn(agentRunner, userId);
+    AgentResponseCache.Key cacheKey =
+        responseCache.keyFor(agentRunner.appName(), session, request.getMessage());
+
+    String cached = responseCache.get(cacheKey);
+    if (cached != null) {
+      String author = agentRunner.agent().name();
+      Flowable<Event> replay =
+          Flowable.fromCallable(() -> replayTurn(agentRunner, session, userContent, author, cached))
+              .subscribeOn(streamScheduler);
+      subscribe(emitter, userId, replay, response -> {});
+      return;
+    }
+    Optional<FastPathResponder.Answer> direct =
+        fastPath.answer(agentRunner.agent().name(), request.getMessage());
+    if (direct.isPresent()) {
+      FastPathResponder.Answer answer = direct.get();
+      Flowable<Event> replay =
+          Flowable.fromCallable(
+                  () ->
+                      replayTurn(
+                          agentRunner, session, userContent, answer.getAuthor(), answer.getText()))
+              .subscribeOn(streamScheduler);
+      subscribe(emitter, userId, replay, response -> {});
+      return;
+    }
+
+    AgentConcurrencyLimiter.Permit permit = concurrencyLimiter.acquire(currentUserKey());
+    AgentResponseCache.TurnTracker turn = new AgentResponseCache.TurnTracker();
+
+    Flowable<Event> events =
+        Flowable.defer(() -> agentRunner.runAsync(session, userContent, STREAMING_RUN_CONFIG))
+            .subscribeOn(streamScheduler)
+            .doOnNext(turn::observe)
+            .doOnError(permit::release)
+            .doFinally(() -> permit.release(null));
+
+    subscribe(
+        emitter,
+        userId,
+        events,
+        response -> {
+          if (turn.isCacheable()) {
+            responseCache.put(cacheKey, response);
+          }
+        });
+  }
+
+  private void subscribe(
+      SseEmitter emitter,
+      String userId,
+      Flowable<Event> events,
+      Consumer<String> completionListener) {
+    SseChatSubscriber subscriber = new SseChatSubscriber(emitter, userId, completionListener);
+    emitter.onCompletion(subscriber::stop);
+    emitter.onTimeout(subscriber::stop);
+    emitter.onError(error -> subscriber.stop());
+    events.subscribe(subscriber);
+  }
+
+  /**
+   * Appends an exchange answered without the model (from the cache or the fast path) to the
+   * session, so follow-up turns still see it in their history.
+   *
+   * @param author Agent the answer is attributed to
+   * @return the agent event carrying the answer
+   */
+  private Event replayTurn(
+      Runner agentRunner, Session session, Content userContent, String author, String response) {
+    BaseSessionService sessionService = agentRunner.sessionService();
+    String invocationId = "cached-" + UUID.randomUUID();
+    Event question =
+        Event.builder()
+            .id(Event.generateEventId())
+            .invocationId(invocationId)
+            .author("user")
+            .content(userContent)
+            .timestamp(System.currentTimeMillis())
+            .build();
+    Event answer =
+        Event.builder()
+            .id(Event.generateEventId())
+            .invocationId(invocationId)
+            .author(author)
+            .content(Content.builder().role("model").parts(Part.fromText(response)).build())
+            .timestamp(System.currentTimeMillis())
+            .build();
+    sessionService.appendEvent(session, question).blockingGet();
+    sessionService.appendEvent(session, answer).blockingGet();
+    log.debug("Served agent response without the model for session '{}'", session.id());
+    return answer;
+  }
+
+  /** Limiter fairness key: the authenticated user, or one shared bucket for anonymous callers. */
+  private static String currentUserKey() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.getPrincipal() instanceof UserAccount) {
+      return "user:" + ((UserAccount) authentication.getPrincipal()).getId();
+    }
+    return "anonymous";
+  }
+
   private String resolveUserId(String rawSessionId) {
     if (rawSessionId != null && !rawSessionId.isBlank()) {
       return rawSessionId;
@@ -59,18 +271,72 @@ public class AgentChatService {
     return "user-" + UUID.randomUUID();
   }
 
-  private Session resolveSession(InMemoryRunner agentRunner, String userId) {
+  /**
+   * Resolves the session before anything else in the turn, since whether the response cache applies
+   * depends on its history.
+   */
+  private Session resolveSessionForTurn(Runner agentRunner, String userId) {
     try {
-      var listResponse =
-          agentRunner.sessionService().listSessions(agentRunner.appName(), userId).blockingGet();
-      var sessions = listResponse.sessions();
-      if (sessions != null && !sessions.isEmpty()) {
-        return sessions.get(0);
+      return resolveSession(agentRunner, userId);
+    } catch (RuntimeException ex) {
+      throw new AgentChatException("Failed to execute agent conversation", ex);
+    }
+  }
+
+  /**
+   * Looks the session up by id and creates it when missing. The client-facing session id is both
+   * the ADK user id and the session id, so the lookup is a direct key access instead of a scan of
+   * the user's sessions. Ids are scoped by runner, so a client may reuse one id across agents, and
+   * an id whose session expired starts a new one. Creation is serialized per id, so concurrent
+   * first requests for the same id share one session; a creation lost to another instance falls
+   * back to the stored session.
+   */
+  Session resolveSession(Runner agentRunner, String sessionId) {
+    BaseSessionService sessionService = agentRunner.sessionService();
+    String appName = agentRunner.appName();
+
+    Session session = findSession(sessionService, appName, sessionId);
+    if (session != null) {
+      sessionHits.increment();
+      return session;
+    }
+    sessionMisses.increment();
+
+    Lock lock = sessionCreationLocks.get(appName + '/' + sessionId);
+    if (!lock.tryLock()) {
+      sessionCreationContention.increment();
+      lock.lock();
+    }
+    try {
+      session = findSession(sessionService, appName, sessionId);
+      if (session != null) {
+        return session;
       }
-    } catch (Exception ignored) {
-      log.debug("Unable to find existing session for '{}', creating new one", userId);
+      try {
+        return sessionService.createSession(appName, sessionId, null, sessionId).blockingGet();
+      } catch (RuntimeException ex) {
+        session = findSession(sessionService, appName, sessionId);
+        if (session == null) {
+          throw ex;
+        }
+        sessionCreationContention.increment();
+        log.debug("Session '{}' was created concurrently, reusing it", sessionId);
+        return session;
+      }
+    } finally {
+      lock.unlock();
     }
-    return agentRunner.sessionService().createSession(agentRunner.appName(), userId).blockingGet();
+  }
+
+  private Session findSession(BaseSessionService sessionService, String appName, String id) {
+    return sessionService.getSession(appName, id, id, Optional.empty()).blockingGet();
+  }
+
+  private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("agent.sessions.lookups")
+        .description("Session lookups per chat turn")
+        .tag("result", result)
+        .register(meterRegistry);
   }
 
   private String collectResponse(Flowable<Event> events) {
@@ -85,7 +351,7 @@ public class AgentChatService {
           }
         });
     if (responseBuilder.isEmpty()) {
-      return "I processed your request but have no specific response.";
+      return EMPTY_RESPONSE;
     }
     return responseBuilder.toString();
   }
@@ -0,0 +1,282 @@
+package com.inmobiliaria.gestion.agent.service;
+
+import com.google.genai.errors.ApiException;
+import com.inmobiliaria.gestion.agent.exception.AgentOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adaptive bound on concurrent model calls. The limit follows AIMD: it grows by {@code 1/limit} for
+ * every successful call made while saturated and is halved whenever the model reports quota
+ * exhaustion or overload (HTTP 429/503).
+ *
+ * <p>Callers over the limit wait in per-user queues that are served round-robin, so one busy user
+ * cannot starve the others. The queue is bounded globally and per user. A caller is rejected up
+ * front when the estimated wait already exceeds {@code agent.limiter.max-wait-ms}, and again if the
+ * wait actually runs out. Rejections carry a Retry-After estimate.
+ *
+ * <p>Uses {@link ReentrantLock} rather than {@code synchronized} so waiting virtual threads unmount
+ * from their carrier.
+ */
+@Component
+public class AgentConcurrencyLimiter {
+
+  private static final double BACKOFF_RATIO = 0.5;
+  private static final double LATENCY_SMOOTHING = 0.2;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final int maxQueue;
+  private final int maxQueuePerUser;
+  private final long maxWaitNanos;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Map<String, ArrayDeque<Waiter>> queues = new LinkedHashMap<>();
+  private double limit;
+  private int inFlight;
+  private int queued;
+  private double averageLatencyNanos;
+
+  private final Timer waitTimer;
+  private final Counter queueFullRejections;
+  private final Counter deadlineRejections;
+
+  public AgentConcurrencyLimiter(
+      @Value("${agent.limiter.initial-limit:8}") int initialLimit,
+      @Value("${agent.limiter.min-limit:1}") int minLimit,
+      @Value("${agent.limiter.max-limit:64}") int maxLimit,
+      @Value("${agent.limiter.max-queue:100}") int maxQueue,
+      @Value("${agent.limiter.max-queue-per-user:5}") int maxQueuePerUser,
+      @Value("${agent.limiter.max-wait-ms:10000}") long maxWaitMillis,
+      MeterRegistry meterRegistry) {
+    this.minLimit = Math.max(1, minLimit);
+    this.maxLimit = Math.max(this.minLimit, maxLimit);
+    this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    this.maxQueue = maxQueue;
+    this.maxQueuePerUser = maxQueuePerUser;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+    // Until calls complete, assume one call takes a tenth of the allowed wait.
+    this.averageLatencyNanos = maxWaitNanos / 10.0;
+
+    Gauge.builder("agent.limiter.queue.depth", this, AgentConcurrencyLimiter::getQueued)
+        .description("Chat requests waiting for a model call slot")
+        .register(meterRegistry);
+    Gauge.builder("agent.limiter.in.flight", this, AgentConcurrencyLimiter::getInFlight)
+        .description("Model calls currently running")
+        .register(meterRegistry);
+    Gauge.builder("agent.limiter.limit", this, AgentConcurrencyLimiter::getLimit)
+        .description("Current adaptive concurrency limit")
+        .register(meterRegistry);
+    this.waitTimer =
+        Timer.builder("agent.limiter.wait")
+            .description("Time spent waiting for a model call slot")
+            .register(meterRegistry);
+    this.queueFullRejections = rejectionCounter(meterRegistry, "queue_full");
+    this.deadlineRejections = rejectionCounter(meterRegistry, "deadline");
+  }
+
+  /**
+   * Waits for a slot for {@code userKey}.
+   *
+   * @throws AgentOverloadedException when the queue is full or the wait would exceed the deadline
+   */
+  public Permit acquire(String userKey) {
+    long start = System.nanoTime();
+    lock.lock();
+    try {
+      if (queued == 0 && inFlight < effectiveLimit()) {
+        inFlight++;
+        waitTimer.record(0, TimeUnit.NANOSECONDS);
+        return new Permit(start);
+      }
+
+      ArrayDeque<Waiter> userQueue = queues.get(userKey);
+      int userQueued = userQueue == null ? 0 : userQueue.size();
+      if (queued >= maxQueue || userQueued >= maxQueuePerUser) {
+        queueFullRejections.increment();
+        throw overloaded(estimatedWaitNanos(queued + 1));
+      }
+      long estimate = estimatedWaitNanos(queued + 1);
+      if (estimate > maxWaitNanos) {
+        deadlineRejections.increment();
+        throw overloaded(estimate);
+      }
+
+      Waiter waiter = new Waiter(lock.newCondition());
+      queues.computeIfAbsent(userKey, key -> new ArrayDeque<>()).addLast(waiter);
+      queued++;
+
+      long remaining = maxWaitNanos - (System.nanoTime() - start);
+      try {
+        while (!waiter.granted && remaining > 0) {
+          remaining = waiter.condition.awaitNanos(remaining);
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      if (!waiter.granted) {
+        removeWaiter(userKey, waiter);
+        deadlineRejections.increment();
+        throw overloaded(estimatedWaitNanos(queued + 1));
+      }
+      long now = System.nanoTime();
+      waitTimer.record(now - start, TimeUnit.NANOSECONDS);
+      return new Permit(now);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getQueued() {
+    lock.lock();
+    try {
+      return queued;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int getInFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public double getLimit() {
+    lock.lock();
+    try {
+      return limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void release(long startedAt, Throwable error) {
+    lock.lock();
+    try {
+      boolean saturated = inFlight >= effectiveLimit();
+      inFlight--;
+      if (isOverload(error)) {
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+      } else if (error == null) {
+        long latency = System.nanoTime() - startedAt;
+        averageLatencyNanos =
+            (1 - LATENCY_SMOOTHING) * averageLatencyNanos + LATENCY_SMOOTHING * latency;
+        if (saturated) {
+          limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+      }
+      dispatch();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Hands free slots to waiters, taking one waiter per user in turn. */
+  private void dispatch() {
+    while (queued > 0 && inFlight < effectiveLimit()) {
+      Iterator<Map.Entry<String, ArrayDeque<Waiter>>> users = queues.entrySet().iterator();
+      Map.Entry<String, ArrayDeque<Waiter>> next = users.next();
+      users.remove();
+      Waiter waiter = next.getValue().pollFirst();
+      if (!next.getValue().isEmpty()) {
+        // Move the user to the back of the rotation.
+        queues.put(next.getKey(), next.getValue());
+      }
+      queued--;
+      inFlight++;
+      waiter.granted = true;
+      waiter.condition.signal();
+    }
+  }
+
+  private void removeWaiter(String userKey, Waiter waiter) {
+    ArrayDeque<Waiter> userQueue = queues.get(userKey);
+    if (userQueue != null && userQueue.remove(waiter)) {
+      queued--;
+      if (userQueue.isEmpty()) {
+        queues.remove(userKey);
+      }
+    }
+  }
+
+  private int effectiveLimit() {
+    return Math.max(minLimit, (int) Math.floor(limit));
+  }
+
+  private long estimatedWaitNanos(int position) {
+    return (long) (Math.ceil((double) position / effectiveLimit()) * averageLatencyNanos);
+  }
+
+  private AgentOverloadedException overloaded(long estimatedWaitNanos) {
+    long seconds = Math.max(1, (long) Math.ceil(estimatedWaitNanos / 1_000_000_000.0));
+    return new AgentOverloadedException(Duration.ofSeconds(seconds));
+  }
+
+  private static boolean isOverload(Throwable error) {
+    for (Throwable current = error; current != null; current = current.getCause()) {
+      if (current instanceof ApiException) {
+        int code = ((ApiException) current).code();
+        if (code == 429 || code == 503) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("agent.limiter.rejections")
+        .description("Chat requests rejected by the concurrency limiter")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  private static final class Waiter {
+
+    private final Condition condition;
+    private boolean granted;
+
+    private Waiter(Condition condition) {
+      this.condition = condition;
+    }
+  }
+
+  /** Slot for one model call. Must be released exactly once; later releases are ignored. */
+  public final class Permit {
+
+    private final long startedAt;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private Permit(long startedAt) {
+      this.startedAt = startedAt;
+    }
+
+    /**
+     * Returns the slot.
+     *
+     * @param error failure of the model call, or {@code null} when it succeeded
+     */
+    public void release(Throwable error) {
+      if (released.compareAndSet(false, true)) {
+        AgentConcurrencyLimiter.this.release(startedAt, error);
+      }
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package com.inmobiliaria.gestion.agent.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.adk.events.Event;
+import com.google.adk.sessions.Session;
+import com.google.genai.types.FunctionCall;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache of final agent answers for read-only turns. Entries are keyed by agent name, normalized
+ * prompt and the data version current when the turn started; only turns that called at least one
+ * tool and nothing but read tools are stored. Only the opening turn of a session is looked up or
+ * stored: later prompts ("¿y la 5?", "sí", "más detalles") depend on the conversation so far, so
+ * the same words call for a different answer in every session.
+ *
+ * <p>Every committed create, update or delete in the domain services ({@link DataChangedEvent})
+ * bumps the data version and clears the cache. A turn that overlapped a write was keyed with the
+ * old version, so its answer can never be served afterwards.
+ */
+@Component
+public class AgentResponseCache {
+
+  private static final Logger log = LoggerFactory.getLogger(AgentResponseCache.class);
+
+  /** Tool name prefixes of the side-effect free tools exposed to the agents. */
+  private static final List<String> READ_ONLY_TOOL_PREFIXES =
+      List.of("get", "list", "search", "find", "count");
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final Pattern EDGE_PUNCTUATION = Pattern.compile("^[¿¡\\s]+|[.!?\\s]+$");
+
+  private final boolean enabled;
+  private final Cache<Key, String> cache;
+  private final AtomicLong dataVersion = new AtomicLong();
+
+  public AgentResponseCache(
+      @Value("${agent.response-cache.enabled:true}") boolean enabled,
+      @Value("${agent.response-cache.maximum-size:1000}") long maximumSize,
+      @Value("${agent.response-cache.ttl-seconds:300}") long ttlSeconds,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "agentResponses");
+  }
+
+  /** Builds the key for a prompt, stamped with the current data version. */
+  public Key keyFor(String agentName, String prompt) {
+    return new Key(agentName, normalize(prompt), dataVersion.get());
+  }
+
+  /**
+   * Builds the key for a turn of {@code session}, or returns {@code null} when the session already
+   * has history and the answer therefore depends on context.
+   */
+  public Key keyFor(String agentName, Session session, String prompt) {
+    return session.events().isEmpty() ? keyFor(agentName, prompt) : null;
+  }
+
+  /**
+   * Returns the cached answer, or {@code null} when there is none for this data version or the
+   * turn has no key.
+   */
+  public String get(Key key) {
+    return enabled && key != null ? cache.getIfPresent(key) : null;
+  }
+
+  /** Stores the answer of a turn, unless it has no key or the data changed since it was built. */
+  public void put(Key key, String response) {
+    if (enabled && key != null && key.dataVersion == dataVersion.get()) {
+      cache.put(key, response);
+    }
+  }
+
+  public void invalidateAll() {
+    dataVersion.incrementAndGet();
+    cache.invalidateAll();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onDataChanged(DataChangedEvent event) {
+    invalidateAll();
+    log.debug(
+        "Respuestas del agente invalidadas por cambio en {} {}",
+        event.getEntityType(),
+        event.getEntityId());
+  }
+
+  /** Lower-cases the prompt, unifies its Unicode form and drops extra spacing and punctuation. */
+  static String normalize(String prompt) {
+    String text = Normalizer.normalize(prompt, Normalizer.Form.NFC).toLowerCase(Locale.ROOT);
+    text = WHITESPACE.matcher(text).replaceAll(" ");
+    return EDGE_PUNCTUATION.matcher(text).replaceAll("");
+  }
+
+  static boolean isReadOnlyTool(String toolName) {
+    for (String prefix : READ_ONLY_TOOL_PREFIXES) {
+      if (toolName.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Identity of a cacheable prompt. */
+  public static final class Key {
+
+    private final String agentName;
+    private final String prompt;
+    private final long dataVersion;
+
+    private Key(String agentName, String prompt, long dataVersion) {
+      this.agentName = agentName;
+      this.prompt = prompt;
+      this.dataVersion = dataVersion;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return dataVersion == key.dataVersion
+          && agentName.equals(key.agentName)
+          && prompt.equals(key.prompt);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(agentName, prompt, dataVersion);
+    }
+  }
+
+  /** Watches the events of one turn to decide whether its answer may be cached. */
+  static final class TurnTracker {
+
+    private boolean calledTool;
+    private boolean calledWriteTool;
+
+    void observe(Event event) {
+      for (FunctionCall call : event.functionCalls()) {
+        calledTool = true;
+        if (!isReadOnlyTool(call.name().orElse(""))) {
+          calledWriteTool = true;
+        }
+      }
+    }
+
+    boolean isCacheable() {
+      return calledTool && !calledWriteTool;
+    }
+  }
+}
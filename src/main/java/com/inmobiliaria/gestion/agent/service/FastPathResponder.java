@@ -0,0 +1,306 @@
+package com.inmobiliaria.gestion.agent.service;
+
+import com.inmobiliaria.gestion.agent.AssistantAgent;
+import com.inmobiliaria.gestion.agent.routing.FastPathIntent;
+import com.inmobiliaria.gestion.agent.routing.FastPathIntentParser;
+import com.inmobiliaria.gestion.agent.tools.InmobiliariaTool;
+import com.inmobiliaria.gestion.agent.tools.PersonaTool;
+import com.inmobiliaria.gestion.agent.tools.PropiedadTool;
+import com.inmobiliaria.gestion.agent.tools.ToolPayloadBudget;
+import com.inmobiliaria.gestion.inmobiliaria.dto.InmobiliariaResponse;
+import com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.StringJoiner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Answers plain list and show-by-id commands ({@link FastPathIntentParser}) by calling the agent
+ * tools directly and filling a template, so they cost neither a model call nor a concurrency slot.
+ * A command is served only by a runner whose agent owns its catalog, and any tool failure falls
+ * through to the model, which explains errors in context.
+ *
+ * <p>Outcomes are counted in {@code agent.fastpath.requests}, tagged {@code hit}, {@code miss} (the
+ * message is not a simple command for this agent) or {@code fallback} (the tool failed); {@code
+ * agent.fastpath.latency} times the tool call and rendering of every hit.
+ */
+@Component
+public class FastPathResponder {
+
+  private static final Logger log = LoggerFactory.getLogger(FastPathResponder.class);
+
+  private final boolean enabled;
+  private final InmobiliariaTool inmobiliariaTool;
+  private final PropiedadTool propiedadTool;
+  private final PersonaTool personaTool;
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter fallbacks;
+  private final Timer latency;
+
+  public FastPathResponder(
+      @Value("${agent.fast-path.enabled:true}") boolean enabled,
+      InmobiliariaTool inmobiliariaTool,
+      PropiedadTool propiedadTool,
+      PersonaTool personaTool,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.inmobiliariaTool = inmobiliariaTool;
+    this.propiedadTool = propiedadTool;
+    this.personaTool = personaTool;
+    this.hits = outcomeCounter(meterRegistry, "hit");
+    this.misses = outcomeCounter(meterRegistry, "miss");
+    this.fallbacks = outcomeCounter(meterRegistry, "fallback");
+    this.latency =
+        Timer.builder("agent.fastpath.latency")
+            .description("Time to answer a simple command without the model")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Answers the message without the model when it is a simple read command on a catalog served by
+   * the given agent.
+   *
+   * @param agentName Name of the runner's root agent
+   * @param message User message
+   * @return The answer and the domain agent it is attributed to, or empty to run the model
+   */
+  public Optional<Answer> answer(String agentName, String message) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    Optional<FastPathIntent> intent =
+        FastPathIntentParser.parse(message).filter(parsed -> serves(agentName, parsed));
+    if (intent.isEmpty()) {
+      misses.increment();
+      return Optional.empty();
+    }
+    Timer.Sample sample = Timer.start();
+    Optional<String> text = render(intent.get());
+    if (text.isEmpty()) {
+      fallbacks.increment();
+      return Optional.empty();
+    }
+    sample.stop(latency);
+    hits.increment();
+    log.debug("Answered '{}' without the model", message);
+    return Optional.of(new Answer(intent.get().getDomain().getAgentName(), text.get()));
+  }
+
+  private static boolean serves(String agentName, FastPathIntent intent) {
+    return AssistantAgent.ROOT_AGENT.equals(agentName)
+        || intent.getDomain().getAgentName().equals(agentName);
+  }
+
+  private Optional<String> render(FastPathIntent intent) {
+    boolean en = intent.isEnglish();
+    Integer id = intent.getId();
+    boolean list = intent.getAction() == FastPathIntent.Action.LIST;
+    Map<String, Object> result =
+        switch (intent.getDomain()) {
+          case INMOBILIARIA ->
+              list
+                  ? inmobiliariaTool.listAllInmobiliarias()
+                  : inmobiliariaTool.getInmobiliariaById(id);
+          case PROPIEDAD ->
+              list
+                  ? propiedadTool.listAllPropiedades(null, null, null, null, null, null)
+                  : propiedadTool.getPropiedadById(id);
+          case PERSONA ->
+              list
+                  ? personaTool.listAllPersonas(null, null, null, null, null, null)
+                  : personaTool.getPersonaById(id);
+        };
+    if (!Boolean.TRUE.equals(result.get("success"))) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        switch (intent.getDomain()) {
+          case INMOBILIARIA ->
+              list
+                  ? inmobiliarias(en, rows(result, "inmobiliarias"))
+                  : inmobiliaria(en, (InmobiliariaResponse) result.get("inmobiliaria"));
+          case PROPIEDAD ->
+              list
+                  ? propiedades(en, rows(result, "propiedades"), hasMore(result))
+                  : propiedad(en, (PropiedadResponse) result.get("propiedad"));
+          case PERSONA ->
+              list
+                  ? personas(en, rows(result, "personas"), hasMore(result))
+                  : persona(en, map(result.get("persona")));
+        });
+  }
+
+  private static String inmobiliarias(boolean en, List<?> rows) {
+    List<String> lines =
+        rows.stream()
+            .limit(ToolPayloadBudget.DEFAULT_LIMIT)
+            .map(InmobiliariaResponse.class::cast)
+            .map(row -> line(row.getId(), row.getNombre(), "RFC " + row.getRfc()))
+            .toList();
+    return listing(
+        en ? "Agencies" : "Inmobiliarias",
+        en ? "agencies" : "inmobiliarias",
+        en,
+        lines,
+        rows.size() > lines.size());
+  }
+
+  private static String propiedades(boolean en, List<?> rows, boolean hasMore) {
+    List<String> lines =
+        rows.stream()
+            .map(FastPathResponder::map)
+            .map(
+                row ->
+                    line(
+                        row.get("id"),
+                        row.get("nombre"),
+                        row.get("tipo") + ", " + row.get("inmobiliariaNombre")))
+            .toList();
+    return listing(
+        en ? "Properties" : "Propiedades", en ? "properties" : "propiedades", en, lines, hasMore);
+  }
+
+  private static String personas(boolean en, List<?> rows, boolean hasMore) {
+    List<String> lines =
+        rows.stream()
+            .map(FastPathResponder::map)
+            .map(row -> line(row.get("id"), displayName(row), "" + row.get("tipoPersona")))
+            .toList();
+    return listing(en ? "People" : "Personas", en ? "people" : "personas", en, lines, hasMore);
+  }
+
+  private static String inmobiliaria(boolean en, InmobiliariaResponse inmobiliaria) {
+    Map<String, Object> fields = new LinkedHashMap<>();
+    fields.put(en ? "Name" : "Nombre", inmobiliaria.getNombre());
+    fields.put("RFC", inmobiliaria.getRfc());
+    fields.put(en ? "Contact" : "Contacto", inmobiliaria.getNombreContacto());
+    fields.put(en ? "Email" : "Correo", inmobiliaria.getCorreo());
+    fields.put(en ? "Phone" : "Teléfono", inmobiliaria.getTelefono());
+    return detail(en ? "Agency" : "Inmobiliaria", inmobiliaria.getId(), fields);
+  }
+
+  private static String propiedad(boolean en, PropiedadResponse propiedad) {
+    Map<String, Object> fields = new LinkedHashMap<>();
+    fields.put(en ? "Name" : "Nombre", propiedad.getNombre());
+    fields.put(en ? "Type" : "Tipo", propiedad.getTipo());
+    fields.put(en ? "Address" : "Dirección", propiedad.getDireccion());
+    fields.put(
+        en ? "Agency" : "Inmobiliaria",
+        propiedad.getInmobiliariaNombre() + " (#" + propiedad.getInmobiliariaId() + ")");
+    fields.put(en ? "Notes" : "Observaciones", propiedad.getObservaciones());
+    return detail(en ? "Property" : "Propiedad", propiedad.getId(), fields);
+  }
+
+  private static String persona(boolean en, Map<String, Object> persona) {
+    Map<String, Object> fields = new LinkedHashMap<>();
+    fields.put(en ? "Type" : "Tipo", persona.get("tipoPersona"));
+    fields.put(en ? "Name" : "Nombre", displayName(persona));
+    fields.put("RFC", persona.get("rfc"));
+    fields.put("CURP", persona.get("curp"));
+    fields.put(en ? "Email" : "Correo", persona.get("email"));
+    fields.put(en ? "Phone" : "Teléfono", persona.get("telefono"));
+    fields.put(en ? "Active" : "Activo", yesNo(en, Boolean.TRUE.equals(persona.get("activo"))));
+    return detail(en ? "Person" : "Persona", persona.get("id"), fields);
+  }
+
+  private static String listing(
+      String title, String noun, boolean en, List<String> lines, boolean hasMore) {
+    if (lines.isEmpty()) {
+      return en ? "There are no " + noun + " yet." : "No hay " + noun + " registradas.";
+    }
+    StringJoiner text = new StringJoiner("\n");
+    text.add(title + " (" + lines.size() + "):");
+    lines.forEach(text::add);
+    if (hasMore) {
+      text.add(
+          en
+              ? "There are more; narrow them down by name or another filter."
+              : "Hay más; acota la lista por nombre u otro filtro.");
+    }
+    return text.toString();
+  }
+
+  private static String detail(String title, Object id, Map<String, Object> fields) {
+    StringJoiner text = new StringJoiner("\n");
+    text.add(title + " #" + id + ":");
+    fields.forEach(
+        (label, value) -> {
+          if (value != null && !value.toString().isBlank()) {
+            text.add("- " + label + ": " + value);
+          }
+        });
+    return text.toString();
+  }
+
+  private static String line(Object id, Object name, String details) {
+    return "- #" + id + " " + name + " (" + details + ")";
+  }
+
+  private static String displayName(Map<String, Object> persona) {
+    Object razonSocial = persona.get("razonSocial");
+    if (razonSocial != null && !razonSocial.toString().isBlank()) {
+      return razonSocial.toString();
+    }
+    return (Objects.toString(persona.get("nombre"), "")
+            + " "
+            + Objects.toString(persona.get("apellidos"), ""))
+        .trim();
+  }
+
+  private static String yesNo(boolean en, boolean value) {
+    if (en) {
+      return value ? "yes" : "no";
+    }
+    return value ? "sí" : "no";
+  }
+
+  private static List<?> rows(Map<String, Object> result, String key) {
+    return (List<?>) result.getOrDefault(key, List.of());
+  }
+
+  private static boolean hasMore(Map<String, Object> result) {
+    return Boolean.TRUE.equals(result.get("hasMore"));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> map(Object row) {
+    return (Map<String, Object>) row;
+  }
+
+  private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("agent.fastpath.requests")
+        .description("Chat turns considered for an answer without the model, by outcome")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+
+  /** A templated answer and the domain agent it is attributed to in the session. */
+  public static final class Answer {
+
+    private final String author;
+    private final String text;
+
+    Answer(String author, String text) {
+      this.author = author;
+      this.text = text;
+    }
+
+    public String getAuthor() {
+      return author;
+    }
+
+    public String getText() {
+      return text;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package com.inmobiliaria.gestion.agent.service;
+
+import com.google.adk.events.Event;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.inmobiliaria.gestion.agent.dto.ChatResponse;
+import com.inmobiliaria.gestion.agent.dto.ChatStreamEvent;
+import io.reactivex.rxjava3.subscribers.DefaultSubscriber;
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Forwards ADK events to an {@link SseEmitter}. Requests one event at a time and only asks for the
+ * next one after the previous frame was written, so a slow client throttles the agent run instead
+ * of piling events up in memory. A failed write (client gone) cancels the upstream run.
+ */
+final class SseChatSubscriber extends DefaultSubscriber<Event> {
+
+  static final String EVENT_PARTIAL = "partial";
+  static final String EVENT_FINAL = "final";
+  static final String EVENT_DONE = "done";
+  static final String EVENT_ERROR = "error";
+
+  private static final Logger log = LoggerFactory.getLogger(SseChatSubscriber.class);
+
+  private final SseEmitter emitter;
+  private final String sessionId;
+  private final Consumer<String> completionListener;
+  private final StringBuilder finalResponse = new StringBuilder();
+
+  SseChatSubscriber(SseEmitter emitter, String sessionId) {
+    this(emitter, sessionId, response -> {});
+  }
+
+  /** @param completionListener receives the full response when the run completes successfully */
+  SseChatSubscriber(SseEmitter emitter, String sessionId, Consumer<String> completionListener) {
+    this.emitter = emitter;
+    this.sessionId = sessionId;
+    this.completionListener = completionListener;
+  }
+
+  @Override
+  protected void onStart() {
+    request(1);
+  }
+
+  @Override
+  public void onNext(Event event) {
+    boolean partial = event.partial().orElse(false);
+    String text = textOf(event);
+    if (!partial && event.finalResponse() && !text.isBlank()) {
+      finalResponse.append(text);
+    }
+    if (!text.isEmpty() && (partial || event.finalResponse())) {
+      ChatStreamEvent frame = new ChatStreamEvent(sessionId, event.author(), text, partial);
+      if (!send(partial ? EVENT_PARTIAL : EVENT_FINAL, frame)) {
+        cancel();
+        return;
+      }
+    }
+    request(1);
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    log.error("Agent stream failed for session '{}'", sessionId, error);
+    send(
+        EVENT_ERROR,
+        ChatResponse.error(
+            "Failed to execute agent conversation: " + error.getMessage(), sessionId));
+    emitter.complete();
+  }
+
+  @Override
+  public void onComplete() {
+    String response =
+        finalResponse.isEmpty() ? AgentChatService.EMPTY_RESPONSE : finalResponse.toString();
+    completionListener.accept(response);
+    send(EVENT_DONE, ChatResponse.success(response, sessionId));
+    emitter.complete();
+  }
+
+  /** Stops the agent run; used when the client disconnects or the emitter times out. */
+  void stop() {
+    cancel();
+  }
+
+  private boolean send(String name, Object data) {
+    try {
+      emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+      return true;
+    } catch (IOException | IllegalStateException ex) {
+      log.debug("Client of session '{}' went away, cancelling agent stream", sessionId);
+      return false;
+    }
+  }
+
+  private static String textOf(Event event) {
+    StringBuilder text = new StringBuilder();
+    List<Part> parts = event.content().flatMap(Content::parts).orElse(List.of());
+    for (Part part : parts) {
+      part.text().ifPresent(text::append);
+    }
+    return text.toString();
+  }
+}
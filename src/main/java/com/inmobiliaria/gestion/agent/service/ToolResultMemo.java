@@ -0,0 +1,223 @@
+package com.inmobiliaria.gestion.agent.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.adk.agents.InvocationContext;
+import com.google.adk.sessions.Session;
+import com.google.adk.tools.BaseTool;
+import com.google.adk.tools.ToolContext;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.reactivex.rxjava3.core.Maybe;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Per-session memo of read-only tool results, installed on the agents as before/after tool
+ * callbacks. When the model repeats a call it already made in the conversation (same tool, same
+ * arguments after normalization), the stored result is returned without running the tool, so the
+ * services are not queried again.
+ *
+ * <p>Only successful results of read-only tools are stored. A write tool clears the memo of its
+ * session before it runs, and every committed create, update or delete ({@link DataChangedEvent})
+ * clears all sessions. Results whose call started before such a change are discarded instead of
+ * stored. A call whose tool throws never reaches the after-tool callback, so its pending entry is
+ * kept only until the next invocation of the session starts. Lookups are counted in {@code
+ * agent.tool-memo.lookups}, tagged {@code hit} or {@code miss}; each hit is a tool execution saved.
+ */
+@Component
+public class ToolResultMemo {
+
+  private static final Logger log = LoggerFactory.getLogger(ToolResultMemo.class);
+
+  private final boolean enabled;
+  private final int maxEntriesPerSession;
+  private final Cache<String, SessionMemo> sessions;
+  private final AtomicLong dataVersion = new AtomicLong();
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter sessionInvalidations;
+
+  public ToolResultMemo(
+      @Value("${agent.tool-memo.enabled:true}") boolean enabled,
+      @Value("${agent.tool-memo.maximum-sessions:1000}") long maximumSessions,
+      @Value("${agent.tool-memo.max-entries-per-session:100}") int maxEntriesPerSession,
+      @Value("${agent.tool-memo.ttl-seconds:600}") long ttlSeconds,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.maxEntriesPerSession = maxEntriesPerSession;
+    this.sessions =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSessions)
+            .expireAfterAccess(Duration.ofSeconds(ttlSeconds))
+            .build();
+    this.hits = lookupCounter(meterRegistry, "hit");
+    this.misses = lookupCounter(meterRegistry, "miss");
+    this.sessionInvalidations =
+        Counter.builder("agent.tool-memo.session-invalidations")
+            .description("Session memos cleared because a write tool ran in the session")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Before-tool callback: answers a repeated read-only call from the memo, or clears the session
+   * memo when a write tool is about to run.
+   */
+  public Maybe<Map<String, Object>> beforeTool(
+      InvocationContext invocationContext,
+      BaseTool tool,
+      Map<String, Object> args,
+      ToolContext toolContext) {
+    if (!enabled) {
+      return Maybe.empty();
+    }
+    String sessionKey = sessionKey(invocationContext.session());
+    if (!AgentResponseCache.isReadOnlyTool(tool.name())) {
+      if (sessions.asMap().remove(sessionKey) != null) {
+        sessionInvalidations.increment();
+      }
+      return Maybe.empty();
+    }
+    SessionMemo memo = sessions.get(sessionKey, key -> new SessionMemo());
+    String callKey = callKey(tool.name(), args);
+    Map<String, Object> result = memo.results.get(callKey);
+    if (result != null) {
+      hits.increment();
+      log.debug("Tool {} answered from the session memo", tool.name());
+      return Maybe.just(result);
+    }
+    misses.increment();
+    memo.startInvocation(invocationContext.invocationId());
+    memo.pending.put(callKey, dataVersion.get());
+    return Maybe.empty();
+  }
+
+  /** After-tool callback: stores the successful result of a read-only call; never alters it. */
+  @SuppressWarnings("unchecked")
+  public Maybe<Map<String, Object>> afterTool(
+      InvocationContext invocationContext,
+      BaseTool tool,
+      Map<String, Object> args,
+      ToolContext toolContext,
+      Object response) {
+    if (!enabled || !AgentResponseCache.isReadOnlyTool(tool.name())) {
+      return Maybe.empty();
+    }
+    SessionMemo memo = sessions.getIfPresent(sessionKey(invocationContext.session()));
+    if (memo == null) {
+      return Maybe.empty();
+    }
+    String callKey = callKey(tool.name(), args);
+    Long startedAt = memo.pending.remove(callKey);
+    if (startedAt != null
+        && startedAt == dataVersion.get()
+        && response instanceof Map<?, ?> result
+        && Boolean.TRUE.equals(result.get("success"))
+        && (memo.results.size() < maxEntriesPerSession || memo.results.containsKey(callKey))) {
+      memo.results.put(callKey, (Map<String, Object>) result);
+    }
+    return Maybe.empty();
+  }
+
+  public void invalidateAll() {
+    dataVersion.incrementAndGet();
+    sessions.invalidateAll();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onDataChanged(DataChangedEvent event) {
+    invalidateAll();
+    log.debug(
+        "Resultados de herramientas invalidados por cambio en {} {}",
+        event.getEntityType(),
+        event.getEntityId());
+  }
+
+  /** Calls started in the session that are still waiting for their after-tool callback. */
+  int pendingCalls(String appName, String sessionId) {
+    SessionMemo memo = sessions.getIfPresent(appName + '/' + sessionId);
+    return memo == null ? 0 : memo.pending.size();
+  }
+
+  private static String sessionKey(Session session) {
+    return session.appName() + '/' + session.id();
+  }
+
+  /**
+   * Tool name plus its arguments in a canonical form: sorted by name, null and blank values
+   * dropped (the tools treat them as absent), strings trimmed and numbers compared by value, so
+   * {@code 25} and {@code 25.0} are the same argument.
+   */
+  static String callKey(String toolName, Map<String, Object> args) {
+    Map<String, String> canonical = new TreeMap<>();
+    if (args != null) {
+      args.forEach(
+          (name, value) -> {
+            String normalized = canonical(value);
+            if (!normalized.isEmpty()) {
+              canonical.put(name, normalized);
+            }
+          });
+    }
+    return toolName + canonical;
+  }
+
+  private static String canonical(Object value) {
+    if (value == null) {
+      return "";
+    }
+    if (value instanceof Number number) {
+      return new BigDecimal(number.toString()).stripTrailingZeros().toPlainString();
+    }
+    if (value instanceof Map<?, ?> map) {
+      Map<String, String> entries = new TreeMap<>();
+      map.forEach((key, item) -> entries.put(String.valueOf(key), canonical(item)));
+      return entries.toString();
+    }
+    if (value instanceof Collection<?> items) {
+      return items.stream()
+          .map(ToolResultMemo::canonical)
+          .collect(Collectors.joining(",", "[", "]"));
+    }
+    return value.toString().trim();
+  }
+
+  private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("agent.tool-memo.lookups")
+        .description("Read-only tool calls looked up in the per-session memo")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Results of one session keyed by call, plus the data version each pending call of the current
+   * invocation started at.
+   */
+  private static final class SessionMemo {
+
+    private final Map<String, Map<String, Object>> results = new ConcurrentHashMap<>();
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private String invocationId;
+
+    /** Drops what calls of an earlier invocation left pending, e.g. because their tool threw. */
+    private synchronized void startInvocation(String invocationId) {
+      if (!invocationId.equals(this.invocationId)) {
+        pending.clear();
+        this.invocationId = invocationId;
+      }
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.inmobiliaria.gestion.agent.session.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.Instant;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Persistent copy of an ADK conversation session. Events are stored in {@link AgentSessionEvent}.
+ * The row id is derived from the app name and the ADK session id, which is kept in {@code
+ * session_id}, so the same client id can be used by several agents.
+ * {@code version} counts the event batches written to the session, so an instance can tell whether
+ * its in-memory copy is still current.
+ */
+@Entity
+@Table(name = "agent_sessions")
+public class AgentSession implements Persistable<String> {
+
+  @Id
+  @Column(length = 64)
+  private String id;
+
+  @Column(name = "session_id", nullable = false)
+  private String sessionId;
+
+  @Column(name = "app_name", nullable = false, length = 100)
+  private String appName;
+
+  @Column(name = "user_id", nullable = false)
+  private String userId;
+
+  @Column(nullable = false, columnDefinition = "TEXT")
+  private String state;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+
+  @Column(name = "last_update_time", nullable = false)
+  private Instant lastUpdateTime;
+
+  @Column(nullable = false)
+  private long version;
+
+  @Transient private boolean isNew = true;
+
+  protected AgentSession() {
+    // JPA
+  }
+
+  public AgentSession(
+      String id, String sessionId, String appName, String userId, String state, Instant createdAt) {
+    this.id = id;
+    this.sessionId = sessionId;
+    this.appName = appName;
+    this.userId = userId;
+    this.state = state;
+    this.createdAt = createdAt;
+    this.lastUpdateTime = createdAt;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
+  /**
+   * Records a write of appended events. The state is only replaced by a newer snapshot, since a
+   * retried event can be written after later ones.
+   */
+  public void update(String state, Instant lastUpdateTime) {
+    if (!lastUpdateTime.isBefore(this.lastUpdateTime)) {
+      this.state = state;
+      this.lastUpdateTime = lastUpdateTime;
+    }
+    version++;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  public String getAppName() {
+    return appName;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public String getState() {
+    return state;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public Instant getLastUpdateTime() {
+    return lastUpdateTime;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+}
@@ -0,0 +1,83 @@
+package com.inmobiliaria.gestion.agent.session.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.Instant;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * One ADK event appended to a session, stored as its JSON representation. The id is the ADK event
+ * id, so rows are inserted without a generated key and can be written in JDBC batches.
+ */
+@Entity
+@Table(name = "agent_session_events")
+public class AgentSessionEvent implements Persistable<String> {
+
+  @Id
+  @Column(length = 64)
+  private String id;
+
+  @Column(name = "session_id", nullable = false, length = 64)
+  private String sessionId;
+
+  @Column(name = "sequence_number", nullable = false)
+  private int sequenceNumber;
+
+  @Column(nullable = false, columnDefinition = "TEXT")
+  private String payload;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+
+  @Transient private boolean isNew = true;
+
+  protected AgentSessionEvent() {
+    // JPA
+  }
+
+  public AgentSessionEvent(
+      String id, String sessionId, int sequenceNumber, String payload, Instant createdAt) {
+    this.id = id;
+    this.sessionId = sessionId;
+    this.sequenceNumber = sequenceNumber;
+    this.payload = payload;
+    this.createdAt = createdAt;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.isNew = false;
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public boolean isNew() {
+    return isNew;
+  }
+
+  public String getSessionId() {
+    return sessionId;
+  }
+
+  public int getSequenceNumber() {
+    return sequenceNumber;
+  }
+
+  public String getPayload() {
+    return payload;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+}
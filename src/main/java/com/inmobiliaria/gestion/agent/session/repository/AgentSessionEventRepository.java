@@ -0,0 +1,32 @@
+package com.inmobiliaria.gestion.agent.session.repository;
+
+import com.inmobiliaria.gestion.agent.session.domain.AgentSessionEvent;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AgentSessionEventRepository extends JpaRepository<AgentSessionEvent, String> {
+
+  List<AgentSessionEvent> findBySessionIdOrderBySequenceNumberAsc(String sessionId);
+
+  @Modifying
+  @Query("delete from AgentSessionEvent e where e.sessionId = :sessionId")
+  int deleteBySessionId(@Param("sessionId") String sessionId);
+
+  @Modifying
+  @Query(
+      "delete from AgentSessionEvent e where e.sessionId in "
+          + "(select s.id from AgentSession s where s.lastUpdateTime < :cutoff)")
+  int deleteBySessionLastUpdateTimeBefore(@Param("cutoff") Instant cutoff);
+
+  @Modifying
+  @Query(
+      "delete from AgentSessionEvent e where e.sessionId in "
+          + "(select s.id from AgentSession s "
+          + "where s.id = :sessionId and s.lastUpdateTime < :cutoff)")
+  int deleteBySessionIdAndSessionLastUpdateTimeBefore(
+      @Param("sessionId") String sessionId, @Param("cutoff") Instant cutoff);
+}
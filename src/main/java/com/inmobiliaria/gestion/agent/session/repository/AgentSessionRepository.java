@@ -0,0 +1,31 @@
+package com.inmobiliaria.gestion.agent.session.repository;
+
+import com.inmobiliaria.gestion.agent.session.domain.AgentSession;
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AgentSessionRepository extends JpaRepository<AgentSession, String> {
+
+  List<AgentSession> findByAppNameAndUserIdAndLastUpdateTimeAfterOrderByLastUpdateTimeDesc(
+      String appName, String userId, Instant cutoff);
+
+  /** Locks the rows in id order, so concurrent flushes of the same sessions do not deadlock. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("select s from AgentSession s where s.id in :ids order by s.id")
+  List<AgentSession> lockAllById(@Param("ids") Collection<String> ids);
+
+  @Modifying
+  @Query("delete from AgentSession s where s.id = :id and s.lastUpdateTime < :cutoff")
+  int deleteExpiredById(@Param("id") String id, @Param("cutoff") Instant cutoff);
+
+  @Modifying
+  @Query("delete from AgentSession s where s.lastUpdateTime < :cutoff")
+  int deleteByLastUpdateTimeBefore(@Param("cutoff") Instant cutoff);
+}
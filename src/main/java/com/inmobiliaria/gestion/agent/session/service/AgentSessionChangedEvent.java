@@ -0,0 +1,36 @@
+package com.inmobiliaria.gestion.agent.session.service;
+
+/**
+ * Published when an instance writes, replaces or deletes a stored agent session, so other instances
+ * drop their hot copy of it. The session is identified by {@link
+ * PersistentSessionService#invalidationId(String)}, which fits the numeric ids of the invalidation
+ * bus; a null id stands for every session. Remote events come from other instances and are never
+ * broadcast again.
+ */
+public final class AgentSessionChangedEvent {
+
+  private final Long invalidationId;
+  private final boolean remote;
+
+  public AgentSessionChangedEvent(Long invalidationId) {
+    this(invalidationId, false);
+  }
+
+  private AgentSessionChangedEvent(Long invalidationId, boolean remote) {
+    this.invalidationId = invalidationId;
+    this.remote = remote;
+  }
+
+  /** A change committed by another instance, received through the invalidation bus. */
+  public static AgentSessionChangedEvent remote(Long invalidationId) {
+    return new AgentSessionChangedEvent(invalidationId, true);
+  }
+
+  public Long getInvalidationId() {
+    return invalidationId;
+  }
+
+  public boolean isRemote() {
+    return remote;
+  }
+}
@@ -0,0 +1,118 @@
+package com.inmobiliaria.gestion.agent.session.service;
+
+import com.inmobiliaria.gestion.agent.session.domain.AgentSession;
+import com.inmobiliaria.gestion.agent.session.domain.AgentSessionEvent;
+import com.inmobiliaria.gestion.agent.session.repository.AgentSessionEventRepository;
+import com.inmobiliaria.gestion.agent.session.repository.AgentSessionRepository;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transactional access to the session tables used by {@link PersistentSessionService}. Reads run in
+ * read-write transactions on purpose: they must see the last flush of every instance, which a
+ * lagging read replica may not have yet.
+ */
+@Component
+public class AgentSessionStore {
+
+  private static final Logger log = LoggerFactory.getLogger(AgentSessionStore.class);
+
+  private final AgentSessionRepository sessionRepository;
+  private final AgentSessionEventRepository eventRepository;
+
+  public AgentSessionStore(
+      AgentSessionRepository sessionRepository, AgentSessionEventRepository eventRepository) {
+    this.sessionRepository = sessionRepository;
+    this.eventRepository = eventRepository;
+  }
+
+  /**
+   * Inserts a new session. An expired row under the same key that {@link
+   * PersistentSessionService#evictExpired()} has not removed yet is deleted first; a live one makes
+   * the insert fail on the duplicate key.
+   */
+  @Transactional
+  public void insert(AgentSession session, Instant expiryCutoff) {
+    eventRepository.deleteBySessionIdAndSessionLastUpdateTimeBefore(session.getId(), expiryCutoff);
+    if (sessionRepository.deleteExpiredById(session.getId(), expiryCutoff) > 0) {
+      log.debug("Replacing expired session row '{}'", session.getId());
+    }
+    sessionRepository.save(session);
+  }
+
+  @Transactional
+  public Optional<AgentSession> findSession(String sessionId) {
+    return sessionRepository.findById(sessionId);
+  }
+
+  @Transactional
+  public List<AgentSessionEvent> findEvents(String sessionId) {
+    return eventRepository.findBySessionIdOrderBySequenceNumberAsc(sessionId);
+  }
+
+  @Transactional
+  public List<AgentSession> findActive(String appName, String userId, Instant cutoff) {
+    return sessionRepository.findByAppNameAndUserIdAndLastUpdateTimeAfterOrderByLastUpdateTimeDesc(
+        appName, userId, cutoff);
+  }
+
+  /**
+   * Writes a batch of appended events and the latest state of every session they belong to in a
+   * single transaction. Events of sessions that no longer exist (deleted or expired meanwhile) are
+   * dropped. The session rows are locked, so every batch bumps the version exactly once.
+   *
+   * @return The version each written session had before this batch, by session id
+   */
+  @Transactional
+  Map<String, Long> writeBatch(List<PendingSessionEvent> batch) {
+    Map<String, PendingSessionEvent> latestBySession = new LinkedHashMap<>();
+    for (PendingSessionEvent pending : batch) {
+      latestBySession.put(pending.getSessionId(), pending);
+    }
+
+    List<AgentSession> sessions = sessionRepository.lockAllById(latestBySession.keySet());
+    Map<String, Long> previousVersions = new LinkedHashMap<>();
+    for (AgentSession session : sessions) {
+      PendingSessionEvent latest = latestBySession.get(session.getId());
+      previousVersions.put(session.getId(), session.getVersion());
+      session.update(latest.getState(), latest.getAppendedAt());
+    }
+
+    List<AgentSessionEvent> events = new ArrayList<>(batch.size());
+    for (PendingSessionEvent pending : batch) {
+      if (!previousVersions.containsKey(pending.getSessionId())) {
+        log.debug("Dropping event for missing session '{}'", pending.getSessionId());
+        continue;
+      }
+      events.add(
+          new AgentSessionEvent(
+              pending.getEventId(),
+              pending.getSessionId(),
+              pending.getSequenceNumber(),
+              pending.getPayload(),
+              pending.getAppendedAt()));
+    }
+    eventRepository.saveAll(events);
+    return previousVersions;
+  }
+
+  @Transactional
+  public void delete(String sessionId) {
+    eventRepository.deleteBySessionId(sessionId);
+    sessionRepository.deleteById(sessionId);
+  }
+
+  @Transactional
+  public int deleteExpired(Instant cutoff) {
+    eventRepository.deleteBySessionLastUpdateTimeBefore(cutoff);
+    return sessionRepository.deleteByLastUpdateTimeBefore(cutoff);
+  }
+}
@@ -0,0 +1,58 @@
+package com.inmobiliaria.gestion.agent.session.service;
+
+import java.time.Instant;
+
+/** Appended event waiting for the next write-behind flush, with the session state at that point. */
+final class PendingSessionEvent {
+
+  private final String sessionId;
+  private final String eventId;
+  private final int sequenceNumber;
+  private final String payload;
+  private final String state;
+  private final Instant appendedAt;
+  private int attempts;
+
+  PendingSessionEvent(
+      String sessionId,
+      String eventId,
+      int sequenceNumber,
+      String payload,
+      String state,
+      Instant appendedAt) {
+    this.sessionId = sessionId;
+    this.eventId = eventId;
+    this.sequenceNumber = sequenceNumber;
+    this.payload = payload;
+    this.state = state;
+    this.appendedAt = appendedAt;
+  }
+
+  String getSessionId() {
+    return sessionId;
+  }
+
+  String getEventId() {
+    return eventId;
+  }
+
+  int getSequenceNumber() {
+    return sequenceNumber;
+  }
+
+  String getPayload() {
+    return payload;
+  }
+
+  String getState() {
+    return state;
+  }
+
+  Instant getAppendedAt() {
+    return appendedAt;
+  }
+
+  int incrementAttempts() {
+    return ++attempts;
+  }
+}
@@ -0,0 +1,503 @@
+package com.inmobiliaria.gestion.agent.session.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.adk.JsonBaseModel;
+import com.google.adk.events.Event;
+import com.google.adk.sessions.BaseSessionService;
+import com.google.adk.sessions.GetSessionConfig;
+import com.google.adk.sessions.ListEventsResponse;
+import com.google.adk.sessions.ListSessionsResponse;
+import com.google.adk.sessions.Session;
+import com.google.adk.sessions.State;
+import com.inmobiliaria.gestion.agent.session.domain.AgentSession;
+import com.inmobiliaria.gestion.agent.session.domain.AgentSessionEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Single;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * {@link BaseSessionService} backed by the application database, shared by every agent runner.
+ *
+ * <ul>
+ *   <li>Sessions are inserted when created, so any replica can resume them. Rows are keyed by
+ *       {@link #storageKey(String, String)}, so each runner has its own namespace of session ids
+ *       and one client id can be used with several agents.
+ *   <li>Creating a session whose id belongs to an expired row that {@link #evictExpired()} has not
+ *       removed yet replaces that row instead of failing on the duplicate key.
+ *   <li>Appended events are queued and written in batches (write-behind) by {@link #flush()}, which
+ *       runs on a fixed delay and whenever the queue reaches the batch size.
+ *   <li>Recently used sessions stay in a bounded in-process hot tier, so an active conversation
+ *       is served without touching the database. Every write, replacement or deletion of a
+ *       session is announced as an {@link AgentSessionChangedEvent}, which the invalidation bus
+ *       relays to the other instances so they drop their copy. A flush also compares the version
+ *       the copy was loaded or last flushed at with the one it overwrote; when another instance
+ *       wrote in between, the copy is dropped and reloaded on the next turn.
+ *   <li>A batch that fails is retried event by event, so one bad event is retried and eventually
+ *       dropped on its own instead of taking the rest of the batch with it.
+ *   <li>Sessions idle for longer than {@code agent.session.timeout} seconds are treated as gone and
+ *       removed by {@link #evictExpired()}.
+ * </ul>
+ *
+ * <p>Events still queued when an instance dies are lost; the flush interval bounds that window.
+ */
+@Service
+public class PersistentSessionService implements BaseSessionService {
+
+  private static final Logger log = LoggerFactory.getLogger(PersistentSessionService.class);
+  private static final TypeReference<ConcurrentHashMap<String, Object>> STATE_TYPE =
+      new TypeReference<>() {};
+  private static final int MAX_FLUSH_ATTEMPTS = 3;
+  private static final long UNKNOWN_VERSION = -1;
+
+  private final AgentSessionStore store;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Clock clock;
+  private final Duration timeout;
+  private final int flushBatchSize;
+  private final ObjectMapper mapper = JsonBaseModel.getMapper();
+  private final Cache<String, HotSession> hotSessions;
+  private final ConcurrentLinkedQueue<PendingSessionEvent> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pendingCount = new AtomicInteger();
+  private final ReentrantLock flushLock = new ReentrantLock();
+
+  public PersistentSessionService(
+      AgentSessionStore store,
+      ApplicationEventPublisher eventPublisher,
+      Clock clock,
+      @Value("${agent.session.timeout:3600}") long timeoutSeconds,
+      @Value("${agent.session.cache.maximum-size:1000}") long hotTierSize,
+      @Value("${agent.session.flush-batch-size:100}") int flushBatchSize,
+      MeterRegistry meterRegistry) {
+    this.store = store;
+    this.eventPublisher = eventPublisher;
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.timeout = Duration.ofSeconds(timeoutSeconds);
+    this.flushBatchSize = flushBatchSize;
+    this.hotSessions =
+        Caffeine.newBuilder()
+            .maximumSize(hotTierSize)
+            .expireAfterAccess(timeout)
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, hotSessions, "agentSessions");
+    Gauge.builder("agent.sessions.pending.events", pendingCount, AtomicInteger::get)
+        .description("Appended session events waiting for the next write-behind flush")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public Single<Session> createSession(
+      String appName, String userId, ConcurrentMap<String, Object> state, String sessionId) {
+    Objects.requireNonNull(appName, "appName");
+    Objects.requireNonNull(userId, "userId");
+    return Single.fromCallable(
+        () -> {
+          String id =
+              sessionId == null || sessionId.isBlank()
+                  ? UUID.randomUUID().toString()
+                  : sessionId.trim();
+          ConcurrentMap<String, Object> initialState =
+              state == null ? new ConcurrentHashMap<>() : new ConcurrentHashMap<>(state);
+          Instant now = clock.instant();
+          String key = storageKey(appName, id);
+          store.insert(
+              new AgentSession(key, id, appName, userId, writeState(initialState), now),
+              expiryCutoff());
+
+          Session session = newSession(id, appName, userId, initialState, new ArrayList<>(), now);
+          hotSessions.put(key, new HotSession(session, 0));
+          announce(key);
+          return session;
+        });
+  }
+
+  @Override
+  public Maybe<Session> getSession(
+      String appName, String userId, String sessionId, Optional<GetSessionConfig> config) {
+    return Maybe.fromCallable(
+        () -> {
+          Session session = resolve(storageKey(appName, sessionId));
+          if (session == null || !session.userId().equals(userId)) {
+            return null;
+          }
+          return config.map(c -> filtered(session, c)).orElse(session);
+        });
+  }
+
+  @Override
+  public Single<ListSessionsResponse> listSessions(String appName, String userId) {
+    return Single.fromCallable(
+        () -> {
+          List<Session> sessions = new ArrayList<>();
+          for (AgentSession stored : store.findActive(appName, userId, expiryCutoff())) {
+            HotSession hot = hotSessions.getIfPresent(stored.getId());
+            sessions.add(
+                hot != null && hot.version == stored.getVersion()
+                    ? hot.session
+                    : newSession(
+                        stored.getSessionId(),
+                        stored.getAppName(),
+                        stored.getUserId(),
+                        readState(stored.getState()),
+                        new ArrayList<>(),
+                        stored.getLastUpdateTime()));
+          }
+          return ListSessionsResponse.builder().sessions(sessions).build();
+        });
+  }
+
+  @Override
+  public Completable deleteSession(String appName, String userId, String sessionId) {
+    return Completable.fromAction(
+        () -> {
+          String key = storageKey(appName, sessionId);
+          hotSessions.invalidate(key);
+          dropPending(key);
+          store.delete(key);
+          announce(key);
+        });
+  }
+
+  @Override
+  public Single<ListEventsResponse> listEvents(String appName, String userId, String sessionId) {
+    return getSession(appName, userId, sessionId, Optional.empty())
+        .map(session -> ListEventsResponse.builder().events(snapshot(session.events())).build())
+        .defaultIfEmpty(ListEventsResponse.builder().events(List.of()).build());
+  }
+
+  @Override
+  public Single<Event> appendEvent(Session session, Event event) {
+    return BaseSessionService.super
+        .appendEvent(session, event)
+        .doOnSuccess(
+            appended -> {
+              if (appended.partial().orElse(false)) {
+                return;
+              }
+              Instant now = clock.instant();
+              session.lastUpdateTime(now);
+              // A copy the hot tier no longer holds has an unknown version and is dropped once its
+              // events are flushed.
+              String key = storageKey(session.appName(), session.id());
+              hotSessions
+                  .asMap()
+                  .compute(
+                      key,
+                      (id, hot) ->
+                          hot != null && hot.session == session
+                              ? hot
+                              : new HotSession(session, UNKNOWN_VERSION));
+              pending.add(
+                  new PendingSessionEvent(
+                      key,
+                      appended.id(),
+                      session.events().size() - 1,
+                      appended.toJson(),
+                      writeState(session.state()),
+                      now));
+              if (pendingCount.incrementAndGet() >= flushBatchSize) {
+                flush();
+              }
+            });
+  }
+
+  /** Writes queued events to the database in batches of {@code agent.session.flush-batch-size}. */
+  @Scheduled(fixedDelayString = "${agent.session.flush-interval-ms:500}")
+  public void flush() {
+    if (pendingCount.get() == 0) {
+      return;
+    }
+    flushLock.lock();
+    try {
+      List<PendingSessionEvent> batch;
+      while (!(batch = drain()).isEmpty()) {
+        try {
+          recordWrites(store.writeBatch(batch));
+        } catch (RuntimeException ex) {
+          log.warn("Failed to persist {} session events, retrying one by one", batch.size(), ex);
+          if (!writeIndividually(batch)) {
+            return;
+          }
+        }
+      }
+    } finally {
+      flushLock.unlock();
+    }
+  }
+
+  /** Removes sessions idle for longer than {@code agent.session.timeout}. */
+  @Scheduled(
+      fixedDelayString = "${agent.session.cleanup-interval-ms:300000}",
+      initialDelayString = "${agent.session.cleanup-interval-ms:300000}")
+  public void evictExpired() {
+    flush();
+    Instant cutoff = expiryCutoff();
+    hotSessions.asMap().values().removeIf(hot -> hot.session.lastUpdateTime().isBefore(cutoff));
+    int removed = store.deleteExpired(cutoff);
+    if (removed > 0) {
+      log.info("Removed {} expired agent sessions", removed);
+    }
+  }
+
+  /** Drops the hot copies of sessions another instance wrote to. */
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onSessionChanged(AgentSessionChangedEvent event) {
+    if (!event.isRemote()) {
+      return;
+    }
+    Long changed = event.getInvalidationId();
+    if (changed == null) {
+      hotSessions.invalidateAll();
+    } else {
+      hotSessions.asMap().keySet().removeIf(key -> invalidationId(key) == changed);
+    }
+  }
+
+  @PreDestroy
+  void flushOnShutdown() {
+    flush();
+  }
+
+  /**
+   * Row key of a session: a name-based UUID of the app name and the session id, so the same id
+   * used by two runners maps to two rows and any length of id fits the key column.
+   */
+  static String storageKey(String appName, String sessionId) {
+    return UUID.nameUUIDFromBytes((appName + '\n' + sessionId).getBytes(StandardCharsets.UTF_8))
+        .toString();
+  }
+
+  /**
+   * Identifies a session on the invalidation bus, which carries numeric ids: the storage key folded
+   * to 64 bits. Two sessions sharing a value only cost an extra reload.
+   */
+  static long invalidationId(String key) {
+    UUID uuid = UUID.fromString(key);
+    return uuid.getMostSignificantBits() ^ uuid.getLeastSignificantBits();
+  }
+
+  private Session resolve(String key) {
+    HotSession hot = hotSessions.getIfPresent(key);
+    if (hot == null) {
+      // Queued events must be visible to the load below.
+      flush();
+      hot = hotSessions.get(key, this::load);
+    }
+    if (hot != null && hot.session.lastUpdateTime().isBefore(expiryCutoff())) {
+      hotSessions.invalidate(key);
+      return null;
+    }
+    return hot == null ? null : hot.session;
+  }
+
+  private void announce(String key) {
+    eventPublisher.publishEvent(new AgentSessionChangedEvent(invalidationId(key)));
+  }
+
+  /** Forgets queued events of a session that is being deleted. */
+  private void dropPending(String key) {
+    pending.removeIf(
+        event -> {
+          boolean matches = event.getSessionId().equals(key);
+          if (matches) {
+            pendingCount.decrementAndGet();
+          }
+          return matches;
+        });
+  }
+
+  /**
+   * Moves hot copies whose flush was the only write since their version to the new version, and
+   * drops the ones another instance wrote to in between.
+   */
+  private void recordWrites(Map<String, Long> previousVersions) {
+    previousVersions.forEach(
+        (key, previous) -> {
+          hotSessions
+              .asMap()
+              .computeIfPresent(
+                  key,
+                  (id, hot) ->
+                      hot.version == previous ? new HotSession(hot.session, previous + 1) : null);
+          announce(key);
+        });
+  }
+
+  /**
+   * Writes each event of a failed batch in its own transaction. Events that still fail are
+   * requeued until {@link #MAX_FLUSH_ATTEMPTS}; returns whether any event could be written.
+   */
+  private boolean writeIndividually(List<PendingSessionEvent> batch) {
+    boolean written = false;
+    for (PendingSessionEvent event : batch) {
+      try {
+        recordWrites(store.writeBatch(List.of(event)));
+        written = true;
+      } catch (RuntimeException ex) {
+        requeue(event, ex);
+      }
+    }
+    return written;
+  }
+
+  private HotSession load(String key) {
+    return store
+        .findSession(key)
+        .map(
+            stored -> {
+              List<Event> events = new ArrayList<>();
+              for (AgentSessionEvent event : store.findEvents(key)) {
+                events.add(Event.fromJson(event.getPayload()));
+              }
+              return new HotSession(
+                  newSession(
+                      stored.getSessionId(),
+                      stored.getAppName(),
+                      stored.getUserId(),
+                      readState(stored.getState()),
+                      events,
+                      stored.getLastUpdateTime()),
+                  stored.getVersion());
+            })
+        .orElse(null);
+  }
+
+  private List<PendingSessionEvent> drain() {
+    List<PendingSessionEvent> batch = new ArrayList<>(flushBatchSize);
+    PendingSessionEvent next;
+    while (batch.size() < flushBatchSize && (next = pending.poll()) != null) {
+      batch.add(next);
+    }
+    pendingCount.addAndGet(-batch.size());
+    return batch;
+  }
+
+  private void requeue(PendingSessionEvent event, RuntimeException failure) {
+    if (event.incrementAttempts() < MAX_FLUSH_ATTEMPTS) {
+      pending.add(event);
+      pendingCount.incrementAndGet();
+    } else {
+      log.error(
+          "Discarding event '{}' of session '{}' after {} failed attempts",
+          event.getEventId(),
+          event.getSessionId(),
+          MAX_FLUSH_ATTEMPTS,
+          failure);
+    }
+  }
+
+  private Session filtered(Session session, GetSessionConfig config) {
+    List<Event> events = new ArrayList<>(snapshot(session.events()));
+    config
+        .afterTimestamp()
+        .ifPresent(after -> events.removeIf(e -> e.timestamp() <= after.toEpochMilli()));
+    config
+        .numRecentEvents()
+        .ifPresent(
+            recent -> {
+              if (events.size() > recent) {
+                events.subList(0, events.size() - recent).clear();
+              }
+            });
+    return newSession(
+        session.id(),
+        session.appName(),
+        session.userId(),
+        session.state(),
+        events,
+        session.lastUpdateTime());
+  }
+
+  private Session newSession(
+      String id,
+      String appName,
+      String userId,
+      ConcurrentMap<String, Object> state,
+      List<Event> events,
+      Instant lastUpdateTime) {
+    return Session.builder(id)
+        .appName(appName)
+        .userId(userId)
+        .state(state)
+        .events(Collections.synchronizedList(events))
+        .lastUpdateTime(lastUpdateTime)
+        .build();
+  }
+
+  private List<Event> snapshot(List<Event> events) {
+    synchronized (events) {
+      return List.copyOf(events);
+    }
+  }
+
+  private Instant expiryCutoff() {
+    return clock.instant().minus(timeout);
+  }
+
+  private String writeState(Map<String, Object> state) {
+    Map<String, Object> persistent = new ConcurrentHashMap<>();
+    state.forEach(
+        (key, value) -> {
+          if (!key.startsWith(State.TEMP_PREFIX)) {
+            persistent.put(key, value);
+          }
+        });
+    try {
+      return mapper.writeValueAsString(persistent);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Unable to serialize agent session state", ex);
+    }
+  }
+
+  private ConcurrentMap<String, Object> readState(String json) {
+    try {
+      return mapper.readValue(json, STATE_TYPE);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Unable to read agent session state", ex);
+    }
+  }
+
+  /** A session held in the hot tier and the stored version it matches. */
+  private static final class HotSession {
+
+    private final Session session;
+    private final long version;
+
+    private HotSession(Session session, long version) {
+      this.session = session;
+      this.version = version;
+    }
+  }
+}
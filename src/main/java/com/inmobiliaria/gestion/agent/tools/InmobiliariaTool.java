@@ -4,10 +4,18 @@ import com.inmobiliaria.gestion.inmobiliaria.dto.CreateInmobiliariaRequest;
 import com.inmobiliaria.gestion.inmobiliaria.dto.InmobiliariaResponse;
 import com.inmobiliaria.gestion.inmobiliaria.dto.UpdateInmobiliariaRequest;
 import com.inmobiliaria.gestion.inmobiliaria.service.InmobiliariaService;
+import com.inmobiliaria.gestion.search.domain.SearchTipo;
+import com.inmobiliaria.gestion.search.dto.SearchPageResponse;
+import com.inmobiliaria.gestion.search.service.SearchService;
 import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 /**
@@ -17,10 +25,19 @@ import org.springframework.stereotype.Component;
 @Component
 public class InmobiliariaTool {
 
+  private static final Logger log = LoggerFactory.getLogger(InmobiliariaTool.class);
+
   private final InmobiliariaService inmobiliariaService;
+  private final SearchService searchService;
+  private final ToolPayloadBudget payloadBudget;
 
-  public InmobiliariaTool(InmobiliariaService inmobiliariaService) {
+  public InmobiliariaTool(
+      InmobiliariaService inmobiliariaService,
+      SearchService searchService,
+      ToolPayloadBudget payloadBudget) {
     this.inmobiliariaService = inmobiliariaService;
+    this.searchService = searchService;
+    this.payloadBudget = payloadBudget;
   }
 
   /**
@@ -42,6 +59,48 @@ public class InmobiliariaTool {
     }
   }
 
+  /**
+   * Search inmobiliarias by free text, ranked by relevance.
+   *
+   * @param query Text to look for
+   * @param cursor Continuation cursor returned by a previous call (optional)
+   * @param limit Maximum number of matches to return (optional)
+   * @return Map containing the best matches and, when more exist, the cursor of the next page
+   */
+  @Schema(
+      description =
+          "Search real estate agencies by free text over name and RFC, best matches first. Use"
+              + " it when the user mentions an agency by name instead of by ID.")
+  public Map<String, Object> searchInmobiliarias(
+      @Schema(
+              description = "Words to look for in the agency name or RFC",
+              example = "inmobiliaria norte",
+              required = true)
+          String query,
+      @Schema(description = "nextCursor of the previous call (optional)") String cursor,
+      @Schema(description = "Maximum matches per page, 1-100 (optional)", example = "25")
+          Integer limit) {
+    try {
+      String resumeFrom = cursor != null && !cursor.isBlank() ? cursor : null;
+      SearchPageResponse page =
+          searchService.search(
+              query,
+              EnumSet.of(SearchTipo.INMOBILIARIA),
+              resumeFrom,
+              limit != null ? limit : ToolPayloadBudget.DEFAULT_LIMIT);
+      List<Map<String, Object>> rows =
+          page.getItems().stream().map(ToolPayloadBudget::searchRow).toList();
+      return payloadBudget.rankedPage(
+          "inmobiliarias",
+          rows,
+          page.getNextCursor(),
+          kept -> searchService.cursorAfter(resumeFrom, kept));
+    } catch (Exception e) {
+      log.error("Error searching inmobiliarias", e);
+      return createErrorResponse("Error searching inmobiliarias: " + e.getMessage());
+    }
+  }
+
   /**
    * Get a specific real estate agency by its ID.
    *
@@ -65,6 +124,45 @@ public class InmobiliariaTool {
     }
   }
 
+  /**
+   * Get several real estate agencies by their IDs.
+   *
+   * @param ids Identifiers of the inmobiliarias to retrieve
+   * @return Map containing the agencies found and the IDs that do not exist
+   */
+  @Schema(
+      description =
+          "Get the details of several real estate agencies in one call. Use this instead of"
+              + " repeated getInmobiliariaById calls when the user asks about more than one agency.")
+  public Map<String, Object> getInmobiliariasByIds(
+      @Schema(
+              description = "IDs of the inmobiliarias to retrieve, at most 50 per call",
+              example = "[1, 2, 3]",
+              required = true)
+          List<Integer> ids) {
+    try {
+      if (ids == null || ids.isEmpty()) {
+        throw new IllegalArgumentException("ids must contain at least one ID");
+      }
+      if (ids.size() > ToolPayloadBudget.MAX_BATCH_ITEMS) {
+        throw new IllegalArgumentException(
+            "At most %d ids per call; split the list".formatted(ToolPayloadBudget.MAX_BATCH_ITEMS));
+      }
+      Set<Long> requested = new LinkedHashSet<>();
+      ids.forEach(id -> requested.add(id.longValue()));
+      List<InmobiliariaResponse> inmobiliarias = inmobiliariaService.findAllByIds(requested);
+      inmobiliarias.forEach(inmobiliaria -> requested.remove(inmobiliaria.getId()));
+      Map<String, Object> result = new HashMap<>();
+      result.put("success", true);
+      result.put("count", inmobiliarias.size());
+      result.put("inmobiliarias", inmobiliarias);
+      result.put("missingIds", List.copyOf(requested));
+      return result;
+    } catch (Exception e) {
+      return createErrorResponse("Error retrieving inmobiliarias: " + e.getMessage());
+    }
+  }
+
   /**
    * Create a new real estate agency.
    *
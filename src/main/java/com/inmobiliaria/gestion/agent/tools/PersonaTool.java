@@ -2,24 +2,33 @@ package com.inmobiliaria.gestion.agent.tools;
 
 import com.inmobiliaria.gestion.persona.domain.PersonaTipo;
 import com.inmobiliaria.gestion.persona.dto.CreatePersonaRequest;
+import com.inmobiliaria.gestion.persona.dto.PersonaPageResponse;
 import com.inmobiliaria.gestion.persona.dto.PersonaResponse;
 import com.inmobiliaria.gestion.persona.dto.UpdatePersonaRequest;
 import com.inmobiliaria.gestion.persona.service.PersonaService;
+import com.inmobiliaria.gestion.search.domain.SearchTipo;
+import com.inmobiliaria.gestion.search.dto.SearchPageResponse;
+import com.inmobiliaria.gestion.search.service.SearchService;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 /**
  * ADK FunctionTool exposing CRUD operations for Persona entities. All business logic stays in the
- * service layer; this class adapts the contract for conversational agents.
+ * service layer; this class adapts the contract for conversational agents. The list method is
+ * paged and trimmed by {@link ToolPayloadBudget}.
  */
 @Component
 public class PersonaTool {
@@ -27,35 +36,132 @@ public class PersonaTool {
   private static final Logger log = LoggerFactory.getLogger(PersonaTool.class);
   private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+  private static final Set<String> LIST_FIELDS =
+      new LinkedHashSet<>(
+          List.of(
+              "id",
+              "tipoPersona",
+              "nombre",
+              "apellidos",
+              "razonSocial",
+              "rfc",
+              "curp",
+              "email",
+              "telefono",
+              "fechaAlta",
+              "activo"));
+  private static final Set<String> DEFAULT_LIST_FIELDS =
+      new LinkedHashSet<>(
+          List.of("id", "tipoPersona", "nombre", "apellidos", "razonSocial", "activo"));
+
   private final PersonaService personaService;
+  private final SearchService searchService;
+  private final ToolPayloadBudget payloadBudget;
 
-  public PersonaTool(PersonaService personaService) {
+  public PersonaTool(
+      PersonaService personaService, SearchService searchService, ToolPayloadBudget payloadBudget) {
     this.personaService = personaService;
+    this.searchService = searchService;
+    this.payloadBudget = payloadBudget;
   }
 
   /**
-   * List all personas registered in the system.
+   * List personas one page at a time, optionally filtered by type, status and name.
    *
-   * @return Map containing the result set
+   * @param tipoPersona Tipo de persona (FISICA o MORAL) opcional
+   * @param activo Estatus activo/inactivo opcional
+   * @param texto Fragmento del nombre, apellidos o razón social opcional
+   * @param fields Campos a devolver separados por coma (opcional)
+   * @param cursor Cursor de continuación de una llamada anterior (opcional)
+   * @param limit Número máximo de personas a devolver (opcional)
+   * @return Map containing the page and, when more rows exist, the cursor of the next one
    */
-  @Schema(description = "Listar todas las personas registradas en el sistema")
-  public Map<String, Object> listAllPersonas() {
+  @Schema(
+      description =
+          "Listar personas página por página. Todos los parámetros son filtros opcionales; si el"
+              + " resultado trae hasMore=true, vuelve a llamar con cursor=nextCursor para"
+              + " continuar.")
+  public Map<String, Object> listAllPersonas(
+      @Schema(description = "Solo personas de este tipo (FISICA o MORAL)", example = "MORAL")
+          String tipoPersona,
+      @Schema(description = "Solo personas activas (true) o inactivas (false)", example = "true")
+          Boolean activo,
+      @Schema(description = "Fragmento del nombre, apellidos o razón social", example = "Delta")
+          String texto,
+      @Schema(
+              description =
+                  "Campos a devolver separados por coma. Disponibles: id, tipoPersona, nombre,"
+                      + " apellidos, razonSocial, rfc, curp, email, telefono, fechaAlta, activo;"
+                      + " '*' para todos. Por defecto: id, tipoPersona, nombre, apellidos,"
+                      + " razonSocial, activo.",
+              example = "id,razonSocial,email")
+          String fields,
+      @Schema(description = "nextCursor de la llamada anterior (opcional)") String cursor,
+      @Schema(description = "Máximo de personas por página, 1-500 (opcional)", example = "25")
+          Integer limit) {
     try {
-      List<PersonaResponse> personas = personaService.findAll();
+      PersonaTipo personaTipo = parseTipo(tipoPersona, false);
+      Set<String> selected = payloadBudget.resolveFields(fields, LIST_FIELDS, DEFAULT_LIST_FIELDS);
+      PersonaPageResponse page =
+          personaService.findFilteredPage(
+              personaTipo,
+              activo,
+              texto,
+              cursor != null && !cursor.isBlank() ? cursor : null,
+              limit != null ? limit : ToolPayloadBudget.DEFAULT_LIMIT);
       // Convert to serializable format (LocalDateTime -> String) for ADK compatibility
-      List<Map<String, Object>> personasData =
-          personas.stream().map(this::convertPersonaToMap).toList();
-      Map<String, Object> result = new HashMap<>();
-      result.put("success", true);
-      result.put("count", personasData.size());
-      result.put("personas", personasData);
-      return result;
+      List<Map<String, Object>> rows =
+          page.getItems().stream()
+              .map(persona -> payloadBudget.project(convertPersonaToMap(persona), selected))
+              .toList();
+      return payloadBudget.page(
+          "personas", rows, page.getNextCursor(), personaService::cursorAfter);
     } catch (Exception e) {
       log.error("Error listing personas", e);
       return createErrorResponse("Error listing personas: " + e.getMessage());
     }
   }
 
+  /**
+   * Search personas by free text, ranked by relevance.
+   *
+   * @param query Text to look for
+   * @param cursor Continuation cursor returned by a previous call (optional)
+   * @param limit Maximum number of matches to return (optional)
+   * @return Map containing the best matches and, when more exist, the cursor of the next page
+   */
+  @Schema(
+      description =
+          "Buscar personas por texto libre en nombre, apellidos, razón social, RFC, CURP y"
+              + " correo, con las mejores coincidencias primero. Úsalo cuando el usuario describe"
+              + " a una persona en lugar de listar todas.")
+  public Map<String, Object> searchPersonas(
+      @Schema(description = "Texto a buscar", example = "gomez ramirez", required = true)
+          String query,
+      @Schema(description = "nextCursor de la llamada anterior (opcional)") String cursor,
+      @Schema(description = "Máximo de coincidencias por página, 1-100 (opcional)", example = "25")
+          Integer limit) {
+    try {
+      String resumeFrom = cursor != null && !cursor.isBlank() ? cursor : null;
+      SearchPageResponse page =
+          searchService.search(
+              query,
+              EnumSet.of(SearchTipo.PERSONA),
+              resumeFrom,
+              limit != null ? limit : ToolPayloadBudget.DEFAULT_LIMIT);
+      List<Map<String, Object>> rows =
+          page.getItems().stream().map(ToolPayloadBudget::searchRow).toList();
+      return payloadBudget.rankedPage(
+          "personas",
+          rows,
+          page.getNextCursor(),
+          kept -> searchService.cursorAfter(resumeFrom, kept));
+    } catch (Exception e) {
+      log.error("Error searching personas", e);
+      return createErrorResponse("Error searching personas: " + e.getMessage());
+    }
+  }
+
   /**
    * Retrieve the details for a specific persona.
    *
@@ -248,6 +354,67 @@ public class PersonaTool {
     }
   }
 
+  /**
+   * Apply partial updates to several personas at once.
+   *
+   * @param personas Changes per persona: its id plus only the fields to change
+   * @return Map con las personas actualizadas o el error que impidió actualizarlas
+   */
+  @Schema(
+      description =
+          "Actualizar varias personas en una sola llamada. Úselo en lugar de llamar updatePersona"
+              + " varias veces cuando el usuario pida cambios sobre más de una persona. Cada"
+              + " elemento lleva el id y solo los campos a cambiar. Se actualizan todas o ninguna.")
+  public Map<String, Object> updatePersonas(
+      @Schema(description = "Cambios por persona, máximo 50 por llamada", required = true)
+          List<PersonaChanges> personas) {
+    try {
+      if (personas == null || personas.isEmpty()) {
+        throw new IllegalArgumentException("La lista de personas no puede estar vacía");
+      }
+      if (personas.size() > ToolPayloadBudget.MAX_BATCH_ITEMS) {
+        throw new IllegalArgumentException(
+            "Máximo %d personas por llamada; divida la lista"
+                .formatted(ToolPayloadBudget.MAX_BATCH_ITEMS));
+      }
+      Map<Long, UpdatePersonaRequest> requests = new LinkedHashMap<>();
+      for (PersonaChanges changes : personas) {
+        if (changes.getId() == null) {
+          throw new IllegalArgumentException("Cada persona requiere su id");
+        }
+        PersonaTipo personaTipo =
+            changes.getTipoPersona() != null ? parseTipo(changes.getTipoPersona(), false) : null;
+        UpdatePersonaRequest request =
+            new UpdatePersonaRequest(
+                personaTipo,
+                changes.getNombre(),
+                changes.getApellidos(),
+                changes.getRazonSocial(),
+                changes.getRfc(),
+                changes.getCurp(),
+                changes.getEmail(),
+                changes.getTelefono(),
+                changes.getFechaAlta() != null ? parseFecha(changes.getFechaAlta(), false) : null,
+                changes.getActivo());
+        if (requests.put(changes.getId().longValue(), request) != null) {
+          throw new IllegalArgumentException(
+              "La persona " + changes.getId() + " aparece más de una vez; combine sus cambios");
+        }
+      }
+      List<Map<String, Object>> updated =
+          personaService.updateAll(requests).stream().map(this::convertPersonaToMap).toList();
+      Map<String, Object> result = new HashMap<>();
+      result.put("success", true);
+      result.put("message", updated.size() + " personas updated successfully");
+      result.put("count", updated.size());
+      result.put("personas", updated);
+      return result;
+    } catch (Exception e) {
+      log.error("Error updating personas", e);
+      return createErrorResponse("Error updating personas: " + e.getMessage());
+    }
+  }
+
   /**
    * Delete a persona by its identifier.
    *
@@ -332,4 +499,108 @@ public class PersonaTool {
     map.put("activo", persona.isActivo());
     return map;
   }
+
+  /** Changes to one persona in an {@link #updatePersonas} call; null fields stay unchanged. */
+  public static final class PersonaChanges {
+
+    private Integer id;
+    private String tipoPersona;
+    private String nombre;
+    private String apellidos;
+    private String razonSocial;
+    private String rfc;
+    private String curp;
+    private String email;
+    private String telefono;
+    private String fechaAlta;
+    private Boolean activo;
+
+    public Integer getId() {
+      return id;
+    }
+
+    public void setId(Integer id) {
+      this.id = id;
+    }
+
+    public String getTipoPersona() {
+      return tipoPersona;
+    }
+
+    public void setTipoPersona(String tipoPersona) {
+      this.tipoPersona = tipoPersona;
+    }
+
+    public String getNombre() {
+      return nombre;
+    }
+
+    public void setNombre(String nombre) {
+      this.nombre = nombre;
+    }
+
+    public String getApellidos() {
+      return apellidos;
+    }
+
+    public void setApellidos(String apellidos) {
+      this.apellidos = apellidos;
+    }
+
+    public String getRazonSocial() {
+      return razonSocial;
+    }
+
+    public void setRazonSocial(String razonSocial) {
+      this.razonSocial = razonSocial;
+    }
+
+    public String getRfc() {
+      return rfc;
+    }
+
+    public void setRfc(String rfc) {
+      this.rfc = rfc;
+    }
+
+    public String getCurp() {
+      return curp;
+    }
+
+    public void setCurp(String curp) {
+      this.curp = curp;
+    }
+
+    public String getEmail() {
+      return email;
+    }
+
+    public void setEmail(String email) {
+      this.email = email;
+    }
+
+    public String getTelefono() {
+      return telefono;
+    }
+
+    public void setTelefono(String telefono) {
+      this.telefono = telefono;
+    }
+
+    public String getFechaAlta() {
+      return fechaAlta;
+    }
+
+    public void setFechaAlta(String fechaAlta) {
+      this.fechaAlta = fechaAlta;
+    }
+
+    public Boolean getActivo() {
+      return activo;
+    }
+
+    public void setActivo(Boolean activo) {
+      this.activo = activo;
+    }
+  }
 }
@@ -2,47 +2,104 @@ package com.inmobiliaria.gestion.agent.tools;
 
 import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
 import com.inmobiliaria.gestion.propiedad.dto.CreatePropiedadRequest;
+import com.inmobiliaria.gestion.propiedad.dto.PropiedadPageResponse;
 import com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse;
 import com.inmobiliaria.gestion.propiedad.dto.UpdatePropiedadRequest;
 import com.inmobiliaria.gestion.propiedad.service.PropiedadService;
+import com.inmobiliaria.gestion.search.domain.SearchTipo;
+import com.inmobiliaria.gestion.search.dto.SearchPageResponse;
+import com.inmobiliaria.gestion.search.service.SearchService;
 import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 /**
  * ADK FunctionTool exposing CRUD operations for Propiedad entities. All methods delegate to {@link
- * PropiedadService} and return map-based responses suitable for conversational agents.
+ * PropiedadService} and return map-based responses suitable for conversational agents. List
+ * methods are paged and trimmed by {@link ToolPayloadBudget}.
  */
 @Component
 public class PropiedadTool {
 
   private static final Logger log = LoggerFactory.getLogger(PropiedadTool.class);
 
+  private static final Set<String> LIST_FIELDS =
+      new LinkedHashSet<>(
+          List.of(
+              "id",
+              "nombre",
+              "tipo",
+              "direccion",
+              "observaciones",
+              "inmobiliariaId",
+              "inmobiliariaNombre"));
+  private static final Set<String> DEFAULT_LIST_FIELDS =
+      new LinkedHashSet<>(List.of("id", "nombre", "tipo", "inmobiliariaId", "inmobiliariaNombre"));
+
   private final PropiedadService propiedadService;
+  private final SearchService searchService;
+  private final ToolPayloadBudget payloadBudget;
 
-  public PropiedadTool(PropiedadService propiedadService) {
+  public PropiedadTool(
+      PropiedadService propiedadService,
+      SearchService searchService,
+      ToolPayloadBudget payloadBudget) {
     this.propiedadService = propiedadService;
+    this.searchService = searchService;
+    this.payloadBudget = payloadBudget;
   }
 
   /**
-   * List all properties registered in the system.
+   * List properties one page at a time, optionally filtered by agency, type and name.
    *
-   * @return Map containing the result set
+   * @param inmobiliariaId Owning inmobiliaria filter (optional)
+   * @param tipo Property type filter (optional)
+   * @param nombre Case-insensitive fragment of the property name (optional)
+   * @param fields Comma separated fields to return (optional)
+   * @param cursor Continuation cursor returned by a previous call (optional)
+   * @param limit Maximum number of properties to return (optional)
+   * @return Map containing the page and, when more rows exist, the cursor of the next one
    */
-  @Schema(description = "List all properties (propiedades) registered in the system")
-  public Map<String, Object> listAllPropiedades() {
+  @Schema(
+      description =
+          "List properties (propiedades) page by page. All parameters are optional filters;"
+              + " when the result has hasMore=true, call again with cursor=nextCursor to continue.")
+  public Map<String, Object> listAllPropiedades(
+      @Schema(description = "Only properties of this inmobiliaria (optional)", example = "10")
+          Integer inmobiliariaId,
+      @Schema(description = "Only properties of this type (optional)", example = "CASA")
+          String tipo,
+      @Schema(description = "Fragment of the property name (optional)", example = "Azul")
+          String nombre,
+      @Schema(
+              description =
+                  "Comma separated fields to return (optional). Available: id, nombre, tipo,"
+                      + " direccion, observaciones, inmobiliariaId, inmobiliariaNombre; '*' for"
+                      + " all. Defaults to id, nombre, tipo, inmobiliariaId, inmobiliariaNombre.",
+              example = "id,nombre,direccion")
+          String fields,
+      @Schema(description = "nextCursor of the previous call (optional)") String cursor,
+      @Schema(description = "Maximum properties per page, 1-500 (optional)", example = "25")
+          Integer limit) {
     try {
-      List<PropiedadResponse> propiedades = propiedadService.findAll();
-      Map<String, Object> result = new HashMap<>();
-      result.put("success", true);
-      result.put("count", propiedades.size());
-      result.put("propiedades", propiedades);
-      return result;
+      PropiedadTipo propiedadTipo =
+          tipo != null && !tipo.isBlank() ? parseTipo(tipo, false) : null;
+      return listPage(
+          inmobiliariaId != null ? inmobiliariaId.longValue() : null,
+          propiedadTipo,
+          nombre,
+          fields,
+          cursor,
+          limit);
     } catch (Exception e) {
       log.error("Error listing propiedades", e);
       return createErrorResponse("Error listing propiedades: " + e.getMessage());
@@ -50,10 +107,13 @@ public class PropiedadTool {
   }
 
   /**
-   * List properties that belong to a specific inmobiliaria.
+   * List properties that belong to a specific inmobiliaria, one page at a time.
    *
    * @param inmobiliariaId Identifier of the owning inmobiliaria
-   * @return Map containing the result set
+   * @param fields Comma separated fields to return (optional)
+   * @param cursor Continuation cursor returned by a previous call (optional)
+   * @param limit Maximum number of properties to return (optional)
+   * @return Map containing the page and, when more rows exist, the cursor of the next one
    */
   @Schema(
       description =
@@ -64,21 +124,63 @@ public class PropiedadTool {
               description = "Identifier of the inmobiliaria that owns the properties",
               example = "10",
               required = true)
-          Integer inmobiliariaId) {
+          Integer inmobiliariaId,
+      @Schema(description = "Comma separated fields to return (optional)", example = "id,nombre")
+          String fields,
+      @Schema(description = "nextCursor of the previous call (optional)") String cursor,
+      @Schema(description = "Maximum properties per page, 1-500 (optional)", example = "25")
+          Integer limit) {
     try {
-      List<PropiedadResponse> propiedades =
-          propiedadService.findAllByInmobiliaria(inmobiliariaId.longValue());
-      Map<String, Object> result = new HashMap<>();
-      result.put("success", true);
-      result.put("count", propiedades.size());
-      result.put("propiedades", propiedades);
-      return result;
+      return listPage(inmobiliariaId.longValue(), null, null, fields, cursor, limit);
     } catch (Exception e) {
       log.error("Error listing propiedades for inmobiliaria {}", inmobiliariaId, e);
       return createErrorResponse("Error listing propiedades: " + e.getMessage());
     }
   }
 
+  /**
+   * Search propiedades by free text, ranked by relevance.
+   *
+   * @param query Text to look for
+   * @param cursor Continuation cursor returned by a previous call (optional)
+   * @param limit Maximum number of matches to return (optional)
+   * @return Map containing the best matches and, when more exist, the cursor of the next page
+   */
+  @Schema(
+      description =
+          "Search properties by free text over name, address and notes, best matches first."
+              + " Use it to find a property the user describes (e.g. 'the house on Av. Central')"
+              + " instead of listing the whole catalog.")
+  public Map<String, Object> searchPropiedades(
+      @Schema(
+              description = "Words to look for in the property name, address or notes",
+              example = "casa av central",
+              required = true)
+          String query,
+      @Schema(description = "nextCursor of the previous call (optional)") String cursor,
+      @Schema(description = "Maximum matches per page, 1-100 (optional)", example = "25")
+          Integer limit) {
+    try {
+      String resumeFrom = cursor != null && !cursor.isBlank() ? cursor : null;
+      SearchPageResponse page =
+          searchService.search(
+              query,
+              EnumSet.of(SearchTipo.PROPIEDAD),
+              resumeFrom,
+              limit != null ? limit : ToolPayloadBudget.DEFAULT_LIMIT);
+      List<Map<String, Object>> rows =
+          page.getItems().stream().map(ToolPayloadBudget::searchRow).toList();
+      return payloadBudget.rankedPage(
+          "propiedades",
+          rows,
+          page.getNextCursor(),
+          kept -> searchService.cursorAfter(resumeFrom, kept));
+    } catch (Exception e) {
+      log.error("Error searching propiedades", e);
+      return createErrorResponse("Error searching propiedades: " + e.getMessage());
+    }
+  }
+
   /**
    * Get the details of a specific property by id.
    *
@@ -148,6 +250,48 @@ public class PropiedadTool {
     }
   }
 
+  /**
+   * Create several properties at once.
+   *
+   * @param propiedades Properties to create, each with the same fields as {@link #createPropiedad}
+   * @return Map with the created properties, or the error that prevented creating any of them
+   */
+  @Schema(
+      description =
+          "Register several properties in one call. Use it instead of repeated createPropiedad"
+              + " calls whenever the user asks for more than one property. Either all of them are"
+              + " created or none is.")
+  public Map<String, Object> createPropiedades(
+      @Schema(description = "Properties to create, at most 50 per call", required = true)
+          List<NewPropiedad> propiedades) {
+    try {
+      requireBatch(propiedades);
+      List<CreatePropiedadRequest> requests = new ArrayList<>(propiedades.size());
+      for (NewPropiedad propiedad : propiedades) {
+        if (propiedad.getInmobiliariaId() == null) {
+          throw new IllegalArgumentException("inmobiliariaId is required");
+        }
+        requests.add(
+            new CreatePropiedadRequest(
+                propiedad.getNombre(),
+                parseTipo(propiedad.getTipo(), true),
+                propiedad.getDireccion(),
+                propiedad.getObservaciones(),
+                propiedad.getInmobiliariaId().longValue()));
+      }
+      List<PropiedadResponse> created = propiedadService.createAll(requests);
+      Map<String, Object> result = new HashMap<>();
+      result.put("success", true);
+      result.put("message", created.size() + " propiedades created successfully");
+      result.put("count", created.size());
+      result.put("propiedades", created);
+      return result;
+    } catch (Exception e) {
+      log.error("Error creating propiedades", e);
+      return createErrorResponse("Error creating propiedades: " + e.getMessage());
+    }
+  }
+
   /**
    * Update an existing property (supports partial updates).
    *
@@ -218,6 +362,52 @@ public class PropiedadTool {
     }
   }
 
+  private static void requireBatch(List<?> items) {
+    if (items == null || items.isEmpty()) {
+      throw new IllegalArgumentException("propiedades must contain at least one property");
+    }
+    if (items.size() > ToolPayloadBudget.MAX_BATCH_ITEMS) {
+      throw new IllegalArgumentException(
+          "At most %d propiedades per call; split the list"
+              .formatted(ToolPayloadBudget.MAX_BATCH_ITEMS));
+    }
+  }
+
+  private Map<String, Object> listPage(
+      Long inmobiliariaId,
+      PropiedadTipo tipo,
+      String nombre,
+      String fields,
+      String cursor,
+      Integer limit) {
+    Set<String> selected = payloadBudget.resolveFields(fields, LIST_FIELDS, DEFAULT_LIST_FIELDS);
+    PropiedadPageResponse page =
+        propiedadService.findFilteredPage(
+            inmobiliariaId,
+            tipo,
+            nombre,
+            cursor != null && !cursor.isBlank() ? cursor : null,
+            limit != null ? limit : ToolPayloadBudget.DEFAULT_LIMIT);
+    List<Map<String, Object>> rows =
+        page.getItems().stream()
+            .map(propiedad -> payloadBudget.project(toMap(propiedad), selected))
+            .toList();
+    return payloadBudget.page(
+        "propiedades", rows, page.getNextCursor(), propiedadService::cursorAfter);
+  }
+
+  private Map<String, Object> toMap(PropiedadResponse propiedad) {
+    Map<String, Object> map = new HashMap<>();
+    map.put("id", propiedad.getId());
+    map.put("nombre", propiedad.getNombre());
+    map.put("tipo", propiedad.getTipo() != null ? propiedad.getTipo().name() : null);
+    map.put("direccion", propiedad.getDireccion());
+    map.put("observaciones", propiedad.getObservaciones());
+    map.put("inmobiliariaId", propiedad.getInmobiliariaId());
+    map.put("inmobiliariaNombre", propiedad.getInmobiliariaNombre());
+    return map;
+  }
+
   private PropiedadTipo parseTipo(String rawValue, boolean required) {
     if (rawValue == null) {
       if (required) {
@@ -244,4 +434,54 @@ public class PropiedadTool {
     error.put("error", message);
     return error;
   }
+
+  /** One property of a {@link #createPropiedades} call, as sent by the model. */
+  public static final class NewPropiedad {
+
+    private String nombre;
+    private String tipo;
+    private Integer inmobiliariaId;
+    private String direccion;
+    private String observaciones;
+
+    public String getNombre() {
+      return nombre;
+    }
+
+    public void setNombre(String nombre) {
+      this.nombre = nombre;
+    }
+
+    public String getTipo() {
+      return tipo;
+    }
+
+    public void setTipo(String tipo) {
+      this.tipo = tipo;
+    }
+
+    public Integer getInmobiliariaId() {
+      return inmobiliariaId;
+    }
+
+    public void setInmobiliariaId(Integer inmobiliariaId) {
+      this.inmobiliariaId = inmobiliariaId;
+    }
+
+    public String getDireccion() {
+      return direccion;
+    }
+
+    public void setDireccion(String direccion) {
+      this.direccion = direccion;
+    }
+
+    public String getObservaciones() {
+      return observaciones;
+    }
+
+    public void setObservaciones(String observaciones) {
+      this.observaciones = observaciones;
+    }
+  }
 }
@@ -0,0 +1,189 @@
+package com.inmobiliaria.gestion.agent.tools;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.adk.JsonBaseModel;
+import com.inmobiliaria.gestion.search.dto.SearchResultResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps list tool results small enough for the model context. Rows are projected to the requested
+ * fields and added to the payload until the serialized size reaches {@code
+ * agent.tools.max-result-bytes}; the rest of the page is dropped and replaced by a continuation
+ * cursor the model can pass back to the same tool.
+ */
+@Component
+public class ToolPayloadBudget {
+
+  /** Default page size of the list tools, kept well below the REST page limit. */
+  public static final int DEFAULT_LIMIT = 25;
+
+  /**
+   * Most items a batch tool accepts in one call, so its single transaction and its result stay
+   * small; the model splits longer lists into several calls.
+   */
+  public static final int MAX_BATCH_ITEMS = 50;
+
+  /** Value of the {@code fields} parameter that selects every available field. */
+  private static final String ALL_FIELDS = "*";
+
+  private final ObjectMapper mapper = JsonBaseModel.getMapper();
+  private final int maxResultBytes;
+
+  public ToolPayloadBudget(@Value("${agent.tools.max-result-bytes:16384}") int maxResultBytes) {
+    if (maxResultBytes < 1) {
+      throw new IllegalArgumentException("agent.tools.max-result-bytes must be positive");
+    }
+    this.maxResultBytes = maxResultBytes;
+  }
+
+  /**
+   * Resolves the comma separated {@code fields} parameter of a list tool. Blank selects the
+   * defaults, {@code *} selects everything, and {@code id} is always included so the model can
+   * refer back to a row.
+   */
+  public Set<String> resolveFields(String raw, Set<String> available, Set<String> defaults) {
+    if (raw == null || raw.isBlank()) {
+      return defaults;
+    }
+    if (raw.trim().equals(ALL_FIELDS)) {
+      return available;
+    }
+    Set<String> fields = new LinkedHashSet<>();
+    fields.add("id");
+    for (String token : raw.split(",")) {
+      String field = token.trim();
+      if (field.isEmpty()) {
+        continue;
+      }
+      String match =
+          available.stream()
+              .filter(candidate -> candidate.equalsIgnoreCase(field))
+              .findFirst()
+              .orElseThrow(
+                  () ->
+                      new IllegalArgumentException(
+                          "Unknown field '" + field + "'. Available fields: " + available));
+      fields.add(match);
+    }
+    return fields;
+  }
+
+  /** Keeps only the selected fields of a row, dropping null values. */
+  public Map<String, Object> project(Map<String, Object> row, Set<String> fields) {
+    Map<String, Object> projected = new LinkedHashMap<>();
+    for (String field : fields) {
+      Object value = row.get(field);
+      if (value != null) {
+        projected.put(field, value);
+      }
+    }
+    return projected;
+  }
+
+  /**
+   * Builds the tool result for one page of rows. When the rows do not fit in the byte budget the
+   * payload is cut after the last row that fits and {@code nextCursor} resumes right after it, so
+   * no row is skipped. At least one row is always returned so paging makes progress.
+   *
+   * @param itemsKey name of the list entry in the result map
+   * @param rows projected rows of the page, each carrying its {@code id}
+   * @param nextCursor cursor of the following page, or null when the page is the last one
+   * @param cursorAfter builds the cursor that resumes after a given id
+   */
+  public Map<String, Object> page(
+      String itemsKey,
+      List<Map<String, Object>> rows,
+      String nextCursor,
+      LongFunction<String> cursorAfter) {
+    return fit(
+        itemsKey,
+        rows,
+        nextCursor,
+        kept -> cursorAfter.apply(((Number) rows.get(kept - 1).get("id")).longValue()));
+  }
+
+  /**
+   * Same as {@link #page} for results that are paged by position rather than by id, such as ranked
+   * search results.
+   *
+   * @param cursorAfterRows builds the cursor that resumes after the first {@code n} rows of the
+   *     page
+   */
+  public Map<String, Object> rankedPage(
+      String itemsKey,
+      List<Map<String, Object>> rows,
+      String nextCursor,
+      IntFunction<String> cursorAfterRows) {
+    return fit(itemsKey, rows, nextCursor, cursorAfterRows);
+  }
+
+  private Map<String, Object> fit(
+      String itemsKey,
+      List<Map<String, Object>> rows,
+      String nextCursor,
+      IntFunction<String> cursorAfterRows) {
+    List<Map<String, Object>> items = new ArrayList<>(rows.size());
+    int usedBytes = 0;
+    boolean truncated = false;
+    for (Map<String, Object> row : rows) {
+      int rowBytes = serializedSize(row) + 1;
+      if (!items.isEmpty() && usedBytes + rowBytes > maxResultBytes) {
+        truncated = true;
+        break;
+      }
+      items.add(row);
+      usedBytes += rowBytes;
+    }
+
+    String cursor = truncated ? cursorAfterRows.apply(items.size()) : nextCursor;
+
+    Map<String, Object> result = new HashMap<>();
+    result.put("success", true);
+    result.put("count", items.size());
+    result.put(itemsKey, items);
+    result.put("hasMore", cursor != null);
+    if (cursor != null) {
+      result.put("nextCursor", cursor);
+      result.put(
+          "note",
+          (truncated ? "Result truncated to fit the response budget. " : "")
+              + "More "
+              + itemsKey.toLowerCase(Locale.ROOT)
+              + " are available: call the same tool again with cursor=nextCursor and the same"
+              + " filters to continue.");
+    }
+    return result;
+  }
+
+  /** Compact row for a search match; the catalog is implied by the tool that ran the search. */
+  public static Map<String, Object> searchRow(SearchResultResponse match) {
+    Map<String, Object> row = new LinkedHashMap<>();
+    row.put("id", match.getId());
+    row.put("titulo", match.getTitulo());
+    if (match.getDetalle() != null) {
+      row.put("detalle", match.getDetalle());
+    }
+    row.put("score", Math.round(match.getScore() * 1000) / 1000.0);
+    return row;
+  }
+
+  private int serializedSize(Map<String, Object> row) {
+    try {
+      return mapper.writeValueAsBytes(row).length;
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Tool result row is not serializable", ex);
+    }
+  }
+}
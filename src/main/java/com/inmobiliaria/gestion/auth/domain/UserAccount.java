@@ -1,6 +1,8 @@
 package com.inmobiliaria.gestion.auth.domain;
 
+import com.inmobiliaria.gestion.config.SecondLevelCacheConfig;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
@@ -10,17 +12,24 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.Instant;
 import java.util.Objects;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USERS_REGION)
 @Table(name = "users")
 @Schema(description = "Entidad que representa a un usuario autenticado")
 public class UserAccount {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+  @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false, unique = true, length = 150)
@@ -42,6 +51,10 @@ public class UserAccount {
   @Column(name = "updated_at", nullable = false)
   private Instant updatedAt;
 
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
   protected UserAccount() {
     // Constructor requerido por JPA
   }
@@ -93,7 +106,15 @@ public class UserAccount {
     return updatedAt;
   }
 
+  public Long getVersion() {
+    return version;
+  }
+
   public void updatePasswordHash(String hashedPassword) {
     this.passwordHash = Objects.requireNonNull(hashedPassword, "hashedPassword");
   }
+
+  public void updateRole(UserRole newRole) {
+    this.role = Objects.requireNonNull(newRole, "newRole");
+  }
 }
@@ -1,10 +1,18 @@
 package com.inmobiliaria.gestion.auth.repository;
 
 import com.inmobiliaria.gestion.auth.domain.UserAccount;
+import jakarta.persistence.QueryHint;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface UserAccountRepository extends JpaRepository<UserAccount, Long> {
+  /** Only used to authenticate, so the account is loaded without a dirty-checking snapshot. */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+  })
   Optional<UserAccount> findByEmailIgnoreCase(String email);
 
   boolean existsByEmailIgnoreCase(String email);
@@ -0,0 +1,24 @@
+package com.inmobiliaria.gestion.auth.security;
+
+import com.inmobiliaria.gestion.auth.domain.UserAccount;
+import java.util.Objects;
+
+/** Result of a successful token validation: the verified claims and the resolved principal. */
+public final class CachedAuthentication {
+
+  private final JwtPayload payload;
+  private final UserAccount user;
+
+  public CachedAuthentication(JwtPayload payload, UserAccount user) {
+    this.payload = Objects.requireNonNull(payload, "payload");
+    this.user = Objects.requireNonNull(user, "user");
+  }
+
+  public JwtPayload getPayload() {
+    return payload;
+  }
+
+  public UserAccount getUser() {
+    return user;
+  }
+}
@@ -0,0 +1,140 @@
+package com.inmobiliaria.gestion.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.inmobiliaria.gestion.auth.domain.UserAccount;
+import com.inmobiliaria.gestion.auth.service.UserAccountChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bounded cache of already verified JWTs. Entries are keyed by the SHA-256 of the raw token (the
+ * token itself is never kept in memory) and hold the validated payload plus the resolved {@link
+ * UserAccount}, so repeated requests with the same token skip the HMAC check, payload parsing and
+ * the user lookup.
+ *
+ * <p>Each entry lives until the earlier of the token expiry and the configured TTL. The TTL bounds
+ * how long a cached principal can lag behind the database; role or password changes evict the
+ * user's entries immediately through {@link #invalidateUser(Long)}. The next request reloads the
+ * account, and {@link JwtAuthenticationFilter} grants the role stored there, not the role claim of
+ * the token, so a demotion applies without waiting for the token to expire.
+ */
+@Component
+public class JwtAuthenticationCache {
+
+  private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationCache.class);
+
+  private final Cache<String, CachedAuthentication> cache;
+  private final Clock clock;
+  private final Duration ttl;
+
+  public JwtAuthenticationCache(
+      @Value("${app.security.jwt.cache.maximum-size:10000}") long maximumSize,
+      @Value("${app.security.jwt.cache.ttl-seconds:300}") long ttlSeconds,
+      Clock clock,
+      MeterRegistry meterRegistry) {
+    this.clock = Objects.requireNonNull(clock, "clock");
+    this.ttl = Duration.ofSeconds(ttlSeconds);
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new TokenExpiry())
+            .ticker(() -> TimeUnit.MILLISECONDS.toNanos(this.clock.millis()))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtAuthentication");
+  }
+
+  /**
+   * Returns the cached authentication for {@code token}, or {@code null} when the token has not
+   * been verified yet or its entry already expired.
+   */
+  public CachedAuthentication get(String token) {
+    CachedAuthentication cached = cache.getIfPresent(keyFor(token));
+    if (cached != null && !cached.getPayload().getExpiresAt().isAfter(clock.instant())) {
+      return null;
+    }
+    return cached;
+  }
+
+  /** Stores a freshly verified token and returns the cached value. */
+  public CachedAuthentication put(String token, JwtPayload payload, UserAccount user) {
+    CachedAuthentication authentication = new CachedAuthentication(payload, user);
+    cache.put(keyFor(token), authentication);
+    return authentication;
+  }
+
+  /** Evicts every cached token that resolved to the given user. */
+  public void invalidateUser(Long userId) {
+    cache
+        .asMap()
+        .values()
+        .removeIf(authentication -> userId.equals(authentication.getUser().getId()));
+    log.debug("Tokens en caché invalidados para el usuario {}", userId);
+  }
+
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserAccountChanged(UserAccountChangedEvent event) {
+    if (event.getUserId() == null) {
+      invalidateAll();
+    } else {
+      invalidateUser(event.getUserId());
+    }
+  }
+
+  private String keyFor(String token) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException("SHA-256 no disponible", ex);
+    }
+  }
+
+  private final class TokenExpiry implements Expiry<String, CachedAuthentication> {
+
+    @Override
+    public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+      Instant now = clock.instant();
+      Instant deadline = now.plus(ttl);
+      Instant expiresAt = value.getPayload().getExpiresAt();
+      if (expiresAt.isBefore(deadline)) {
+        deadline = expiresAt;
+      }
+      return Math.max(0L, Duration.between(now, deadline).toNanos());
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, CachedAuthentication value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, CachedAuthentication value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package com.inmobiliaria.gestion.auth.security;
 
 import com.inmobiliaria.gestion.auth.domain.UserAccount;
+import com.inmobiliaria.gestion.auth.domain.UserRole;
 import com.inmobiliaria.gestion.auth.service.UserAccountService;
 import com.inmobiliaria.gestion.exception.JwtValidationException;
 import com.inmobiliaria.gestion.exception.ResourceNotFoundException;
@@ -29,10 +30,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
   private final JwtUtil jwtUtil;
   private final UserAccountService userAccountService;
+  private final JwtAuthenticationCache authenticationCache;
 
-  public JwtAuthenticationFilter(JwtUtil jwtUtil, UserAccountService userAccountService) {
+  public JwtAuthenticationFilter(
+      JwtUtil jwtUtil,
+      UserAccountService userAccountService,
+      JwtAuthenticationCache authenticationCache) {
     this.jwtUtil = jwtUtil;
     this.userAccountService = userAccountService;
+    this.authenticationCache = authenticationCache;
   }
 
   @Override
@@ -45,11 +51,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
       String token = header.substring(7);
       try {
-        JwtPayload payload = jwtUtil.validateToken(token);
-        UserAccount user = userAccountService.getById(payload.getUserId());
+        CachedAuthentication authenticated = authenticate(token);
         UsernamePasswordAuthenticationToken authentication =
             new UsernamePasswordAuthenticationToken(
-                user, null, buildAuthorities(payload.getRole()));
+                authenticated.getUser(),
+                null,
+                buildAuthorities(authenticated.getUser().getRole()));
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
         SecurityContextHolder.getContext().setAuthentication(authentication);
       } catch (JwtValidationException | ResourceNotFoundException ex) {
@@ -67,7 +74,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
-  private List<GrantedAuthority> buildAuthorities(String role) {
-    return List.of(new SimpleGrantedAuthority("ROLE_" + role));
+  private CachedAuthentication authenticate(String token) {
+    CachedAuthentication cached = authenticationCache.get(token);
+    if (cached != null) {
+      return cached;
+    }
+    JwtPayload payload = jwtUtil.validateToken(token);
+    UserAccount user = userAccountService.getById(payload.getUserId());
+    return authenticationCache.put(token, payload, user);
+  }
+
+  /**
+   * Authorities come from the resolved account rather than the token's role claim, so a role change
+   * applies as soon as the cached entry is evicted instead of when the token expires.
+   */
+  private List<GrantedAuthority> buildAuthorities(UserRole role) {
+    return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
   }
 }
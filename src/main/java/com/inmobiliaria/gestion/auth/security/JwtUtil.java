@@ -1,19 +1,24 @@
 package com.inmobiliaria.gestion.auth.security;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inmobiliaria.gestion.auth.domain.UserAccount;
 import com.inmobiliaria.gestion.exception.JwtValidationException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.Base64;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import org.slf4j.Logger;
@@ -27,12 +32,20 @@ public class JwtUtil {
   private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
   private static final String HMAC_SHA256 = "HmacSHA256";
 
-  private final byte[] secretKey;
+  /**
+   * Upper bound of idle {@link Mac} instances kept for reuse. Virtual threads are never reused, so
+   * a {@code ThreadLocal} would key one Mac per request; a shared pool keeps them warm instead.
+   */
+  private static final int MAC_POOL_SIZE = 64;
+
   private final long expirationSeconds;
   private final ObjectMapper objectMapper;
   private final Clock clock;
   private final Base64.Encoder urlEncoder = Base64.getUrlEncoder().withoutPadding();
   private final Base64.Decoder urlDecoder = Base64.getUrlDecoder();
+  private final SecretKeySpec signingKey;
+  private final Mac macPrototype;
+  private final BlockingQueue<Mac> macPool = new ArrayBlockingQueue<>(MAC_POOL_SIZE);
 
   public JwtUtil(
       @Value("${app.security.jwt.secret}") String secret,
@@ -42,10 +55,11 @@ public class JwtUtil {
     if (secret == null || secret.isBlank()) {
       throw new IllegalArgumentException("La clave secreta JWT no puede estar vacía");
     }
-    this.secretKey = secret.getBytes(StandardCharsets.UTF_8);
     this.expirationSeconds = expirationSeconds;
     this.objectMapper = Objects.requireNonNull(objectMapper, "objectMapper");
     this.clock = Objects.requireNonNull(clock, "clock");
+    this.signingKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_SHA256);
+    this.macPrototype = createMac();
   }
 
   public String generateToken(UserAccount userAccount) {
@@ -65,7 +79,8 @@ public class JwtUtil {
     try {
       String headerPart = urlEncoder.encodeToString(objectMapper.writeValueAsBytes(header));
       String payloadPart = urlEncoder.encodeToString(objectMapper.writeValueAsBytes(payload));
-      String signature = sign(headerPart + "." + payloadPart);
+      byte[] signingInput = (headerPart + "." + payloadPart).getBytes(StandardCharsets.US_ASCII);
+      String signature = urlEncoder.encodeToString(sign(signingInput, signingInput.length));
       return headerPart + "." + payloadPart + "." + signature;
     } catch (JsonProcessingException ex) {
       throw new IllegalStateException("Error serializando token JWT", ex);
@@ -77,33 +92,20 @@ public class JwtUtil {
       throw new JwtValidationException("Token JWT ausente");
     }
 
-    String[] parts = token.split("\\.");
-    if (parts.length != 3) {
+    int firstDot = token.indexOf('.');
+    int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+    if (firstDot <= 0 || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
       throw new JwtValidationException("Token JWT con formato inválido");
     }
 
-    String headerPart = parts[0];
-    String payloadPart = parts[1];
-    String signaturePart = parts[2];
-
-    verifySignature(headerPart, payloadPart, signaturePart);
+    // Tokens are Base64url, hence pure ASCII: one byte per char and no copies per segment.
+    byte[] raw = token.getBytes(StandardCharsets.ISO_8859_1);
 
     try {
-      byte[] payloadBytes = urlDecoder.decode(payloadPart);
-      JsonNode payload = objectMapper.readTree(payloadBytes);
-
-      Instant expiresAt = readInstant(payload, "exp");
-      if (expiresAt.isBefore(clock.instant())) {
-        throw new JwtValidationException("El token JWT ha expirado");
-      }
-
-      Instant issuedAt = readInstant(payload, "iat");
-      Long userId = readLong(payload, "uid");
-      String email = readText(payload, "sub");
-      String fullName = readText(payload, "name");
-      String role = readText(payload, "role");
-
-      return new JwtPayload(userId, email, fullName, role, issuedAt, expiresAt);
+      verifySignature(raw, secondDot);
+      ByteBuffer payloadBytes =
+          urlDecoder.decode(ByteBuffer.wrap(raw, firstDot + 1, secondDot - firstDot - 1));
+      return readPayload(payloadBytes);
     } catch (IllegalArgumentException ex) {
       throw new JwtValidationException("Token JWT mal codificado", ex);
     } catch (IOException ex) {
@@ -111,41 +113,124 @@ public class JwtUtil {
     }
   }
 
-  private void verifySignature(String headerPart, String payloadPart, String signaturePart) {
-    String expectedSignature = sign(headerPart + "." + payloadPart);
-    if (!Objects.equals(expectedSignature, signaturePart)) {
+  private void verifySignature(byte[] raw, int secondDot) {
+    ByteBuffer provided =
+        urlDecoder.decode(ByteBuffer.wrap(raw, secondDot + 1, raw.length - secondDot - 1));
+    byte[] providedSignature = new byte[provided.remaining()];
+    provided.get(providedSignature);
+    byte[] expectedSignature = sign(raw, secondDot);
+    if (!MessageDigest.isEqual(expectedSignature, providedSignature)) {
       throw new JwtValidationException("Firma del token JWT inválida");
     }
   }
 
-  private String sign(String content) {
+  private byte[] sign(byte[] content, int length) {
+    Mac mac = borrowMac();
+    try {
+      mac.update(content, 0, length);
+      return mac.doFinal();
+    } finally {
+      macPool.offer(mac);
+    }
+  }
+
+  private Mac borrowMac() {
+    Mac mac = macPool.poll();
+    if (mac != null) {
+      return mac;
+    }
+    try {
+      // Cloning an initialized Mac skips the provider lookup and key schedule.
+      return (Mac) macPrototype.clone();
+    } catch (CloneNotSupportedException ex) {
+      return createMac();
+    }
+  }
+
+  private Mac createMac() {
     try {
       Mac mac = Mac.getInstance(HMAC_SHA256);
-      mac.init(new SecretKeySpec(secretKey, HMAC_SHA256));
-      byte[] signatureBytes = mac.doFinal(content.getBytes(StandardCharsets.UTF_8));
-      return urlEncoder.encodeToString(signatureBytes);
+      mac.init(signingKey);
+      return mac;
     } catch (NoSuchAlgorithmException | InvalidKeyException ex) {
       log.error("Error firmando token JWT", ex);
       throw new IllegalStateException("No fue posible firmar el token JWT", ex);
     }
   }
 
-  private Long readLong(JsonNode payload, String fieldName) {
-    if (!payload.hasNonNull(fieldName)) {
-      throw new JwtValidationException("Campo " + fieldName + " ausente en el token");
+  /** Reads only the claims we need with a streaming parser instead of building a JSON tree. */
+  private JwtPayload readPayload(ByteBuffer payloadBytes) throws IOException {
+    Long userId = null;
+    String email = null;
+    String fullName = null;
+    String role = null;
+    Long issuedAt = null;
+    Long expiresAt = null;
+
+    try (JsonParser parser =
+        objectMapper
+            .getFactory()
+            .createParser(
+                payloadBytes.array(),
+                payloadBytes.arrayOffset() + payloadBytes.position(),
+                payloadBytes.remaining())) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JwtValidationException("Token JWT mal codificado");
+      }
+      String field;
+      while ((field = parser.nextFieldName()) != null) {
+        JsonToken value = parser.nextToken();
+        if (value == JsonToken.VALUE_NULL) {
+          continue;
+        }
+        if (value.isStructStart()) {
+          // No claim we read is structured; skip the whole value so its members are not read as
+          // top-level claims, and let the required-claim checks reject the token.
+          parser.skipChildren();
+          continue;
+        }
+        switch (field) {
+          case "uid":
+            userId = parser.getValueAsLong();
+            break;
+          case "sub":
+            email = parser.getValueAsString();
+            break;
+          case "name":
+            fullName = parser.getValueAsString();
+            break;
+          case "role":
+            role = parser.getValueAsString();
+            break;
+          case "iat":
+            issuedAt = parser.getValueAsLong();
+            break;
+          case "exp":
+            expiresAt = parser.getValueAsLong();
+            break;
+          default:
+            parser.skipChildren();
+        }
+      }
     }
-    return payload.get(fieldName).asLong();
-  }
 
-  private String readText(JsonNode payload, String fieldName) {
-    if (!payload.hasNonNull(fieldName)) {
-      throw new JwtValidationException("Campo " + fieldName + " ausente en el token");
+    Instant expiry = Instant.ofEpochSecond(require(expiresAt, "exp"));
+    if (expiry.isBefore(clock.instant())) {
+      throw new JwtValidationException("El token JWT ha expirado");
     }
-    return payload.get(fieldName).asText();
+    return new JwtPayload(
+        require(userId, "uid"),
+        require(email, "sub"),
+        require(fullName, "name"),
+        require(role, "role"),
+        Instant.ofEpochSecond(require(issuedAt, "iat")),
+        expiry);
   }
 
-  private Instant readInstant(JsonNode payload, String fieldName) {
-    Long value = readLong(payload, fieldName);
-    return Instant.ofEpochSecond(value);
+  private <T> T require(T value, String fieldName) {
+    if (value == null) {
+      throw new JwtValidationException("Campo " + fieldName + " ausente en el token");
+    }
+    return value;
   }
 }
@@ -0,0 +1,34 @@
+package com.inmobiliaria.gestion.auth.service;
+
+/**
+ * Published whenever security-relevant attributes of a user (password or role) change, so that
+ * components holding authentication state for that user can discard it. A null id stands for every
+ * user; remote events come from other instances and are never broadcast again.
+ */
+public final class UserAccountChangedEvent {
+
+  private final Long userId;
+  private final boolean remote;
+
+  public UserAccountChangedEvent(Long userId) {
+    this(userId, false);
+  }
+
+  private UserAccountChangedEvent(Long userId, boolean remote) {
+    this.userId = userId;
+    this.remote = remote;
+  }
+
+  /** A change committed by another instance, received through the invalidation bus. */
+  public static UserAccountChangedEvent remote(Long userId) {
+    return new UserAccountChangedEvent(userId, true);
+  }
+
+  public Long getUserId() {
+    return userId;
+  }
+
+  public boolean isRemote() {
+    return remote;
+  }
+}
@@ -1,11 +1,13 @@
 package com.inmobiliaria.gestion.auth.service;
 
 import com.inmobiliaria.gestion.auth.domain.UserAccount;
+import com.inmobiliaria.gestion.auth.domain.UserRole;
 import com.inmobiliaria.gestion.auth.repository.UserAccountRepository;
 import com.inmobiliaria.gestion.exception.ResourceNotFoundException;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,9 +17,12 @@ public class UserAccountService {
 
   private static final Logger log = LoggerFactory.getLogger(UserAccountService.class);
   private final UserAccountRepository repository;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public UserAccountService(UserAccountRepository repository) {
+  public UserAccountService(
+      UserAccountRepository repository, ApplicationEventPublisher eventPublisher) {
     this.repository = repository;
+    this.eventPublisher = eventPublisher;
   }
 
   @Transactional
@@ -39,4 +44,22 @@ public class UserAccountService {
         .findById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado: " + id));
   }
+
+  @Transactional
+  public UserAccount changePassword(Long id, String passwordHash) {
+    UserAccount user = getById(id);
+    user.updatePasswordHash(passwordHash);
+    log.info("Contraseña actualizada para el usuario {}", user.getEmail());
+    eventPublisher.publishEvent(new UserAccountChangedEvent(id));
+    return user;
+  }
+
+  @Transactional
+  public UserAccount changeRole(Long id, UserRole role) {
+    UserAccount user = getById(id);
+    user.updateRole(role);
+    log.info("Rol del usuario {} actualizado a {}", user.getEmail(), role);
+    eventPublisher.publishEvent(new UserAccountChangedEvent(id));
+    return user;
+  }
 }
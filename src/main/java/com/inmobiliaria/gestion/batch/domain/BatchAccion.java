@@ -0,0 +1,15 @@
+package com.inmobiliaria.gestion.batch.domain;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Acción de una operación dentro de un lote")
+public enum BatchAccion {
+  @Schema(description = "Crea un registro con los datos indicados")
+  CREAR,
+
+  @Schema(description = "Actualiza parcialmente el registro con el id indicado")
+  ACTUALIZAR,
+
+  @Schema(description = "Elimina el registro con el id indicado")
+  ELIMINAR
+}
@@ -0,0 +1,64 @@
+package com.inmobiliaria.gestion.batch.dto;
+
+import com.inmobiliaria.gestion.batch.domain.BatchAccion;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Resultado de una operación del lote")
+public final class BatchItemResult {
+
+  private final int indice;
+  private final BatchAccion accion;
+  private final int estado;
+  private final Long id;
+  private final String mensaje;
+  private final Object datos;
+
+  public BatchItemResult(
+      int indice, BatchAccion accion, int estado, Long id, String mensaje, Object datos) {
+    this.indice = indice;
+    this.accion = accion;
+    this.estado = estado;
+    this.id = id;
+    this.mensaje = mensaje;
+    this.datos = datos;
+  }
+
+  @Schema(description = "Posición de la operación en el lote, empezando en 0", example = "0")
+  public int getIndice() {
+    return indice;
+  }
+
+  @Schema(description = "Acción solicitada", example = "CREAR")
+  public BatchAccion getAccion() {
+    return accion;
+  }
+
+  @Schema(
+      description = "Código HTTP equivalente al de la operación individual",
+      example = "201")
+  public int getEstado() {
+    return estado;
+  }
+
+  @Schema(description = "Identificador del registro afectado", example = "42")
+  public Long getId() {
+    return id;
+  }
+
+  @Schema(
+      description = "Motivo del fallo; vacío si la operación se aplicó",
+      example = "Propiedad con id 42 no encontrada")
+  public String getMensaje() {
+    return mensaje;
+  }
+
+  @Schema(description = "Registro resultante para CREAR y ACTUALIZAR")
+  public Object getDatos() {
+    return datos;
+  }
+
+  @Schema(description = "Si la operación se aplicó", example = "true")
+  public boolean isExitosa() {
+    return estado < 400;
+  }
+}
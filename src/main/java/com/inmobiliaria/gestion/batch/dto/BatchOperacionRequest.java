@@ -0,0 +1,56 @@
+package com.inmobiliaria.gestion.batch.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.inmobiliaria.gestion.batch.domain.BatchAccion;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Operación de creación, actualización o eliminación dentro de un lote")
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class BatchOperacionRequest {
+
+  private final BatchAccion accion;
+  private final Long id;
+  private final String ifMatch;
+  private final JsonNode datos;
+
+  @JsonCreator
+  public BatchOperacionRequest(
+      @JsonProperty("accion") BatchAccion accion,
+      @JsonProperty("id") Long id,
+      @JsonProperty("ifMatch") String ifMatch,
+      @JsonProperty("datos") JsonNode datos) {
+    this.accion = accion;
+    this.id = id;
+    this.ifMatch = ifMatch;
+    this.datos = datos;
+  }
+
+  @Schema(description = "Acción a aplicar", example = "ACTUALIZAR")
+  public BatchAccion getAccion() {
+    return accion;
+  }
+
+  @Schema(description = "Registro afectado; obligatorio para ACTUALIZAR y ELIMINAR", example = "42")
+  public Long getId() {
+    return id;
+  }
+
+  @Schema(
+      description =
+          "ETag del registro obtenida previamente; si no coincide la operación falla con 412",
+      example = "\"3\"")
+  public String getIfMatch() {
+    return ifMatch;
+  }
+
+  @Schema(
+      description =
+          "Payload de creación para CREAR o de actualización parcial para ACTUALIZAR, con los"
+              + " mismos campos que los endpoints individuales")
+  public JsonNode getDatos() {
+    return datos;
+  }
+}
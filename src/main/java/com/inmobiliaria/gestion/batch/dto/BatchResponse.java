@@ -0,0 +1,33 @@
+package com.inmobiliaria.gestion.batch.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Resultado de un lote de operaciones, en el mismo orden de la solicitud")
+public final class BatchResponse {
+
+  private final long exitosas;
+  private final long fallidas;
+  private final List<BatchItemResult> resultados;
+
+  public BatchResponse(List<BatchItemResult> resultados) {
+    this.resultados = List.copyOf(resultados);
+    this.exitosas = resultados.stream().filter(BatchItemResult::isExitosa).count();
+    this.fallidas = resultados.size() - exitosas;
+  }
+
+  @Schema(description = "Operaciones aplicadas", example = "498")
+  public long getExitosas() {
+    return exitosas;
+  }
+
+  @Schema(description = "Operaciones rechazadas; el detalle está en cada resultado", example = "2")
+  public long getFallidas() {
+    return fallidas;
+  }
+
+  @Schema(description = "Un resultado por operación")
+  public List<BatchItemResult> getResultados() {
+    return resultados;
+  }
+}
@@ -0,0 +1,329 @@
+package com.inmobiliaria.gestion.batch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.gestion.batch.domain.BatchAccion;
+import com.inmobiliaria.gestion.batch.dto.BatchItemResult;
+import com.inmobiliaria.gestion.batch.dto.BatchOperacionRequest;
+import com.inmobiliaria.gestion.batch.dto.BatchResponse;
+import com.inmobiliaria.gestion.etag.EntityTagged;
+import com.inmobiliaria.gestion.etag.EntityTags;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.exception.InvalidBatchException;
+import com.inmobiliaria.gestion.exception.PreconditionFailedException;
+import com.inmobiliaria.gestion.exception.ResourceNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Applies a list of create, update and delete operations on one catalog and reports a result per
+ * operation, so bulk edits skip the per-request cost of authentication and a transaction per row.
+ *
+ * <p>Payloads are parsed and validated up front; invalid operations are reported with 400 and do
+ * not reach the database. So is an update or delete of an id that an earlier operation of the
+ * batch already targets, since the two would otherwise be applied in the same flush. The rest is
+ * written in chunks of {@code app.batch.chunk-size}, each in one transaction: the rows to update
+ * or delete are loaded with a single query and all statements are flushed together as JDBC
+ * batches of {@code app.batch.jdbc-batch-size}. A missing row or a stale {@code ifMatch} fails
+ * only its operation. When the database rejects the flush (a constraint or a concurrent change) or
+ * the commit fails, the chunk is rolled back and its operations are retried one by one, as the
+ * import does, so only the offending ones fail.
+ *
+ * <p>A caller that is already inside a transaction shares it: chunks are not committed separately
+ * and a database failure propagates instead of being isolated.
+ */
+@Component
+public class BatchExecutor {
+
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final TransactionOperations transactionOperations;
+  private final ApplicationEventPublisher eventPublisher;
+  private final int maxOperations;
+  private final int chunkSize;
+  private final int jdbcBatchSize;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  public BatchExecutor(
+      ObjectMapper objectMapper,
+      Validator validator,
+      TransactionOperations transactionOperations,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${app.batch.max-operations:1000}") int maxOperations,
+      @Value("${app.batch.chunk-size:1000}") int chunkSize,
+      @Value("${app.batch.jdbc-batch-size:100}") int jdbcBatchSize) {
+    if (maxOperations < 1 || chunkSize < 1 || jdbcBatchSize < 1) {
+      throw new IllegalArgumentException(
+          "app.batch.max-operations, app.batch.chunk-size and app.batch.jdbc-batch-size must be"
+              + " positive");
+    }
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.transactionOperations = transactionOperations;
+    this.eventPublisher = eventPublisher;
+    this.maxOperations = maxOperations;
+    this.chunkSize = chunkSize;
+    this.jdbcBatchSize = jdbcBatchSize;
+  }
+
+  public <C, U, E, R extends EntityTagged> BatchResponse execute(
+      List<BatchOperacionRequest> operaciones, BatchHandler<C, U, E, R> handler) {
+    if (operaciones == null || operaciones.isEmpty()) {
+      throw new InvalidBatchException("El lote no contiene operaciones");
+    }
+    if (operaciones.size() > maxOperations) {
+      throw new InvalidBatchException(
+          "El lote admite como máximo %d operaciones".formatted(maxOperations));
+    }
+    BatchItemResult[] results = new BatchItemResult[operaciones.size()];
+    List<PendingOperation> pending = new ArrayList<>(operaciones.size());
+    Map<Long, Integer> targeted = new HashMap<>();
+    for (int i = 0; i < operaciones.size(); i++) {
+      PendingOperation operation = parse(i, operaciones.get(i), handler, results);
+      if (operation == null) {
+        continue;
+      }
+      Integer previous =
+          operation.accion == BatchAccion.CREAR ? null : targeted.putIfAbsent(operation.id, i);
+      if (previous != null) {
+        results[i] =
+            failure(
+                operation,
+                HttpStatus.BAD_REQUEST,
+                "id: ya lo modifica la operación %d del lote".formatted(previous));
+      } else {
+        pending.add(operation);
+      }
+    }
+    boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+    for (int from = 0; from < pending.size(); from += chunkSize) {
+      write(pending.subList(from, Math.min(from + chunkSize, pending.size())), handler, joined)
+          .forEach(result -> results[result.getIndice()] = result);
+    }
+    return new BatchResponse(Arrays.asList(results));
+  }
+
+  private PendingOperation parse(
+      int index,
+      BatchOperacionRequest operacion,
+      BatchHandler<?, ?, ?, ?> handler,
+      BatchItemResult[] results) {
+    BatchAccion accion = operacion != null ? operacion.getAccion() : null;
+    if (accion == null) {
+      results[index] = failure(index, null, null, HttpStatus.BAD_REQUEST, "accion: es obligatoria");
+      return null;
+    }
+    Long id = operacion.getId();
+    if (accion != BatchAccion.CREAR && id == null) {
+      results[index] =
+          failure(index, accion, null, HttpStatus.BAD_REQUEST, "id: es obligatorio para " + accion);
+      return null;
+    }
+    if (accion == BatchAccion.ELIMINAR) {
+      return new PendingOperation(index, accion, id, operacion.getIfMatch(), null);
+    }
+    Class<?> type = accion == BatchAccion.CREAR ? handler.createType() : handler.updateType();
+    String error = null;
+    Object request = null;
+    if (operacion.getDatos() == null || !operacion.getDatos().isObject()) {
+      error = "datos: se requiere un objeto para " + accion;
+    } else {
+      try {
+        request = objectMapper.treeToValue(operacion.getDatos(), type);
+        error = violations(request);
+      } catch (JsonProcessingException ex) {
+        error = "Valor inválido: " + ex.getOriginalMessage();
+      }
+    }
+    if (error != null) {
+      results[index] = failure(index, accion, id, HttpStatus.BAD_REQUEST, error);
+      return null;
+    }
+    return new PendingOperation(index, accion, id, operacion.getIfMatch(), request);
+  }
+
+  private String violations(Object request) {
+    Set<ConstraintViolation<Object>> violations = validator.validate(request);
+    if (violations.isEmpty()) {
+      return null;
+    }
+    return violations.stream()
+        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+        .sorted()
+        .collect(Collectors.joining("; "));
+  }
+
+  private <C, U, E, R extends EntityTagged> List<BatchItemResult> write(
+      List<PendingOperation> chunk, BatchHandler<C, U, E, R> handler, boolean joined) {
+    try {
+      return transactionOperations.execute(status -> apply(chunk, handler));
+    } catch (DataAccessException | TransactionSystemException ex) {
+      if (joined) {
+        throw ex;
+      }
+      if (chunk.size() == 1) {
+        PendingOperation operation = chunk.get(0);
+        return List.of(
+            failure(
+                operation.index,
+                operation.accion,
+                operation.id,
+                isConflict(ex) ? HttpStatus.CONFLICT : HttpStatus.INTERNAL_SERVER_ERROR,
+                "Error de base de datos: " + ex.getMostSpecificCause().getMessage()));
+      }
+      // One bad row rolls back the whole chunk; retry row by row to keep the good ones.
+      List<BatchItemResult> results = new ArrayList<>(chunk.size());
+      for (PendingOperation operation : chunk) {
+        results.addAll(write(List.of(operation), handler, false));
+      }
+      return results;
+    }
+  }
+
+  /**
+   * A constraint or a concurrent change surfaces as a translated exception when the flush fails,
+   * and wrapped in a {@link TransactionSystemException} when it only shows at commit.
+   */
+  private static boolean isConflict(NestedRuntimeException ex) {
+    return ex instanceof OptimisticLockingFailureException
+        || ex instanceof DataIntegrityViolationException
+        || ex.contains(OptimisticLockException.class)
+        || ex.contains(ConstraintViolationException.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <C, U, E, R extends EntityTagged> List<BatchItemResult> apply(
+      List<PendingOperation> chunk, BatchHandler<C, U, E, R> handler) {
+    entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+    Map<Long, E> existing = new HashMap<>();
+    List<Long> ids =
+        chunk.stream()
+            .filter(operation -> operation.accion != BatchAccion.CREAR)
+            .map(operation -> operation.id)
+            .distinct()
+            .toList();
+    if (!ids.isEmpty()) {
+      handler.repository().findAllById(ids).forEach(e -> existing.put(handler.id(e), e));
+    }
+
+    List<BatchItemResult> results = new ArrayList<>(chunk.size());
+    Map<PendingOperation, E> written = new HashMap<>();
+    boolean changed = false;
+    for (PendingOperation operation : chunk) {
+      try {
+        switch (operation.accion) {
+          case CREAR -> {
+            E entity = handler.create((C) operation.request);
+            handler.repository().save(entity);
+            written.put(operation, entity);
+          }
+          case ACTUALIZAR -> {
+            E entity = existing(existing, operation, handler);
+            handler.update(entity, (U) operation.request);
+            written.put(operation, entity);
+          }
+          case ELIMINAR -> {
+            E entity = existing(existing, operation, handler);
+            existing.remove(operation.id);
+            handler.repository().delete(entity);
+            results.add(
+                new BatchItemResult(
+                    operation.index,
+                    operation.accion,
+                    HttpStatus.NO_CONTENT.value(),
+                    operation.id,
+                    null,
+                    null));
+          }
+        }
+        changed = true;
+      } catch (ResourceNotFoundException ex) {
+        results.add(failure(operation, HttpStatus.NOT_FOUND, ex.getMessage()));
+      } catch (PreconditionFailedException ex) {
+        results.add(failure(operation, HttpStatus.PRECONDITION_FAILED, ex.getMessage()));
+      }
+    }
+    // Every INSERT, UPDATE and DELETE of the chunk goes out here, grouped into JDBC batches; the
+    // responses below then carry incremented versions. Flushing through the repository translates
+    // database errors into DataAccessException.
+    handler.repository().flush();
+    written.forEach(
+        (operation, entity) ->
+            results.add(
+                new BatchItemResult(
+                    operation.index,
+                    operation.accion,
+                    operation.accion == BatchAccion.CREAR
+                        ? HttpStatus.CREATED.value()
+                        : HttpStatus.OK.value(),
+                    handler.id(entity),
+                    null,
+                    handler.toResponse(entity))));
+    if (changed) {
+      eventPublisher.publishEvent(new DataChangedEvent(handler.entityType(), null));
+    }
+    return results;
+  }
+
+  private static <E> E existing(
+      Map<Long, E> existing, PendingOperation operation, BatchHandler<?, ?, E, ?> handler) {
+    E entity = existing.get(operation.id);
+    if (entity == null) {
+      throw handler.notFound(operation.id);
+    }
+    EntityTags.requireMatch(operation.ifMatch, handler.toResponse(entity).entityTag());
+    return entity;
+  }
+
+  private static BatchItemResult failure(
+      PendingOperation operation, HttpStatus status, String mensaje) {
+    return failure(operation.index, operation.accion, operation.id, status, mensaje);
+  }
+
+  private static BatchItemResult failure(
+      int index, BatchAccion accion, Long id, HttpStatus status, String mensaje) {
+    return new BatchItemResult(index, accion, status.value(), id, mensaje, null);
+  }
+
+  private static final class PendingOperation {
+
+    private final int index;
+    private final BatchAccion accion;
+    private final Long id;
+    private final String ifMatch;
+    private final Object request;
+
+    private PendingOperation(
+        int index, BatchAccion accion, Long id, String ifMatch, Object request) {
+      this.index = index;
+      this.accion = accion;
+      this.id = id;
+      this.ifMatch = ifMatch;
+      this.request = request;
+    }
+  }
+}
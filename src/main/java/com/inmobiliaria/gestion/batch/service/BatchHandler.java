@@ -0,0 +1,45 @@
+package com.inmobiliaria.gestion.batch.service;
+
+import com.inmobiliaria.gestion.etag.EntityTagged;
+import com.inmobiliaria.gestion.exception.ResourceNotFoundException;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Catalog-specific part of a batch: how a resource is created, updated and rendered. Implemented
+ * by each catalog service with the same rules as its single-item endpoints; {@link BatchExecutor}
+ * does the rest.
+ *
+ * @param <C> create payload
+ * @param <U> partial update payload
+ * @param <E> entity
+ * @param <R> representation returned to the client
+ */
+public interface BatchHandler<C, U, E, R extends EntityTagged> {
+
+  /** Entity type of the {@code DataChangedEvent} published after each written chunk. */
+  String entityType();
+
+  Class<C> createType();
+
+  Class<U> updateType();
+
+  JpaRepository<E, Long> repository();
+
+  /**
+   * New, not yet persisted entity for a create payload. May throw {@link
+   * ResourceNotFoundException} for missing references, which fails only this operation.
+   */
+  E create(C request);
+
+  /**
+   * Applies a partial update to a managed entity. Must resolve references before changing
+   * anything, so a {@link ResourceNotFoundException} leaves the entity untouched.
+   */
+  void update(E entity, U request);
+
+  Long id(E entity);
+
+  R toResponse(E entity);
+
+  ResourceNotFoundException notFound(Long id);
+}
@@ -0,0 +1,142 @@
+package com.inmobiliaria.gestion.concurrency;
+
+import com.inmobiliaria.gestion.etag.EntityTagged;
+import com.inmobiliaria.gestion.etag.EntityTags;
+import com.inmobiliaria.gestion.exception.VersionConflictException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs partial updates of {@code @Version} entities, which fail at flush when another transaction
+ * committed a change to the same row after it was read.
+ *
+ * <p>Such an update is retried in a fresh transaction, up to {@code
+ * app.concurrency.update-attempts} attempts, as long as it still merges cleanly: every field it
+ * writes must either be unchanged since the first read or already hold the requested value. Fields
+ * it does not write keep whatever the other transaction stored. Otherwise the caller gets a {@link
+ * VersionConflictException} with the current state, instead of silently overwriting the other
+ * change.
+ *
+ * <p>No retry is attempted when the caller sent a specific {@code If-Match} (it asked for exactly
+ * the version it saw, so the result is 412) or already runs inside a transaction, which cannot be
+ * rolled back and resumed from here; the failure then propagates and is reported as 409.
+ */
+@Component
+public class OptimisticUpdates {
+
+  private static final String CONFLICT_MESSAGE =
+      "El recurso fue modificado por otra operación; revise su estado actual e intente de nuevo";
+
+  private final TransactionOperations transactionOperations;
+  private final int maxAttempts;
+
+  public OptimisticUpdates(
+      TransactionOperations transactionOperations,
+      @Value("${app.concurrency.update-attempts:3}") int maxAttempts) {
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("app.concurrency.update-attempts must be positive");
+    }
+    this.transactionOperations = transactionOperations;
+    this.maxAttempts = maxAttempts;
+  }
+
+  /**
+   * Field values keyed by name, in the shape expected by {@link #update}. Null values are kept, so
+   * the same helper describes both entity state and a partial request.
+   */
+  public static Map<String, Object> fields(Object... namesAndValues) {
+    Map<String, Object> fields = new LinkedHashMap<>();
+    for (int i = 0; i < namesAndValues.length; i += 2) {
+      fields.put((String) namesAndValues[i], namesAndValues[i + 1]);
+    }
+    return fields;
+  }
+
+  /**
+   * Applies a partial update with optimistic locking.
+   *
+   * @param ifMatch {@code If-Match} header value, or null
+   * @param changes values written by the update by field name; null means left untouched
+   * @param loader loads the managed entity, failing when it does not exist
+   * @param state current value of every field named in {@code changes}
+   * @param writer applies the update to the entity and flushes it
+   * @param toResponse maps the entity to its representation
+   */
+  public <E, R extends EntityTagged> R update(
+      String ifMatch,
+      Map<String, Object> changes,
+      Supplier<E> loader,
+      Function<E, Map<String, Object>> state,
+      Consumer<E> writer,
+      Function<E, R> toResponse) {
+    boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+    AtomicReference<Map<String, Object>> original = new AtomicReference<>();
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactionOperations.execute(
+            status -> {
+              E entity = loader.get();
+              Map<String, Object> current = state.apply(entity);
+              if (original.get() == null) {
+                EntityTags.requireMatch(ifMatch, toResponse.apply(entity).entityTag());
+                original.set(current);
+              } else {
+                List<String> conflicts = conflicts(original.get(), current, changes);
+                if (!conflicts.isEmpty()) {
+                  throw conflict(toResponse.apply(entity), conflicts);
+                }
+              }
+              writer.accept(entity);
+              return toResponse.apply(entity);
+            });
+      } catch (OptimisticLockingFailureException ex) {
+        if (!EntityTags.isUnconditional(ifMatch)) {
+          throw EntityTags.stale();
+        }
+        if (joined) {
+          throw ex;
+        }
+        if (attempt >= maxAttempts) {
+          throw conflict(transactionOperations.execute(status -> toResponse.apply(loader.get())));
+        }
+      }
+    }
+  }
+
+  private static List<String> conflicts(
+      Map<String, Object> original, Map<String, Object> current, Map<String, Object> changes) {
+    List<String> conflicts = new ArrayList<>();
+    changes.forEach(
+        (field, requested) -> {
+          Object now = current.get(field);
+          if (requested != null
+              && !Objects.equals(original.get(field), now)
+              && !Objects.equals(requested, now)) {
+            conflicts.add(field);
+          }
+        });
+    return conflicts;
+  }
+
+  private static VersionConflictException conflict(EntityTagged current) {
+    return conflict(current, List.of());
+  }
+
+  private static VersionConflictException conflict(
+      EntityTagged current, List<String> conflictingFields) {
+    return new VersionConflictException(
+        CONFLICT_MESSAGE, current, current.entityTag(), conflictingFields);
+  }
+}
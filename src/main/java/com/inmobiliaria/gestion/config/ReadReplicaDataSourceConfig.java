@@ -0,0 +1,159 @@
+package com.inmobiliaria.gestion.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Splits database traffic between the primary and a read replica when {@code
+ * app.datasource.replica.url} is set. Connections are handed out lazily, so the pool is chosen at
+ * the first statement, once the transaction's read-only flag is known: read-only transactions
+ * (including the Spring Data finders) go to the replica and everything else to the primary. Users
+ * who committed a write within the read-your-writes window keep reading from the primary. Each
+ * pool reports its own {@code hikaricp.*} metrics tagged with {@code pool}, and {@code
+ * datasource.reads} counts read-only transactions by the pool that served them.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("'${app.datasource.replica.url:}' != ''")
+public class ReadReplicaDataSourceConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryPool(DataSourceProperties properties, MeterRegistry registry) {
+    HikariDataSource pool =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    pool.setPoolName("primary");
+    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+    return pool;
+  }
+
+  @Bean
+  @ConfigurationProperties("app.datasource.replica.hikari")
+  public HikariDataSource replicaPool(
+      DataSourceProperties properties,
+      MeterRegistry registry,
+      @Value("${app.datasource.replica.url}") String url,
+      @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+      @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+          String password) {
+    HikariDataSource pool =
+        DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .driverClassName(properties.determineDriverClassName())
+            .url(url)
+            .username(username)
+            .password(password)
+            .build();
+    pool.setPoolName("replica");
+    pool.setReadOnly(true);
+    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+    return pool;
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(
+      @Qualifier("primaryPool") DataSource primaryPool,
+      @Qualifier("replicaPool") DataSource replicaPool,
+      @Value("${app.datasource.replica.read-your-writes-seconds:5}") long readYourWritesSeconds,
+      MeterRegistry registry) {
+    return routingDataSource(
+        primaryPool,
+        replicaPool,
+        new ReadYourWritesTracker(Duration.ofSeconds(readYourWritesSeconds)),
+        registry);
+  }
+
+  static DataSource routingDataSource(
+      DataSource primary,
+      DataSource replica,
+      ReadYourWritesTracker tracker,
+      MeterRegistry registry) {
+    LazyConnectionDataSourceProxy proxy =
+        new LazyConnectionDataSourceProxy(new WriteTrackingDataSource(primary, tracker));
+    proxy.setReadOnlyDataSource(new ReadRoutingDataSource(primary, replica, tracker, registry));
+    return proxy;
+  }
+
+  /** Primary pool that notes which users write, for {@link ReadYourWritesTracker}. */
+  private static final class WriteTrackingDataSource extends DelegatingDataSource {
+
+    private final ReadYourWritesTracker tracker;
+
+    private WriteTrackingDataSource(DataSource primary, ReadYourWritesTracker tracker) {
+      super(primary);
+      this.tracker = tracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      tracker.onWriteConnection();
+      return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      tracker.onWriteConnection();
+      return super.getConnection(username, password);
+    }
+  }
+
+  /** Read-only connections: the replica, unless the user must read their own recent writes. */
+  private static final class ReadRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final ReadYourWritesTracker tracker;
+    private final Counter primaryReads;
+    private final Counter replicaReads;
+
+    private ReadRoutingDataSource(
+        DataSource primary,
+        DataSource replica,
+        ReadYourWritesTracker tracker,
+        MeterRegistry registry) {
+      this.tracker = tracker;
+      this.primaryReads = readCounter(registry, PRIMARY);
+      this.replicaReads = readCounter(registry, REPLICA);
+      setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+      setDefaultTargetDataSource(replica);
+      afterPropertiesSet();
+    }
+
+    private static Counter readCounter(MeterRegistry registry, String pool) {
+      return Counter.builder("datasource.reads")
+          .description("Read-only transactions by the pool that served them")
+          .tag("pool", pool)
+          .register(registry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+      if (tracker.mustReadFromPrimary()) {
+        primaryReads.increment();
+        return PRIMARY;
+      }
+      replicaReads.increment();
+      return REPLICA;
+    }
+  }
+}
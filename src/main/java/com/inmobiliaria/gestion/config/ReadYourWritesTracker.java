@@ -0,0 +1,68 @@
+package com.inmobiliaria.gestion.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remembers which users committed a write recently. Their read-only transactions are served by the
+ * primary until the replica has had {@code app.datasource.replica.read-your-writes-seconds} to
+ * catch up, so they always see their own changes.
+ *
+ * <p>The user is read from the {@link SecurityContextHolder} of the thread that writes, so work
+ * handed to another thread must carry the context along; the agent stream scheduler does. Work
+ * without an authenticated user (startup, background jobs) is not tracked.
+ */
+class ReadYourWritesTracker {
+
+  private final Cache<String, Boolean> recentWriters;
+
+  ReadYourWritesTracker(Duration window) {
+    this.recentWriters =
+        Caffeine.newBuilder().expireAfterWrite(window).maximumSize(100_000).build();
+  }
+
+  /**
+   * Called when a read-write transaction takes a primary connection; the user is recorded once
+   * the transaction commits.
+   */
+  void onWriteConnection() {
+    String user = currentUser();
+    if (user == null
+        || !TransactionSynchronizationManager.isSynchronizationActive()
+        || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+        || TransactionSynchronizationManager.hasResource(this)) {
+      return;
+    }
+    TransactionSynchronizationManager.bindResource(this, user);
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            recentWriters.put(user, Boolean.TRUE);
+          }
+
+          @Override
+          public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ReadYourWritesTracker.this);
+          }
+        });
+  }
+
+  /** Whether the current user's reads must go to the primary. */
+  boolean mustReadFromPrimary() {
+    String user = currentUser();
+    return user != null && recentWriters.getIfPresent(user) != null;
+  }
+
+  private static String currentUser() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    return authentication != null && authentication.isAuthenticated()
+        ? authentication.getName()
+        : null;
+  }
+}
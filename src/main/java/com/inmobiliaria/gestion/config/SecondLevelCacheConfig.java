@@ -0,0 +1,117 @@
+package com.inmobiliaria.gestion.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import javax.cache.CacheManager;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate second-level cache for reference data that is read on almost every request but
+ * rarely written: agencies (resolved on every property write) and user accounts (resolved by the
+ * JWT filter on every token cache miss), plus the query cache for the per-agency property
+ * listing.
+ *
+ * <p>Regions live in a Caffeine JCache manager owned by this context, each bounded by size and
+ * time to live and registered with Micrometer under its region name, so hit ratios show up in
+ * {@code cache_gets_total} on {@code /actuator/prometheus}. Hibernate keeps the regions in sync
+ * with its own writes; bulk JDBC writes are handled by {@link SecondLevelCacheEvictor}. With a
+ * read replica, rows loaded from it can be older than the cache believes, so the evictor clears
+ * changed entries again after the replica lag window; until then the cache may serve them even to
+ * the writer, whose reads the routing would otherwise send to the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+public class SecondLevelCacheConfig {
+
+  public static final String INMOBILIARIAS_REGION = "inmobiliarias";
+  public static final String USERS_REGION = "users";
+  public static final String PROPIEDADES_POR_INMOBILIARIA_REGION = "propiedadesPorInmobiliaria";
+
+  /**
+   * A provider instance of our own rather than the JVM-wide {@code Caching} singleton, so every
+   * application context (tests start several) gets separate regions.
+   */
+  @Bean(destroyMethod = "close")
+  CaffeineCachingProvider hibernateCachingProvider() {
+    return new CaffeineCachingProvider();
+  }
+
+  @Bean
+  CacheManager hibernateCacheManager(
+      CaffeineCachingProvider hibernateCachingProvider,
+      MeterRegistry meterRegistry,
+      @Value("${app.cache.second-level.entity.maximum-size:10000}") long entityMaximumSize,
+      @Value("${app.cache.second-level.entity.ttl-seconds:600}") long entityTtlSeconds,
+      @Value("${app.cache.second-level.query.maximum-size:1000}") long queryMaximumSize,
+      @Value("${app.cache.second-level.query.ttl-seconds:300}") long queryTtlSeconds) {
+    CacheManager cacheManager =
+        hibernateCachingProvider.getCacheManager(
+            hibernateCachingProvider.getDefaultURI(), getClass().getClassLoader());
+    createRegion(
+        cacheManager, meterRegistry, INMOBILIARIAS_REGION, entityMaximumSize, entityTtlSeconds);
+    createRegion(cacheManager, meterRegistry, USERS_REGION, entityMaximumSize, entityTtlSeconds);
+    createRegion(
+        cacheManager,
+        meterRegistry,
+        PROPIEDADES_POR_INMOBILIARIA_REGION,
+        queryMaximumSize,
+        queryTtlSeconds);
+    createRegion(
+        cacheManager,
+        meterRegistry,
+        RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+        queryMaximumSize,
+        queryTtlSeconds);
+    // One entry per table; it must outlive every cached query result or stale results come back.
+    createRegion(
+        cacheManager,
+        meterRegistry,
+        RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+        0,
+        0);
+    return cacheManager;
+  }
+
+  @Bean
+  HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+    return properties -> {
+      properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+      properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+      properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+      properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+      // Every region is created above with explicit bounds; an unknown one is a mapping mistake.
+      properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void createRegion(
+      CacheManager cacheManager,
+      MeterRegistry meterRegistry,
+      String region,
+      long maximumSize,
+      long ttlSeconds) {
+    CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+    // Hibernate only stores disassembled, immutable state, so copying on every access is waste.
+    configuration.setStoreByValue(false);
+    configuration.setNativeStatisticsEnabled(true);
+    if (maximumSize > 0) {
+      configuration.setMaximumSize(OptionalLong.of(maximumSize));
+    }
+    if (ttlSeconds > 0) {
+      configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+    }
+    javax.cache.Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+    CaffeineCacheMetrics.monitor(meterRegistry, cache.unwrap(Cache.class), region);
+  }
+}
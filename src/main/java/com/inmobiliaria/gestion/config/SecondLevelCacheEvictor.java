@@ -0,0 +1,103 @@
+package com.inmobiliaria.gestion.config;
+
+import com.inmobiliaria.gestion.auth.domain.UserAccount;
+import com.inmobiliaria.gestion.auth.service.UserAccountChangedEvent;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Hibernate invalidates its cached regions on its own writes only, and only in this instance.
+ * Two kinds of change bypass it and are evicted here once they commit:
+ *
+ * <ul>
+ *   <li>bulk JDBC writes such as the import, announced with a {@link DataChangedEvent} without an
+ *       id;
+ *   <li>changes committed by other instances, which arrive as remote events.
+ * </ul>
+ *
+ * <p>With a read replica, read-only transactions load from a copy that may still lack a commit.
+ * Hibernate stamps such a load later than the write's invalidation, so it would cache the stale
+ * row as fresh and serve it to every caller, the writer included, for the whole region TTL. Every
+ * change, local ones too, is therefore evicted again once {@code
+ * app.datasource.replica.read-your-writes-seconds} has passed, as {@link
+ * com.inmobiliaria.gestion.etag.CatalogVersions} does for ETags. Within that window a cached
+ * replica read can still be served, to the writer as well: the cache answers before {@link
+ * ReadYourWritesTracker} gets to route the read to the primary.
+ */
+@Component
+public class SecondLevelCacheEvictor {
+
+  private static final Logger log = LoggerFactory.getLogger(SecondLevelCacheEvictor.class);
+
+  private final Cache cache;
+  private final Executor replicaLagExecutor;
+
+  public SecondLevelCacheEvictor(
+      EntityManagerFactory entityManagerFactory,
+      @Value("${app.datasource.replica.url:}") String replicaUrl,
+      @Value("${app.datasource.replica.read-your-writes-seconds:5}") long replicaLagSeconds) {
+    this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    this.replicaLagExecutor =
+        replicaUrl.isBlank()
+            ? null
+            : CompletableFuture.delayedExecutor(replicaLagSeconds, TimeUnit.SECONDS);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onDataChanged(DataChangedEvent event) {
+    String entityType = event.getEntityType();
+    Long id = event.getEntityId();
+    Runnable eviction = () -> evictCatalog(entityType, id);
+    if (event.isRemote() || id == null) {
+      eviction.run();
+    }
+    afterReplicaLag(eviction);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserAccountChanged(UserAccountChangedEvent event) {
+    Runnable eviction = () -> evict(UserAccount.class, event.getUserId());
+    if (event.isRemote()) {
+      eviction.run();
+    }
+    afterReplicaLag(eviction);
+  }
+
+  private void evictCatalog(String entityType, Long id) {
+    if (DataChangedEvent.INMOBILIARIA.equals(entityType)) {
+      evict(Inmobiliaria.class, id);
+    }
+    // The per-agency listing projects the agency name as well as the properties.
+    if (DataChangedEvent.PROPIEDAD.equals(entityType)
+        || DataChangedEvent.INMOBILIARIA.equals(entityType)) {
+      cache.evictQueryRegion(SecondLevelCacheConfig.PROPIEDADES_POR_INMOBILIARIA_REGION);
+    }
+    log.debug("Caché de segundo nivel invalidada por cambio en {} {}", entityType, id);
+  }
+
+  private void afterReplicaLag(Runnable eviction) {
+    if (replicaLagExecutor != null) {
+      replicaLagExecutor.execute(eviction);
+    }
+  }
+
+  private void evict(Class<?> entityClass, Long id) {
+    if (id == null) {
+      cache.evictEntityData(entityClass);
+    } else {
+      cache.evictEntityData(entityClass, id);
+    }
+  }
+}
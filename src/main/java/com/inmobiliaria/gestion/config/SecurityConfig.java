@@ -1,6 +1,7 @@
 package com.inmobiliaria.gestion.config;
 
 import com.inmobiliaria.gestion.auth.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import java.time.Clock;
 import java.util.Arrays;
 import java.util.List;
@@ -8,6 +9,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.security.servlet.PathRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -34,7 +36,11 @@ public class SecurityConfig {
         .headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()))
         .authorizeHttpRequests(
             auth ->
-                auth.requestMatchers(PathRequest.toStaticResources().atCommonLocations())
+                // Async re-dispatches only finish responses (SSE, streaming) whose initial
+                // request was already authorized.
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC)
+                    .permitAll()
+                    .requestMatchers(PathRequest.toStaticResources().atCommonLocations())
                     .permitAll()
                     .requestMatchers(
                         "/",
@@ -90,6 +96,8 @@ public class SecurityConfig {
 
     config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
     config.setAllowedHeaders(List.of("*"));
+    // Lets browser clients read the ETag they send back in If-Match.
+    config.setExposedHeaders(List.of(HttpHeaders.ETAG));
     config.setAllowCredentials(true);
 
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,68 @@
+package com.inmobiliaria.gestion.etag;
+
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory version counter per catalog, bumped after every committed write ({@link
+ * DataChangedEvent}, including bulk imports and changes relayed from other instances). Listing
+ * endpoints use it as their ETag, so a matching {@code If-None-Match} is answered with 304 without
+ * querying the database.
+ *
+ * <p>Tags start with a random per-instance epoch, so a tag issued by another instance or before a
+ * restart never matches and simply costs a full response. Callers must read the tag before loading
+ * the data: a write that lands in between then yields an older tag with newer data, never the
+ * reverse. With a read replica the counter is bumped again once the replica lag window has passed,
+ * so rows still missing on the replica are not pinned behind a fresh tag.
+ */
+@Component
+public class CatalogVersions {
+
+  private final String epoch = Long.toString(new SecureRandom().nextLong() & Long.MAX_VALUE, 36);
+  private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+  private final Executor replicaLagExecutor;
+
+  public CatalogVersions(
+      @Value("${app.datasource.replica.url:}") String replicaUrl,
+      @Value("${app.datasource.replica.read-your-writes-seconds:5}") long replicaLagSeconds) {
+    this.replicaLagExecutor =
+        replicaUrl.isBlank()
+            ? null
+            : CompletableFuture.delayedExecutor(replicaLagSeconds, TimeUnit.SECONDS);
+  }
+
+  /** Strong ETag covering the current state of the given catalogs. */
+  public String tag(String... entityTypes) {
+    List<Object> parts = new ArrayList<>(entityTypes.length + 1);
+    parts.add(epoch);
+    for (String entityType : entityTypes) {
+      parts.add(counter(entityType).get());
+    }
+    return EntityTags.of(parts.toArray());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onDataChanged(DataChangedEvent event) {
+    AtomicLong counter = counter(event.getEntityType());
+    counter.incrementAndGet();
+    if (replicaLagExecutor != null) {
+      replicaLagExecutor.execute(counter::incrementAndGet);
+    }
+  }
+
+  private AtomicLong counter(String entityType) {
+    return versions.computeIfAbsent(entityType, type -> new AtomicLong());
+  }
+}
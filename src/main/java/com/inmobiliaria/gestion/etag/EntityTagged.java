@@ -0,0 +1,8 @@
+package com.inmobiliaria.gestion.etag;
+
+/** Representation of a versioned resource that is served with a strong ETag. */
+public interface EntityTagged {
+
+  /** Quoted strong entity tag of this representation, see {@link EntityTags}. */
+  String entityTag();
+}
@@ -0,0 +1,54 @@
+package com.inmobiliaria.gestion.etag;
+
+import com.inmobiliaria.gestion.exception.PreconditionFailedException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/** Builds strong HTTP entity tags from version numbers and evaluates {@code If-Match}. */
+public final class EntityTags {
+
+  private EntityTags() {}
+
+  /** Quoted strong tag joining the given parts with dots, e.g. {@code "3.1"}. */
+  public static String of(Object... parts) {
+    return Arrays.stream(parts)
+        .map(String::valueOf)
+        .collect(Collectors.joining(".", "\"", "\""));
+  }
+
+  /**
+   * Whether an {@code If-Match} header allows writing a resource whose current tag is {@code
+   * current}. A missing header always matches, {@code *} matches any existing resource and weak
+   * tags never match, as If-Match uses strong comparison.
+   */
+  public static boolean matches(String ifMatch, String current) {
+    if (isUnconditional(ifMatch)) {
+      return true;
+    }
+    for (String candidate : ifMatch.split(",")) {
+      String tag = candidate.trim();
+      if (!tag.startsWith("W/") && tag.equals(current)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Whether an {@code If-Match} header accepts any version of an existing resource. */
+  public static boolean isUnconditional(String ifMatch) {
+    return ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*");
+  }
+
+  /** Fails with 412 when {@code ifMatch} does not match the current tag. */
+  public static void requireMatch(String ifMatch, String current) {
+    if (!matches(ifMatch, current)) {
+      throw stale();
+    }
+  }
+
+  /** The 412 failure reported when the version named by {@code If-Match} is no longer current. */
+  public static PreconditionFailedException stale() {
+    return new PreconditionFailedException(
+        "El recurso fue modificado por otra operación; consúltelo de nuevo antes de actualizar");
+  }
+}
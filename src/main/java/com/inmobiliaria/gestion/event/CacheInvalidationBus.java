@@ -0,0 +1,242 @@
+package com.inmobiliaria.gestion.event;
+
+import com.inmobiliaria.gestion.agent.session.service.AgentSessionChangedEvent;
+import com.inmobiliaria.gestion.auth.service.UserAccountChangedEvent;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the per-instance caches of every replica of the service in step using PostgreSQL {@code
+ * LISTEN/NOTIFY} on the application database, so scaling out needs no extra infrastructure.
+ *
+ * <p>Committed local changes ({@link DataChangedEvent}, {@link UserAccountChangedEvent}, {@link
+ * AgentSessionChangedEvent}) are coalesced for {@code app.cache.invalidation.flush-interval-ms}
+ * and sent with {@code pg_notify} through the primary. Each instance holds one dedicated
+ * connection, outside the pool, that listens on the channel and republishes what other instances
+ * sent as remote events, which the local caches handle like their own changes. After that
+ * connection drops, everything is invalidated once it is back because notifications sent in
+ * between are lost.
+ *
+ * <p>Only active on PostgreSQL; on H2 (development, tests) there is a single instance and nothing
+ * to do. {@code LISTEN} needs a session-level connection, so the datasource must not go through a
+ * transaction-mode pooler.
+ */
+@Component
+public class CacheInvalidationBus {
+
+  /** Entity type used on the wire for {@link UserAccountChangedEvent}. */
+  static final String USUARIO = "usuario";
+
+  /** Entity type used on the wire for {@link AgentSessionChangedEvent}. */
+  static final String SESION = "sesion";
+
+  private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+  private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]{0,62}");
+  // PostgreSQL rejects NOTIFY payloads of 8000 bytes or more.
+  private static final int MAX_PAYLOAD_BYTES = 7900;
+  private static final List<String> ALL_TYPES =
+      List.of(
+          DataChangedEvent.INMOBILIARIA,
+          DataChangedEvent.PROPIEDAD,
+          DataChangedEvent.PERSONA,
+          USUARIO,
+          SESION);
+
+  private final String origin = UUID.randomUUID().toString();
+  private final PendingInvalidations pending;
+  private final DataSourceProperties dataSourceProperties;
+  private final JdbcTemplate jdbcTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final boolean enabled;
+  private final String channel;
+  private final int pollTimeoutMs;
+  private final long reconnectDelayMs;
+
+  private volatile boolean running;
+  private volatile Thread listener;
+
+  public CacheInvalidationBus(
+      DataSourceProperties dataSourceProperties,
+      JdbcTemplate jdbcTemplate,
+      ApplicationEventPublisher eventPublisher,
+      @Value("${app.cache.invalidation.enabled:true}") boolean enabled,
+      @Value("${app.cache.invalidation.channel:cache_invalidation}") String channel,
+      @Value("${app.cache.invalidation.max-ids-per-type:200}") int maxIdsPerType,
+      @Value("${app.cache.invalidation.poll-timeout-ms:1000}") int pollTimeoutMs,
+      @Value("${app.cache.invalidation.reconnect-delay-ms:5000}") long reconnectDelayMs) {
+    if (!CHANNEL_NAME.matcher(channel).matches()) {
+      throw new IllegalArgumentException(
+          "app.cache.invalidation.channel must be a lower-case SQL identifier");
+    }
+    this.dataSourceProperties = dataSourceProperties;
+    this.jdbcTemplate = jdbcTemplate;
+    this.eventPublisher = eventPublisher;
+    this.channel = channel;
+    this.pending = new PendingInvalidations(maxIdsPerType);
+    this.pollTimeoutMs = pollTimeoutMs;
+    this.reconnectDelayMs = reconnectDelayMs;
+    String url = dataSourceProperties.determineUrl();
+    this.enabled = enabled && url != null && url.startsWith("jdbc:postgresql:");
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled || running) {
+      return;
+    }
+    running = true;
+    listener = Thread.ofVirtual().name("cache-invalidation-listener").start(this::listen);
+    log.info("Bus de invalidación de cachés escuchando en el canal {}", channel);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onDataChanged(DataChangedEvent event) {
+    if (enabled && !event.isRemote()) {
+      pending.add(event.getEntityType(), event.getEntityId());
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserAccountChanged(UserAccountChangedEvent event) {
+    if (enabled && !event.isRemote()) {
+      pending.add(USUARIO, event.getUserId());
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onAgentSessionChanged(AgentSessionChangedEvent event) {
+    if (enabled && !event.isRemote()) {
+      pending.add(SESION, event.getInvalidationId());
+    }
+  }
+
+  /** Sends the changes coalesced since the previous flush, one notification per payload. */
+  @Scheduled(fixedDelayString = "${app.cache.invalidation.flush-interval-ms:100}")
+  public void flush() {
+    if (!enabled || pending.isEmpty()) {
+      return;
+    }
+    Map<String, Set<Long>> batch = pending.drain();
+    try {
+      for (String payload : PendingInvalidations.encode(origin, batch, MAX_PAYLOAD_BYTES)) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+      }
+    } catch (RuntimeException ex) {
+      // Resending part of a batch twice is harmless: invalidation is idempotent.
+      log.warn("No se pudieron publicar {} invalidaciones, se reintentará", batch.size(), ex);
+      pending.addAll(batch);
+    }
+  }
+
+  @PreDestroy
+  void stop() {
+    flush();
+    running = false;
+    Thread current = listener;
+    if (current != null) {
+      current.interrupt();
+    }
+  }
+
+  private void listen() {
+    boolean reconnecting = false;
+    while (running) {
+      try (Connection connection = openListenerConnection()) {
+        if (reconnecting) {
+          ALL_TYPES.forEach(entityType -> dispatch(entityType, null));
+          log.info("Bus de invalidación reconectado; cachés locales invalidadas");
+        }
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+          if (notifications == null) {
+            continue;
+          }
+          for (PGNotification notification : notifications) {
+            receive(notification.getParameter());
+          }
+        }
+      } catch (SQLException | RuntimeException ex) {
+        if (!running) {
+          return;
+        }
+        log.warn("Conexión del bus de invalidación perdida, reintentando", ex);
+      }
+      reconnecting = true;
+      try {
+        Thread.sleep(reconnectDelayMs);
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private Connection openListenerConnection() throws SQLException {
+    Connection connection =
+        dataSourceProperties
+            .initializeDataSourceBuilder()
+            .type(SimpleDriverDataSource.class)
+            .build()
+            .getConnection();
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("LISTEN " + channel);
+    } catch (SQLException ex) {
+      connection.close();
+      throw ex;
+    }
+    return connection;
+  }
+
+  void receive(String payload) {
+    if (payload == null || origin.equals(PendingInvalidations.origin(payload))) {
+      return;
+    }
+    PendingInvalidations.decode(payload)
+        .forEach(
+            (entityType, ids) -> {
+              if (ids == null) {
+                dispatch(entityType, null);
+              } else {
+                ids.forEach(id -> dispatch(entityType, id));
+              }
+            });
+  }
+
+  private void dispatch(String entityType, Long id) {
+    try {
+      if (USUARIO.equals(entityType)) {
+        eventPublisher.publishEvent(UserAccountChangedEvent.remote(id));
+      } else if (SESION.equals(entityType)) {
+        eventPublisher.publishEvent(AgentSessionChangedEvent.remote(id));
+      } else {
+        eventPublisher.publishEvent(DataChangedEvent.remote(entityType, id));
+      }
+    } catch (RuntimeException ex) {
+      log.warn("No se pudo aplicar la invalidación remota de {} {}", entityType, id, ex);
+    }
+  }
+}
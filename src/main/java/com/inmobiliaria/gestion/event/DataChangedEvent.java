@@ -0,0 +1,47 @@
+package com.inmobiliaria.gestion.event;
+
+/**
+ * Published by the domain services whenever an entity is created, updated or deleted, so that
+ * components holding derived or cached views of that data can discard them. A null id means any
+ * number of rows of that type changed at once.
+ *
+ * <p>Changes committed by other instances arrive through {@link CacheInvalidationBus} as remote
+ * events; they only invalidate local caches and are never broadcast again.
+ */
+public final class DataChangedEvent {
+
+  public static final String INMOBILIARIA = "inmobiliaria";
+  public static final String PROPIEDAD = "propiedad";
+  public static final String PERSONA = "persona";
+
+  private final String entityType;
+  private final Long entityId;
+  private final boolean remote;
+
+  public DataChangedEvent(String entityType, Long entityId) {
+    this(entityType, entityId, false);
+  }
+
+  private DataChangedEvent(String entityType, Long entityId, boolean remote) {
+    this.entityType = entityType;
+    this.entityId = entityId;
+    this.remote = remote;
+  }
+
+  /** A change committed by another instance, received through the invalidation bus. */
+  public static DataChangedEvent remote(String entityType, Long entityId) {
+    return new DataChangedEvent(entityType, entityId, true);
+  }
+
+  public String getEntityType() {
+    return entityType;
+  }
+
+  public Long getEntityId() {
+    return entityId;
+  }
+
+  public boolean isRemote() {
+    return remote;
+  }
+}
@@ -0,0 +1,138 @@
+package com.inmobiliaria.gestion.event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Invalidations waiting to be broadcast, coalesced by entity type. Repeated ids collapse into one
+ * entry and a type with more than {@code maxIdsPerType} pending ids, or with a bulk change, is
+ * sent as a single wildcard that drops every cached row of that type.
+ *
+ * <p>A drained batch is encoded as {@code origin|type:id;type:id;type:*}, split over several
+ * payloads when it does not fit in {@code maxPayloadBytes}. Payloads are plain ASCII (the origin
+ * is a UUID and entity types are lower-case names without the separators), so characters are
+ * bytes.
+ */
+final class PendingInvalidations {
+
+  static final String WILDCARD = "*";
+
+  private final int maxIdsPerType;
+  // A null value is the wildcard: every row of the type is stale.
+  private final Map<String, Set<Long>> pending = new LinkedHashMap<>();
+
+  PendingInvalidations(int maxIdsPerType) {
+    this.maxIdsPerType = maxIdsPerType;
+  }
+
+  /** Queues one change; a null {@code id} marks every row of the type as changed. */
+  synchronized void add(String entityType, Long id) {
+    if (pending.containsKey(entityType) && pending.get(entityType) == null) {
+      return;
+    }
+    if (id == null) {
+      pending.put(entityType, null);
+      return;
+    }
+    Set<Long> ids = pending.computeIfAbsent(entityType, type -> new LinkedHashSet<>());
+    ids.add(id);
+    if (ids.size() > maxIdsPerType) {
+      pending.put(entityType, null);
+    }
+  }
+
+  /** Queues again a drained batch that could not be sent. */
+  synchronized void addAll(Map<String, Set<Long>> batch) {
+    batch.forEach(
+        (entityType, ids) -> {
+          if (ids == null) {
+            add(entityType, null);
+          } else {
+            ids.forEach(id -> add(entityType, id));
+          }
+        });
+  }
+
+  synchronized boolean isEmpty() {
+    return pending.isEmpty();
+  }
+
+  /** Takes every pending change; a null set stands for the wildcard. */
+  synchronized Map<String, Set<Long>> drain() {
+    Map<String, Set<Long>> batch = new LinkedHashMap<>(pending);
+    pending.clear();
+    return batch;
+  }
+
+  static List<String> encode(String origin, Map<String, Set<Long>> batch, int maxPayloadBytes) {
+    List<String> payloads = new ArrayList<>();
+    StringBuilder payload = new StringBuilder(origin).append('|');
+    int headerLength = payload.length();
+    for (Map.Entry<String, Set<Long>> entry : batch.entrySet()) {
+      List<String> values =
+          entry.getValue() == null
+              ? List.of(WILDCARD)
+              : entry.getValue().stream().map(String::valueOf).toList();
+      for (String value : values) {
+        String item = entry.getKey() + ":" + value;
+        if (payload.length() > headerLength
+            && payload.length() + 1 + item.length() > maxPayloadBytes) {
+          payloads.add(payload.toString());
+          payload.setLength(headerLength);
+        }
+        if (payload.length() > headerLength) {
+          payload.append(';');
+        }
+        payload.append(item);
+      }
+    }
+    if (payload.length() > headerLength) {
+      payloads.add(payload.toString());
+    }
+    return payloads;
+  }
+
+  /** Origin of an encoded payload, or null when it is malformed. */
+  static String origin(String payload) {
+    int separator = payload.indexOf('|');
+    return separator < 0 ? null : payload.substring(0, separator);
+  }
+
+  /**
+   * Changes carried by an encoded payload, in the shape returned by {@link #drain()}. Malformed
+   * items are skipped.
+   */
+  static Map<String, Set<Long>> decode(String payload) {
+    Map<String, Set<Long>> batch = new LinkedHashMap<>();
+    int separator = payload.indexOf('|');
+    if (separator < 0) {
+      return batch;
+    }
+    for (String item : payload.substring(separator + 1).split(";")) {
+      int colon = item.indexOf(':');
+      if (colon <= 0) {
+        continue;
+      }
+      String entityType = item.substring(0, colon);
+      String value = item.substring(colon + 1);
+      if (WILDCARD.equals(value)) {
+        batch.put(entityType, null);
+        continue;
+      }
+      if (batch.containsKey(entityType) && batch.get(entityType) == null) {
+        continue;
+      }
+      try {
+        Long id = Long.valueOf(value);
+        batch.computeIfAbsent(entityType, type -> new LinkedHashSet<>()).add(id);
+      } catch (NumberFormatException ex) {
+        // Skip the item; the rest of the payload is still valid.
+      }
+    }
+    return batch;
+  }
+}
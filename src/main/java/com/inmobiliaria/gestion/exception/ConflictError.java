@@ -0,0 +1,37 @@
+package com.inmobiliaria.gestion.exception;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Error de concurrencia con el estado actual del recurso")
+public final class ConflictError {
+
+  private final String message;
+  private final List<String> conflictingFields;
+  private final Object current;
+
+  public ConflictError(String message, List<String> conflictingFields, Object current) {
+    this.message = message;
+    this.conflictingFields = conflictingFields;
+    this.current = current;
+  }
+
+  @Schema(
+      description = "Mensaje descriptivo del error",
+      example = "El recurso fue modificado por otra operación")
+  public String getMessage() {
+    return message;
+  }
+
+  @Schema(
+      description = "Campos de la solicitud que otra operación modificó con otro valor",
+      example = "[\"nombre\"]")
+  public List<String> getConflictingFields() {
+    return conflictingFields;
+  }
+
+  @Schema(description = "Estado actual del recurso; su versión se envía en la cabecera ETag")
+  public Object getCurrent() {
+    return current;
+  }
+}
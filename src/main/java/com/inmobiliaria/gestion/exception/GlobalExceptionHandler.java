@@ -1,5 +1,8 @@
 package com.inmobiliaria.gestion.exception;
 
+import com.inmobiliaria.gestion.agent.exception.AgentOverloadedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -23,8 +26,62 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiError(ex.getMessage()));
   }
 
+  @ExceptionHandler(InvalidPaginationException.class)
+  public ResponseEntity<ApiError> handleInvalidPagination(InvalidPaginationException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiError(ex.getMessage()));
+  }
+
+  @ExceptionHandler(InvalidSearchQueryException.class)
+  public ResponseEntity<ApiError> handleInvalidSearchQuery(InvalidSearchQueryException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiError(ex.getMessage()));
+  }
+
+  @ExceptionHandler(InvalidImportException.class)
+  public ResponseEntity<ApiError> handleInvalidImport(InvalidImportException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiError(ex.getMessage()));
+  }
+
+  @ExceptionHandler(InvalidBatchException.class)
+  public ResponseEntity<ApiError> handleInvalidBatch(InvalidBatchException ex) {
+    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiError(ex.getMessage()));
+  }
+
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<ApiError> handlePreconditionFailed(PreconditionFailedException ex) {
+    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+        .body(new ApiError(ex.getMessage()));
+  }
+
+  @ExceptionHandler(VersionConflictException.class)
+  public ResponseEntity<ConflictError> handleVersionConflict(VersionConflictException ex) {
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+        .eTag(ex.getEntityTag())
+        .body(new ConflictError(ex.getMessage(), ex.getConflictingFields(), ex.getCurrent()));
+  }
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ApiError> handleOptimisticLockingFailure(
+      OptimisticLockingFailureException ex) {
+    return ResponseEntity.status(HttpStatus.CONFLICT)
+        .body(new ApiError("El recurso fue modificado por otra operación; intente de nuevo"));
+  }
+
   @ExceptionHandler(JwtValidationException.class)
   public ResponseEntity<ApiError> handleJwtValidation(JwtValidationException ex) {
     return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new ApiError(ex.getMessage()));
   }
+
+  @ExceptionHandler(AgentOverloadedException.class)
+  public ResponseEntity<ApiError> handleAgentOverloaded(AgentOverloadedException ex) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().getSeconds()))
+        .body(new ApiError(ex.getMessage()));
+  }
+
+  @ExceptionHandler(ImportQueueFullException.class)
+  public ResponseEntity<ApiError> handleImportQueueFull(ImportQueueFullException ex) {
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().getSeconds()))
+        .body(new ApiError(ex.getMessage()));
+  }
 }
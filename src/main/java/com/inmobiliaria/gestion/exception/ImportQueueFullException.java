@@ -0,0 +1,24 @@
+package com.inmobiliaria.gestion.exception;
+
+import java.time.Duration;
+
+/**
+ * Raised when an upload arrives while every import slot, running or queued, is taken. Carries how
+ * long the client should wait before retrying.
+ */
+public class ImportQueueFullException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public ImportQueueFullException(Duration retryAfter) {
+    super(
+        "Hay demasiadas importaciones en curso, intenta de nuevo en "
+            + retryAfter.getSeconds()
+            + " segundos");
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
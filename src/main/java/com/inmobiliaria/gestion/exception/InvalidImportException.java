@@ -0,0 +1,8 @@
+package com.inmobiliaria.gestion.exception;
+
+public class InvalidImportException extends RuntimeException {
+
+  public InvalidImportException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,8 @@
+package com.inmobiliaria.gestion.exception;
+
+public class InvalidPaginationException extends RuntimeException {
+
+  public InvalidPaginationException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,34 @@
+package com.inmobiliaria.gestion.exception;
+
+import java.util.List;
+
+/**
+ * A concurrent change to the same resource could not be merged with the requested update. Carries
+ * the current representation so the client can reconcile without another round trip.
+ */
+public class VersionConflictException extends RuntimeException {
+
+  private final transient Object current;
+  private final String entityTag;
+  private final List<String> conflictingFields;
+
+  public VersionConflictException(
+      String message, Object current, String entityTag, List<String> conflictingFields) {
+    super(message);
+    this.current = current;
+    this.entityTag = entityTag;
+    this.conflictingFields = List.copyOf(conflictingFields);
+  }
+
+  public Object getCurrent() {
+    return current;
+  }
+
+  public String getEntityTag() {
+    return entityTag;
+  }
+
+  public List<String> getConflictingFields() {
+    return conflictingFields;
+  }
+}
@@ -0,0 +1,95 @@
+package com.inmobiliaria.gestion.exportacion.controller;
+
+import com.inmobiliaria.gestion.exportacion.domain.ExportEntidad;
+import com.inmobiliaria.gestion.exportacion.domain.ExportFormato;
+import com.inmobiliaria.gestion.exportacion.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Instant;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Exportación", description = "Exportación masiva e incremental de los catálogos")
+public class ExportController {
+
+  private final ExportService exportService;
+
+  public ExportController(ExportService exportService) {
+    this.exportService = exportService;
+  }
+
+  @Operation(
+      summary = "Exportar un catálogo",
+      description =
+          "Transmite propiedades (con el nombre de su inmobiliaria), personas o inmobiliarias"
+              + " como NDJSON o CSV directamente desde un cursor de base de datos. Por defecto la"
+              + " respuesta se comprime con gzip (Content-Encoding: gzip). Para una"
+              + " sincronización incremental envíe 'desde' y 'desdeId' con el updatedAt y el id"
+              + " de la última fila recibida; sin 'desde', 'desdeId' exporta solo los ids"
+              + " posteriores. Las filas eliminadas no se reportan.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Flujo del catálogo en el formato solicitado",
+            content = {
+              @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+              @Content(mediaType = "text/csv")
+            }),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Catálogo no disponible para exportación",
+            content = @Content)
+      })
+  @GetMapping("/{entidad}")
+  public ResponseEntity<StreamingResponseBody> export(
+      @Parameter(
+              description = "Catálogo a exportar: propiedades, personas o inmobiliarias",
+              example = "propiedades")
+          @PathVariable
+          String entidad,
+      @Parameter(description = "Formato de salida")
+          @RequestParam(name = "formato", defaultValue = "NDJSON")
+          ExportFormato formato,
+      @Parameter(description = "Exporta solo filas posteriores a este id", example = "1500")
+          @RequestParam(name = "desdeId", required = false)
+          Long desdeId,
+      @Parameter(
+              description = "Exporta solo filas modificadas en o después de este instante",
+              example = "2025-01-31T00:00:00Z")
+          @RequestParam(name = "desde", required = false)
+          Instant desde,
+      @Parameter(description = "Comprime la respuesta con gzip")
+          @RequestParam(name = "gzip", defaultValue = "true")
+          boolean gzip) {
+    ExportEntidad catalogo = ExportEntidad.fromPath(entidad);
+    StreamingResponseBody body =
+        outputStream ->
+            exportService.export(catalogo, formato, desdeId, desde, gzip, outputStream);
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.ok()
+            .contentType(formato.getMediaType())
+            .header(
+                HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment()
+                    .filename(catalogo.fileName(formato))
+                    .build()
+                    .toString());
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response.body(body);
+  }
+}
@@ -0,0 +1,28 @@
+package com.inmobiliaria.gestion.exportacion.domain;
+
+import com.inmobiliaria.gestion.exception.ResourceNotFoundException;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Locale;
+
+@Schema(description = "Catálogos disponibles para exportación")
+public enum ExportEntidad {
+  PROPIEDADES,
+  PERSONAS,
+  INMOBILIARIAS;
+
+  /** Resolves the lower-case catalog name used in the export URL. */
+  public static ExportEntidad fromPath(String path) {
+    for (ExportEntidad entidad : values()) {
+      if (entidad.name().equalsIgnoreCase(path)) {
+        return entidad;
+      }
+    }
+    throw new ResourceNotFoundException(
+        "Catálogo '%s' no disponible para exportación".formatted(path));
+  }
+
+  /** Name of the downloaded file, e.g. {@code propiedades.csv}. */
+  public String fileName(ExportFormato formato) {
+    return name().toLowerCase(Locale.ROOT) + "." + formato.getExtension();
+  }
+}
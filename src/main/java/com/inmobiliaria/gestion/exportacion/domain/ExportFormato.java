@@ -0,0 +1,29 @@
+package com.inmobiliaria.gestion.exportacion.domain;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.http.MediaType;
+
+@Schema(description = "Formatos de exportación soportados")
+public enum ExportFormato {
+  @Schema(description = "Un objeto JSON por línea")
+  NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+
+  @Schema(description = "Valores separados por comas con encabezado (RFC 4180)")
+  CSV(new MediaType("text", "csv"), "csv");
+
+  private final MediaType mediaType;
+  private final String extension;
+
+  ExportFormato(MediaType mediaType, String extension) {
+    this.mediaType = mediaType;
+    this.extension = extension;
+  }
+
+  public MediaType getMediaType() {
+    return mediaType;
+  }
+
+  public String getExtension() {
+    return extension;
+  }
+}
@@ -0,0 +1,193 @@
+package com.inmobiliaria.gestion.exportacion.repository;
+
+import com.inmobiliaria.gestion.exportacion.domain.ExportEntidad;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads whole catalogs row by row for the export endpoints. Queries run on a forward-only result
+ * set with {@code app.export.fetch-size}; inside a read-only transaction the PostgreSQL driver
+ * turns that into a server-side cursor, so memory use does not grow with the size of the catalog.
+ */
+@Repository
+public class ExportRepository {
+
+  private static final Map<ExportEntidad, Source> SOURCES =
+      Map.of(
+          ExportEntidad.PROPIEDADES,
+          new Source(
+              "propiedades p JOIN inmobiliarias i ON i.id = p.inmobiliaria_id",
+              "p.id",
+              "p.updated_at",
+              List.of(
+                  new Column("id", "p.id", ValueType.LONG),
+                  new Column("nombre", "p.nombre", ValueType.TEXT),
+                  new Column("tipo", "p.tipo", ValueType.TEXT),
+                  new Column("direccion", "p.direccion", ValueType.TEXT),
+                  new Column("observaciones", "p.observaciones", ValueType.TEXT),
+                  new Column("inmobiliariaId", "p.inmobiliaria_id", ValueType.LONG),
+                  new Column("inmobiliariaNombre", "i.nombre", ValueType.TEXT),
+                  new Column("updatedAt", "p.updated_at", ValueType.INSTANT))),
+          ExportEntidad.PERSONAS,
+          new Source(
+              "personas p",
+              "p.id_persona",
+              "p.updated_at",
+              List.of(
+                  new Column("id", "p.id_persona", ValueType.LONG),
+                  new Column("tipoPersona", "p.tipo_persona", ValueType.TEXT),
+                  new Column("nombre", "p.nombre", ValueType.TEXT),
+                  new Column("apellidos", "p.apellidos", ValueType.TEXT),
+                  new Column("razonSocial", "p.razon_social", ValueType.TEXT),
+                  new Column("rfc", "p.rfc", ValueType.TEXT),
+                  new Column("curp", "p.curp", ValueType.TEXT),
+                  new Column("email", "p.email", ValueType.TEXT),
+                  new Column("telefono", "p.telefono", ValueType.TEXT),
+                  new Column("fechaAlta", "p.fecha_alta", ValueType.LOCAL_DATE_TIME),
+                  new Column("activo", "p.activo", ValueType.BOOLEAN),
+                  new Column("updatedAt", "p.updated_at", ValueType.INSTANT))),
+          ExportEntidad.INMOBILIARIAS,
+          new Source(
+              "inmobiliarias i",
+              "i.id",
+              "i.updated_at",
+              List.of(
+                  new Column("id", "i.id", ValueType.LONG),
+                  new Column("nombre", "i.nombre", ValueType.TEXT),
+                  new Column("rfc", "i.rfc", ValueType.TEXT),
+                  new Column("nombreContacto", "i.nombre_contacto", ValueType.TEXT),
+                  new Column("correo", "i.correo", ValueType.TEXT),
+                  new Column("telefono", "i.telefono", ValueType.TEXT),
+                  new Column("updatedAt", "i.updated_at", ValueType.INSTANT))));
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+
+  public ExportRepository(
+      DataSource dataSource, @Value("${app.export.fetch-size:1000}") int fetchSize) {
+    JdbcTemplate template = new JdbcTemplate(dataSource);
+    template.setFetchSize(fetchSize);
+    this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+  }
+
+  /** Names of the exported fields, in output order. */
+  public List<String> columns(ExportEntidad entidad) {
+    return SOURCES.get(entidad).columns.stream().map(column -> column.name).toList();
+  }
+
+  /**
+   * Passes every row of the catalog to {@code consumer} as an array aligned with {@link #columns}.
+   * Without {@code desde} rows come in id order after {@code desdeId}. With {@code desde} they come
+   * in {@code (updatedAt, id)} order after that position, so a sync that stores the {@code
+   * updatedAt} and {@code id} of the last row it received resumes exactly where it stopped.
+   */
+  public void stream(
+      ExportEntidad entidad, long desdeId, Instant desde, Consumer<Object[]> consumer) {
+    Source source = SOURCES.get(entidad);
+    MapSqlParameterSource params = new MapSqlParameterSource("desdeId", desdeId);
+    String sql = "SELECT " + source.selectList + " FROM " + source.from;
+    if (desde == null) {
+      sql += " WHERE %1$s > :desdeId ORDER BY %1$s".formatted(source.idColumn);
+    } else {
+      params.addValue("desde", OffsetDateTime.ofInstant(desde, ZoneOffset.UTC));
+      sql +=
+          " WHERE (%1$s > :desde OR (%1$s = :desde AND %2$s > :desdeId)) ORDER BY %1$s, %2$s"
+              .formatted(source.updatedColumn, source.idColumn);
+    }
+    List<Column> columns = source.columns;
+    jdbcTemplate.query(
+        sql,
+        params,
+        (RowCallbackHandler)
+            rs -> {
+              Object[] values = new Object[columns.size()];
+              for (int i = 0; i < values.length; i++) {
+                values[i] = columns.get(i).type.read(rs, i + 1);
+              }
+              consumer.accept(values);
+            });
+  }
+
+  private enum ValueType {
+    TEXT {
+      @Override
+      Object read(ResultSet rs, int index) throws SQLException {
+        return rs.getString(index);
+      }
+    },
+    LONG {
+      @Override
+      Object read(ResultSet rs, int index) throws SQLException {
+        long value = rs.getLong(index);
+        return rs.wasNull() ? null : value;
+      }
+    },
+    BOOLEAN {
+      @Override
+      Object read(ResultSet rs, int index) throws SQLException {
+        boolean value = rs.getBoolean(index);
+        return rs.wasNull() ? null : value;
+      }
+    },
+    LOCAL_DATE_TIME {
+      @Override
+      Object read(ResultSet rs, int index) throws SQLException {
+        return rs.getObject(index, LocalDateTime.class);
+      }
+    },
+    INSTANT {
+      @Override
+      Object read(ResultSet rs, int index) throws SQLException {
+        OffsetDateTime value = rs.getObject(index, OffsetDateTime.class);
+        return value == null ? null : value.toInstant();
+      }
+    };
+
+    abstract Object read(ResultSet rs, int index) throws SQLException;
+  }
+
+  private static final class Column {
+
+    private final String name;
+    private final String expression;
+    private final ValueType type;
+
+    private Column(String name, String expression, ValueType type) {
+      this.name = name;
+      this.expression = expression;
+      this.type = type;
+    }
+  }
+
+  private static final class Source {
+
+    private final String from;
+    private final String idColumn;
+    private final String updatedColumn;
+    private final List<Column> columns;
+    private final String selectList;
+
+    private Source(String from, String idColumn, String updatedColumn, List<Column> columns) {
+      this.from = from;
+      this.idColumn = idColumn;
+      this.updatedColumn = updatedColumn;
+      this.columns = columns;
+      this.selectList =
+          columns.stream().map(column -> column.expression).collect(Collectors.joining(", "));
+    }
+  }
+}
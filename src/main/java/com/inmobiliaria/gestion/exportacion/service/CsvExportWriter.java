@@ -0,0 +1,68 @@
+package com.inmobiliaria.gestion.exportacion.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV with a header row. Fields holding a comma, quote or line break are quoted; null
+ * values are written as empty fields.
+ */
+final class CsvExportWriter implements ExportRowWriter {
+
+  private final Writer writer;
+
+  CsvExportWriter(OutputStream out) {
+    this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public void start(List<String> columns) throws IOException {
+    writeRecord(columns.toArray());
+  }
+
+  @Override
+  public void write(Object[] values) throws IOException {
+    writeRecord(values);
+  }
+
+  @Override
+  public void finish() throws IOException {
+    writer.flush();
+  }
+
+  private void writeRecord(Object[] values) throws IOException {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        writer.write(',');
+      }
+      writeField(values[i]);
+    }
+    writer.write("\r\n");
+  }
+
+  private void writeField(Object value) throws IOException {
+    if (value == null) {
+      return;
+    }
+    String text =
+        value instanceof LocalDateTime dateTime
+            ? DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime)
+            : value.toString();
+    if (text.indexOf(',') < 0
+        && text.indexOf('"') < 0
+        && text.indexOf('\n') < 0
+        && text.indexOf('\r') < 0) {
+      writer.write(text);
+      return;
+    }
+    writer.write('"');
+    writer.write(text.replace("\"", "\"\""));
+    writer.write('"');
+  }
+}
@@ -0,0 +1,16 @@
+package com.inmobiliaria.gestion.exportacion.service;
+
+import java.io.IOException;
+import java.util.List;
+
+/** Serializes exported rows in one output format. */
+interface ExportRowWriter {
+
+  void start(List<String> columns) throws IOException;
+
+  /** Writes one row whose values are aligned with the columns passed to {@link #start}. */
+  void write(Object[] values) throws IOException;
+
+  /** Flushes buffered output; the underlying stream stays open. */
+  void finish() throws IOException;
+}
@@ -0,0 +1,74 @@
+package com.inmobiliaria.gestion.exportacion.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.gestion.exportacion.domain.ExportEntidad;
+import com.inmobiliaria.gestion.exportacion.domain.ExportFormato;
+import com.inmobiliaria.gestion.exportacion.repository.ExportRepository;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class ExportService {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final ExportRepository exportRepository;
+  private final ObjectMapper objectMapper;
+
+  public ExportService(ExportRepository exportRepository, ObjectMapper objectMapper) {
+    this.exportRepository = exportRepository;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Writes the catalog to {@code out} as it is read from the database. {@code out} is flushed but
+   * not closed.
+   *
+   * @param desdeId only rows after this id (or after this id within {@code desde}); null for all
+   * @param desde only rows modified at or after this instant; null for all
+   * @param gzip whether to gzip the output
+   */
+  @Transactional(readOnly = true)
+  public void export(
+      ExportEntidad entidad,
+      ExportFormato formato,
+      Long desdeId,
+      Instant desde,
+      boolean gzip,
+      OutputStream out)
+      throws IOException {
+    OutputStream target =
+        gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : new BufferedOutputStream(out, BUFFER_SIZE);
+    ExportRowWriter writer =
+        switch (formato) {
+          case NDJSON -> new NdjsonExportWriter(target, objectMapper);
+          case CSV -> new CsvExportWriter(target);
+        };
+    writer.start(exportRepository.columns(entidad));
+    try {
+      exportRepository.stream(
+          entidad, desdeId != null ? desdeId : 0L, desde, values -> write(writer, values));
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+    writer.finish();
+    if (target instanceof GZIPOutputStream compressed) {
+      compressed.finish();
+    }
+    target.flush();
+  }
+
+  private static void write(ExportRowWriter writer, Object[] values) {
+    try {
+      writer.write(values);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+}
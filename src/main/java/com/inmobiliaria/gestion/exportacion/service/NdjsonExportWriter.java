@@ -0,0 +1,52 @@
+package com.inmobiliaria.gestion.exportacion.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/** One JSON object per line; null values are left out. */
+final class NdjsonExportWriter implements ExportRowWriter {
+
+  private final JsonGenerator generator;
+  private List<String> columns;
+
+  NdjsonExportWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+    this.generator =
+        objectMapper.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
+
+  @Override
+  public void start(List<String> columns) {
+    this.columns = columns;
+  }
+
+  @Override
+  public void write(Object[] values) throws IOException {
+    generator.writeStartObject();
+    for (int i = 0; i < values.length; i++) {
+      Object value = values[i];
+      if (value == null) {
+        continue;
+      }
+      generator.writeFieldName(columns.get(i));
+      switch (value) {
+        case Long number -> generator.writeNumber(number);
+        case Boolean flag -> generator.writeBoolean(flag);
+        case LocalDateTime dateTime ->
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime));
+        default -> generator.writeString(value.toString());
+      }
+    }
+    generator.writeEndObject();
+    generator.writeRaw('\n');
+  }
+
+  @Override
+  public void finish() throws IOException {
+    generator.flush();
+  }
+}
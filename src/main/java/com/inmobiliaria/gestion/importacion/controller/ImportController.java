@@ -0,0 +1,130 @@
+package com.inmobiliaria.gestion.importacion.controller;
+
+import com.inmobiliaria.gestion.importacion.domain.ImportFormato;
+import com.inmobiliaria.gestion.importacion.dto.ImportJobResponse;
+import com.inmobiliaria.gestion.importacion.service.ImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.InputStream;
+import java.net.URI;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/import")
+@Tag(name = "Importación", description = "Carga masiva de propiedades y personas")
+public class ImportController {
+
+  private final ImportService importService;
+
+  public ImportController(ImportService importService) {
+    this.importService = importService;
+  }
+
+  @Operation(
+      summary = "Importar propiedades",
+      description =
+          "Recibe un archivo CSV (con encabezado nombre, tipo, direccion, observaciones,"
+              + " inmobiliariaId) o NDJSON (un objeto CreatePropiedadRequest por línea) y lo"
+              + " procesa en segundo plano. El progreso se consulta en la URL de la cabecera"
+              + " Location.",
+      responses = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Archivo recibido; la importación está en curso",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ImportJobResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Archivo vacío, demasiado grande o con tipo de contenido no soportado",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Demasiadas importaciones en curso; reintentar tras Retry-After",
+            content = @Content)
+      })
+  @PostMapping(
+      value = "/propiedades",
+      consumes = {ImportFormato.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<ImportJobResponse> importPropiedades(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+    return accepted(
+        importService.importPropiedades(body, ImportFormato.fromContentType(contentType)));
+  }
+
+  @Operation(
+      summary = "Importar personas",
+      description =
+          "Recibe un archivo CSV (con encabezado tipoPersona, nombre, apellidos, razonSocial,"
+              + " rfc, curp, email, telefono, fechaAlta, activo) o NDJSON (un objeto"
+              + " CreatePersonaRequest por línea) y lo procesa en segundo plano. El progreso se"
+              + " consulta en la URL de la cabecera Location.",
+      responses = {
+        @ApiResponse(
+            responseCode = "202",
+            description = "Archivo recibido; la importación está en curso",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ImportJobResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Archivo vacío, demasiado grande o con tipo de contenido no soportado",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Demasiadas importaciones en curso; reintentar tras Retry-After",
+            content = @Content)
+      })
+  @PostMapping(
+      value = "/personas",
+      consumes = {ImportFormato.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+  public ResponseEntity<ImportJobResponse> importPersonas(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) {
+    return accepted(importService.importPersonas(body, ImportFormato.fromContentType(contentType)));
+  }
+
+  @Operation(
+      summary = "Consultar importación",
+      description =
+          "Devuelve el estado y los contadores de un trabajo de importación junto con el detalle"
+              + " de las primeras filas rechazadas.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Estado obtenido exitosamente",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ImportJobResponse.class))),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Importación no encontrada o ya expirada",
+            content = @Content)
+      })
+  @GetMapping("/jobs/{id}")
+  public ResponseEntity<ImportJobResponse> findJob(
+      @Parameter(description = "Identificador del trabajo de importación") @PathVariable
+          String id) {
+    return ResponseEntity.ok(importService.findJob(id));
+  }
+
+  private static ResponseEntity<ImportJobResponse> accepted(ImportJobResponse job) {
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/import/jobs/" + job.getId()))
+        .body(job);
+  }
+}
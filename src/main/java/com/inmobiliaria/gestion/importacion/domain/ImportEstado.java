@@ -0,0 +1,18 @@
+package com.inmobiliaria.gestion.importacion.domain;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Estado de un trabajo de importación masiva")
+public enum ImportEstado {
+  @Schema(description = "Archivo recibido, en espera de procesamiento")
+  PENDIENTE,
+
+  @Schema(description = "Filas en proceso de validación e inserción")
+  EN_PROCESO,
+
+  @Schema(description = "Archivo procesado; las filas con error se reportan por separado")
+  COMPLETADO,
+
+  @Schema(description = "El archivo no pudo procesarse (por ejemplo, encabezado inválido)")
+  FALLIDO
+}
@@ -0,0 +1,26 @@
+package com.inmobiliaria.gestion.importacion.domain;
+
+import com.inmobiliaria.gestion.exception.InvalidImportException;
+import org.springframework.http.MediaType;
+
+/** Upload formats accepted by the bulk import endpoints, chosen by the request Content-Type. */
+public enum ImportFormato {
+  CSV,
+  NDJSON;
+
+  public static final String TEXT_CSV_VALUE = "text/csv";
+
+  public static ImportFormato fromContentType(String contentType) {
+    if (contentType != null) {
+      MediaType mediaType = MediaType.parseMediaType(contentType);
+      if (mediaType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))) {
+        return CSV;
+      }
+      if (mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+        return NDJSON;
+      }
+    }
+    throw new InvalidImportException(
+        "Formato no soportado. Use Content-Type text/csv o application/x-ndjson");
+  }
+}
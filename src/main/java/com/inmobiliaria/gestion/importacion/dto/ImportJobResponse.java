@@ -0,0 +1,105 @@
+package com.inmobiliaria.gestion.importacion.dto;
+
+import com.inmobiliaria.gestion.importacion.domain.ImportEstado;
+import com.inmobiliaria.gestion.importacion.domain.ImportFormato;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.util.List;
+
+@Schema(description = "Estado y progreso de un trabajo de importación masiva")
+public final class ImportJobResponse {
+
+  private final String id;
+  private final String entidad;
+  private final ImportFormato formato;
+  private final ImportEstado estado;
+  private final long filasLeidas;
+  private final long filasImportadas;
+  private final long filasConError;
+  private final List<ImportRowError> errores;
+  private final String mensaje;
+  private final Instant creadoEn;
+  private final Instant finalizadoEn;
+
+  public ImportJobResponse(
+      String id,
+      String entidad,
+      ImportFormato formato,
+      ImportEstado estado,
+      long filasLeidas,
+      long filasImportadas,
+      long filasConError,
+      List<ImportRowError> errores,
+      String mensaje,
+      Instant creadoEn,
+      Instant finalizadoEn) {
+    this.id = id;
+    this.entidad = entidad;
+    this.formato = formato;
+    this.estado = estado;
+    this.filasLeidas = filasLeidas;
+    this.filasImportadas = filasImportadas;
+    this.filasConError = filasConError;
+    this.errores = errores;
+    this.mensaje = mensaje;
+    this.creadoEn = creadoEn;
+    this.finalizadoEn = finalizadoEn;
+  }
+
+  @Schema(
+      description = "Identificador del trabajo",
+      example = "5f0c8a2e-8c1b-4c55-9d0e-3f1a7b2c9d10")
+  public String getId() {
+    return id;
+  }
+
+  @Schema(description = "Catálogo de destino", example = "propiedades")
+  public String getEntidad() {
+    return entidad;
+  }
+
+  @Schema(description = "Formato del archivo recibido", implementation = ImportFormato.class)
+  public ImportFormato getFormato() {
+    return formato;
+  }
+
+  @Schema(description = "Estado actual del trabajo", implementation = ImportEstado.class)
+  public ImportEstado getEstado() {
+    return estado;
+  }
+
+  @Schema(description = "Filas de datos leídas hasta el momento", example = "1500")
+  public long getFilasLeidas() {
+    return filasLeidas;
+  }
+
+  @Schema(description = "Filas insertadas y confirmadas", example = "1497")
+  public long getFilasImportadas() {
+    return filasImportadas;
+  }
+
+  @Schema(description = "Filas rechazadas por validación o por la base de datos", example = "3")
+  public long getFilasConError() {
+    return filasConError;
+  }
+
+  @Schema(description = "Detalle de las primeras filas rechazadas")
+  public List<ImportRowError> getErrores() {
+    return errores;
+  }
+
+  @Schema(description = "Motivo del fallo cuando el estado es FALLIDO")
+  public String getMensaje() {
+    return mensaje;
+  }
+
+  @Schema(description = "Momento en que se recibió el archivo")
+  public Instant getCreadoEn() {
+    return creadoEn;
+  }
+
+  @Schema(description = "Momento en que terminó el procesamiento; nulo mientras está en curso")
+  public Instant getFinalizadoEn() {
+    return finalizadoEn;
+  }
+}
@@ -0,0 +1,29 @@
+package com.inmobiliaria.gestion.importacion.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Fila del archivo que no pudo importarse")
+public final class ImportRowError {
+
+  private final long fila;
+  private final String mensaje;
+
+  public ImportRowError(long fila, String mensaje) {
+    this.fila = fila;
+    this.mensaje = mensaje;
+  }
+
+  @Schema(
+      description = "Número de línea en el archivo (el encabezado CSV es la línea 1)",
+      example = "7")
+  public long getFila() {
+    return fila;
+  }
+
+  @Schema(
+      description = "Motivo del rechazo",
+      example = "nombre: El nombre de la propiedad es obligatorio")
+  public String getMensaje() {
+    return mensaje;
+  }
+}
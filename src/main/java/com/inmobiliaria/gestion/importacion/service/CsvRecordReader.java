@@ -0,0 +1,119 @@
+package com.inmobiliaria.gestion.importacion.service;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.inmobiliaria.gestion.exception.InvalidImportException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * RFC 4180 reader: comma separated, optional double quotes, {@code ""} as an escaped quote and
+ * line breaks allowed inside quoted fields. The first record is the header and names the JSON
+ * properties of the create request; empty cells are treated as missing values.
+ */
+final class CsvRecordReader implements ImportRecordReader {
+
+  private static final char BOM = '\uFEFF';
+
+  private final BufferedReader reader;
+  private final List<String> header;
+  private long line;
+
+  CsvRecordReader(BufferedReader reader, Set<String> columns) throws IOException {
+    this.reader = reader;
+    List<String> fields = readRecord();
+    if (fields == null || fields.isEmpty()) {
+      throw new InvalidImportException("El archivo CSV no tiene encabezado");
+    }
+    header = new ArrayList<>(fields.size());
+    for (String field : fields) {
+      String column = field.replace(String.valueOf(BOM), "").trim();
+      if (!columns.contains(column)) {
+        throw new InvalidImportException(
+            "Columna desconocida '%s'. Columnas válidas: %s".formatted(column, columns));
+      }
+      header.add(column);
+    }
+  }
+
+  @Override
+  public ImportRecord next() throws IOException {
+    while (true) {
+      long fila = line + 1;
+      List<String> fields = readRecord();
+      if (fields == null) {
+        return null;
+      }
+      if (fields.size() == 1 && fields.get(0).isBlank()) {
+        continue;
+      }
+      if (fields.size() != header.size()) {
+        return ImportRecord.unreadable(
+            fila,
+            "Se esperaban %d columnas y se encontraron %d".formatted(header.size(), fields.size()));
+      }
+      ObjectNode node = JsonNodeFactory.instance.objectNode();
+      for (int i = 0; i < fields.size(); i++) {
+        String value = fields.get(i);
+        if (!value.isEmpty()) {
+          node.put(header.get(i), value);
+        }
+      }
+      return ImportRecord.of(fila, node);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  /** Reads the next record, or returns null at the end of the input. */
+  private List<String> readRecord() throws IOException {
+    List<String> fields = new ArrayList<>();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    boolean read = false;
+    int c;
+    while ((c = reader.read()) != -1) {
+      read = true;
+      if (quoted) {
+        if (c == '"') {
+          reader.mark(1);
+          int following = reader.read();
+          if (following == '"') {
+            field.append('"');
+          } else {
+            quoted = false;
+            if (following != -1) {
+              reader.reset();
+            }
+          }
+        } else {
+          if (c == '\n') {
+            line++;
+          }
+          field.append((char) c);
+        }
+      } else if (c == '"' && field.isEmpty()) {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else if (c == '\n') {
+        line++;
+        break;
+      } else if (c != '\r') {
+        field.append((char) c);
+      }
+    }
+    if (!read) {
+      return null;
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+}
@@ -0,0 +1,98 @@
+package com.inmobiliaria.gestion.importacion.service;
+
+import com.inmobiliaria.gestion.importacion.domain.ImportEstado;
+import com.inmobiliaria.gestion.importacion.domain.ImportFormato;
+import com.inmobiliaria.gestion.importacion.dto.ImportJobResponse;
+import com.inmobiliaria.gestion.importacion.dto.ImportRowError;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one import. Updated by the worker thread and read concurrently by status requests,
+ * so counters are atomic and the reported error list is guarded by the job itself.
+ */
+final class ImportJob {
+
+  private final String id;
+  private final String entidad;
+  private final ImportFormato formato;
+  private final int maxReportedErrors;
+  private final Instant creadoEn = Instant.now();
+  private final AtomicLong filasLeidas = new AtomicLong();
+  private final AtomicLong filasImportadas = new AtomicLong();
+  private final AtomicLong filasConError = new AtomicLong();
+  private final List<ImportRowError> errores = new ArrayList<>();
+
+  private volatile ImportEstado estado = ImportEstado.PENDIENTE;
+  private volatile String mensaje;
+  private volatile Instant finalizadoEn;
+
+  ImportJob(String id, String entidad, ImportFormato formato, int maxReportedErrors) {
+    this.id = id;
+    this.entidad = entidad;
+    this.formato = formato;
+    this.maxReportedErrors = maxReportedErrors;
+  }
+
+  String getId() {
+    return id;
+  }
+
+  ImportFormato getFormato() {
+    return formato;
+  }
+
+  void start() {
+    estado = ImportEstado.EN_PROCESO;
+  }
+
+  void rowRead() {
+    filasLeidas.incrementAndGet();
+  }
+
+  void rowsImported(int count) {
+    filasImportadas.addAndGet(count);
+  }
+
+  /** Counts a rejected row; only the first {@code maxReportedErrors} are kept in detail. */
+  void rowFailed(long fila, String error) {
+    filasConError.incrementAndGet();
+    synchronized (errores) {
+      if (errores.size() < maxReportedErrors) {
+        errores.add(new ImportRowError(fila, error));
+      }
+    }
+  }
+
+  void complete() {
+    finalizadoEn = Instant.now();
+    estado = ImportEstado.COMPLETADO;
+  }
+
+  void fail(String reason) {
+    mensaje = reason;
+    finalizadoEn = Instant.now();
+    estado = ImportEstado.FALLIDO;
+  }
+
+  ImportJobResponse toResponse() {
+    List<ImportRowError> snapshot;
+    synchronized (errores) {
+      snapshot = List.copyOf(errores);
+    }
+    return new ImportJobResponse(
+        id,
+        entidad,
+        formato,
+        estado,
+        filasLeidas.get(),
+        filasImportadas.get(),
+        filasConError.get(),
+        snapshot,
+        mensaje,
+        creadoEn,
+        finalizadoEn);
+  }
+}
@@ -0,0 +1,37 @@
+package com.inmobiliaria.gestion.importacion.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/** One data row read from an upload: either its fields as JSON or the reason it is unreadable. */
+final class ImportRecord {
+
+  private final long fila;
+  private final JsonNode data;
+  private final String error;
+
+  private ImportRecord(long fila, JsonNode data, String error) {
+    this.fila = fila;
+    this.data = data;
+    this.error = error;
+  }
+
+  static ImportRecord of(long fila, JsonNode data) {
+    return new ImportRecord(fila, data, null);
+  }
+
+  static ImportRecord unreadable(long fila, String error) {
+    return new ImportRecord(fila, null, error);
+  }
+
+  long getFila() {
+    return fila;
+  }
+
+  JsonNode getData() {
+    return data;
+  }
+
+  String getError() {
+    return error;
+  }
+}
@@ -0,0 +1,11 @@
+package com.inmobiliaria.gestion.importacion.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/** Pull parser over an upload; rows are read one at a time so memory use does not grow. */
+interface ImportRecordReader extends Closeable {
+
+  /** Returns the next data row, or null at the end of the input. */
+  ImportRecord next() throws IOException;
+}
@@ -0,0 +1,329 @@
+package com.inmobiliaria.gestion.importacion.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.exception.ImportQueueFullException;
+import com.inmobiliaria.gestion.exception.InvalidImportException;
+import com.inmobiliaria.gestion.exception.ResourceNotFoundException;
+import com.inmobiliaria.gestion.importacion.domain.ImportFormato;
+import com.inmobiliaria.gestion.importacion.dto.ImportJobResponse;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk import of propiedades and personas. The upload is spooled to a temporary file so the
+ * request returns as soon as the body is received; a background worker then reads it record by
+ * record, validates each row against the create DTO, and writes the valid rows in chunks of {@code
+ * app.import.chunk-size}, each chunk as one JDBC batch in its own transaction. A row that fails
+ * validation or the database is reported in the job and does not abort the rest of the file.
+ *
+ * <p>At most {@code app.import.max-concurrent-jobs} jobs run and {@code app.import.max-queued-jobs}
+ * more wait for a worker. The slot is taken before the upload is spooled, so a full queue answers
+ * 429 without writing anything to the temporary directory.
+ */
+@Service
+public class ImportService {
+
+  private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final PropiedadImportWriter propiedadWriter;
+  private final PersonaImportWriter personaWriter;
+  private final int chunkSize;
+  private final long maxFileBytes;
+  private final int maxReportedErrors;
+  private final Duration retryAfter;
+  private final Cache<String, ImportJob> jobs;
+  private final ExecutorService workers;
+  // One permit per running or queued job; released when the job ends or its upload is rejected.
+  private final Semaphore jobSlots;
+
+  public ImportService(
+      ObjectMapper objectMapper,
+      Validator validator,
+      TransactionTemplate transactionTemplate,
+      ApplicationEventPublisher eventPublisher,
+      PropiedadImportWriter propiedadWriter,
+      PersonaImportWriter personaWriter,
+      @Value("${app.import.chunk-size:500}") int chunkSize,
+      @Value("${app.import.max-file-bytes:52428800}") long maxFileBytes,
+      @Value("${app.import.max-reported-errors:100}") int maxReportedErrors,
+      @Value("${app.import.max-concurrent-jobs:2}") int maxConcurrentJobs,
+      @Value("${app.import.max-queued-jobs:4}") int maxQueuedJobs,
+      @Value("${app.import.retry-after-seconds:30}") long retryAfterSeconds,
+      @Value("${app.import.job-retention-minutes:60}") long jobRetentionMinutes) {
+    if (chunkSize < 1 || maxConcurrentJobs < 1) {
+      throw new IllegalArgumentException(
+          "app.import.chunk-size and app.import.max-concurrent-jobs must be positive");
+    }
+    if (maxQueuedJobs < 0) {
+      throw new IllegalArgumentException("app.import.max-queued-jobs must not be negative");
+    }
+    this.objectMapper = objectMapper;
+    this.validator = validator;
+    this.transactionTemplate = transactionTemplate;
+    this.eventPublisher = eventPublisher;
+    this.propiedadWriter = propiedadWriter;
+    this.personaWriter = personaWriter;
+    this.chunkSize = chunkSize;
+    this.maxFileBytes = maxFileBytes;
+    this.maxReportedErrors = maxReportedErrors;
+    this.retryAfter = Duration.ofSeconds(retryAfterSeconds);
+    this.jobs =
+        Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(jobRetentionMinutes))
+            .build();
+    this.workers =
+        Executors.newFixedThreadPool(
+            maxConcurrentJobs, Thread.ofVirtual().name("import-", 0).factory());
+    this.jobSlots = new Semaphore(maxConcurrentJobs + maxQueuedJobs);
+  }
+
+  public ImportJobResponse importPropiedades(InputStream body, ImportFormato formato) {
+    return submit(propiedadWriter, body, formato);
+  }
+
+  public ImportJobResponse importPersonas(InputStream body, ImportFormato formato) {
+    return submit(personaWriter, body, formato);
+  }
+
+  public ImportJobResponse findJob(String id) {
+    ImportJob job = jobs.getIfPresent(id);
+    if (job == null) {
+      throw new ResourceNotFoundException("Importación con id %s no encontrada".formatted(id));
+    }
+    return job.toResponse();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    workers.shutdownNow();
+  }
+
+  private <T> ImportJobResponse submit(
+      ImportWriter<T> writer, InputStream body, ImportFormato formato) {
+    if (!jobSlots.tryAcquire()) {
+      throw new ImportQueueFullException(retryAfter);
+    }
+    boolean submitted = false;
+    try {
+      Path file = spool(body);
+      ImportJob job =
+          new ImportJob(UUID.randomUUID().toString(), writer.entidad(), formato, maxReportedErrors);
+      jobs.put(job.getId(), job);
+      workers.execute(() -> run(job, writer, file));
+      submitted = true;
+      return job.toResponse();
+    } finally {
+      if (!submitted) {
+        jobSlots.release();
+      }
+    }
+  }
+
+  private Path spool(InputStream body) {
+    Path file;
+    try {
+      file = Files.createTempFile("import-", ".upload");
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+    long total = 0;
+    try (OutputStream out = Files.newOutputStream(file)) {
+      byte[] buffer = new byte[8192];
+      int read;
+      while ((read = body.read(buffer)) != -1) {
+        total += read;
+        if (total > maxFileBytes) {
+          break;
+        }
+        out.write(buffer, 0, read);
+      }
+    } catch (IOException ex) {
+      deleteQuietly(file);
+      throw new UncheckedIOException(ex);
+    }
+    if (total > maxFileBytes) {
+      deleteQuietly(file);
+      throw new InvalidImportException(
+          "El archivo excede el tamaño máximo de %d bytes".formatted(maxFileBytes));
+    }
+    if (total == 0) {
+      deleteQuietly(file);
+      throw new InvalidImportException("El archivo de importación está vacío");
+    }
+    return file;
+  }
+
+  private <T> void run(ImportJob job, ImportWriter<T> writer, Path file) {
+    job.start();
+    try (ImportRecordReader reader = open(job.getFormato(), writer, file)) {
+      List<PendingRow<T>> chunk = new ArrayList<>(chunkSize);
+      ImportRecord row;
+      while ((row = reader.next()) != null) {
+        job.rowRead();
+        T request = toRequest(job, writer, row);
+        if (request != null) {
+          chunk.add(new PendingRow<>(row.getFila(), request));
+        }
+        if (chunk.size() >= chunkSize) {
+          flush(job, writer, chunk);
+          chunk.clear();
+        }
+      }
+      flush(job, writer, chunk);
+      job.complete();
+    } catch (InvalidImportException ex) {
+      job.fail(ex.getMessage());
+    } catch (Exception ex) {
+      log.error("Import job {} failed", job.getId(), ex);
+      job.fail("Error al procesar el archivo: " + ex.getMessage());
+    } finally {
+      deleteQuietly(file);
+      jobSlots.release();
+    }
+  }
+
+  private ImportRecordReader open(ImportFormato formato, ImportWriter<?> writer, Path file)
+      throws IOException {
+    BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+    try {
+      return switch (formato) {
+        case CSV -> new CsvRecordReader(reader, writer.columns());
+        case NDJSON -> new NdjsonRecordReader(reader, objectMapper);
+      };
+    } catch (IOException | RuntimeException ex) {
+      reader.close();
+      throw ex;
+    }
+  }
+
+  private <T> T toRequest(ImportJob job, ImportWriter<T> writer, ImportRecord row) {
+    if (row.getError() != null) {
+      job.rowFailed(row.getFila(), row.getError());
+      return null;
+    }
+    T request;
+    try {
+      request = objectMapper.treeToValue(row.getData(), writer.requestType());
+    } catch (JsonProcessingException ex) {
+      job.rowFailed(row.getFila(), "Valor inválido: " + ex.getOriginalMessage());
+      return null;
+    }
+    Set<ConstraintViolation<T>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      job.rowFailed(
+          row.getFila(),
+          violations.stream()
+              .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+              .sorted()
+              .collect(Collectors.joining("; ")));
+      return null;
+    }
+    return request;
+  }
+
+  private <T> void flush(ImportJob job, ImportWriter<T> writer, List<PendingRow<T>> chunk) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    Map<Integer, String> missing =
+        writer.findMissingReferences(chunk.stream().map(PendingRow::request).toList());
+    List<PendingRow<T>> insertable = new ArrayList<>(chunk.size());
+    for (int i = 0; i < chunk.size(); i++) {
+      String reason = missing.get(i);
+      if (reason == null) {
+        insertable.add(chunk.get(i));
+      } else {
+        job.rowFailed(chunk.get(i).fila(), reason);
+      }
+    }
+    if (insertable.isEmpty()) {
+      return;
+    }
+    try {
+      insert(writer, insertable);
+      job.rowsImported(insertable.size());
+    } catch (DataAccessException ex) {
+      // One bad row rolls back the whole batch; retry row by row to keep the good ones.
+      for (PendingRow<T> row : insertable) {
+        try {
+          insert(writer, List.of(row));
+          job.rowsImported(1);
+        } catch (DataAccessException rowEx) {
+          job.rowFailed(
+              row.fila(),
+              "Error de base de datos: "
+                  + rowEx.getMostSpecificCause().getMessage());
+        }
+      }
+    }
+  }
+
+  private <T> void insert(ImportWriter<T> writer, List<PendingRow<T>> rows) {
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          writer.insert(rows.stream().map(PendingRow::request).toList());
+          eventPublisher.publishEvent(new DataChangedEvent(writer.entityType(), null));
+        });
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ex) {
+      log.warn("Could not delete import file {}", file, ex);
+    }
+  }
+
+  private static final class PendingRow<T> {
+
+    private final long fila;
+    private final T request;
+
+    private PendingRow(long fila, T request) {
+      this.fila = fila;
+      this.request = request;
+    }
+
+    private long fila() {
+      return fila;
+    }
+
+    private T request() {
+      return request;
+    }
+  }
+}
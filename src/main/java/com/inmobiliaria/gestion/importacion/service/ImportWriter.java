@@ -0,0 +1,34 @@
+package com.inmobiliaria.gestion.importacion.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Destination catalog of a bulk import: how a row is parsed and validated and how a chunk of valid
+ * rows is written.
+ *
+ * @param <T> create request DTO whose Bean Validation constraints apply to every row
+ */
+interface ImportWriter<T> {
+
+  /** Catalog name reported in the job, e.g. {@code propiedades}. */
+  String entidad();
+
+  /** Entity type published in the {@code DataChangedEvent} after each chunk commits. */
+  String entityType();
+
+  Class<T> requestType();
+
+  /** Columns accepted in a CSV header, named like the request properties. */
+  Set<String> columns();
+
+  /**
+   * Finds rows that reference records that do not exist, keyed by their position in {@code rows},
+   * so they are reported instead of failing the whole chunk on a foreign key.
+   */
+  Map<Integer, String> findMissingReferences(List<T> rows);
+
+  /** Inserts the rows as one JDBC batch in the caller's transaction. */
+  void insert(List<T> rows);
+}
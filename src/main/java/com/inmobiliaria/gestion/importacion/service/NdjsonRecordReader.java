@@ -0,0 +1,46 @@
+package com.inmobiliaria.gestion.importacion.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/** Reads one JSON object per line; blank lines are skipped. */
+final class NdjsonRecordReader implements ImportRecordReader {
+
+  private final BufferedReader reader;
+  private final ObjectMapper objectMapper;
+  private long line;
+
+  NdjsonRecordReader(BufferedReader reader, ObjectMapper objectMapper) {
+    this.reader = reader;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public ImportRecord next() throws IOException {
+    String text;
+    while ((text = reader.readLine()) != null) {
+      line++;
+      if (text.isBlank()) {
+        continue;
+      }
+      try {
+        JsonNode node = objectMapper.readTree(text);
+        if (!node.isObject()) {
+          return ImportRecord.unreadable(line, "Se esperaba un objeto JSON por línea");
+        }
+        return ImportRecord.of(line, node);
+      } catch (JsonProcessingException ex) {
+        return ImportRecord.unreadable(line, "JSON inválido: " + ex.getOriginalMessage());
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
@@ -0,0 +1,101 @@
+package com.inmobiliaria.gestion.importacion.service;
+
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.persona.dto.CreatePersonaRequest;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+class PersonaImportWriter implements ImportWriter<CreatePersonaRequest> {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO personas (id_persona, tipo_persona, nombre, apellidos, razon_social, rfc,"
+          + " curp, email, telefono, fecha_alta, activo, updated_at, version)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+  private static final Set<String> COLUMNS =
+      Set.of(
+          "tipoPersona",
+          "nombre",
+          "apellidos",
+          "razonSocial",
+          "rfc",
+          "curp",
+          "email",
+          "telefono",
+          "fechaAlta",
+          "activo");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final SequenceIdAllocator idAllocator;
+
+  PersonaImportWriter(JdbcTemplate jdbcTemplate, SequenceIdAllocator idAllocator) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.idAllocator = idAllocator;
+  }
+
+  @Override
+  public String entidad() {
+    return "personas";
+  }
+
+  @Override
+  public String entityType() {
+    return DataChangedEvent.PERSONA;
+  }
+
+  @Override
+  public Class<CreatePersonaRequest> requestType() {
+    return CreatePersonaRequest.class;
+  }
+
+  @Override
+  public Set<String> columns() {
+    return COLUMNS;
+  }
+
+  @Override
+  public Map<Integer, String> findMissingReferences(List<CreatePersonaRequest> rows) {
+    return Map.of();
+  }
+
+  @Override
+  public void insert(List<CreatePersonaRequest> rows) {
+    long[] ids = idAllocator.allocate("personas_seq", rows.size());
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    jdbcTemplate.batchUpdate(
+        INSERT_SQL,
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement statement, int i) throws SQLException {
+            CreatePersonaRequest row = rows.get(i);
+            statement.setLong(1, ids[i]);
+            statement.setString(2, row.getTipoPersona().name());
+            statement.setString(3, row.getNombre());
+            statement.setString(4, row.getApellidos());
+            statement.setString(5, row.getRazonSocial());
+            statement.setString(6, row.getRfc());
+            statement.setString(7, row.getCurp());
+            statement.setString(8, row.getEmail());
+            statement.setString(9, row.getTelefono());
+            statement.setTimestamp(10, Timestamp.valueOf(row.getFechaAlta()));
+            statement.setBoolean(11, Boolean.TRUE.equals(row.getActivo()));
+            statement.setObject(12, now);
+          }
+
+          @Override
+          public int getBatchSize() {
+            return rows.size();
+          }
+        });
+  }
+}
@@ -0,0 +1,110 @@
+package com.inmobiliaria.gestion.importacion.service;
+
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
+import com.inmobiliaria.gestion.inmobiliaria.repository.InmobiliariaRepository;
+import com.inmobiliaria.gestion.propiedad.dto.CreatePropiedadRequest;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+class PropiedadImportWriter implements ImportWriter<CreatePropiedadRequest> {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO propiedades (id, nombre, tipo, direccion, observaciones, inmobiliaria_id,"
+          + " updated_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+  private static final Set<String> COLUMNS =
+      Set.of("nombre", "tipo", "direccion", "observaciones", "inmobiliariaId");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final SequenceIdAllocator idAllocator;
+  private final InmobiliariaRepository inmobiliariaRepository;
+
+  PropiedadImportWriter(
+      JdbcTemplate jdbcTemplate,
+      SequenceIdAllocator idAllocator,
+      InmobiliariaRepository inmobiliariaRepository) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.idAllocator = idAllocator;
+    this.inmobiliariaRepository = inmobiliariaRepository;
+  }
+
+  @Override
+  public String entidad() {
+    return "propiedades";
+  }
+
+  @Override
+  public String entityType() {
+    return DataChangedEvent.PROPIEDAD;
+  }
+
+  @Override
+  public Class<CreatePropiedadRequest> requestType() {
+    return CreatePropiedadRequest.class;
+  }
+
+  @Override
+  public Set<String> columns() {
+    return COLUMNS;
+  }
+
+  @Override
+  public Map<Integer, String> findMissingReferences(List<CreatePropiedadRequest> rows) {
+    Set<Long> referenced =
+        rows.stream()
+            .map(CreatePropiedadRequest::getInmobiliariaId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    Set<Long> existing =
+        inmobiliariaRepository.findAllById(referenced).stream()
+            .map(Inmobiliaria::getId)
+            .collect(Collectors.toSet());
+    Map<Integer, String> missing = new HashMap<>();
+    for (int i = 0; i < rows.size(); i++) {
+      Long inmobiliariaId = rows.get(i).getInmobiliariaId();
+      if (!existing.contains(inmobiliariaId)) {
+        missing.put(i, "Inmobiliaria con id %d no encontrada".formatted(inmobiliariaId));
+      }
+    }
+    return missing;
+  }
+
+  @Override
+  public void insert(List<CreatePropiedadRequest> rows) {
+    long[] ids = idAllocator.allocate("propiedades_seq", rows.size());
+    OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    jdbcTemplate.batchUpdate(
+        INSERT_SQL,
+        new BatchPreparedStatementSetter() {
+          @Override
+          public void setValues(PreparedStatement statement, int i) throws SQLException {
+            CreatePropiedadRequest row = rows.get(i);
+            statement.setLong(1, ids[i]);
+            statement.setString(2, row.getNombre());
+            statement.setString(3, row.getTipo().name());
+            statement.setString(4, row.getDireccion());
+            statement.setString(5, row.getObservaciones());
+            statement.setLong(6, row.getInmobiliariaId());
+            statement.setObject(7, now);
+          }
+
+          @Override
+          public int getBatchSize() {
+            return rows.size();
+          }
+        });
+  }
+}
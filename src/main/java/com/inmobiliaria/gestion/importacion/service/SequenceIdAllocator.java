@@ -0,0 +1,47 @@
+package com.inmobiliaria.gestion.importacion.service;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out entity ids for rows inserted through JDBC, following the same pooled-lo scheme as
+ * Hibernate: every sequence value reserves itself and the following {@link #BLOCK_SIZE} - 1 ids,
+ * so ids taken here never collide with ids taken by the entity mappings.
+ */
+@Component
+class SequenceIdAllocator {
+
+  /** Must match the {@code allocationSize} of the entity {@code @SequenceGenerator}s. */
+  static final int BLOCK_SIZE = 50;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final boolean postgres;
+
+  SequenceIdAllocator(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    String product =
+        jdbcTemplate.execute(
+            (ConnectionCallback<String>)
+                connection -> connection.getMetaData().getDatabaseProductName());
+    this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+  }
+
+  /** Returns {@code count} unused ids, drawing one sequence value per block of ids. */
+  long[] allocate(String sequence, int count) {
+    long[] ids = new long[count];
+    for (int start = 0; start < count; start += BLOCK_SIZE) {
+      long low = nextValue(sequence);
+      for (int i = start; i < Math.min(count, start + BLOCK_SIZE); i++) {
+        ids[i] = low + (i - start);
+      }
+    }
+    return ids;
+  }
+
+  private long nextValue(String sequence) {
+    String sql =
+        postgres ? "SELECT nextval('" + sequence + "')" : "SELECT NEXT VALUE FOR " + sequence;
+    return jdbcTemplate.queryForObject(sql, Long.class);
+  }
+}
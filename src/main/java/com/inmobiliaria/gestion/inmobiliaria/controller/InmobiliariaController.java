@@ -1,10 +1,16 @@
 package com.inmobiliaria.gestion.inmobiliaria.controller;
 
+import com.inmobiliaria.gestion.batch.dto.BatchOperacionRequest;
+import com.inmobiliaria.gestion.batch.dto.BatchResponse;
+import com.inmobiliaria.gestion.etag.CatalogVersions;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.exception.ConflictError;
 import com.inmobiliaria.gestion.inmobiliaria.dto.CreateInmobiliariaRequest;
 import com.inmobiliaria.gestion.inmobiliaria.dto.InmobiliariaResponse;
 import com.inmobiliaria.gestion.inmobiliaria.dto.UpdateInmobiliariaRequest;
 import com.inmobiliaria.gestion.inmobiliaria.service.InmobiliariaService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,6 +18,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.net.URI;
 import java.util.List;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,8 +27,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/inmobiliarias")
@@ -29,9 +38,12 @@ import org.springframework.web.bind.annotation.RestController;
 public class InmobiliariaController {
 
   private final InmobiliariaService inmobiliariaService;
+  private final CatalogVersions catalogVersions;
 
-  public InmobiliariaController(InmobiliariaService inmobiliariaService) {
+  public InmobiliariaController(
+      InmobiliariaService inmobiliariaService, CatalogVersions catalogVersions) {
     this.inmobiliariaService = inmobiliariaService;
+    this.catalogVersions = catalogVersions;
   }
 
   @Operation(
@@ -47,8 +59,12 @@ public class InmobiliariaController {
                     schema = @Schema(implementation = InmobiliariaResponse.class)))
       })
   @GetMapping
-  public ResponseEntity<List<InmobiliariaResponse>> findAll() {
-    return ResponseEntity.ok(inmobiliariaService.findAll());
+  public ResponseEntity<List<InmobiliariaResponse>> findAll(WebRequest webRequest) {
+    String etag = catalogVersions.tag(DataChangedEvent.INMOBILIARIA);
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(etag).body(inmobiliariaService.findAll());
   }
 
   @Operation(
@@ -65,8 +81,13 @@ public class InmobiliariaController {
         @ApiResponse(responseCode = "404", description = "Inmobiliaria no encontrada")
       })
   @GetMapping("/{id}")
-  public ResponseEntity<InmobiliariaResponse> findById(@PathVariable Long id) {
-    return ResponseEntity.ok(inmobiliariaService.findById(id));
+  public ResponseEntity<InmobiliariaResponse> findById(
+      @PathVariable Long id, WebRequest webRequest) {
+    InmobiliariaResponse response = inmobiliariaService.findById(id);
+    if (webRequest.checkNotModified(response.entityTag())) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(response.entityTag()).body(response);
   }
 
   @Operation(
@@ -86,12 +107,40 @@ public class InmobiliariaController {
       @Valid @RequestBody CreateInmobiliariaRequest request) {
     InmobiliariaResponse response = inmobiliariaService.create(request);
     return ResponseEntity.created(URI.create("/api/inmobiliarias/" + response.getId()))
+        .eTag(response.entityTag())
         .body(response);
   }
 
+  @Operation(
+      summary = "Operaciones en lote sobre inmobiliarias",
+      description =
+          "Aplica hasta app.batch.max-operations operaciones CREAR, ACTUALIZAR o ELIMINAR en una"
+              + " sola petición y devuelve un resultado por operación, en el mismo orden, con el"
+              + " estado HTTP que habría tenido por separado. ACTUALIZAR y ELIMINAR requieren id y"
+              + " aceptan ifMatch con la ETag del recurso. Un fallo solo afecta a su operación.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lote procesado; consulte el estado de cada operación",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = BatchResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "El lote está vacío o excede el máximo de operaciones",
+            content = @Content)
+      })
+  @PostMapping("/batch")
+  public ResponseEntity<BatchResponse> batch(@RequestBody List<BatchOperacionRequest> operaciones) {
+    return ResponseEntity.ok(inmobiliariaService.batch(operaciones));
+  }
+
   @Operation(
       summary = "Actualizar inmobiliaria",
-      description = "Actualiza los datos de una inmobiliaria existente.",
+      description =
+          "Actualiza los datos de una inmobiliaria existente. Con la cabecera If-Match solo se"
+              + " aplica si la inmobiliaria no cambió desde que se obtuvo esa ETag.",
       responses = {
         @ApiResponse(
             responseCode = "200",
@@ -100,12 +149,29 @@ public class InmobiliariaController {
                 @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = InmobiliariaResponse.class))),
-        @ApiResponse(responseCode = "404", description = "Inmobiliaria no encontrada")
+        @ApiResponse(responseCode = "404", description = "Inmobiliaria no encontrada"),
+        @ApiResponse(
+            responseCode = "409",
+            description =
+                "La inmobiliaria fue modificada por otra operación en los mismos campos; el cuerpo"
+                    + " incluye su estado actual",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ConflictError.class))),
+        @ApiResponse(
+            responseCode = "412",
+            description = "If-Match no coincide con la versión actual")
       })
   @PutMapping("/{id}")
   public ResponseEntity<InmobiliariaResponse> update(
-      @PathVariable Long id, @Valid @RequestBody UpdateInmobiliariaRequest request) {
-    return ResponseEntity.ok(inmobiliariaService.update(id, request));
+      @PathVariable Long id,
+      @Parameter(description = "ETag obtenida al consultar la inmobiliaria")
+          @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+          String ifMatch,
+      @Valid @RequestBody UpdateInmobiliariaRequest request) {
+    InmobiliariaResponse response = inmobiliariaService.update(id, request, ifMatch);
+    return ResponseEntity.ok().eTag(response.entityTag()).body(response);
   }
 
   @Operation(
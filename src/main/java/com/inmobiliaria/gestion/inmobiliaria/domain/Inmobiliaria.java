@@ -1,18 +1,33 @@
 package com.inmobiliaria.gestion.inmobiliaria.domain;
 
+import com.inmobiliaria.gestion.config.SecondLevelCacheConfig;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.Instant;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(
+    usage = CacheConcurrencyStrategy.READ_WRITE,
+    region = SecondLevelCacheConfig.INMOBILIARIAS_REGION)
 @Table(name = "inmobiliarias")
 public class Inmobiliaria {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inmobiliarias_seq")
+  @SequenceGenerator(
+      name = "inmobiliarias_seq", sequenceName = "inmobiliarias_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false)
@@ -28,6 +43,19 @@ public class Inmobiliaria {
 
   private String telefono;
 
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
+  @PrePersist
+  @PreUpdate
+  void touch() {
+    updatedAt = Instant.now();
+  }
+
   public Long getId() {
     return id;
   }
@@ -75,4 +103,12 @@ public class Inmobiliaria {
   public void setTelefono(String telefono) {
     this.telefono = telefono;
   }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
 }
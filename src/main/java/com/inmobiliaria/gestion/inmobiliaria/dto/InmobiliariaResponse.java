@@ -1,9 +1,11 @@
 package com.inmobiliaria.gestion.inmobiliaria.dto;
 
+import com.inmobiliaria.gestion.etag.EntityTagged;
+import com.inmobiliaria.gestion.etag.EntityTags;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "Detalle de una inmobiliaria")
-public final class InmobiliariaResponse {
+public final class InmobiliariaResponse implements EntityTagged {
 
   private final Long id;
   private final String nombre;
@@ -11,15 +13,28 @@ public final class InmobiliariaResponse {
   private final String nombreContacto;
   private final String correo;
   private final String telefono;
+  private final Long version;
 
   public InmobiliariaResponse(
       Long id, String nombre, String rfc, String nombreContacto, String correo, String telefono) {
+    this(id, nombre, rfc, nombreContacto, correo, telefono, null);
+  }
+
+  public InmobiliariaResponse(
+      Long id,
+      String nombre,
+      String rfc,
+      String nombreContacto,
+      String correo,
+      String telefono,
+      Long version) {
     this.id = id;
     this.nombre = nombre;
     this.rfc = rfc;
     this.nombreContacto = nombreContacto;
     this.correo = correo;
     this.telefono = telefono;
+    this.version = version;
   }
 
   @Schema(description = "Identificador interno", example = "1")
@@ -51,4 +66,10 @@ public final class InmobiliariaResponse {
   public String getTelefono() {
     return telefono;
   }
+
+  /** Strong entity tag built from the row version, sent as the ETag header instead of the body. */
+  @Override
+  public String entityTag() {
+    return EntityTags.of(version);
+  }
 }
@@ -1,8 +1,33 @@
 package com.inmobiliaria.gestion.inmobiliaria.repository;
 
 import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
+import com.inmobiliaria.gestion.inmobiliaria.dto.InmobiliariaResponse;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface InmobiliariaRepository extends JpaRepository<Inmobiliaria, Long> {}
+public interface InmobiliariaRepository extends JpaRepository<Inmobiliaria, Long> {
+
+  /**
+   * Projects each agency straight into its response DTO, so read paths never put managed entities
+   * in the persistence context and skip dirty checking entirely.
+   */
+  String RESPONSE_PROJECTION =
+      "select new com.inmobiliaria.gestion.inmobiliaria.dto.InmobiliariaResponse( "
+          + "i.id, i.nombre, i.rfc, i.nombreContacto, i.correo, i.telefono, i.version) "
+          + "from Inmobiliaria i ";
+
+  @Query(RESPONSE_PROJECTION + "order by i.id")
+  List<InmobiliariaResponse> findAllResponses();
+
+  @Query(RESPONSE_PROJECTION + "where i.id = :id")
+  Optional<InmobiliariaResponse> findResponseById(@Param("id") Long id);
+
+  @Query(RESPONSE_PROJECTION + "where i.id in :ids order by i.id")
+  List<InmobiliariaResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+}
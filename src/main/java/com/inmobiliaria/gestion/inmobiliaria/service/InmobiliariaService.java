@@ -1,40 +1,140 @@
 package com.inmobiliaria.gestion.inmobiliaria.service;
 
+import com.inmobiliaria.gestion.batch.dto.BatchOperacionRequest;
+import com.inmobiliaria.gestion.batch.dto.BatchResponse;
+import com.inmobiliaria.gestion.batch.service.BatchExecutor;
+import com.inmobiliaria.gestion.batch.service.BatchHandler;
+import com.inmobiliaria.gestion.concurrency.OptimisticUpdates;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
 import com.inmobiliaria.gestion.exception.ResourceNotFoundException;
 import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
 import com.inmobiliaria.gestion.inmobiliaria.dto.CreateInmobiliariaRequest;
 import com.inmobiliaria.gestion.inmobiliaria.dto.InmobiliariaResponse;
 import com.inmobiliaria.gestion.inmobiliaria.dto.UpdateInmobiliariaRequest;
 import com.inmobiliaria.gestion.inmobiliaria.repository.InmobiliariaRepository;
-import jakarta.transaction.Transactional;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Agency catalog. Every method runs in a read-only Spring transaction unless it is annotated
+ * otherwise: the JPA transaction manager then switches the Hibernate session to {@code
+ * FlushMode.MANUAL}, loads entities read-only and marks the JDBC connection read-only, which also
+ * lets the read replica serve it when one is configured.
+ */
 @Service
+@Transactional(readOnly = true)
 public class InmobiliariaService {
 
   private final InmobiliariaRepository inmobiliariaRepository;
+  private final OptimisticUpdates optimisticUpdates;
+  private final BatchExecutor batchExecutor;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public InmobiliariaService(InmobiliariaRepository inmobiliariaRepository) {
+  public InmobiliariaService(
+      InmobiliariaRepository inmobiliariaRepository,
+      OptimisticUpdates optimisticUpdates,
+      BatchExecutor batchExecutor,
+      ApplicationEventPublisher eventPublisher) {
     this.inmobiliariaRepository = inmobiliariaRepository;
+    this.optimisticUpdates = optimisticUpdates;
+    this.batchExecutor = batchExecutor;
+    this.eventPublisher = eventPublisher;
   }
 
   public List<InmobiliariaResponse> findAll() {
-    return inmobiliariaRepository.findAll().stream().map(this::toResponse).toList();
+    return inmobiliariaRepository.findAllResponses();
   }
 
   public InmobiliariaResponse findById(Long id) {
     return inmobiliariaRepository
-        .findById(id)
-        .map(this::toResponse)
-        .orElseThrow(
-            () ->
-                new ResourceNotFoundException(
-                    "Inmobiliaria con id %d no encontrada".formatted(id)));
+        .findResponseById(id)
+        .orElseThrow(() -> notFound(id));
+  }
+
+  /** Agencies with the given ids, ordered by id, in one query; unknown ids are skipped. */
+  public List<InmobiliariaResponse> findAllByIds(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return inmobiliariaRepository.findResponsesByIdIn(ids);
   }
 
   @Transactional
   public InmobiliariaResponse create(CreateInmobiliariaRequest request) {
+    Inmobiliaria saved = inmobiliariaRepository.save(newInmobiliaria(request));
+    publishChange(saved.getId());
+    return toResponse(saved);
+  }
+
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public InmobiliariaResponse update(Long id, UpdateInmobiliariaRequest request) {
+    return update(id, request, null);
+  }
+
+  /**
+   * Updates the agency only if {@code ifMatch} (an {@code If-Match} header value, null to skip the
+   * check) matches its current entity tag. Runs its own transactions through {@link
+   * OptimisticUpdates}, which merges non-conflicting concurrent edits.
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public InmobiliariaResponse update(Long id, UpdateInmobiliariaRequest request, String ifMatch) {
+    InmobiliariaResponse response =
+        optimisticUpdates.update(
+            ifMatch,
+            fields(
+                request.getNombre(),
+                request.getRfc(),
+                request.getNombreContacto(),
+                request.getCorreo(),
+                request.getTelefono()),
+            () -> load(id),
+            entity ->
+                fields(
+                    entity.getNombre(),
+                    entity.getRfc(),
+                    entity.getNombreContacto(),
+                    entity.getCorreo(),
+                    entity.getTelefono()),
+            entity -> {
+              applyUpdate(entity, request);
+              // Flushed so the version check runs here and the response carries the new version.
+              inmobiliariaRepository.saveAndFlush(entity);
+            },
+            this::toResponse);
+    publishChange(id);
+    return response;
+  }
+
+  @Transactional
+  public void delete(Long id) {
+    if (!inmobiliariaRepository.existsById(id)) {
+      throw notFound(id);
+    }
+    inmobiliariaRepository.deleteById(id);
+    publishChange(id);
+  }
+
+  /**
+   * Applies create, update and delete operations on agencies in bulk through {@link
+   * BatchExecutor}, with the same validation as the single-item endpoints. Deleting an agency that
+   * still owns properties fails only that operation.
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public BatchResponse batch(List<BatchOperacionRequest> operaciones) {
+    return batchExecutor.execute(operaciones, new InmobiliariaBatchHandler());
+  }
+
+  private void publishChange(Long id) {
+    eventPublisher.publishEvent(new DataChangedEvent(DataChangedEvent.INMOBILIARIA, id));
+  }
+
+  private Inmobiliaria newInmobiliaria(CreateInmobiliariaRequest request) {
     Inmobiliaria entity = new Inmobiliaria();
     applyRequest(
         entity,
@@ -43,18 +143,10 @@ public class InmobiliariaService {
         request.getNombreContacto(),
         request.getCorreo(),
         request.getTelefono());
-    return toResponse(inmobiliariaRepository.save(entity));
+    return entity;
   }
 
-  @Transactional
-  public InmobiliariaResponse update(Long id, UpdateInmobiliariaRequest request) {
-    Inmobiliaria entity =
-        inmobiliariaRepository
-            .findById(id)
-            .orElseThrow(
-                () ->
-                    new ResourceNotFoundException(
-                        "Inmobiliaria con id %d no encontrada".formatted(id)));
+  private void applyUpdate(Inmobiliaria entity, UpdateInmobiliariaRequest request) {
     applyRequest(
         entity,
         request.getNombre(),
@@ -62,15 +154,6 @@ public class InmobiliariaService {
         request.getNombreContacto(),
         request.getCorreo(),
         request.getTelefono());
-    return toResponse(inmobiliariaRepository.save(entity));
-  }
-
-  @Transactional
-  public void delete(Long id) {
-    if (!inmobiliariaRepository.existsById(id)) {
-      throw new ResourceNotFoundException("Inmobiliaria con id %d no encontrada".formatted(id));
-    }
-    inmobiliariaRepository.deleteById(id);
   }
 
   private void applyRequest(
@@ -97,6 +180,31 @@ public class InmobiliariaService {
     }
   }
 
+  private Inmobiliaria load(Long id) {
+    return inmobiliariaRepository
+        .findById(id)
+        .orElseThrow(() -> notFound(id));
+  }
+
+  private static ResourceNotFoundException notFound(Long id) {
+    return new ResourceNotFoundException("Inmobiliaria con id %d no encontrada".formatted(id));
+  }
+
+  private static Map<String, Object> fields(
+      String nombre, String rfc, String nombreContacto, String correo, String telefono) {
+    return OptimisticUpdates.fields(
+        "nombre",
+        nombre,
+        "rfc",
+        rfc,
+        "nombreContacto",
+        nombreContacto,
+        "correo",
+        correo,
+        "telefono",
+        telefono);
+  }
+
   private InmobiliariaResponse toResponse(Inmobiliaria entity) {
     return new InmobiliariaResponse(
         entity.getId(),
@@ -104,6 +212,60 @@ public class InmobiliariaService {
         entity.getRfc(),
         entity.getNombreContacto(),
         entity.getCorreo(),
-        entity.getTelefono());
+        entity.getTelefono(),
+        entity.getVersion());
+  }
+
+  private final class InmobiliariaBatchHandler
+      implements BatchHandler<
+          CreateInmobiliariaRequest,
+          UpdateInmobiliariaRequest,
+          Inmobiliaria,
+          InmobiliariaResponse> {
+
+    @Override
+    public String entityType() {
+      return DataChangedEvent.INMOBILIARIA;
+    }
+
+    @Override
+    public Class<CreateInmobiliariaRequest> createType() {
+      return CreateInmobiliariaRequest.class;
+    }
+
+    @Override
+    public Class<UpdateInmobiliariaRequest> updateType() {
+      return UpdateInmobiliariaRequest.class;
+    }
+
+    @Override
+    public JpaRepository<Inmobiliaria, Long> repository() {
+      return inmobiliariaRepository;
+    }
+
+    @Override
+    public Inmobiliaria create(CreateInmobiliariaRequest request) {
+      return newInmobiliaria(request);
+    }
+
+    @Override
+    public void update(Inmobiliaria entity, UpdateInmobiliariaRequest request) {
+      applyUpdate(entity, request);
+    }
+
+    @Override
+    public Long id(Inmobiliaria entity) {
+      return entity.getId();
+    }
+
+    @Override
+    public InmobiliariaResponse toResponse(Inmobiliaria entity) {
+      return InmobiliariaService.this.toResponse(entity);
+    }
+
+    @Override
+    public ResourceNotFoundException notFound(Long id) {
+      return InmobiliariaService.notFound(id);
+    }
   }
 }
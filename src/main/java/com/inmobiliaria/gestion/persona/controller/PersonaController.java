@@ -1,10 +1,16 @@
 package com.inmobiliaria.gestion.persona.controller;
 
+import com.inmobiliaria.gestion.batch.dto.BatchOperacionRequest;
+import com.inmobiliaria.gestion.batch.dto.BatchResponse;
+import com.inmobiliaria.gestion.etag.CatalogVersions;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.exception.ConflictError;
 import com.inmobiliaria.gestion.persona.dto.CreatePersonaRequest;
 import com.inmobiliaria.gestion.persona.dto.PersonaResponse;
 import com.inmobiliaria.gestion.persona.dto.UpdatePersonaRequest;
 import com.inmobiliaria.gestion.persona.service.PersonaService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,6 +18,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.net.URI;
 import java.util.List;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,8 +27,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/personas")
@@ -29,9 +38,11 @@ import org.springframework.web.bind.annotation.RestController;
 public class PersonaController {
 
   private final PersonaService personaService;
+  private final CatalogVersions catalogVersions;
 
-  public PersonaController(PersonaService personaService) {
+  public PersonaController(PersonaService personaService, CatalogVersions catalogVersions) {
     this.personaService = personaService;
+    this.catalogVersions = catalogVersions;
   }
 
   @Operation(
@@ -47,8 +58,12 @@ public class PersonaController {
                     schema = @Schema(implementation = PersonaResponse.class)))
       })
   @GetMapping
-  public ResponseEntity<List<PersonaResponse>> findAll() {
-    return ResponseEntity.ok(personaService.findAll());
+  public ResponseEntity<List<PersonaResponse>> findAll(WebRequest webRequest) {
+    String etag = catalogVersions.tag(DataChangedEvent.PERSONA);
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(etag).body(personaService.findAll());
   }
 
   @Operation(
@@ -68,8 +83,12 @@ public class PersonaController {
             content = @Content)
       })
   @GetMapping("/{id}")
-  public ResponseEntity<PersonaResponse> findById(@PathVariable Long id) {
-    return ResponseEntity.ok(personaService.findById(id));
+  public ResponseEntity<PersonaResponse> findById(@PathVariable Long id, WebRequest webRequest) {
+    PersonaResponse response = personaService.findById(id);
+    if (webRequest.checkNotModified(response.entityTag())) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(response.entityTag()).body(response);
   }
 
   @Operation(
@@ -91,12 +110,41 @@ public class PersonaController {
   @PostMapping
   public ResponseEntity<PersonaResponse> create(@Valid @RequestBody CreatePersonaRequest request) {
     PersonaResponse response = personaService.create(request);
-    return ResponseEntity.created(URI.create("/api/personas/" + response.getId())).body(response);
+    return ResponseEntity.created(URI.create("/api/personas/" + response.getId()))
+        .eTag(response.entityTag())
+        .body(response);
+  }
+
+  @Operation(
+      summary = "Operaciones en lote sobre personas",
+      description =
+          "Aplica hasta app.batch.max-operations operaciones CREAR, ACTUALIZAR o ELIMINAR en una"
+              + " sola petición y devuelve un resultado por operación, en el mismo orden, con el"
+              + " estado HTTP que habría tenido por separado. ACTUALIZAR y ELIMINAR requieren id y"
+              + " aceptan ifMatch con la ETag del recurso. Un fallo solo afecta a su operación.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lote procesado; consulte el estado de cada operación",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = BatchResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "El lote está vacío o excede el máximo de operaciones",
+            content = @Content)
+      })
+  @PostMapping("/batch")
+  public ResponseEntity<BatchResponse> batch(@RequestBody List<BatchOperacionRequest> operaciones) {
+    return ResponseEntity.ok(personaService.batch(operaciones));
   }
 
   @Operation(
       summary = "Actualizar persona",
-      description = "Actualiza los datos de una persona existente.",
+      description =
+          "Actualiza los datos de una persona existente. Con la cabecera If-Match solo se aplica"
+              + " si la persona no cambió desde que se obtuvo esa ETag.",
       responses = {
         @ApiResponse(
             responseCode = "200",
@@ -112,12 +160,30 @@ public class PersonaController {
         @ApiResponse(
             responseCode = "404",
             description = "Persona no encontrada",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "409",
+            description =
+                "La persona fue modificada por otra operación en los mismos campos; el cuerpo"
+                    + " incluye su estado actual",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ConflictError.class))),
+        @ApiResponse(
+            responseCode = "412",
+            description = "If-Match no coincide con la versión actual",
             content = @Content)
       })
   @PutMapping("/{id}")
   public ResponseEntity<PersonaResponse> update(
-      @PathVariable Long id, @Valid @RequestBody UpdatePersonaRequest request) {
-    return ResponseEntity.ok(personaService.update(id, request));
+      @PathVariable Long id,
+      @Parameter(description = "ETag obtenida al consultar la persona")
+          @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+          String ifMatch,
+      @Valid @RequestBody UpdatePersonaRequest request) {
+    PersonaResponse response = personaService.update(id, request, ifMatch);
+    return ResponseEntity.ok().eTag(response.entityTag()).body(response);
   }
 
   @Operation(
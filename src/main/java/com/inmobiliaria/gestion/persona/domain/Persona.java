@@ -7,7 +7,12 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 @Entity
@@ -15,7 +20,8 @@ import java.time.LocalDateTime;
 public class Persona {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "personas_seq")
+  @SequenceGenerator(name = "personas_seq", sequenceName = "personas_seq", allocationSize = 50)
   @Column(name = "id_persona")
   private Long id;
 
@@ -48,6 +54,19 @@ public class Persona {
   @Column(nullable = false)
   private boolean activo;
 
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
+  @PrePersist
+  @PreUpdate
+  void touch() {
+    updatedAt = Instant.now();
+  }
+
   public Long getId() {
     return id;
   }
@@ -135,4 +154,12 @@ public class Persona {
   public void setActivo(boolean activo) {
     this.activo = activo;
   }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
 }
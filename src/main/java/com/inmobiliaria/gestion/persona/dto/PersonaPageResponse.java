@@ -0,0 +1,36 @@
+package com.inmobiliaria.gestion.persona.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Página de personas obtenida mediante paginación por cursor")
+public final class PersonaPageResponse {
+
+  private final List<PersonaResponse> items;
+  private final String nextCursor;
+  private final boolean hasMore;
+
+  public PersonaPageResponse(List<PersonaResponse> items, String nextCursor, boolean hasMore) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+    this.hasMore = hasMore;
+  }
+
+  @Schema(description = "Personas de la página ordenadas por identificador ascendente")
+  public List<PersonaResponse> getItems() {
+    return items;
+  }
+
+  @Schema(
+      description =
+          "Token opaco para solicitar la siguiente página; nulo cuando no hay más resultados",
+      example = "cGVyc29uYTo0Mg")
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  @Schema(description = "Indica si existen más personas después de esta página", example = "true")
+  public boolean isHasMore() {
+    return hasMore;
+  }
+}
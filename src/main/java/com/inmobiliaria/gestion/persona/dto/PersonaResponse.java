@@ -2,12 +2,14 @@ package com.inmobiliaria.gestion.persona.dto;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.inmobiliaria.gestion.etag.EntityTagged;
+import com.inmobiliaria.gestion.etag.EntityTags;
 import com.inmobiliaria.gestion.persona.domain.PersonaTipo;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.time.LocalDateTime;
 
 @Schema(description = "Detalle de una persona registrada en el sistema")
-public final class PersonaResponse {
+public final class PersonaResponse implements EntityTagged {
 
   private final Long id;
   private final PersonaTipo tipoPersona;
@@ -20,6 +22,7 @@ public final class PersonaResponse {
   private final String telefono;
   private final LocalDateTime fechaAlta;
   private final boolean activo;
+  private final Long version;
 
   @JsonCreator
   public PersonaResponse(
@@ -34,6 +37,34 @@ public final class PersonaResponse {
       @JsonProperty("telefono") String telefono,
       @JsonProperty("fechaAlta") LocalDateTime fechaAlta,
       @JsonProperty("activo") boolean activo) {
+    this(
+        id,
+        tipoPersona,
+        nombre,
+        apellidos,
+        razonSocial,
+        rfc,
+        curp,
+        email,
+        telefono,
+        fechaAlta,
+        activo,
+        null);
+  }
+
+  public PersonaResponse(
+      Long id,
+      PersonaTipo tipoPersona,
+      String nombre,
+      String apellidos,
+      String razonSocial,
+      String rfc,
+      String curp,
+      String email,
+      String telefono,
+      LocalDateTime fechaAlta,
+      boolean activo,
+      Long version) {
     this.id = id;
     this.tipoPersona = tipoPersona;
     this.nombre = nombre;
@@ -45,6 +76,7 @@ public final class PersonaResponse {
     this.telefono = telefono;
     this.fechaAlta = fechaAlta;
     this.activo = activo;
+    this.version = version;
   }
 
   @Schema(description = "Identificador interno", example = "25")
@@ -105,4 +137,10 @@ public final class PersonaResponse {
   public boolean isActivo() {
     return activo;
   }
+
+  /** Strong entity tag built from the row version, sent as the ETag header instead of the body. */
+  @Override
+  public String entityTag() {
+    return EntityTags.of(version);
+  }
 }
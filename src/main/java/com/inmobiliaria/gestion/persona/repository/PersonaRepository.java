@@ -1,8 +1,53 @@
 package com.inmobiliaria.gestion.persona.repository;
 
 import com.inmobiliaria.gestion.persona.domain.Persona;
+import com.inmobiliaria.gestion.persona.domain.PersonaTipo;
+import com.inmobiliaria.gestion.persona.dto.PersonaResponse;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface PersonaRepository extends JpaRepository<Persona, Long> {}
+public interface PersonaRepository extends JpaRepository<Persona, Long> {
+
+  /**
+   * Projects each persona straight into its response DTO, so read paths never put managed entities
+   * in the persistence context and skip dirty checking entirely.
+   */
+  String RESPONSE_PROJECTION =
+      "select new com.inmobiliaria.gestion.persona.dto.PersonaResponse( "
+          + "p.id, p.tipoPersona, p.nombre, p.apellidos, p.razonSocial, p.rfc, p.curp, "
+          + "p.email, p.telefono, p.fechaAlta, p.activo, p.version) "
+          + "from Persona p ";
+
+  @Query(RESPONSE_PROJECTION + "order by p.id")
+  List<PersonaResponse> findAllResponses();
+
+  @Query(RESPONSE_PROJECTION + "where p.id = :id")
+  Optional<PersonaResponse> findResponseById(@Param("id") Long id);
+
+  /**
+   * Keyset page where every null filter is ignored; {@code texto} is a lower-case LIKE pattern
+   * matched against the name, surnames and business name.
+   */
+  @Query(
+      RESPONSE_PROJECTION
+          + "where p.id > :after "
+          + "and (:tipo is null or p.tipoPersona = :tipo) "
+          + "and (:activo is null or p.activo = :activo) "
+          + "and (:texto is null "
+          + "or lower(p.nombre) like :texto escape '\\' "
+          + "or lower(p.apellidos) like :texto escape '\\' "
+          + "or lower(p.razonSocial) like :texto escape '\\') "
+          + "order by p.id")
+  List<PersonaResponse> findFilteredPageAfter(
+      @Param("tipo") PersonaTipo tipo,
+      @Param("activo") Boolean activo,
+      @Param("texto") String texto,
+      @Param("after") long after,
+      Pageable window);
+}
@@ -1,45 +1,183 @@
 package com.inmobiliaria.gestion.persona.service;
 
+import com.inmobiliaria.gestion.batch.dto.BatchOperacionRequest;
+import com.inmobiliaria.gestion.batch.dto.BatchResponse;
+import com.inmobiliaria.gestion.batch.service.BatchExecutor;
+import com.inmobiliaria.gestion.batch.service.BatchHandler;
+import com.inmobiliaria.gestion.concurrency.OptimisticUpdates;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.exception.InvalidPaginationException;
 import com.inmobiliaria.gestion.exception.ResourceNotFoundException;
 import com.inmobiliaria.gestion.persona.domain.Persona;
 import com.inmobiliaria.gestion.persona.domain.PersonaTipo;
 import com.inmobiliaria.gestion.persona.dto.CreatePersonaRequest;
+import com.inmobiliaria.gestion.persona.dto.PersonaPageResponse;
 import com.inmobiliaria.gestion.persona.dto.PersonaResponse;
 import com.inmobiliaria.gestion.persona.dto.UpdatePersonaRequest;
 import com.inmobiliaria.gestion.persona.repository.PersonaRepository;
-import jakarta.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Persona catalog. Every method runs in a read-only Spring transaction unless it is annotated
+ * otherwise, so listings are served from DTO projections with flushing and dirty checking off.
+ */
 @Service
+@Transactional(readOnly = true)
 public class PersonaService {
 
+  public static final int MAX_PAGE_SIZE = 500;
+
+  private static final String CURSOR_PREFIX = "persona:";
+
   private final PersonaRepository personaRepository;
+  private final OptimisticUpdates optimisticUpdates;
+  private final BatchExecutor batchExecutor;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public PersonaService(PersonaRepository personaRepository) {
+  public PersonaService(
+      PersonaRepository personaRepository,
+      OptimisticUpdates optimisticUpdates,
+      BatchExecutor batchExecutor,
+      ApplicationEventPublisher eventPublisher) {
     this.personaRepository = personaRepository;
+    this.optimisticUpdates = optimisticUpdates;
+    this.batchExecutor = batchExecutor;
+    this.eventPublisher = eventPublisher;
   }
 
   public List<PersonaResponse> findAll() {
-    return personaRepository.findAll().stream().map(this::toResponse).toList();
+    return personaRepository.findAllResponses();
+  }
+
+  /**
+   * Keyset page of personas ordered by id, filtered by type, active flag and a case-insensitive
+   * fragment of the name, surnames or business name. Null filters are ignored.
+   */
+  public PersonaPageResponse findFilteredPage(
+      PersonaTipo tipoPersona, Boolean activo, String texto, String cursor, int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new InvalidPaginationException(
+          "El parámetro limit debe estar entre 1 y %d".formatted(MAX_PAGE_SIZE));
+    }
+    long lastSeenId = cursor != null ? decodeCursor(cursor) : 0L;
+    // Fetch one extra row to know whether another page exists without a count query.
+    List<PersonaResponse> rows =
+        personaRepository.findFilteredPageAfter(
+            tipoPersona, activo, likePattern(texto), lastSeenId, PageRequest.of(0, limit + 1));
+    boolean hasMore = rows.size() > limit;
+    List<PersonaResponse> items = hasMore ? rows.subList(0, limit) : rows;
+    String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1).getId()) : null;
+    return new PersonaPageResponse(items, nextCursor, hasMore);
+  }
+
+  /** Opaque cursor that resumes a listing right after the persona {@code id}. */
+  public String cursorAfter(Long id) {
+    return encodeCursor(id);
   }
 
   public PersonaResponse findById(Long id) {
-    return personaRepository.findById(id).map(this::toResponse).orElseThrow(() -> notFound(id));
+    return personaRepository.findResponseById(id).orElseThrow(() -> notFound(id));
   }
 
   @Transactional
   public PersonaResponse create(CreatePersonaRequest request) {
     Persona entity = new Persona();
     applyCreate(entity, request);
-    return toResponse(personaRepository.save(entity));
+    Persona saved = personaRepository.save(entity);
+    publishChange(saved.getId());
+    return toResponse(saved);
   }
 
-  @Transactional
+  @Transactional(propagation = Propagation.SUPPORTS)
   public PersonaResponse update(Long id, UpdatePersonaRequest request) {
-    Persona entity = personaRepository.findById(id).orElseThrow(() -> notFound(id));
-    applyUpdate(entity, request);
-    return toResponse(personaRepository.save(entity));
+    return update(id, request, null);
+  }
+
+  /**
+   * Updates the persona only if {@code ifMatch} (an {@code If-Match} header value, null to skip the
+   * check) matches its current entity tag. Runs its own transactions through {@link
+   * OptimisticUpdates}, which merges non-conflicting concurrent edits.
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public PersonaResponse update(Long id, UpdatePersonaRequest request, String ifMatch) {
+    PersonaResponse response =
+        optimisticUpdates.update(
+            ifMatch,
+            fields(
+                request.getTipoPersona(),
+                request.getNombre(),
+                request.getApellidos(),
+                request.getRazonSocial(),
+                request.getRfc(),
+                request.getCurp(),
+                request.getEmail(),
+                request.getTelefono(),
+                request.getFechaAlta(),
+                request.getActivo()),
+            () -> personaRepository.findById(id).orElseThrow(() -> notFound(id)),
+            entity ->
+                fields(
+                    entity.getTipoPersona(),
+                    entity.getNombre(),
+                    entity.getApellidos(),
+                    entity.getRazonSocial(),
+                    entity.getRfc(),
+                    entity.getCurp(),
+                    entity.getEmail(),
+                    entity.getTelefono(),
+                    entity.getFechaAlta(),
+                    entity.isActivo()),
+            entity -> {
+              applyUpdate(entity, request);
+              // Flushed so the version check runs here and the response carries the new version.
+              personaRepository.saveAndFlush(entity);
+            },
+            this::toResponse);
+    publishChange(id);
+    return response;
+  }
+
+  /**
+   * Applies partial updates to several personas in one transaction, keyed by id. The personas are
+   * loaded with a single query and one bulk change is published. There is no merge-and-retry as in
+   * {@link #update(Long, UpdatePersonaRequest, String)}: a missing persona or a concurrent change
+   * to any of them fails the whole call and nothing is updated.
+   */
+  @Transactional
+  public List<PersonaResponse> updateAll(Map<Long, UpdatePersonaRequest> requests) {
+    Map<Long, Persona> personas = new HashMap<>();
+    personaRepository
+        .findAllById(requests.keySet())
+        .forEach(persona -> personas.put(persona.getId(), persona));
+    List<Persona> updated = new ArrayList<>(requests.size());
+    requests.forEach(
+        (id, request) -> {
+          Persona entity = personas.get(id);
+          if (entity == null) {
+            throw notFound(id);
+          }
+          applyUpdate(entity, request);
+          updated.add(entity);
+        });
+    // Flushed so version checks run here and the responses carry the new versions.
+    personaRepository.flush();
+    if (!updated.isEmpty()) {
+      publishChange(null);
+    }
+    return updated.stream().map(this::toResponse).toList();
   }
 
   @Transactional
@@ -48,6 +186,16 @@ public class PersonaService {
       throw notFound(id);
     }
     personaRepository.deleteById(id);
+    publishChange(id);
+  }
+
+  /**
+   * Applies create, update and delete operations on personas in bulk through {@link
+   * BatchExecutor}, with the same validation as the single-item endpoints.
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public BatchResponse batch(List<BatchOperacionRequest> operaciones) {
+    return batchExecutor.execute(operaciones, new PersonaBatchHandler());
   }
 
   private void applyCreate(Persona entity, CreatePersonaRequest request) {
@@ -97,6 +245,40 @@ public class PersonaService {
     }
   }
 
+  private static Map<String, Object> fields(
+      PersonaTipo tipoPersona,
+      String nombre,
+      String apellidos,
+      String razonSocial,
+      String rfc,
+      String curp,
+      String email,
+      String telefono,
+      LocalDateTime fechaAlta,
+      Boolean activo) {
+    return OptimisticUpdates.fields(
+        "tipoPersona",
+        tipoPersona,
+        "nombre",
+        nombre,
+        "apellidos",
+        apellidos,
+        "razonSocial",
+        razonSocial,
+        "rfc",
+        rfc,
+        "curp",
+        curp,
+        "email",
+        email,
+        "telefono",
+        telefono,
+        "fechaAlta",
+        fechaAlta,
+        "activo",
+        activo);
+  }
+
   private PersonaResponse toResponse(Persona entity) {
     return new PersonaResponse(
         entity.getId(),
@@ -109,10 +291,99 @@ public class PersonaService {
         entity.getEmail(),
         entity.getTelefono(),
         entity.getFechaAlta(),
-        entity.isActivo());
+        entity.isActivo(),
+        entity.getVersion());
+  }
+
+  private String likePattern(String fragment) {
+    if (fragment == null || fragment.isBlank()) {
+      return null;
+    }
+    String escaped =
+        fragment
+            .trim()
+            .toLowerCase(Locale.ROOT)
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+    return "%" + escaped + "%";
+  }
+
+  private String encodeCursor(Long lastId) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private long decodeCursor(String cursor) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!decoded.startsWith(CURSOR_PREFIX)) {
+        throw new InvalidPaginationException("Cursor de paginación inválido");
+      }
+      return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidPaginationException("Cursor de paginación inválido");
+    }
+  }
+
+  private void publishChange(Long id) {
+    eventPublisher.publishEvent(new DataChangedEvent(DataChangedEvent.PERSONA, id));
   }
 
   private ResourceNotFoundException notFound(Long id) {
     return new ResourceNotFoundException("Persona con id %d no encontrada".formatted(id));
   }
+
+  private final class PersonaBatchHandler
+      implements BatchHandler<
+          CreatePersonaRequest, UpdatePersonaRequest, Persona, PersonaResponse> {
+
+    @Override
+    public String entityType() {
+      return DataChangedEvent.PERSONA;
+    }
+
+    @Override
+    public Class<CreatePersonaRequest> createType() {
+      return CreatePersonaRequest.class;
+    }
+
+    @Override
+    public Class<UpdatePersonaRequest> updateType() {
+      return UpdatePersonaRequest.class;
+    }
+
+    @Override
+    public JpaRepository<Persona, Long> repository() {
+      return personaRepository;
+    }
+
+    @Override
+    public Persona create(CreatePersonaRequest request) {
+      Persona entity = new Persona();
+      applyCreate(entity, request);
+      return entity;
+    }
+
+    @Override
+    public void update(Persona entity, UpdatePersonaRequest request) {
+      applyUpdate(entity, request);
+    }
+
+    @Override
+    public Long id(Persona entity) {
+      return entity.getId();
+    }
+
+    @Override
+    public PersonaResponse toResponse(Persona entity) {
+      return PersonaService.this.toResponse(entity);
+    }
+
+    @Override
+    public ResourceNotFoundException notFound(Long id) {
+      return PersonaService.this.notFound(id);
+    }
+  }
 }
@@ -1,6 +1,14 @@
 package com.inmobiliaria.gestion.propiedad.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.inmobiliaria.gestion.batch.dto.BatchOperacionRequest;
+import com.inmobiliaria.gestion.batch.dto.BatchResponse;
+import com.inmobiliaria.gestion.etag.CatalogVersions;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.exception.ConflictError;
 import com.inmobiliaria.gestion.propiedad.dto.CreatePropiedadRequest;
+import com.inmobiliaria.gestion.propiedad.dto.PropiedadPageResponse;
 import com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse;
 import com.inmobiliaria.gestion.propiedad.dto.UpdatePropiedadRequest;
 import com.inmobiliaria.gestion.propiedad.service.PropiedadService;
@@ -11,9 +19,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.util.List;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,9 +34,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/propiedades")
@@ -31,9 +47,16 @@ import org.springframework.web.bind.annotation.RestController;
 public class PropiedadController {
 
   private final PropiedadService propiedadService;
+  private final CatalogVersions catalogVersions;
+  private final ObjectWriter rowWriter;
 
-  public PropiedadController(PropiedadService propiedadService) {
+  public PropiedadController(
+      PropiedadService propiedadService,
+      CatalogVersions catalogVersions,
+      ObjectMapper objectMapper) {
     this.propiedadService = propiedadService;
+    this.catalogVersions = catalogVersions;
+    this.rowWriter = objectMapper.writerFor(PropiedadResponse.class);
   }
 
   @Operation(
@@ -57,11 +80,101 @@ public class PropiedadController {
   public ResponseEntity<List<PropiedadResponse>> findAll(
       @Parameter(description = "Identificador de la inmobiliaria para filtrar el resultado")
           @RequestParam(name = "inmobiliariaId", required = false)
-          Long inmobiliariaId) {
-    if (inmobiliariaId != null) {
-      return ResponseEntity.ok(propiedadService.findAllByInmobiliaria(inmobiliariaId));
+          Long inmobiliariaId,
+      WebRequest webRequest) {
+    String etag = catalogTag();
+    if (webRequest.checkNotModified(etag)) {
+      return null;
     }
-    return ResponseEntity.ok(propiedadService.findAll());
+    List<PropiedadResponse> body =
+        inmobiliariaId != null
+            ? propiedadService.findAllByInmobiliaria(inmobiliariaId)
+            : propiedadService.findAll();
+    return ResponseEntity.ok().eTag(etag).body(body);
+  }
+
+  @Operation(
+      summary = "Listar propiedades por página",
+      description =
+          "Obtiene una página de propiedades ordenadas por id usando paginación por cursor. Use"
+              + " 'after' con el último id recibido o el token 'cursor' devuelto en la página"
+              + " anterior.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Página obtenida exitosamente",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = PropiedadPageResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Cursor o tamaño de página inválido",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Inmobiliaria no encontrada",
+            content = @Content)
+      })
+  @GetMapping("/page")
+  public ResponseEntity<PropiedadPageResponse> findPage(
+      @Parameter(description = "Identificador de la inmobiliaria para filtrar el resultado")
+          @RequestParam(name = "inmobiliariaId", required = false)
+          Long inmobiliariaId,
+      @Parameter(description = "Último id recibido; se devuelven propiedades con id mayor")
+          @RequestParam(name = "after", required = false)
+          Long after,
+      @Parameter(description = "Token de continuación devuelto en la página anterior")
+          @RequestParam(name = "cursor", required = false)
+          String cursor,
+      @Parameter(description = "Número máximo de propiedades por página (1-500)")
+          @RequestParam(name = "limit", defaultValue = "50")
+          int limit,
+      WebRequest webRequest) {
+    String etag = catalogTag();
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok()
+        .eTag(etag)
+        .body(propiedadService.findPage(inmobiliariaId, after, cursor, limit));
+  }
+
+  @Operation(
+      summary = "Exportar propiedades como NDJSON",
+      description =
+          "Transmite todas las propiedades (o las de una inmobiliaria) como JSON delimitado por"
+              + " saltos de línea, leyendo de un cursor de base de datos sin cargar el listado"
+              + " completo en memoria.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Flujo de propiedades, un objeto JSON por línea",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = PropiedadResponse.class)))
+      })
+  @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> stream(
+      @Parameter(description = "Identificador de la inmobiliaria para filtrar el resultado")
+          @RequestParam(name = "inmobiliariaId", required = false)
+          Long inmobiliariaId,
+      WebRequest webRequest) {
+    String etag = catalogTag();
+    if (webRequest.checkNotModified(etag)) {
+      return null;
+    }
+    StreamingResponseBody body =
+        outputStream -> {
+          try {
+            propiedadService.streamAll(inmobiliariaId, row -> writeLine(outputStream, row));
+          } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+          }
+          outputStream.flush();
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).eTag(etag).body(body);
   }
 
   @Operation(
@@ -81,8 +194,13 @@ public class PropiedadController {
             content = @Content)
       })
   @GetMapping("/{id}")
-  public ResponseEntity<PropiedadResponse> findById(@PathVariable Long id) {
-    return ResponseEntity.ok(propiedadService.findById(id));
+  public ResponseEntity<PropiedadResponse> findById(
+      @PathVariable Long id, WebRequest webRequest) {
+    PropiedadResponse response = propiedadService.findById(id);
+    if (webRequest.checkNotModified(response.entityTag())) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(response.entityTag()).body(response);
   }
 
   @Operation(
@@ -110,12 +228,40 @@ public class PropiedadController {
       @Valid @RequestBody CreatePropiedadRequest request) {
     PropiedadResponse response = propiedadService.create(request);
     return ResponseEntity.created(URI.create("/api/propiedades/" + response.getId()))
+        .eTag(response.entityTag())
         .body(response);
   }
 
+  @Operation(
+      summary = "Operaciones en lote sobre propiedades",
+      description =
+          "Aplica hasta app.batch.max-operations operaciones CREAR, ACTUALIZAR o ELIMINAR en una"
+              + " sola petición y devuelve un resultado por operación, en el mismo orden, con el"
+              + " estado HTTP que habría tenido por separado. ACTUALIZAR y ELIMINAR requieren id y"
+              + " aceptan ifMatch con la ETag del recurso. Un fallo solo afecta a su operación.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Lote procesado; consulte el estado de cada operación",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = BatchResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "El lote está vacío o excede el máximo de operaciones",
+            content = @Content)
+      })
+  @PostMapping("/batch")
+  public ResponseEntity<BatchResponse> batch(@RequestBody List<BatchOperacionRequest> operaciones) {
+    return ResponseEntity.ok(propiedadService.batch(operaciones));
+  }
+
   @Operation(
       summary = "Actualizar propiedad",
-      description = "Actualiza los datos de una propiedad existente.",
+      description =
+          "Actualiza los datos de una propiedad existente. Con la cabecera If-Match solo se"
+              + " aplica si la propiedad no cambió desde que se obtuvo esa ETag.",
       responses = {
         @ApiResponse(
             responseCode = "200",
@@ -131,12 +277,30 @@ public class PropiedadController {
         @ApiResponse(
             responseCode = "404",
             description = "Propiedad o inmobiliaria no encontrada",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "409",
+            description =
+                "La propiedad fue modificada por otra operación en los mismos campos; el cuerpo"
+                    + " incluye su estado actual",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ConflictError.class))),
+        @ApiResponse(
+            responseCode = "412",
+            description = "If-Match no coincide con la versión actual",
             content = @Content)
       })
   @PutMapping("/{id}")
   public ResponseEntity<PropiedadResponse> update(
-      @PathVariable Long id, @Valid @RequestBody UpdatePropiedadRequest request) {
-    return ResponseEntity.ok(propiedadService.update(id, request));
+      @PathVariable Long id,
+      @Parameter(description = "ETag obtenida al consultar la propiedad")
+          @RequestHeader(name = HttpHeaders.IF_MATCH, required = false)
+          String ifMatch,
+      @Valid @RequestBody UpdatePropiedadRequest request) {
+    PropiedadResponse response = propiedadService.update(id, request, ifMatch);
+    return ResponseEntity.ok().eTag(response.entityTag()).body(response);
   }
 
   @Operation(
@@ -154,4 +318,21 @@ public class PropiedadController {
     propiedadService.delete(id);
     return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
   }
+
+  /**
+   * Listing ETag: responses embed the agency name, so agency changes count as well as property
+   * changes. Read before the data, see {@link CatalogVersions}.
+   */
+  private String catalogTag() {
+    return catalogVersions.tag(DataChangedEvent.PROPIEDAD, DataChangedEvent.INMOBILIARIA);
+  }
+
+  private void writeLine(OutputStream outputStream, PropiedadResponse row) {
+    try {
+      outputStream.write(rowWriter.writeValueAsBytes(row));
+      outputStream.write('\n');
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
 }
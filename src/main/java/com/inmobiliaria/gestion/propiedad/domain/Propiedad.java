@@ -11,14 +11,21 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.time.Instant;
 
 @Entity
 @Table(name = "propiedades")
 public class Propiedad {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "propiedades_seq")
+  @SequenceGenerator(
+      name = "propiedades_seq", sequenceName = "propiedades_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false)
@@ -37,6 +44,19 @@ public class Propiedad {
   @JoinColumn(name = "inmobiliaria_id", nullable = false)
   private Inmobiliaria inmobiliaria;
 
+  @Column(name = "updated_at", nullable = false)
+  private Instant updatedAt;
+
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
+  @PrePersist
+  @PreUpdate
+  void touch() {
+    updatedAt = Instant.now();
+  }
+
   public Long getId() {
     return id;
   }
@@ -84,4 +104,12 @@ public class Propiedad {
   public void setInmobiliaria(Inmobiliaria inmobiliaria) {
     this.inmobiliaria = inmobiliaria;
   }
+
+  public Instant getUpdatedAt() {
+    return updatedAt;
+  }
+
+  public Long getVersion() {
+    return version;
+  }
 }
@@ -0,0 +1,38 @@
+package com.inmobiliaria.gestion.propiedad.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Página de propiedades obtenida mediante paginación por cursor")
+public final class PropiedadPageResponse {
+
+  private final List<PropiedadResponse> items;
+  private final String nextCursor;
+  private final boolean hasMore;
+
+  public PropiedadPageResponse(List<PropiedadResponse> items, String nextCursor, boolean hasMore) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+    this.hasMore = hasMore;
+  }
+
+  @Schema(description = "Propiedades de la página ordenadas por identificador ascendente")
+  public List<PropiedadResponse> getItems() {
+    return items;
+  }
+
+  @Schema(
+      description =
+          "Token opaco para solicitar la siguiente página; nulo cuando no hay más resultados",
+      example = "cHJvcGllZGFkOjQy")
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  @Schema(
+      description = "Indica si existen más propiedades después de esta página",
+      example = "true")
+  public boolean isHasMore() {
+    return hasMore;
+  }
+}
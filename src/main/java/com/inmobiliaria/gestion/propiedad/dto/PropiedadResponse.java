@@ -2,11 +2,13 @@ package com.inmobiliaria.gestion.propiedad.dto;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.inmobiliaria.gestion.etag.EntityTagged;
+import com.inmobiliaria.gestion.etag.EntityTags;
 import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "Respuesta con los datos de una propiedad registrada")
-public final class PropiedadResponse {
+public final class PropiedadResponse implements EntityTagged {
 
   private final Long id;
   private final String nombre;
@@ -15,6 +17,8 @@ public final class PropiedadResponse {
   private final String observaciones;
   private final Long inmobiliariaId;
   private final String inmobiliariaNombre;
+  private final Long version;
+  private final Long inmobiliariaVersion;
 
   @JsonCreator
   public PropiedadResponse(
@@ -25,6 +29,20 @@ public final class PropiedadResponse {
       @JsonProperty("observaciones") String observaciones,
       @JsonProperty("inmobiliariaId") Long inmobiliariaId,
       @JsonProperty("inmobiliariaNombre") String inmobiliariaNombre) {
+    this(
+        id, nombre, tipo, direccion, observaciones, inmobiliariaId, inmobiliariaNombre, null, null);
+  }
+
+  public PropiedadResponse(
+      Long id,
+      String nombre,
+      PropiedadTipo tipo,
+      String direccion,
+      String observaciones,
+      Long inmobiliariaId,
+      String inmobiliariaNombre,
+      Long version,
+      Long inmobiliariaVersion) {
     this.id = id;
     this.nombre = nombre;
     this.tipo = tipo;
@@ -32,6 +50,8 @@ public final class PropiedadResponse {
     this.observaciones = observaciones;
     this.inmobiliariaId = inmobiliariaId;
     this.inmobiliariaNombre = inmobiliariaNombre;
+    this.version = version;
+    this.inmobiliariaVersion = inmobiliariaVersion;
   }
 
   @Schema(description = "Identificador único de la propiedad", example = "42")
@@ -72,4 +92,13 @@ public final class PropiedadResponse {
   public String getInmobiliariaNombre() {
     return inmobiliariaNombre;
   }
+
+  /**
+   * Strong entity tag of this representation: the property version plus the version of the owning
+   * agency, whose name is embedded too. Sent as the ETag header rather than in the body.
+   */
+  @Override
+  public String entityTag() {
+    return EntityTags.of(version, inmobiliariaVersion);
+  }
 }
@@ -1,9 +1,83 @@
 package com.inmobiliaria.gestion.propiedad.repository;
 
+import com.inmobiliaria.gestion.config.SecondLevelCacheConfig;
 import com.inmobiliaria.gestion.propiedad.domain.Propiedad;
+import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
+import com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface PropiedadRepository extends JpaRepository<Propiedad, Long> {
+
+  /**
+   * Projects each property straight into its response DTO together with the owning agency, so read
+   * paths never touch the lazy {@code inmobiliaria} association and cost a single round trip.
+   */
+  String RESPONSE_PROJECTION =
+      "select new com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse( "
+          + "p.id, p.nombre, p.tipo, p.direccion, p.observaciones, i.id, i.nombre, "
+          + "p.version, i.version) "
+          + "from Propiedad p join p.inmobiliaria i ";
+
   List<Propiedad> findByInmobiliariaId(Long inmobiliariaId);
+
+  @Query(RESPONSE_PROJECTION + "order by p.id")
+  List<PropiedadResponse> findAllResponses();
+
+  /**
+   * Served from the query cache: the projected rows are cached per agency and Hibernate drops them
+   * whenever a write to {@code propiedades} or {@code inmobiliarias} commits.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(
+        name = HibernateHints.HINT_CACHE_REGION,
+        value = SecondLevelCacheConfig.PROPIEDADES_POR_INMOBILIARIA_REGION)
+  })
+  @Query(RESPONSE_PROJECTION + "where i.id = :inmobiliariaId order by p.id")
+  List<PropiedadResponse> findResponsesByInmobiliariaId(
+      @Param("inmobiliariaId") Long inmobiliariaId);
+
+  @Query(RESPONSE_PROJECTION + "where p.id = :id")
+  Optional<PropiedadResponse> findResponseById(@Param("id") Long id);
+
+  @Query(RESPONSE_PROJECTION + "where p.id > :after order by p.id")
+  List<PropiedadResponse> findPageAfter(@Param("after") long after, Pageable window);
+
+  @Query(RESPONSE_PROJECTION + "where i.id = :inmobiliariaId and p.id > :after order by p.id")
+  List<PropiedadResponse> findPageByInmobiliariaAfter(
+      @Param("inmobiliariaId") Long inmobiliariaId, @Param("after") long after, Pageable window);
+
+  /**
+   * Keyset page where every null filter is ignored; {@code nombre} is a lower-case LIKE pattern.
+   */
+  @Query(
+      RESPONSE_PROJECTION
+          + "where p.id > :after "
+          + "and (:inmobiliariaId is null or i.id = :inmobiliariaId) "
+          + "and (:tipo is null or p.tipo = :tipo) "
+          + "and (:nombre is null or lower(p.nombre) like :nombre escape '\\') "
+          + "order by p.id")
+  List<PropiedadResponse> findFilteredPageAfter(
+      @Param("inmobiliariaId") Long inmobiliariaId,
+      @Param("tipo") PropiedadTipo tipo,
+      @Param("nombre") String nombre,
+      @Param("after") long after,
+      Pageable window);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(RESPONSE_PROJECTION + "order by p.id")
+  Stream<PropiedadResponse> streamAll();
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(RESPONSE_PROJECTION + "where i.id = :inmobiliariaId order by p.id")
+  Stream<PropiedadResponse> streamAllByInmobiliaria(@Param("inmobiliariaId") Long inmobiliariaId);
 }
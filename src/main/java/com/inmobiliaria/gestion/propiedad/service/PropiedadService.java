@@ -1,95 +1,304 @@
 package com.inmobiliaria.gestion.propiedad.service;
 
+import com.inmobiliaria.gestion.batch.dto.BatchOperacionRequest;
+import com.inmobiliaria.gestion.batch.dto.BatchResponse;
+import com.inmobiliaria.gestion.batch.service.BatchExecutor;
+import com.inmobiliaria.gestion.batch.service.BatchHandler;
+import com.inmobiliaria.gestion.concurrency.OptimisticUpdates;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.exception.InvalidPaginationException;
 import com.inmobiliaria.gestion.exception.ResourceNotFoundException;
 import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
 import com.inmobiliaria.gestion.inmobiliaria.repository.InmobiliariaRepository;
 import com.inmobiliaria.gestion.propiedad.domain.Propiedad;
 import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
 import com.inmobiliaria.gestion.propiedad.dto.CreatePropiedadRequest;
+import com.inmobiliaria.gestion.propiedad.dto.PropiedadPageResponse;
 import com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse;
 import com.inmobiliaria.gestion.propiedad.dto.UpdatePropiedadRequest;
 import com.inmobiliaria.gestion.propiedad.repository.PropiedadRepository;
-import jakarta.transaction.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Property catalog. Every method runs in a read-only Spring transaction unless it is annotated
+ * otherwise, so listings are served from DTO projections with flushing and dirty checking off and
+ * the lookups that only validate an agency never load it into the persistence context.
+ */
 @Service
+@Transactional(readOnly = true)
 public class PropiedadService {
 
+  public static final int MAX_PAGE_SIZE = 500;
+
+  private static final String CURSOR_PREFIX = "propiedad:";
+
   private final PropiedadRepository propiedadRepository;
   private final InmobiliariaRepository inmobiliariaRepository;
+  private final OptimisticUpdates optimisticUpdates;
+  private final BatchExecutor batchExecutor;
+  private final ApplicationEventPublisher eventPublisher;
 
   public PropiedadService(
-      PropiedadRepository propiedadRepository, InmobiliariaRepository inmobiliariaRepository) {
+      PropiedadRepository propiedadRepository,
+      InmobiliariaRepository inmobiliariaRepository,
+      OptimisticUpdates optimisticUpdates,
+      BatchExecutor batchExecutor,
+      ApplicationEventPublisher eventPublisher) {
     this.propiedadRepository = propiedadRepository;
     this.inmobiliariaRepository = inmobiliariaRepository;
+    this.optimisticUpdates = optimisticUpdates;
+    this.batchExecutor = batchExecutor;
+    this.eventPublisher = eventPublisher;
   }
 
-  @Transactional
   public List<PropiedadResponse> findAll() {
-    return propiedadRepository.findAll().stream().map(this::toResponse).toList();
+    return propiedadRepository.findAllResponses();
   }
 
-  @Transactional
   public List<PropiedadResponse> findAllByInmobiliaria(Long inmobiliariaId) {
-    resolveInmobiliaria(inmobiliariaId);
-    return propiedadRepository.findByInmobiliariaId(inmobiliariaId).stream()
-        .map(this::toResponse)
-        .toList();
+    requireInmobiliaria(inmobiliariaId);
+    return propiedadRepository.findResponsesByInmobiliariaId(inmobiliariaId);
+  }
+
+  /**
+   * Returns a keyset page of properties ordered by id. The position can be given either as the raw
+   * {@code after} id or as the opaque cursor returned by a previous page; the cursor wins when both
+   * are present.
+   */
+  public PropiedadPageResponse findPage(Long inmobiliariaId, Long after, String cursor, int limit) {
+    validateLimit(limit);
+    long lastSeenId = cursor != null ? decodeCursor(cursor) : (after != null ? after : 0L);
+
+    // Fetch one extra row to know whether another page exists without a count query.
+    PageRequest window = PageRequest.of(0, limit + 1);
+    List<PropiedadResponse> rows;
+    if (inmobiliariaId != null) {
+      requireInmobiliaria(inmobiliariaId);
+      rows = propiedadRepository.findPageByInmobiliariaAfter(inmobiliariaId, lastSeenId, window);
+    } else {
+      rows = propiedadRepository.findPageAfter(lastSeenId, window);
+    }
+    return toPage(rows, limit);
+  }
+
+  /**
+   * Keyset page filtered by owning agency, type and a case-insensitive fragment of the name. Null
+   * filters are ignored. Lets callers such as the agent tools page through matches instead of
+   * loading the whole catalog.
+   */
+  public PropiedadPageResponse findFilteredPage(
+      Long inmobiliariaId, PropiedadTipo tipo, String nombre, String cursor, int limit) {
+    validateLimit(limit);
+    if (inmobiliariaId != null) {
+      requireInmobiliaria(inmobiliariaId);
+    }
+    long lastSeenId = cursor != null ? decodeCursor(cursor) : 0L;
+    List<PropiedadResponse> rows =
+        propiedadRepository.findFilteredPageAfter(
+            inmobiliariaId, tipo, likePattern(nombre), lastSeenId, PageRequest.of(0, limit + 1));
+    return toPage(rows, limit);
+  }
+
+  /** Opaque cursor that resumes a listing right after the property {@code id}. */
+  public String cursorAfter(Long id) {
+    return encodeCursor(id);
+  }
+
+  /**
+   * Pushes every property to {@code consumer} as it is read from a forward-only JDBC cursor, so
+   * callers can write them out without materializing the whole result set. An unknown {@code
+   * inmobiliariaId} simply produces no rows.
+   */
+  public void streamAll(Long inmobiliariaId, Consumer<PropiedadResponse> consumer) {
+    try (Stream<PropiedadResponse> rows =
+        inmobiliariaId != null
+            ? propiedadRepository.streamAllByInmobiliaria(inmobiliariaId)
+            : propiedadRepository.streamAll()) {
+      rows.forEach(consumer);
+    }
   }
 
   public PropiedadResponse findById(Long id) {
     return propiedadRepository
-        .findById(id)
-        .map(this::toResponse)
-        .orElseThrow(
-            () -> new ResourceNotFoundException("Propiedad con id %d no encontrada".formatted(id)));
+        .findResponseById(id)
+        .orElseThrow(() -> notFound(id));
   }
 
   @Transactional
   public PropiedadResponse create(CreatePropiedadRequest request) {
-    Inmobiliaria inmobiliaria = resolveInmobiliaria(request.getInmobiliariaId());
+    Propiedad saved = propiedadRepository.save(newPropiedad(request));
+    publishChange(saved.getId());
+    return toResponse(saved);
+  }
+
+  /**
+   * Creates all the properties in one transaction: the owning agencies are loaded with a single
+   * query, the inserts go out as JDBC batches and one bulk change is published. A missing agency
+   * fails the whole call and nothing is created.
+   */
+  @Transactional
+  public List<PropiedadResponse> createAll(List<CreatePropiedadRequest> requests) {
+    Map<Long, Inmobiliaria> inmobiliarias = new HashMap<>();
+    inmobiliariaRepository
+        .findAllById(
+            requests.stream()
+                .map(CreatePropiedadRequest::getInmobiliariaId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList())
+        .forEach(inmobiliaria -> inmobiliarias.put(inmobiliaria.getId(), inmobiliaria));
+    List<Propiedad> entities = new ArrayList<>(requests.size());
+    for (CreatePropiedadRequest request : requests) {
+      Inmobiliaria inmobiliaria = inmobiliarias.get(request.getInmobiliariaId());
+      if (inmobiliaria == null) {
+        throw new ResourceNotFoundException(
+            "Inmobiliaria con id %d no encontrada".formatted(request.getInmobiliariaId()));
+      }
+      Propiedad entity = new Propiedad();
+      entity.setInmobiliaria(inmobiliaria);
+      applyChanges(
+          entity,
+          request.getNombre(),
+          request.getTipo(),
+          request.getDireccion(),
+          request.getObservaciones());
+      entities.add(entity);
+    }
+    List<PropiedadResponse> created =
+        propiedadRepository.saveAll(entities).stream().map(this::toResponse).toList();
+    if (!created.isEmpty()) {
+      publishChange(null);
+    }
+    return created;
+  }
+
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public PropiedadResponse update(Long id, UpdatePropiedadRequest request) {
+    return update(id, request, null);
+  }
+
+  /**
+   * Updates the property only if {@code ifMatch} (an {@code If-Match} header value, null to skip
+   * the check) matches its current entity tag. Runs its own transactions through {@link
+   * OptimisticUpdates}, which merges non-conflicting concurrent edits.
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public PropiedadResponse update(Long id, UpdatePropiedadRequest request, String ifMatch) {
+    PropiedadResponse response =
+        optimisticUpdates.update(
+            ifMatch,
+            fields(
+                request.getNombre(),
+                request.getTipo(),
+                request.getDireccion(),
+                request.getObservaciones(),
+                request.getInmobiliariaId()),
+            () -> load(id),
+            entity ->
+                fields(
+                    entity.getNombre(),
+                    entity.getTipo(),
+                    entity.getDireccion(),
+                    entity.getObservaciones(),
+                    entity.getInmobiliaria() != null ? entity.getInmobiliaria().getId() : null),
+            entity -> {
+              applyUpdate(entity, request);
+              // Flushed so the version check runs here and the response carries the new version.
+              propiedadRepository.saveAndFlush(entity);
+            },
+            this::toResponse);
+    publishChange(id);
+    return response;
+  }
+
+  @Transactional
+  public void delete(Long id) {
+    if (!propiedadRepository.existsById(id)) {
+      throw notFound(id);
+    }
+    propiedadRepository.deleteById(id);
+    publishChange(id);
+  }
+
+  /**
+   * Applies create, update and delete operations on properties in bulk through {@link
+   * BatchExecutor}, with the same validation and reference checks as the single-item endpoints.
+   */
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public BatchResponse batch(List<BatchOperacionRequest> operaciones) {
+    return batchExecutor.execute(operaciones, new PropiedadBatchHandler());
+  }
+
+  private void publishChange(Long id) {
+    eventPublisher.publishEvent(new DataChangedEvent(DataChangedEvent.PROPIEDAD, id));
+  }
+
+  private Propiedad load(Long id) {
+    return propiedadRepository
+        .findById(id)
+        .orElseThrow(() -> notFound(id));
+  }
+
+  private Propiedad newPropiedad(CreatePropiedadRequest request) {
     Propiedad entity = new Propiedad();
-    entity.setInmobiliaria(inmobiliaria);
+    entity.setInmobiliaria(resolveInmobiliaria(request.getInmobiliariaId()));
     applyChanges(
         entity,
         request.getNombre(),
         request.getTipo(),
         request.getDireccion(),
         request.getObservaciones());
-    return toResponse(propiedadRepository.save(entity));
+    return entity;
   }
 
-  @Transactional
-  public PropiedadResponse update(Long id, UpdatePropiedadRequest request) {
-    Propiedad entity =
-        propiedadRepository
-            .findById(id)
-            .orElseThrow(
-                () ->
-                    new ResourceNotFoundException(
-                        "Propiedad con id %d no encontrada".formatted(id)));
-
+  private void applyUpdate(Propiedad entity, UpdatePropiedadRequest request) {
     if (request.getInmobiliariaId() != null) {
-      Inmobiliaria inmobiliaria = resolveInmobiliaria(request.getInmobiliariaId());
-      entity.setInmobiliaria(inmobiliaria);
+      entity.setInmobiliaria(resolveInmobiliaria(request.getInmobiliariaId()));
     }
-
     applyChanges(
         entity,
         request.getNombre(),
         request.getTipo(),
         request.getDireccion(),
         request.getObservaciones());
-    return toResponse(propiedadRepository.save(entity));
   }
 
-  @Transactional
-  public void delete(Long id) {
-    if (!propiedadRepository.existsById(id)) {
-      throw new ResourceNotFoundException("Propiedad con id %d no encontrada".formatted(id));
-    }
-    propiedadRepository.deleteById(id);
+  private static ResourceNotFoundException notFound(Long id) {
+    return new ResourceNotFoundException("Propiedad con id %d no encontrada".formatted(id));
+  }
+
+  private static Map<String, Object> fields(
+      String nombre,
+      PropiedadTipo tipo,
+      String direccion,
+      String observaciones,
+      Long inmobiliariaId) {
+    return OptimisticUpdates.fields(
+        "nombre",
+        nombre,
+        "tipo",
+        tipo,
+        "direccion",
+        direccion,
+        "observaciones",
+        observaciones,
+        "inmobiliariaId",
+        inmobiliariaId);
   }
 
   private void applyChanges(
@@ -117,7 +326,63 @@ public class PropiedadService {
         entity.getDireccion(),
         entity.getObservaciones(),
         inmobiliaria != null ? inmobiliaria.getId() : null,
-        inmobiliaria != null ? inmobiliaria.getNombre() : null);
+        inmobiliaria != null ? inmobiliaria.getNombre() : null,
+        entity.getVersion(),
+        inmobiliaria != null ? inmobiliaria.getVersion() : null);
+  }
+
+  private void validateLimit(int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new InvalidPaginationException(
+          "El parámetro limit debe estar entre 1 y %d".formatted(MAX_PAGE_SIZE));
+    }
+  }
+
+  /** Fetching one extra row tells whether another page exists without a count query. */
+  private PropiedadPageResponse toPage(List<PropiedadResponse> rows, int limit) {
+    boolean hasMore = rows.size() > limit;
+    List<PropiedadResponse> items = hasMore ? rows.subList(0, limit) : rows;
+    String nextCursor = hasMore ? encodeCursor(items.get(items.size() - 1).getId()) : null;
+    return new PropiedadPageResponse(items, nextCursor, hasMore);
+  }
+
+  private String likePattern(String fragment) {
+    if (fragment == null || fragment.isBlank()) {
+      return null;
+    }
+    String escaped =
+        fragment
+            .trim()
+            .toLowerCase(Locale.ROOT)
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+    return "%" + escaped + "%";
+  }
+
+  private String encodeCursor(Long lastId) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private long decodeCursor(String cursor) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!decoded.startsWith(CURSOR_PREFIX)) {
+        throw new InvalidPaginationException("Cursor de paginación inválido");
+      }
+      return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidPaginationException("Cursor de paginación inválido");
+    }
+  }
+
+  private void requireInmobiliaria(Long inmobiliariaId) {
+    if (!inmobiliariaRepository.existsById(inmobiliariaId)) {
+      throw new ResourceNotFoundException(
+          "Inmobiliaria con id %d no encontrada".formatted(inmobiliariaId));
+    }
   }
 
   private Inmobiliaria resolveInmobiliaria(Long inmobiliariaId) {
@@ -128,4 +393,54 @@ public class PropiedadService {
                 new ResourceNotFoundException(
                     "Inmobiliaria con id %d no encontrada".formatted(inmobiliariaId)));
   }
+
+  private final class PropiedadBatchHandler
+      implements BatchHandler<
+          CreatePropiedadRequest, UpdatePropiedadRequest, Propiedad, PropiedadResponse> {
+
+    @Override
+    public String entityType() {
+      return DataChangedEvent.PROPIEDAD;
+    }
+
+    @Override
+    public Class<CreatePropiedadRequest> createType() {
+      return CreatePropiedadRequest.class;
+    }
+
+    @Override
+    public Class<UpdatePropiedadRequest> updateType() {
+      return UpdatePropiedadRequest.class;
+    }
+
+    @Override
+    public JpaRepository<Propiedad, Long> repository() {
+      return propiedadRepository;
+    }
+
+    @Override
+    public Propiedad create(CreatePropiedadRequest request) {
+      return newPropiedad(request);
+    }
+
+    @Override
+    public void update(Propiedad entity, UpdatePropiedadRequest request) {
+      applyUpdate(entity, request);
+    }
+
+    @Override
+    public Long id(Propiedad entity) {
+      return entity.getId();
+    }
+
+    @Override
+    public PropiedadResponse toResponse(Propiedad entity) {
+      return PropiedadService.this.toResponse(entity);
+    }
+
+    @Override
+    public ResourceNotFoundException notFound(Long id) {
+      return PropiedadService.notFound(id);
+    }
+  }
 }
@@ -0,0 +1,68 @@
+package com.inmobiliaria.gestion.search.controller;
+
+import com.inmobiliaria.gestion.search.domain.SearchTipo;
+import com.inmobiliaria.gestion.search.dto.SearchPageResponse;
+import com.inmobiliaria.gestion.search.service.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.Set;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/search")
+@Tag(
+    name = "Búsqueda",
+    description = "Búsqueda de texto sobre propiedades, personas e inmobiliarias")
+public class SearchController {
+
+  private final SearchService searchService;
+
+  public SearchController(SearchService searchService) {
+    this.searchService = searchService;
+  }
+
+  @Operation(
+      summary = "Buscar en todos los catálogos",
+      description =
+          "Busca el texto en propiedades (nombre, dirección, observaciones), personas (nombre,"
+              + " apellidos, razón social, RFC, CURP, correo) e inmobiliarias (nombre, RFC). Los"
+              + " resultados se ordenan por relevancia y se paginan con el token 'cursor' devuelto"
+              + " en la página anterior.",
+      responses = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Resultados obtenidos exitosamente",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = SearchPageResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Consulta, cursor o tamaño de página inválido",
+            content = @Content)
+      })
+  @GetMapping
+  public ResponseEntity<SearchPageResponse> search(
+      @Parameter(description = "Texto a buscar (2-200 caracteres)", example = "av central")
+          @RequestParam(name = "q")
+          String q,
+      @Parameter(description = "Catálogos a incluir; por defecto todos")
+          @RequestParam(name = "tipos", required = false)
+          Set<SearchTipo> tipos,
+      @Parameter(description = "Token de continuación devuelto en la página anterior")
+          @RequestParam(name = "cursor", required = false)
+          String cursor,
+      @Parameter(description = "Número máximo de resultados por página (1-100)")
+          @RequestParam(name = "limit", defaultValue = "20")
+          int limit) {
+    return ResponseEntity.ok(searchService.search(q, tipos, cursor, limit));
+  }
+}
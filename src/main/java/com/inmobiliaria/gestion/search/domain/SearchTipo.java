@@ -0,0 +1,15 @@
+package com.inmobiliaria.gestion.search.domain;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Catálogos incluidos en la búsqueda global")
+public enum SearchTipo {
+  @Schema(description = "Propiedades: nombre, dirección y observaciones")
+  PROPIEDAD,
+
+  @Schema(description = "Personas: nombre, apellidos, razón social, RFC, CURP y correo")
+  PERSONA,
+
+  @Schema(description = "Inmobiliarias: nombre y RFC")
+  INMOBILIARIA
+}
@@ -0,0 +1,39 @@
+package com.inmobiliaria.gestion.search.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+
+@Schema(description = "Página de resultados de la búsqueda global ordenados por relevancia")
+public final class SearchPageResponse {
+
+  private final List<SearchResultResponse> items;
+  private final String nextCursor;
+  private final boolean hasMore;
+
+  public SearchPageResponse(List<SearchResultResponse> items, String nextCursor, boolean hasMore) {
+    this.items = items;
+    this.nextCursor = nextCursor;
+    this.hasMore = hasMore;
+  }
+
+  @Schema(description = "Coincidencias de la página, de mayor a menor relevancia")
+  public List<SearchResultResponse> getItems() {
+    return items;
+  }
+
+  @Schema(
+      description =
+          "Token opaco para solicitar la siguiente página con la misma consulta; nulo cuando no"
+              + " hay más resultados",
+      example = "c2VhcmNoOjIw")
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
+  @Schema(
+      description = "Indica si existen más coincidencias después de esta página",
+      example = "true")
+  public boolean isHasMore() {
+    return hasMore;
+  }
+}
@@ -0,0 +1,52 @@
+package com.inmobiliaria.gestion.search.dto;
+
+import com.inmobiliaria.gestion.search.domain.SearchTipo;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Coincidencia de la búsqueda global")
+public final class SearchResultResponse {
+
+  private final SearchTipo tipo;
+  private final Long id;
+  private final String titulo;
+  private final String detalle;
+  private final double score;
+
+  public SearchResultResponse(
+      SearchTipo tipo, Long id, String titulo, String detalle, double score) {
+    this.tipo = tipo;
+    this.id = id;
+    this.titulo = titulo;
+    this.detalle = detalle;
+    this.score = score;
+  }
+
+  @Schema(description = "Catálogo al que pertenece el registro", implementation = SearchTipo.class)
+  public SearchTipo getTipo() {
+    return tipo;
+  }
+
+  @Schema(description = "Identificador del registro dentro de su catálogo", example = "42")
+  public Long getId() {
+    return id;
+  }
+
+  @Schema(
+      description = "Nombre de la propiedad, persona o inmobiliaria",
+      example = "Residencia Las Palmas")
+  public String getTitulo() {
+    return titulo;
+  }
+
+  @Schema(
+      description = "Dato secundario: dirección, correo o RFC según el catálogo",
+      example = "Av. Central 123, CDMX")
+  public String getDetalle() {
+    return detalle;
+  }
+
+  @Schema(description = "Relevancia de la coincidencia; mayor es mejor", example = "0.82")
+  public double getScore() {
+    return score;
+  }
+}
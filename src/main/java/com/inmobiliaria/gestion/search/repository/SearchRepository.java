@@ -0,0 +1,135 @@
+package com.inmobiliaria.gestion.search.repository;
+
+import com.inmobiliaria.gestion.search.domain.SearchTipo;
+import com.inmobiliaria.gestion.search.dto.SearchResultResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Ranked search across propiedades, personas and inmobiliarias. On PostgreSQL it reads the {@code
+ * search_vector} and {@code search_text} columns added by the vendor migration V7, combining the
+ * full-text rank with trigram word similarity so both whole words and typos or fragments match
+ * through the GIN indexes. Other databases (H2 in development and tests) fall back to a {@code
+ * LIKE} scan that ranks name matches first.
+ */
+@Repository
+public class SearchRepository {
+
+  private static final String POSTGRES_QUERY = "websearch_to_tsquery('spanish', :q)";
+
+  private static final Map<SearchTipo, String> POSTGRES_SELECTS =
+      Map.of(
+          SearchTipo.PROPIEDAD,
+          "SELECT 'PROPIEDAD' AS tipo, p.id AS id, p.nombre AS titulo, p.direccion AS detalle, "
+              + postgresScore("p")
+              + " FROM propiedades p"
+              + postgresWhere("p"),
+          SearchTipo.PERSONA,
+          "SELECT 'PERSONA' AS tipo, p.id_persona AS id, "
+              + "coalesce(p.razon_social, concat_ws(' ', p.nombre, p.apellidos)) AS titulo, "
+              + "coalesce(p.email, p.rfc) AS detalle, "
+              + postgresScore("p")
+              + " FROM personas p"
+              + postgresWhere("p"),
+          SearchTipo.INMOBILIARIA,
+          "SELECT 'INMOBILIARIA' AS tipo, i.id AS id, i.nombre AS titulo, i.rfc AS detalle, "
+              + postgresScore("i")
+              + " FROM inmobiliarias i"
+              + postgresWhere("i"));
+
+  private static final Map<SearchTipo, String> PORTABLE_SELECTS =
+      Map.of(
+          SearchTipo.PROPIEDAD,
+          "SELECT 'PROPIEDAD' AS tipo, p.id AS id, p.nombre AS titulo, p.direccion AS detalle, "
+              + portableScore("p.nombre")
+              + " FROM propiedades p WHERE lower(concat_ws(' ', p.nombre, p.direccion,"
+              + " CAST(p.observaciones AS VARCHAR))) LIKE :pattern ESCAPE '\\'",
+          SearchTipo.PERSONA,
+          "SELECT 'PERSONA' AS tipo, p.id_persona AS id, "
+              + "coalesce(p.razon_social, concat_ws(' ', p.nombre, p.apellidos)) AS titulo, "
+              + "coalesce(p.email, p.rfc) AS detalle, "
+              + portableScore("concat_ws(' ', p.nombre, p.apellidos, p.razon_social)")
+              + " FROM personas p WHERE lower(concat_ws(' ', p.nombre, p.apellidos,"
+              + " p.razon_social, p.rfc, p.curp, p.email)) LIKE :pattern ESCAPE '\\'",
+          SearchTipo.INMOBILIARIA,
+          "SELECT 'INMOBILIARIA' AS tipo, i.id AS id, i.nombre AS titulo, i.rfc AS detalle, "
+              + portableScore("i.nombre")
+              + " FROM inmobiliarias i WHERE lower(concat_ws(' ', i.nombre, i.rfc))"
+              + " LIKE :pattern ESCAPE '\\'");
+
+  private static final RowMapper<SearchResultResponse> ROW_MAPPER =
+      (rs, rowNum) ->
+          new SearchResultResponse(
+              SearchTipo.valueOf(rs.getString("tipo").trim()),
+              rs.getLong("id"),
+              rs.getString("titulo"),
+              rs.getString("detalle"),
+              rs.getDouble("score"));
+
+  private final NamedParameterJdbcTemplate jdbcTemplate;
+  private final boolean postgres;
+
+  public SearchRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+    String product =
+        jdbcTemplate
+            .getJdbcTemplate()
+            .execute(
+                (ConnectionCallback<String>)
+                    connection -> connection.getMetaData().getDatabaseProductName());
+    this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+  }
+
+  /**
+   * Returns the matches of {@code query} in the given catalogs ordered by descending relevance.
+   *
+   * @param query normalized, lower-case search text
+   * @param tipos catalogs to search; must not be empty
+   * @param offset number of ranked matches to skip
+   * @param limit maximum number of matches to return
+   */
+  public List<SearchResultResponse> search(
+      String query, Set<SearchTipo> tipos, int offset, int limit) {
+    Map<SearchTipo, String> selects = postgres ? POSTGRES_SELECTS : PORTABLE_SELECTS;
+    String union =
+        tipos.stream().sorted().map(selects::get).collect(Collectors.joining(" UNION ALL "));
+    String sql =
+        "SELECT tipo, id, titulo, detalle, score FROM ("
+            + union
+            + ") r ORDER BY score DESC, tipo, id LIMIT :limit OFFSET :offset";
+    MapSqlParameterSource params =
+        new MapSqlParameterSource()
+            .addValue("q", query)
+            .addValue("pattern", likePattern(query))
+            .addValue("limit", limit)
+            .addValue("offset", offset);
+    return jdbcTemplate.query(sql, params, ROW_MAPPER);
+  }
+
+  private static String postgresScore(String alias) {
+    return "ts_rank_cd(%1$s.search_vector, %2$s) + word_similarity(:q, %1$s.search_text) AS score"
+        .formatted(alias, POSTGRES_QUERY);
+  }
+
+  private static String postgresWhere(String alias) {
+    return " WHERE %1$s.search_vector @@ %2$s OR :q <%% %1$s.search_text"
+        .formatted(alias, POSTGRES_QUERY);
+  }
+
+  private static String portableScore(String titleExpression) {
+    return "CASE WHEN lower("
+        + titleExpression
+        + ") LIKE :pattern ESCAPE '\\' THEN 1.0 ELSE 0.5 END AS score";
+  }
+
+  private static String likePattern(String query) {
+    return "%" + query.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+  }
+}
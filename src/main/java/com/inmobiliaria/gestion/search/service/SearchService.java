@@ -0,0 +1,102 @@
+package com.inmobiliaria.gestion.search.service;
+
+import com.inmobiliaria.gestion.exception.InvalidPaginationException;
+import com.inmobiliaria.gestion.exception.InvalidSearchQueryException;
+import com.inmobiliaria.gestion.search.domain.SearchTipo;
+import com.inmobiliaria.gestion.search.dto.SearchPageResponse;
+import com.inmobiliaria.gestion.search.dto.SearchResultResponse;
+import com.inmobiliaria.gestion.search.repository.SearchRepository;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class SearchService {
+
+  public static final int MAX_PAGE_SIZE = 100;
+  public static final int MIN_QUERY_LENGTH = 2;
+  public static final int MAX_QUERY_LENGTH = 200;
+
+  private static final String CURSOR_PREFIX = "search:";
+
+  private final SearchRepository searchRepository;
+
+  public SearchService(SearchRepository searchRepository) {
+    this.searchRepository = searchRepository;
+  }
+
+  /**
+   * Returns one page of matches ordered by relevance. Results are ranked across catalogs, so pages
+   * are addressed by position: the cursor is only meaningful together with the same query and
+   * catalogs it was issued for.
+   *
+   * @param query free text; surrounding and repeated whitespace is ignored
+   * @param tipos catalogs to search; null or empty searches all of them
+   */
+  @Transactional(readOnly = true)
+  public SearchPageResponse search(String query, Set<SearchTipo> tipos, String cursor, int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new InvalidPaginationException(
+          "El parámetro limit debe estar entre 1 y %d".formatted(MAX_PAGE_SIZE));
+    }
+    String normalized = normalize(query);
+    Set<SearchTipo> catalogs =
+        tipos == null || tipos.isEmpty() ? EnumSet.allOf(SearchTipo.class) : tipos;
+    int offset = cursor != null ? decodeCursor(cursor) : 0;
+
+    // Fetch one extra row to know whether another page exists without a count query.
+    List<SearchResultResponse> rows =
+        searchRepository.search(normalized, catalogs, offset, limit + 1);
+    boolean hasMore = rows.size() > limit;
+    List<SearchResultResponse> items = hasMore ? rows.subList(0, limit) : rows;
+    String nextCursor = hasMore ? encodeCursor(offset + limit) : null;
+    return new SearchPageResponse(items, nextCursor, hasMore);
+  }
+
+  /**
+   * Cursor that resumes {@code consumed} results after the position of {@code cursor} (the first
+   * page when null). Lets callers that only used part of a page continue without skipping rows.
+   */
+  public String cursorAfter(String cursor, int consumed) {
+    int offset = cursor != null ? decodeCursor(cursor) : 0;
+    return encodeCursor(offset + consumed);
+  }
+
+  private String normalize(String query) {
+    String normalized =
+        query == null ? "" : query.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    if (normalized.length() < MIN_QUERY_LENGTH || normalized.length() > MAX_QUERY_LENGTH) {
+      throw new InvalidSearchQueryException(
+          "La búsqueda debe tener entre %d y %d caracteres"
+              .formatted(MIN_QUERY_LENGTH, MAX_QUERY_LENGTH));
+    }
+    return normalized;
+  }
+
+  private String encodeCursor(int offset) {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString((CURSOR_PREFIX + offset).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private int decodeCursor(String cursor) {
+    try {
+      String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      if (!decoded.startsWith(CURSOR_PREFIX)) {
+        throw new InvalidPaginationException("Cursor de paginación inválido");
+      }
+      int offset = Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+      if (offset < 0) {
+        throw new InvalidPaginationException("Cursor de paginación inválido");
+      }
+      return offset;
+    } catch (IllegalArgumentException ex) {
+      throw new InvalidPaginationException("Cursor de paginación inválido");
+    }
+  }
+}
@@ -0,0 +1,4 @@
+-- Optimistic-locking version of each catalog row, exposed as the ETag of the item endpoints
+ALTER TABLE propiedades ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE personas ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE inmobiliarias ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,2 @@
+-- Optimistic-locking version of user accounts, so concurrent password or role changes are detected
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
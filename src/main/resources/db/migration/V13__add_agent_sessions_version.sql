@@ -0,0 +1,2 @@
+-- Number of event batches written to each agent session, compared by the in-memory hot tier
+ALTER TABLE agent_sessions ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,6 @@
+-- Session rows are now keyed by a UUID derived from the app name and the ADK session id, which
+-- moves to session_id. Conversations are short-lived, so existing ones are dropped instead of
+-- re-keyed.
+DELETE FROM agent_session_events;
+DELETE FROM agent_sessions;
+ALTER TABLE agent_sessions ADD COLUMN session_id VARCHAR(255) NOT NULL;
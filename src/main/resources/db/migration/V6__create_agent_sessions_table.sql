@@ -0,0 +1,25 @@
+CREATE TABLE agent_sessions (
+    id VARCHAR(64) PRIMARY KEY,
+    app_name VARCHAR(100) NOT NULL,
+    user_id VARCHAR(255) NOT NULL,
+    state TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    last_update_time TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_agent_sessions_app_user ON agent_sessions (app_name, user_id);
+CREATE INDEX idx_agent_sessions_last_update_time ON agent_sessions (last_update_time);
+
+CREATE TABLE agent_session_events (
+    id VARCHAR(64) PRIMARY KEY,
+    session_id VARCHAR(64) NOT NULL,
+    sequence_number INTEGER NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT fk_agent_session_event_session
+        FOREIGN KEY (session_id)
+        REFERENCES agent_sessions (id)
+        ON DELETE CASCADE
+);
+
+CREATE INDEX idx_agent_session_events_session_seq ON agent_session_events (session_id, sequence_number);
@@ -0,0 +1,8 @@
+-- Last modification time of each catalog row, used by the incremental export
+ALTER TABLE propiedades ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE personas ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE inmobiliarias ADD COLUMN updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP NOT NULL;
+
+CREATE INDEX idx_propiedades_updated_at ON propiedades (updated_at, id);
+CREATE INDEX idx_personas_updated_at ON personas (updated_at, id_persona);
+CREATE INDEX idx_inmobiliarias_updated_at ON inmobiliarias (updated_at, id);
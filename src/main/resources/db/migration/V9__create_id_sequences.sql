@@ -0,0 +1,7 @@
+-- Sequences behind the entity ids. Hibernate uses the pooled-lo optimizer: each value it draws
+-- reserves that value and the next 49, so inserts of up to 50 rows need a single sequence call
+-- and can be sent as one JDBC batch. The vendor script V10 moves them past the existing ids.
+CREATE SEQUENCE inmobiliarias_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE propiedades_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE personas_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
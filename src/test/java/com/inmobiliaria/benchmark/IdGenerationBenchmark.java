@@ -0,0 +1,143 @@
+package com.inmobiliaria.benchmark;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Inserts per second through Hibernate with {@code IDENTITY} ids (one INSERT round trip per row to
+ * read the generated key) against sequence ids with the pooled-lo optimizer (one sequence call per
+ * 50 rows and JDBC batches of {@code hibernate.jdbc.batch_size}), using the same settings as the
+ * application. Runs on in-memory H2, so it understates the gap on PostgreSQL, where every saved
+ * round trip is a network hop.
+ *
+ * <p>Kept outside {@code com.inmobiliaria.gestion} so the application's entity scan does not map
+ * its entities in every {@code @SpringBootTest} context.
+ *
+ * <p>Not part of the test suite; run it from the IDE or with {@code java -cp
+ * target/test-classes:<test classpath> com.inmobiliaria.benchmark.IdGenerationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+  /** Rows persisted per transaction, like a bulk create of one chunk. */
+  private static final int ROWS = 200;
+
+  private SessionFactory identity;
+  private SessionFactory pooledLo;
+
+  @Setup
+  public void setUp() {
+    identity = sessionFactory("identity", IdentityRow.class);
+    pooledLo = sessionFactory("pooledlo", SequenceRow.class);
+  }
+
+  @TearDown
+  public void tearDown() {
+    identity.close();
+    pooledLo.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void identity() {
+    insert(identity, IdentityRow::new);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public void pooledLoSequence() {
+    insert(pooledLo, SequenceRow::new);
+  }
+
+  private static void insert(SessionFactory sessionFactory, Function<String, Object> row) {
+    sessionFactory.inTransaction(
+        session -> {
+          for (int i = 0; i < ROWS; i++) {
+            session.persist(row.apply("Propiedad " + i));
+          }
+        });
+  }
+
+  private static SessionFactory sessionFactory(String database, Class<?> entity) {
+    return new Configuration()
+        .setProperty(
+            AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1")
+        .setProperty(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+        .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+        .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, "20")
+        .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+        .setProperty(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled-lo")
+        .addAnnotatedClass(entity)
+        .buildSessionFactory();
+  }
+
+  @Entity
+  @Table(name = "identity_rows")
+  public static class IdentityRow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String nombre;
+
+    protected IdentityRow() {}
+
+    IdentityRow(String nombre) {
+      this.nombre = nombre;
+    }
+  }
+
+  @Entity
+  @Table(name = "sequence_rows")
+  public static class SequenceRow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequence_rows_seq")
+    @SequenceGenerator(
+        name = "sequence_rows_seq", sequenceName = "sequence_rows_seq", allocationSize = 50)
+    private Long id;
+
+    private String nombre;
+
+    protected SequenceRow() {}
+
+    SequenceRow(String nombre) {
+      this.nombre = nombre;
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(IdGenerationBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+}
@@ -0,0 +1,38 @@
+package com.inmobiliaria.gestion.agent;
+
+import com.google.adk.models.BaseLlm;
+import com.google.adk.models.BaseLlmConnection;
+import com.google.adk.models.LlmRequest;
+import com.google.adk.models.LlmResponse;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.function.Function;
+
+/** Offline {@link BaseLlm} for tests: answers every request with a scripted response stream. */
+public class StubLlm extends BaseLlm {
+
+  private final Function<LlmRequest, Flowable<LlmResponse>> script;
+
+  public StubLlm(Function<LlmRequest, Flowable<LlmResponse>> script) {
+    super("stub-model");
+    this.script = script;
+  }
+
+  public static LlmResponse text(String text, boolean partial) {
+    return LlmResponse.builder()
+        .content(Content.builder().role("model").parts(Part.fromText(text)).build())
+        .partial(partial)
+        .build();
+  }
+
+  @Override
+  public Flowable<LlmResponse> generateContent(LlmRequest llmRequest, boolean stream) {
+    return Flowable.defer(() -> script.apply(llmRequest));
+  }
+
+  @Override
+  public BaseLlmConnection connect(LlmRequest llmRequest) {
+    throw new UnsupportedOperationException("Live connections are not supported by the stub");
+  }
+}
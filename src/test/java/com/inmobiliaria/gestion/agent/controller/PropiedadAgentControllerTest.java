@@ -1,19 +1,27 @@
 package com.inmobiliaria.gestion.agent.controller;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.inmobiliaria.gestion.agent.dto.ChatRequest;
 import com.inmobiliaria.gestion.agent.dto.ChatResponse;
+import com.inmobiliaria.gestion.agent.exception.AgentOverloadedException;
 import com.inmobiliaria.gestion.agent.service.AgentChatService;
 import com.inmobiliaria.gestion.auth.domain.UserAccount;
 import com.inmobiliaria.gestion.auth.domain.UserRole;
 import com.inmobiliaria.gestion.auth.repository.UserAccountRepository;
 import com.inmobiliaria.gestion.auth.security.JwtUtil;
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +33,8 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -109,4 +119,76 @@ class PropiedadAgentControllerTest {
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.sessionId").value("prop-session-001"));
   }
+
+  @Test
+  void chatStream_validRequest_streamsServerSentEvents() throws Exception {
+    given(agentChatService.streamChat(any(), any()))
+        .willAnswer(
+            invocation -> {
+              ChatRequest chatRequest = invocation.getArgument(1);
+              SseEmitter emitter = new SseEmitter();
+              emitter.send(
+                  SseEmitter.event()
+                      .name("done")
+                      .data(
+                          ChatResponse.success("Respuesta simulada", chatRequest.getSessionId()),
+                          MediaType.APPLICATION_JSON));
+              emitter.complete();
+              return emitter;
+            });
+    ChatRequest request = new ChatRequest("Lista las propiedades", "prop-stream-001");
+
+    MvcResult result =
+        mockMvc
+            .perform(
+                post("/api/agent/propiedades/chat/stream")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                    .content(objectMapper.writeValueAsString(request)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc
+        .perform(asyncDispatch(result))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+        .andExpect(content().string(containsString("event:done")))
+        .andExpect(content().string(containsString("\"sessionId\":\"prop-stream-001\"")));
+  }
+
+  @Test
+  void chat_agentSaturated_returnsTooManyRequestsWithRetryAfter() throws Exception {
+    willThrow(new AgentOverloadedException(Duration.ofSeconds(7)))
+        .given(agentChatService)
+        .executeChat(any(), any());
+    ChatRequest request = new ChatRequest("Lista las propiedades", null);
+
+    mockMvc
+        .perform(
+            post("/api/agent/propiedades/chat")
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"))
+        .andExpect(jsonPath("$.message").exists());
+  }
+
+  @Test
+  void chatStream_agentSaturated_returnsTooManyRequestsWithRetryAfter() throws Exception {
+    given(agentChatService.streamChat(any(), any()))
+        .willThrow(new AgentOverloadedException(Duration.ofSeconds(3)));
+    ChatRequest request = new ChatRequest("Lista las propiedades", null);
+
+    mockMvc
+        .perform(
+            post("/api/agent/propiedades/chat/stream")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+  }
 }
@@ -0,0 +1,135 @@
+package com.inmobiliaria.gestion.agent.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.adk.agents.LlmAgent;
+import com.google.adk.agents.RunConfig;
+import com.google.adk.models.LlmResponse;
+import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.sessions.Session;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.inmobiliaria.gestion.agent.InmobiliariaAgent;
+import com.inmobiliaria.gestion.agent.PersonaAgent;
+import com.inmobiliaria.gestion.agent.PropiedadAgent;
+import com.inmobiliaria.gestion.agent.StubLlm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Runs the router over scripted models and counts the model calls each agent receives. */
+class CatalogRouterAgentTest {
+
+  private static final String COORDINATOR = "coordinator";
+
+  private final Map<String, AtomicInteger> modelCalls = new ConcurrentHashMap<>();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private LlmResponse coordinatorAnswer;
+  private InMemoryRunner runner;
+  private Session session;
+
+  @BeforeEach
+  void setUp() {
+    coordinatorAnswer = StubLlm.text("¿Sobre qué catálogo es la consulta?", false);
+    LlmAgent coordinator =
+        LlmAgent.builder()
+            .name(COORDINATOR)
+            .model(model(COORDINATOR, () -> coordinatorAnswer))
+            .instruction("Transfiere al asistente adecuado.")
+            .subAgents(
+                domainAgent(InmobiliariaAgent.ROOT_AGENT),
+                domainAgent(PropiedadAgent.ROOT_AGENT),
+                domainAgent(PersonaAgent.ROOT_AGENT))
+            .build();
+    runner = new InMemoryRunner(new CatalogRouterAgent("router", coordinator, meterRegistry));
+    session =
+        runner.sessionService().createSession(runner.appName(), "user", null, "s-1").blockingGet();
+  }
+
+  @Test
+  @DisplayName("Un mensaje de un solo catálogo va directo a su agente, sin el coordinador")
+  void shouldSkipCoordinatorWhenCatalogIsObvious() {
+    send("Lista las propiedades");
+
+    assertThat(calls(PropiedadAgent.ROOT_AGENT)).isEqualTo(1);
+    assertThat(calls(COORDINATOR)).isZero();
+    assertThat(routes("keyword")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Un seguimiento sin catálogo sigue con el agente que respondió antes")
+  void shouldKeepFollowUpsWithTheCurrentAgent() {
+    send("Lista las personas");
+    send("y la 5?");
+
+    assertThat(calls(PersonaAgent.ROOT_AGENT)).isEqualTo(2);
+    assertThat(calls(COORDINATOR)).isZero();
+  }
+
+  @Test
+  @DisplayName("Un mensaje ambiguo lo resuelve el coordinador transfiriendo al agente adecuado")
+  void shouldLetCoordinatorTransferAmbiguousMessages() {
+    coordinatorAnswer =
+        LlmResponse.builder()
+            .content(
+                Content.builder()
+                    .role("model")
+                    .parts(
+                        Part.fromFunctionCall(
+                            "transfer_to_agent",
+                            Map.of("agent_name", InmobiliariaAgent.ROOT_AGENT)))
+                    .build())
+            .build();
+
+    send("Propiedades de la inmobiliaria 2");
+
+    assertThat(calls(COORDINATOR)).isEqualTo(1);
+    assertThat(calls(InmobiliariaAgent.ROOT_AGENT)).isEqualTo(1);
+    assertThat(calls(PropiedadAgent.ROOT_AGENT)).isZero();
+    assertThat(routes("model")).isEqualTo(1);
+  }
+
+  private LlmAgent domainAgent(String name) {
+    LlmResponse answer = StubLlm.text("Respuesta de " + name, false);
+    return LlmAgent.builder()
+        .name(name)
+        .description("Agente de prueba " + name)
+        .model(model(name, () -> answer))
+        .instruction("Responde en español.")
+        .build();
+  }
+
+  private StubLlm model(String agent, Supplier<LlmResponse> answer) {
+    return new StubLlm(
+        request -> {
+          modelCalls.computeIfAbsent(agent, key -> new AtomicInteger()).incrementAndGet();
+          return Flowable.just(answer.get());
+        });
+  }
+
+  private void send(String message) {
+    Session current =
+        runner
+            .sessionService()
+            .getSession(runner.appName(), "user", session.id(), Optional.empty())
+            .blockingGet();
+    runner
+        .runAsync(current, Content.fromParts(Part.fromText(message)), RunConfig.builder().build())
+        .blockingSubscribe();
+  }
+
+  private int calls(String agent) {
+    return modelCalls.getOrDefault(agent, new AtomicInteger()).get();
+  }
+
+  private double routes(String route) {
+    return meterRegistry.get("agent.router.routes").tag("route", route).counter().count();
+  }
+}
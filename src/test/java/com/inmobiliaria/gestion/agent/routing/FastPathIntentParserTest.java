@@ -0,0 +1,50 @@
+package com.inmobiliaria.gestion.agent.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FastPathIntentParserTest {
+
+  @Test
+  @DisplayName("Reconoce listados de un catálogo en español e inglés")
+  void shouldParseListCommands() {
+    FastPathIntent lista = FastPathIntentParser.parse("Lista todas las Propiedades.").orElseThrow();
+    assertThat(lista.getDomain()).isEqualTo(CatalogDomain.PROPIEDAD);
+    assertThat(lista.getAction()).isEqualTo(FastPathIntent.Action.LIST);
+    assertThat(lista.getId()).isNull();
+    assertThat(lista.isEnglish()).isFalse();
+
+    FastPathIntent list = FastPathIntentParser.parse("list agencies please").orElseThrow();
+    assertThat(list.getDomain()).isEqualTo(CatalogDomain.INMOBILIARIA);
+    assertThat(list.isEnglish()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Reconoce la consulta de un registro por id")
+  void shouldParseGetCommands() {
+    FastPathIntent persona = FastPathIntentParser.parse("Muéstrame la persona #12").orElseThrow();
+    assertThat(persona.getDomain()).isEqualTo(CatalogDomain.PERSONA);
+    assertThat(persona.getAction()).isEqualTo(FastPathIntent.Action.GET);
+    assertThat(persona.getId()).isEqualTo(12);
+
+    FastPathIntent property = FastPathIntentParser.parse("Show property with id 5").orElseThrow();
+    assertThat(property.getDomain()).isEqualTo(CatalogDomain.PROPIEDAD);
+    assertThat(property.getId()).isEqualTo(5);
+    assertThat(property.isEnglish()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Deja al modelo los comandos con condiciones extra o de escritura")
+  void shouldLeaveOtherMessagesToTheModel() {
+    assertThat(FastPathIntentParser.parse("Muestra las propiedades de la inmobiliaria 2"))
+        .isEmpty();
+    assertThat(FastPathIntentParser.parse("¿Qué inmobiliarias tienen casas?")).isEmpty();
+    assertThat(FastPathIntentParser.parse("Elimina la propiedad 5")).isEmpty();
+    assertThat(FastPathIntentParser.parse("delete property 5")).isEmpty();
+    assertThat(FastPathIntentParser.parse("Lista las casas")).isEmpty();
+    assertThat(FastPathIntentParser.parse("Muestra la propiedad 99999999999")).isEmpty();
+    assertThat(FastPathIntentParser.parse(null)).isEmpty();
+  }
+}
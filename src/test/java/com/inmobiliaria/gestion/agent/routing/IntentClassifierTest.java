@@ -0,0 +1,44 @@
+package com.inmobiliaria.gestion.agent.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class IntentClassifierTest {
+
+  @Test
+  @DisplayName("Un mensaje que nombra un solo catálogo se clasifica sin el modelo")
+  void shouldClassifyMessageNamingOneCatalog() {
+    assertThat(IntentClassifier.classify("Lista las inmobiliarias"))
+        .contains(CatalogDomain.INMOBILIARIA);
+    assertThat(IntentClassifier.classify("Registra dos casas en Av. Central"))
+        .contains(CatalogDomain.PROPIEDAD);
+    assertThat(IntentClassifier.classify("Show me the clients")).contains(CatalogDomain.PERSONA);
+  }
+
+  @Test
+  @DisplayName("Mayúsculas y acentos no cambian la clasificación")
+  void shouldIgnoreCaseAndAccents() {
+    assertThat(IntentClassifier.classify("¿Qué PROPIEDADES hay?"))
+        .contains(CatalogDomain.PROPIEDAD);
+    assertThat(IntentClassifier.classify("Agéncia 3, por favor"))
+        .contains(CatalogDomain.INMOBILIARIA);
+  }
+
+  @Test
+  @DisplayName("Mensajes sin catálogo o con varios quedan para el coordinador")
+  void shouldNotClassifyAmbiguousMessages() {
+    assertThat(IntentClassifier.classify("y la 5?")).isEmpty();
+    assertThat(IntentClassifier.classify("Propiedades de la inmobiliaria 2")).isEmpty();
+    assertThat(IntentClassifier.domains("Propiedades de la inmobiliaria 2"))
+        .containsExactlyInAnyOrder(CatalogDomain.PROPIEDAD, CatalogDomain.INMOBILIARIA);
+    assertThat(IntentClassifier.classify(null)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Solo cuentan palabras completas")
+  void shouldMatchWholeWordsOnly() {
+    assertThat(IntentClassifier.classify("casamiento")).isEmpty();
+  }
+}
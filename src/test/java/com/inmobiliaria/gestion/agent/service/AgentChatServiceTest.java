@@ -0,0 +1,498 @@
+package com.inmobiliaria.gestion.agent.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.adk.agents.LlmAgent;
+import com.google.adk.artifacts.InMemoryArtifactService;
+import com.google.adk.events.Event;
+import com.google.adk.models.LlmResponse;
+import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.runner.Runner;
+import com.google.adk.sessions.BaseSessionService;
+import com.google.adk.sessions.GetSessionConfig;
+import com.google.adk.sessions.InMemorySessionService;
+import com.google.adk.sessions.ListEventsResponse;
+import com.google.adk.sessions.ListSessionsResponse;
+import com.google.adk.sessions.Session;
+import com.google.adk.tools.FunctionTool;
+import com.google.genai.errors.ClientException;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.inmobiliaria.gestion.agent.PropiedadAgent;
+import com.inmobiliaria.gestion.agent.StubLlm;
+import com.inmobiliaria.gestion.agent.dto.ChatRequest;
+import com.inmobiliaria.gestion.agent.dto.ChatResponse;
+import com.inmobiliaria.gestion.agent.dto.ChatStreamEvent;
+import com.inmobiliaria.gestion.agent.exception.AgentChatException;
+import com.inmobiliaria.gestion.agent.exception.AgentOverloadedException;
+import com.inmobiliaria.gestion.agent.tools.PropiedadTool;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
+import com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class AgentChatServiceTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final AgentConcurrencyLimiter limiter =
+      new AgentConcurrencyLimiter(4, 1, 8, 10, 5, 5_000, meterRegistry);
+  private final AgentResponseCache responseCache =
+      new AgentResponseCache(true, 100, 300, meterRegistry);
+  private final AgentChatService chatService = chatServiceWith(limiter);
+
+  @Test
+  @DisplayName("Debe emitir cada fragmento como evento SSE y cerrar con la respuesta completa")
+  void shouldStreamPartialAndFinalEvents() throws Exception {
+    AtomicBoolean modelOnVirtualThread = new AtomicBoolean();
+    InMemoryRunner runner =
+        runnerFor(
+            Flowable.defer(
+                () -> {
+                  modelOnVirtualThread.set(Thread.currentThread().isVirtual());
+                  return Flowable.just(
+                      StubLlm.text("Hay 3 ", true),
+                      StubLlm.text("propiedades", true),
+                      StubLlm.text("Hay 3 propiedades", false));
+                }));
+    RecordingEmitter emitter = new RecordingEmitter(false);
+
+    chatService.streamChat(runner, new ChatRequest("Lista las propiedades", "s-1"), emitter);
+
+    assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(emitter.names())
+        .containsExactly(
+            SseChatSubscriber.EVENT_PARTIAL,
+            SseChatSubscriber.EVENT_PARTIAL,
+            SseChatSubscriber.EVENT_FINAL,
+            SseChatSubscriber.EVENT_DONE);
+    ChatStreamEvent first = (ChatStreamEvent) emitter.frames.get(0).data();
+    assertThat(first.getContent()).isEqualTo("Hay 3 ");
+    assertThat(first.isPartial()).isTrue();
+    assertThat(first.getSessionId()).isEqualTo("s-1");
+    ChatResponse done = (ChatResponse) emitter.frames.get(3).data();
+    assertThat(done.isSuccess()).isTrue();
+    assertThat(done.getResponse()).isEqualTo("Hay 3 propiedades");
+    assertThat(modelOnVirtualThread).isTrue();
+    awaitIdle(limiter);
+  }
+
+  @Test
+  @DisplayName("Debe dejar de pedir eventos cuando el cliente se desconecta")
+  void shouldStopForwardingWhenClientGoesAway() throws Exception {
+    CountDownLatch modelFinished = new CountDownLatch(1);
+    InMemoryRunner runner =
+        runnerFor(
+            Flowable.range(0, 20)
+                .map(i -> StubLlm.text("chunk " + i, true))
+                .concatWith(Flowable.just(StubLlm.text("respuesta", false)))
+                .doFinally(modelFinished::countDown));
+    RecordingEmitter emitter = new RecordingEmitter(true);
+
+    chatService.streamChat(runner, new ChatRequest("Hola", "s-2"), emitter);
+
+    assertThat(modelFinished.await(5, TimeUnit.SECONDS)).isTrue();
+    Thread.sleep(200);
+    assertThat(emitter.sendAttempts).hasValue(1);
+    assertThat(emitter.completed.getCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Debe enviar un evento de error cuando falla el modelo")
+  void shouldSendErrorEventWhenModelFails() throws Exception {
+    InMemoryRunner runner = runnerFor(Flowable.error(new IllegalStateException("modelo caído")));
+    RecordingEmitter emitter = new RecordingEmitter(false);
+
+    chatService.streamChat(runner, new ChatRequest("Hola", "s-3"), emitter);
+
+    assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(emitter.names()).containsExactly(SseChatSubscriber.EVENT_ERROR);
+    ChatResponse error = (ChatResponse) emitter.frames.get(0).data();
+    assertThat(error.isSuccess()).isFalse();
+    assertThat(error.getError()).contains("modelo caído");
+    awaitIdle(limiter);
+  }
+
+  @Test
+  @DisplayName("Debe rechazar con 429 cuando el agente está saturado en lugar de encolar sin fin")
+  void shouldRejectWhenAgentIsSaturated() throws Exception {
+    AgentConcurrencyLimiter singleSlot =
+        new AgentConcurrencyLimiter(1, 1, 1, 0, 0, 5_000, meterRegistry);
+    AgentChatService saturated = chatServiceWith(singleSlot);
+    CountDownLatch modelStarted = new CountDownLatch(1);
+    CountDownLatch releaseModel = new CountDownLatch(1);
+    AtomicInteger modelCalls = new AtomicInteger();
+    InMemoryRunner runner =
+        runnerFor(
+            Flowable.defer(
+                () -> {
+                  modelCalls.incrementAndGet();
+                  modelStarted.countDown();
+                  releaseModel.await();
+                  return Flowable.just(StubLlm.text("Listo", false));
+                }));
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<ChatResponse> first =
+          executor.submit(() -> saturated.executeChat(runner, new ChatRequest("Hola", "s-4")));
+      assertThat(modelStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+      assertThatThrownBy(() -> saturated.executeChat(runner, new ChatRequest("Hola", "s-5")))
+          .isInstanceOf(AgentOverloadedException.class)
+          .satisfies(
+              ex ->
+                  assertThat(((AgentOverloadedException) ex).getRetryAfter())
+                      .isGreaterThanOrEqualTo(Duration.ofSeconds(1)));
+
+      releaseModel.countDown();
+      assertThat(first.get(5, TimeUnit.SECONDS).getResponse()).isEqualTo("Listo");
+    }
+    assertThat(modelCalls).hasValue(1);
+    assertThat(singleSlot.getInFlight()).isZero();
+  }
+
+  @Test
+  @DisplayName("Debe reducir la concurrencia cuando el modelo responde con cuota agotada")
+  void shouldBackOffWhenModelIsRateLimited() {
+    InMemoryRunner runner =
+        runnerFor(Flowable.error(new ClientException(429, "RESOURCE_EXHAUSTED", "cuota agotada")));
+
+    assertThatThrownBy(() -> chatService.executeChat(runner, new ChatRequest("Hola", "s-6")))
+        .isInstanceOf(AgentChatException.class);
+
+    assertThat(limiter.getLimit()).isEqualTo(2.0);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  @DisplayName("Debe crear una sola sesión ante peticiones concurrentes con el mismo id")
+  void shouldCreateSessionOnceUnderConcurrentRequests() throws Exception {
+    CountingSessionService sessionService = new CountingSessionService();
+    Runner runner =
+        new Runner(
+            runnerFor(Flowable.empty()).agent(),
+            "stub-app",
+            new InMemoryArtifactService(),
+            sessionService);
+    int requests = 16;
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Session>> results = new ArrayList<>();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < requests; i++) {
+        results.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  return chatService.resolveSession(runner, "s-concurrente");
+                }));
+      }
+      start.countDown();
+      for (Future<Session> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS).id()).isEqualTo("s-concurrente");
+      }
+    }
+
+    assertThat(sessionService.creations).hasValue(1);
+    double hits = meterRegistry.counter("agent.sessions.lookups", "result", "hit").count();
+    double misses = meterRegistry.counter("agent.sessions.lookups", "result", "miss").count();
+    assertThat(hits + misses).isEqualTo(requests);
+    assertThat(misses).isGreaterThanOrEqualTo(1);
+
+    chatService.resolveSession(runner, "s-concurrente");
+    assertThat(meterRegistry.counter("agent.sessions.lookups", "result", "hit").count())
+        .isEqualTo(hits + 1);
+  }
+
+  @Test
+  @DisplayName("Debe servir desde caché una consulta de solo lectura repetida sin llamar al modelo")
+  void shouldServeRepeatedReadOnlyPromptFromCache() {
+    AtomicInteger modelCalls = new AtomicInteger();
+    InMemoryRunner runner = toolRunner("listAllPropiedades", modelCalls);
+
+    ChatResponse first =
+        chatService.executeChat(runner, new ChatRequest("Lista las propiedades", "s-7"));
+    int callsAfterFirstTurn = modelCalls.get();
+    ChatResponse second =
+        chatService.executeChat(runner, new ChatRequest("  lista las PROPIEDADES?", "s-7b"));
+
+    assertThat(callsAfterFirstTurn).isEqualTo(2);
+    assertThat(modelCalls).hasValue(callsAfterFirstTurn);
+    assertThat(second.getResponse()).isEqualTo(first.getResponse()).isEqualTo("Hay 2 propiedades");
+    Session session =
+        runner
+            .sessionService()
+            .getSession("stub-agent", "s-7b", "s-7b", Optional.empty())
+            .blockingGet();
+    assertThat(session.events().get(session.events().size() - 1).stringifyContent())
+        .isEqualTo("Hay 2 propiedades");
+
+    responseCache.onDataChanged(new DataChangedEvent(DataChangedEvent.PROPIEDAD, 1L));
+    chatService.executeChat(runner, new ChatRequest("Lista las propiedades", "s-7c"));
+    assertThat(modelCalls).hasValue(callsAfterFirstTurn * 2);
+  }
+
+  @Test
+  @DisplayName("No debe usar la caché en turnos que dependen de la conversación")
+  void shouldNotCacheFollowUpTurns() {
+    AtomicInteger modelCalls = new AtomicInteger();
+    InMemoryRunner runner = toolRunner("listAllPropiedades", modelCalls);
+
+    chatService.executeChat(runner, new ChatRequest("¿y la 5?", "s-10"));
+    chatService.executeChat(runner, new ChatRequest("Lista las propiedades", "s-11"));
+    chatService.executeChat(runner, new ChatRequest("¿y la 5?", "s-11"));
+    chatService.executeChat(runner, new ChatRequest("¿y la 5?", "s-11"));
+
+    assertThat(modelCalls).hasValue(8);
+  }
+
+  @Test
+  @DisplayName("No debe cachear turnos que invocan herramientas de escritura")
+  void shouldNotCacheTurnsWithWriteTools() {
+    AtomicInteger modelCalls = new AtomicInteger();
+    InMemoryRunner runner = toolRunner("deletePropiedad", modelCalls);
+
+    chatService.executeChat(runner, new ChatRequest("Elimina la propiedad", "s-8"));
+    chatService.executeChat(runner, new ChatRequest("Elimina la propiedad", "s-8"));
+
+    assertThat(modelCalls).hasValue(4);
+  }
+
+  @Test
+  @DisplayName("Debe responder comandos simples desde la herramienta sin llamar al modelo")
+  void shouldAnswerSimpleCommandWithoutModel() {
+    PropiedadTool propiedadTool = Mockito.mock(PropiedadTool.class);
+    Mockito.when(propiedadTool.getPropiedadById(5))
+        .thenReturn(
+            Map.of(
+                "success",
+                true,
+                "propiedad",
+                new PropiedadResponse(
+                    5L, "Casa Sol", PropiedadTipo.CASA, "Calle 1", null, 10L, "Inmo Norte")));
+    AgentChatService fastChatService =
+        chatServiceWith(
+            limiter, new FastPathResponder(true, null, propiedadTool, null, meterRegistry));
+    AtomicInteger modelCalls = new AtomicInteger();
+    InMemoryRunner runner =
+        new InMemoryRunner(
+            LlmAgent.builder()
+                .name(PropiedadAgent.ROOT_AGENT)
+                .model(
+                    new StubLlm(
+                        request -> {
+                          modelCalls.incrementAndGet();
+                          return Flowable.just(StubLlm.text("Respuesta del modelo", false));
+                        }))
+                .instruction("Responde en español.")
+                .build());
+
+    ChatResponse response =
+        fastChatService.executeChat(runner, new ChatRequest("Muestra la propiedad 5", "s-9"));
+    fastChatService.executeChat(runner, new ChatRequest("¿Y su dirección completa?", "s-9"));
+
+    assertThat(response.getResponse()).startsWith("Propiedad #5:").contains("Casa Sol");
+    assertThat(modelCalls).hasValue(1);
+    Session session =
+        runner
+            .sessionService()
+            .getSession(runner.appName(), "s-9", "s-9", Optional.empty())
+            .blockingGet();
+    assertThat(session.events().get(1).author()).isEqualTo(PropiedadAgent.ROOT_AGENT);
+    assertThat(session.events().get(1).stringifyContent()).isEqualTo(response.getResponse());
+  }
+
+  /**
+   * Runner whose model first calls {@code toolName} and answers once it sees the tool result, so
+   * every turn costs two model calls.
+   */
+  private InMemoryRunner toolRunner(String toolName, AtomicInteger modelCalls) {
+    CatalogTool tool = new CatalogTool();
+    LlmAgent agent =
+        LlmAgent.builder()
+            .name("stub-agent")
+            .model(
+                new StubLlm(
+                    request -> {
+                      modelCalls.incrementAndGet();
+                      List<Content> contents = request.contents();
+                      boolean toolAnswered =
+                          contents.get(contents.size() - 1).parts().orElse(List.of()).stream()
+                              .anyMatch(part -> part.functionResponse().isPresent());
+                      if (toolAnswered) {
+                        return Flowable.just(StubLlm.text("Hay 2 propiedades", false));
+                      }
+                      return Flowable.just(
+                          LlmResponse.builder()
+                              .content(
+                                  Content.builder()
+                                      .role("model")
+                                      .parts(Part.fromFunctionCall(toolName, Map.of()))
+                                      .build())
+                              .build());
+                    }))
+            .instruction("Responde en español.")
+            .tools(
+                FunctionTool.create(tool, "listAllPropiedades"),
+                FunctionTool.create(tool, "deletePropiedad"))
+            .build();
+    return new InMemoryRunner(agent);
+  }
+
+  private AgentChatService chatServiceWith(AgentConcurrencyLimiter concurrencyLimiter) {
+    return chatServiceWith(
+        concurrencyLimiter, new FastPathResponder(false, null, null, null, meterRegistry));
+  }
+
+  private AgentChatService chatServiceWith(
+      AgentConcurrencyLimiter concurrencyLimiter, FastPathResponder fastPath) {
+    return new AgentChatService(
+        Schedulers.from(Executors.newVirtualThreadPerTaskExecutor()),
+        5_000,
+        concurrencyLimiter,
+        responseCache,
+        fastPath,
+        meterRegistry);
+  }
+
+  /** The permit of a stream is returned right after its terminal frame, so poll briefly. */
+  private static void awaitIdle(AgentConcurrencyLimiter concurrencyLimiter)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (concurrencyLimiter.getInFlight() > 0 && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(concurrencyLimiter.getInFlight()).isZero();
+  }
+
+  private InMemoryRunner runnerFor(Flowable<LlmResponse> responses) {
+    LlmAgent agent =
+        LlmAgent.builder()
+            .name("stub-agent")
+            .model(new StubLlm(request -> responses))
+            .instruction("Responde en español.")
+            .build();
+    return new InMemoryRunner(agent);
+  }
+
+  /** Minimal tool set: one read and one write. */
+  public static final class CatalogTool {
+
+    public Map<String, Object> listAllPropiedades() {
+      return Map.of("success", true, "count", 2);
+    }
+
+    public Map<String, Object> deletePropiedad() {
+      return Map.of("success", true);
+    }
+  }
+
+  /** Captures frames instead of writing them to a servlet response. */
+  private static final class RecordingEmitter extends SseEmitter {
+
+    private final List<ServerSentEvent<Object>> frames = new CopyOnWriteArrayList<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private final AtomicInteger sendAttempts = new AtomicInteger();
+    private final boolean disconnected;
+
+    private RecordingEmitter(boolean disconnected) {
+      this.disconnected = disconnected;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      sendAttempts.incrementAndGet();
+      if (disconnected) {
+        throw new IOException("Broken pipe");
+      }
+      String name = null;
+      Object data = null;
+      for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+        Object value = part.getData();
+        if (!(value instanceof String)) {
+          data = value;
+        } else if (((String) value).startsWith("event:")) {
+          String text = (String) value;
+          name = text.substring("event:".length(), text.indexOf('\n'));
+        }
+      }
+      frames.add(ServerSentEvent.builder(data).event(name).build());
+    }
+
+    @Override
+    public void complete() {
+      completed.countDown();
+    }
+
+    private List<String> names() {
+      return frames.stream().map(ServerSentEvent::event).toList();
+    }
+  }
+
+  /** In-memory session service that counts how many sessions were created. */
+  private static final class CountingSessionService implements BaseSessionService {
+
+    private final InMemorySessionService delegate = new InMemorySessionService();
+    private final AtomicInteger creations = new AtomicInteger();
+
+    @Override
+    public Single<Session> createSession(
+        String appName, String userId, ConcurrentMap<String, Object> state, String sessionId) {
+      return delegate
+          .createSession(appName, userId, state, sessionId)
+          .doOnSuccess(session -> creations.incrementAndGet());
+    }
+
+    @Override
+    public Maybe<Session> getSession(
+        String appName, String userId, String sessionId, Optional<GetSessionConfig> config) {
+      return delegate.getSession(appName, userId, sessionId, config);
+    }
+
+    @Override
+    public Single<ListSessionsResponse> listSessions(String appName, String userId) {
+      return delegate.listSessions(appName, userId);
+    }
+
+    @Override
+    public Completable deleteSession(String appName, String userId, String sessionId) {
+      return delegate.deleteSession(appName, userId, sessionId);
+    }
+
+    @Override
+    public Single<ListEventsResponse> listEvents(String appName, String userId, String sessionId) {
+      return delegate.listEvents(appName, userId, sessionId);
+    }
+
+    @Override
+    public Single<Event> appendEvent(Session session, Event event) {
+      return delegate.appendEvent(session, event);
+    }
+  }
+}
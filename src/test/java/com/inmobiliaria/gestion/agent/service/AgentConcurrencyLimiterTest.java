@@ -0,0 +1,158 @@
+package com.inmobiliaria.gestion.agent.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.genai.errors.ClientException;
+import com.inmobiliaria.gestion.agent.exception.AgentOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AgentConcurrencyLimiterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Debe encolar por encima del límite y conceder el turno al liberar")
+  void shouldQueueBeyondLimitAndGrantOnRelease() throws Exception {
+    AgentConcurrencyLimiter limiter = limiter(1, 10, 10, 5_000);
+    AgentConcurrencyLimiter.Permit held = limiter.acquire("user:1");
+
+    Future<AgentConcurrencyLimiter.Permit> waiting =
+        executor.submit(() -> limiter.acquire("user:1"));
+    awaitQueued(limiter, 1);
+    assertThat(waiting.isDone()).isFalse();
+
+    held.release(null);
+
+    waiting.get(5, TimeUnit.SECONDS).release(null);
+    assertThat(limiter.getQueued()).isZero();
+    assertThat(limiter.getInFlight()).isZero();
+    assertThat(meterRegistry.timer("agent.limiter.wait").count()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Debe atender a los usuarios por turnos para que nadie acapare el agente")
+  void shouldServeUsersRoundRobin() throws Exception {
+    AgentConcurrencyLimiter limiter = limiter(1, 10, 10, 5_000);
+    AgentConcurrencyLimiter.Permit held = limiter.acquire("user:1");
+    List<String> grants = new CopyOnWriteArrayList<>();
+
+    Future<?> first = executor.submit(() -> takeAndRelease(limiter, "user:1", "a1", grants));
+    awaitQueued(limiter, 1);
+    Future<?> second = executor.submit(() -> takeAndRelease(limiter, "user:1", "a2", grants));
+    awaitQueued(limiter, 2);
+    Future<?> other = executor.submit(() -> takeAndRelease(limiter, "user:2", "b1", grants));
+    awaitQueued(limiter, 3);
+
+    held.release(null);
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+    other.get(5, TimeUnit.SECONDS);
+
+    assertThat(grants).containsExactly("a1", "b1", "a2");
+  }
+
+  @Test
+  @DisplayName("Debe rechazar con Retry-After cuando la cola del usuario está llena")
+  void shouldRejectWhenUserQueueIsFull() throws Exception {
+    AgentConcurrencyLimiter limiter = limiter(1, 10, 1, 5_000);
+    AgentConcurrencyLimiter.Permit held = limiter.acquire("user:1");
+    Future<AgentConcurrencyLimiter.Permit> queued =
+        executor.submit(() -> limiter.acquire("user:1"));
+    awaitQueued(limiter, 1);
+
+    assertThatThrownBy(() -> limiter.acquire("user:1"))
+        .isInstanceOf(AgentOverloadedException.class)
+        .satisfies(
+            ex ->
+                assertThat(((AgentOverloadedException) ex).getRetryAfter())
+                    .isGreaterThanOrEqualTo(Duration.ofSeconds(1)));
+    Future<AgentConcurrencyLimiter.Permit> otherUser =
+        executor.submit(() -> limiter.acquire("user:2"));
+    awaitQueued(limiter, 2);
+
+    held.release(null);
+    queued.get(5, TimeUnit.SECONDS).release(null);
+    otherUser.get(5, TimeUnit.SECONDS).release(null);
+    assertThat(meterRegistry.counter("agent.limiter.rejections", "reason", "queue_full").count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Debe rechazar cuando la espera supera el plazo máximo")
+  void shouldRejectWhenWaitExceedsDeadline() {
+    AgentConcurrencyLimiter limiter = limiter(1, 10, 10, 100);
+    AgentConcurrencyLimiter.Permit held = limiter.acquire("user:1");
+
+    assertThatThrownBy(() -> limiter.acquire("user:2"))
+        .isInstanceOf(AgentOverloadedException.class);
+
+    assertThat(limiter.getQueued()).isZero();
+    assertThat(meterRegistry.counter("agent.limiter.rejections", "reason", "deadline").count())
+        .isEqualTo(1);
+    held.release(null);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  @DisplayName(
+      "Debe reducir el límite a la mitad ante saturación del modelo y recuperarlo poco a poco")
+  void shouldAdaptLimitToModelOverload() {
+    AgentConcurrencyLimiter limiter =
+        new AgentConcurrencyLimiter(4, 1, 8, 10, 10, 5_000, meterRegistry);
+    AgentConcurrencyLimiter.Permit[] permits = new AgentConcurrencyLimiter.Permit[4];
+    for (int i = 0; i < permits.length; i++) {
+      permits[i] = limiter.acquire("user:1");
+    }
+
+    permits[0].release(
+        new RuntimeException(new ClientException(429, "RESOURCE_EXHAUSTED", "quota")));
+    assertThat(limiter.getLimit()).isEqualTo(2.0);
+
+    permits[1].release(new IllegalStateException("fallo de herramienta"));
+    assertThat(limiter.getLimit()).isEqualTo(2.0);
+
+    permits[2].release(null);
+    permits[3].release(null);
+    assertThat(limiter.getLimit()).isGreaterThan(2.0).isLessThan(3.0);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  private AgentConcurrencyLimiter limiter(
+      int limit, int maxQueue, int maxQueuePerUser, long maxWaitMillis) {
+    return new AgentConcurrencyLimiter(
+        limit, 1, limit, maxQueue, maxQueuePerUser, maxWaitMillis, meterRegistry);
+  }
+
+  private static void takeAndRelease(
+      AgentConcurrencyLimiter limiter, String userKey, String label, List<String> grants) {
+    AgentConcurrencyLimiter.Permit permit = limiter.acquire(userKey);
+    grants.add(label);
+    permit.release(null);
+  }
+
+  private static void awaitQueued(AgentConcurrencyLimiter limiter, int expected)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (limiter.getQueued() < expected && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(limiter.getQueued()).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,54 @@
+package com.inmobiliaria.gestion.agent.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AgentResponseCacheTest {
+
+  private final AgentResponseCache cache =
+      new AgentResponseCache(true, 100, 300, new SimpleMeterRegistry());
+
+  @Test
+  @DisplayName("Debe tratar como iguales los prompts que solo difieren en formato")
+  void shouldNormalizePrompts() {
+    cache.put(cache.keyFor("propiedad-agent", "Lista las propiedades"), "Hay 2");
+
+    assertThat(cache.get(cache.keyFor("propiedad-agent", "  ¿lista   las PROPIEDADES?  ")))
+        .isEqualTo("Hay 2");
+    assertThat(cache.get(cache.keyFor("persona-agent", "Lista las propiedades"))).isNull();
+  }
+
+  @Test
+  @DisplayName("Debe invalidar las respuestas cuando cambian los datos")
+  void shouldInvalidateOnDataChange() {
+    cache.put(cache.keyFor("propiedad-agent", "lista las propiedades"), "Hay 2");
+
+    cache.onDataChanged(new DataChangedEvent(DataChangedEvent.PROPIEDAD, 5L));
+
+    assertThat(cache.get(cache.keyFor("propiedad-agent", "lista las propiedades"))).isNull();
+  }
+
+  @Test
+  @DisplayName("No debe guardar respuestas de turnos que se cruzaron con una escritura")
+  void shouldDropAnswersComputedBeforeDataChange() {
+    AgentResponseCache.Key staleKey = cache.keyFor("propiedad-agent", "lista las propiedades");
+
+    cache.onDataChanged(new DataChangedEvent(DataChangedEvent.PROPIEDAD, 5L));
+    cache.put(staleKey, "Hay 2");
+
+    assertThat(cache.get(cache.keyFor("propiedad-agent", "lista las propiedades"))).isNull();
+  }
+
+  @Test
+  @DisplayName("Debe reconocer las herramientas de solo lectura por su nombre")
+  void shouldClassifyTools() {
+    assertThat(AgentResponseCache.isReadOnlyTool("listAllInmobiliarias")).isTrue();
+    assertThat(AgentResponseCache.isReadOnlyTool("getPropiedadById")).isTrue();
+    assertThat(AgentResponseCache.isReadOnlyTool("createPersona")).isFalse();
+    assertThat(AgentResponseCache.isReadOnlyTool("deletePropiedad")).isFalse();
+  }
+}
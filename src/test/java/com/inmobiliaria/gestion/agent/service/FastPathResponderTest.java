@@ -0,0 +1,137 @@
+package com.inmobiliaria.gestion.agent.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.inmobiliaria.gestion.agent.AssistantAgent;
+import com.inmobiliaria.gestion.agent.InmobiliariaAgent;
+import com.inmobiliaria.gestion.agent.PersonaAgent;
+import com.inmobiliaria.gestion.agent.PropiedadAgent;
+import com.inmobiliaria.gestion.agent.tools.InmobiliariaTool;
+import com.inmobiliaria.gestion.agent.tools.PersonaTool;
+import com.inmobiliaria.gestion.agent.tools.PropiedadTool;
+import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
+import com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class FastPathResponderTest {
+
+  @Mock private InmobiliariaTool inmobiliariaTool;
+
+  @Mock private PropiedadTool propiedadTool;
+
+  @Mock private PersonaTool personaTool;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private FastPathResponder responder;
+
+  @BeforeEach
+  void setUp() {
+    responder =
+        new FastPathResponder(true, inmobiliariaTool, propiedadTool, personaTool, meterRegistry);
+  }
+
+  @Test
+  @DisplayName("Responde un listado con la herramienta y una plantilla, sin el modelo")
+  void shouldAnswerListCommandFromTool() {
+    when(propiedadTool.listAllPropiedades(null, null, null, null, null, null))
+        .thenReturn(
+            Map.of(
+                "success",
+                true,
+                "propiedades",
+                List.of(
+                    Map.of(
+                        "id",
+                        1L,
+                        "nombre",
+                        "Residencia Azul",
+                        "tipo",
+                        "CASA",
+                        "inmobiliariaNombre",
+                        "Inmo Norte")),
+                "hasMore",
+                true));
+
+    FastPathResponder.Answer answer =
+        responder.answer(PropiedadAgent.ROOT_AGENT, "Lista las propiedades").orElseThrow();
+
+    assertThat(answer.getAuthor()).isEqualTo(PropiedadAgent.ROOT_AGENT);
+    assertThat(answer.getText())
+        .isEqualTo(
+            "Propiedades (1):\n"
+                + "- #1 Residencia Azul (CASA, Inmo Norte)\n"
+                + "Hay más; acota la lista por nombre u otro filtro.");
+    assertThat(outcome("hit")).isEqualTo(1);
+    assertThat(meterRegistry.get("agent.fastpath.latency").timer().count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("El asistente multidominio atribuye la respuesta al agente del catálogo")
+  void shouldAnswerInEnglishThroughTheAssistant() {
+    when(propiedadTool.getPropiedadById(5))
+        .thenReturn(
+            Map.of(
+                "success",
+                true,
+                "propiedad",
+                new PropiedadResponse(
+                    5L, "Casa Sol", PropiedadTipo.CASA, "Calle 1", null, 10L, "Inmo Norte")));
+
+    FastPathResponder.Answer answer =
+        responder.answer(AssistantAgent.ROOT_AGENT, "show property 5").orElseThrow();
+
+    assertThat(answer.getAuthor()).isEqualTo(PropiedadAgent.ROOT_AGENT);
+    assertThat(answer.getText())
+        .isEqualTo(
+            "Property #5:\n"
+                + "- Name: Casa Sol\n"
+                + "- Type: CASA\n"
+                + "- Address: Calle 1\n"
+                + "- Agency: Inmo Norte (#10)");
+  }
+
+  @Test
+  @DisplayName("Un agente de otro catálogo no responde el comando")
+  void shouldNotAnswerForAnotherCatalogAgent() {
+    assertThat(responder.answer(InmobiliariaAgent.ROOT_AGENT, "Muestra la persona 3")).isEmpty();
+
+    verifyNoInteractions(personaTool);
+    assertThat(outcome("miss")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Si la herramienta falla, el turno pasa al modelo")
+  void shouldFallBackToModelWhenToolFails() {
+    when(personaTool.getPersonaById(3))
+        .thenReturn(Map.of("success", false, "error", "Persona no encontrada"));
+
+    assertThat(responder.answer(PersonaAgent.ROOT_AGENT, "Muestra la persona 3")).isEmpty();
+    assertThat(outcome("fallback")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Deshabilitado, nunca responde")
+  void shouldDoNothingWhenDisabled() {
+    FastPathResponder disabled =
+        new FastPathResponder(false, inmobiliariaTool, propiedadTool, personaTool, meterRegistry);
+
+    assertThat(disabled.answer(PropiedadAgent.ROOT_AGENT, "Lista las propiedades")).isEmpty();
+    verifyNoInteractions(propiedadTool);
+  }
+
+  private double outcome(String outcome) {
+    return meterRegistry.get("agent.fastpath.requests").tag("outcome", outcome).counter().count();
+  }
+}
@@ -0,0 +1,209 @@
+package com.inmobiliaria.gestion.agent.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.adk.agents.LlmAgent;
+import com.google.adk.agents.RunConfig;
+import com.google.adk.models.LlmResponse;
+import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.sessions.Session;
+import com.google.adk.tools.FunctionTool;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.inmobiliaria.gestion.agent.StubLlm;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/** Runs a scripted agent with the memo callbacks and counts how often the tools really execute. */
+class ToolResultMemoTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ToolResultMemo memo = new ToolResultMemo(true, 100, 10, 600, meterRegistry);
+  private final CatalogTool tool = new CatalogTool();
+  private final Map<String, Map.Entry<String, Map<String, Object>>> pendingCalls = new HashMap<>();
+  private InMemoryRunner runner;
+
+  @BeforeEach
+  void setUp() {
+    runner = runnerWith(memo);
+  }
+
+  @Test
+  @DisplayName("Una llamada repetida en la misma sesión se responde desde la memoria")
+  void shouldReuseResultOfRepeatedCallInSession() {
+    turn("s-1", "getPropiedadById", Map.of("id", 25));
+    turn("s-1", "getPropiedadById", Map.of("id", 25.0));
+
+    assertThat(tool.reads).hasValue(1);
+    assertThat(lookups("hit")).isEqualTo(1);
+    assertThat(lookups("miss")).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Otra sesión u otros argumentos vuelven a ejecutar la herramienta")
+  void shouldKeepResultsPerSessionAndArguments() {
+    turn("s-1", "getPropiedadById", Map.of("id", 25));
+    turn("s-2", "getPropiedadById", Map.of("id", 25));
+    turn("s-1", "getPropiedadById", Map.of("id", 26));
+
+    assertThat(tool.reads).hasValue(3);
+  }
+
+  @Test
+  @DisplayName("Una herramienta de escritura en la sesión descarta lo memorizado")
+  void shouldForgetResultsAfterWriteToolInSession() {
+    turn("s-1", "getPropiedadById", Map.of("id", 25));
+    turn("s-1", "deletePropiedad", Map.of("id", 25));
+    turn("s-1", "getPropiedadById", Map.of("id", 25));
+
+    assertThat(tool.reads).hasValue(2);
+    assertThat(tool.deletes).hasValue(1);
+  }
+
+  @Test
+  @DisplayName("Un cambio de datos confirmado descarta lo memorizado en todas las sesiones")
+  void shouldForgetResultsAfterDataChange() {
+    turn("s-1", "getPropiedadById", Map.of("id", 25));
+    memo.onDataChanged(new DataChangedEvent(DataChangedEvent.PROPIEDAD, 25L));
+    turn("s-1", "getPropiedadById", Map.of("id", 25));
+
+    assertThat(tool.reads).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("Las llamadas cuya herramienta falla no quedan pendientes en la sesión")
+  void shouldDropPendingCallsOfFailedTools() {
+    turn("s-1", "searchPropiedades", Map.of("texto", "casa"));
+    turn("s-1", "searchPropiedades", Map.of("texto", "depto"));
+    turn("s-1", "searchPropiedades", Map.of("texto", "local"));
+
+    assertThat(memo.pendingCalls(runner.appName(), "s-1")).isEqualTo(1);
+
+    turn("s-1", "getPropiedadById", Map.of("id", 25));
+
+    assertThat(memo.pendingCalls(runner.appName(), "s-1")).isZero();
+  }
+
+  @Test
+  @DisplayName("Deshabilitada, cada llamada ejecuta la herramienta")
+  void shouldRunEveryCallWhenDisabled() {
+    runner = runnerWith(new ToolResultMemo(false, 100, 10, 600, meterRegistry));
+
+    turn("s-1", "getPropiedadById", Map.of("id", 25));
+    turn("s-1", "getPropiedadById", Map.of("id", 25));
+
+    assertThat(tool.reads).hasValue(2);
+  }
+
+  @Test
+  @DisplayName("La clave ignora el orden, los vacíos y la representación de los números")
+  void shouldNormalizeArgumentsInCallKey() {
+    Map<String, Object> args = new HashMap<>();
+    args.put("limit", 25.0);
+    args.put("cursor", null);
+    args.put("fields", " id,nombre ");
+
+    assertThat(ToolResultMemo.callKey("listAllPropiedades", args))
+        .isEqualTo(
+            ToolResultMemo.callKey(
+                "listAllPropiedades", Map.of("fields", "id,nombre", "limit", 25, "tipo", "")));
+  }
+
+  private InMemoryRunner runnerWith(ToolResultMemo toolResultMemo) {
+    LlmAgent agent =
+        LlmAgent.builder()
+            .name("stub-agent")
+            .model(
+                new StubLlm(
+                    request -> {
+                      List<Content> contents = request.contents();
+                      boolean toolAnswered =
+                          contents.get(contents.size() - 1).parts().orElse(List.of()).stream()
+                              .anyMatch(part -> part.functionResponse().isPresent());
+                      if (toolAnswered) {
+                        return Flowable.just(StubLlm.text("Listo", false));
+                      }
+                      String prompt =
+                          contents.get(contents.size() - 1).parts().orElse(List.of()).stream()
+                              .map(part -> part.text().orElse(""))
+                              .collect(Collectors.joining());
+                      return Flowable.just(scriptedCall(prompt));
+                    }))
+            .instruction("Responde en español.")
+            .tools(
+                FunctionTool.create(tool, "getPropiedadById"),
+                FunctionTool.create(tool, "deletePropiedad"),
+                FunctionTool.create(tool, "searchPropiedades"))
+            .beforeToolCallback(toolResultMemo::beforeTool)
+            .afterToolCallback(toolResultMemo::afterTool)
+            .build();
+    return new InMemoryRunner(agent);
+  }
+
+  /** Sends one user turn whose text tells the scripted model which tool to call and with what. */
+  private void turn(String sessionId, String toolName, Map<String, Object> args) {
+    Session session =
+        runner
+            .sessionService()
+            .getSession(runner.appName(), "user", sessionId, Optional.empty())
+            .blockingGet();
+    if (session == null) {
+      session =
+          runner
+              .sessionService()
+              .createSession(runner.appName(), "user", null, sessionId)
+              .blockingGet();
+    }
+    pendingCalls.put(toolName + args, Map.entry(toolName, args));
+    runner
+        .runAsync(
+            session, Content.fromParts(Part.fromText(toolName + args)), RunConfig.builder().build())
+        .blockingSubscribe(event -> {}, error -> {});
+  }
+
+  private LlmResponse scriptedCall(String prompt) {
+    Map.Entry<String, Map<String, Object>> call = pendingCalls.get(prompt);
+    return LlmResponse.builder()
+        .content(
+            Content.builder()
+                .role("model")
+                .parts(Part.fromFunctionCall(call.getKey(), call.getValue()))
+                .build())
+        .build();
+  }
+
+  private double lookups(String result) {
+    return meterRegistry.get("agent.tool-memo.lookups").tag("result", result).counter().count();
+  }
+
+  /** Test double standing in for the catalog tools, counting real executions. */
+  public static final class CatalogTool {
+
+    private final AtomicInteger reads = new AtomicInteger();
+    private final AtomicInteger deletes = new AtomicInteger();
+
+    public Map<String, Object> getPropiedadById(Integer id) {
+      reads.incrementAndGet();
+      return Map.of("success", true, "propiedad", Map.of("id", id, "nombre", "Casa " + id));
+    }
+
+    public Map<String, Object> deletePropiedad(Integer id) {
+      deletes.incrementAndGet();
+      return Map.of("success", true, "message", "Propiedad eliminada");
+    }
+
+    public Map<String, Object> searchPropiedades(String texto) {
+      throw new IllegalStateException("Búsqueda no disponible");
+    }
+  }
+}
@@ -0,0 +1,298 @@
+package com.inmobiliaria.gestion.agent.session.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.adk.events.Event;
+import com.google.adk.events.EventActions;
+import com.google.adk.sessions.Session;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.inmobiliaria.gestion.agent.session.repository.AgentSessionEventRepository;
+import com.inmobiliaria.gestion.agent.session.repository.AgentSessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PersistentSessionServiceTest {
+
+  private static final String APP = "propiedad-assistant";
+  private static final String OTHER_APP = "catalog-assistant";
+  private static final long TIMEOUT_SECONDS = 600;
+
+  @Autowired private AgentSessionStore store;
+  @Autowired private AgentSessionRepository sessionRepository;
+  @Autowired private AgentSessionEventRepository eventRepository;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private MutableClock clock;
+  private PersistentSessionService sessionService;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+    sessionService = newInstance(meterRegistry);
+  }
+
+  @AfterEach
+  void cleanUp() {
+    eventRepository.deleteAll();
+    sessionRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Debe persistir la sesión y recuperar sus eventos desde la base de datos")
+  void shouldReloadSessionFromDatabase() {
+    ConcurrentMap<String, Object> state = new ConcurrentHashMap<>();
+    state.put("idioma", "es");
+    Session session = sessionService.createSession(APP, "user-1", state, null).blockingGet();
+    sessionService.appendEvent(session, userEvent("Hola")).blockingGet();
+    sessionService.appendEvent(session, stateEvent("ultimaPropiedad", 5)).blockingGet();
+    sessionService.flush();
+
+    Session reloaded =
+        newInstance(new SimpleMeterRegistry())
+            .getSession(APP, "user-1", session.id(), Optional.empty())
+            .blockingGet();
+
+    assertThat(reloaded).isNotSameAs(session);
+    assertThat(reloaded.events()).hasSize(2);
+    assertThat(reloaded.events().get(0).stringifyContent()).isEqualTo("Hola");
+    assertThat(reloaded.state()).containsEntry("idioma", "es").containsEntry("ultimaPropiedad", 5);
+  }
+
+  @Test
+  @DisplayName("Debe escribir los eventos en lote y no en cada turno")
+  void shouldWriteEventsBehind() {
+    Session session = sessionService.createSession(APP, "user-2").blockingGet();
+    sessionService.appendEvent(session, userEvent("uno")).blockingGet();
+    sessionService.appendEvent(session, userEvent("dos")).blockingGet();
+
+    assertThat(eventRepository.count()).isZero();
+
+    sessionService.flush();
+
+    assertThat(eventRepository.findBySessionIdOrderBySequenceNumberAsc(rowKey(session)))
+        .extracting(e -> e.getSequenceNumber())
+        .containsExactly(0, 1);
+  }
+
+  @Test
+  @DisplayName("Debe servir sesiones activas desde el nivel en memoria")
+  void shouldServeActiveSessionFromHotTier() {
+    Session session = sessionService.createSession(APP, "user-3").blockingGet();
+    sessionService.appendEvent(session, userEvent("Hola")).blockingGet();
+
+    Session first =
+        sessionService.getSession(APP, "user-3", session.id(), Optional.empty()).blockingGet();
+
+    assertThat(first).isSameAs(session);
+    assertThat(first.events()).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("Debe servir la sesión activa desde memoria sin volver a la base de datos")
+  void shouldServeActiveSessionWithoutDatabase() {
+    Session session = sessionService.createSession(APP, "user-5").blockingGet();
+    sessionService.appendEvent(session, userEvent("uno")).blockingGet();
+    sessionService.flush();
+    eventRepository.deleteAll();
+    sessionRepository.deleteAll();
+
+    Session resumed =
+        sessionService.getSession(APP, "user-5", session.id(), Optional.empty()).blockingGet();
+
+    assertThat(resumed).isSameAs(session);
+  }
+
+  @Test
+  @DisplayName("Debe recargar la sesión cuando otra instancia anuncia que escribió en ella")
+  void shouldReloadSessionWrittenByAnotherInstance() {
+    PersistentSessionService otherInstance =
+        newInstance(new SimpleMeterRegistry(), relayTo(sessionService));
+    Session session = sessionService.createSession(APP, "user-5").blockingGet();
+    sessionService.appendEvent(session, userEvent("uno")).blockingGet();
+    sessionService.flush();
+
+    Session elsewhere =
+        otherInstance.getSession(APP, "user-5", session.id(), Optional.empty()).blockingGet();
+    otherInstance.appendEvent(elsewhere, userEvent("dos")).blockingGet();
+    otherInstance.flush();
+
+    Session resumed =
+        sessionService.getSession(APP, "user-5", session.id(), Optional.empty()).blockingGet();
+
+    assertThat(resumed).isNotSameAs(session);
+    assertThat(resumed.events()).extracting(Event::stringifyContent).containsExactly("uno", "dos");
+  }
+
+  @Test
+  @DisplayName("Debe descartar solo el evento que no se puede guardar y no el lote completo")
+  void shouldDropOnlyTheFailingEventOfABatch() {
+    Session session = sessionService.createSession(APP, "user-6").blockingGet();
+    Event duplicated = userEvent("uno");
+    sessionService.appendEvent(session, duplicated).blockingGet();
+    sessionService.appendEvent(session, userEvent("dos")).blockingGet();
+    sessionService.appendEvent(session, duplicated).blockingGet();
+
+    for (int attempt = 0; attempt < 3; attempt++) {
+      sessionService.flush();
+    }
+
+    assertThat(eventRepository.findBySessionIdOrderBySequenceNumberAsc(rowKey(session)))
+        .extracting(e -> e.getSequenceNumber())
+        .containsExactly(0, 1);
+    assertThat(meterRegistry.get("agent.sessions.pending.events").gauge().value()).isZero();
+  }
+
+  @Test
+  @DisplayName("Debe permitir el mismo id de sesión en agentes distintos")
+  void shouldScopeSessionIdsByApp() {
+    Session propiedades = sessionService.createSession(APP, "tab-1", null, "tab-1").blockingGet();
+    sessionService.appendEvent(propiedades, userEvent("Hola")).blockingGet();
+
+    Session asistente =
+        sessionService.createSession(OTHER_APP, "tab-1", null, "tab-1").blockingGet();
+    sessionService.flush();
+
+    assertThat(asistente.id()).isEqualTo(propiedades.id());
+    assertThat(
+            newInstance(new SimpleMeterRegistry())
+                .getSession(APP, "tab-1", "tab-1", Optional.empty())
+                .blockingGet()
+                .events())
+        .hasSize(1);
+    assertThat(
+            newInstance(new SimpleMeterRegistry())
+                .getSession(OTHER_APP, "tab-1", "tab-1", Optional.empty())
+                .blockingGet()
+                .events())
+        .isEmpty();
+  }
+
+  @Test
+  @DisplayName("Debe recrear una sesión expirada antes de que la limpieza borre su fila")
+  void shouldRecreateExpiredSessionBeforeCleanup() {
+    Session idle = sessionService.createSession(APP, "tab-2", null, "tab-2").blockingGet();
+    sessionService.appendEvent(idle, userEvent("Hola")).blockingGet();
+    sessionService.flush();
+    clock.advance(Duration.ofSeconds(TIMEOUT_SECONDS + 1));
+
+    assertThat(sessionService.getSession(APP, "tab-2", "tab-2", Optional.empty()).blockingGet())
+        .isNull();
+    Session recreated = sessionService.createSession(APP, "tab-2", null, "tab-2").blockingGet();
+
+    assertThat(recreated.events()).isEmpty();
+    assertThat(eventRepository.findBySessionIdOrderBySequenceNumberAsc(rowKey(recreated)))
+        .isEmpty();
+    assertThat(sessionRepository.findById(rowKey(recreated)))
+        .get()
+        .extracting(stored -> stored.getCreatedAt())
+        .isEqualTo(clock.instant());
+  }
+
+  @Test
+  @DisplayName("Debe expirar las sesiones inactivas según agent.session.timeout")
+  void shouldExpireIdleSessions() {
+    Session idle = sessionService.createSession(APP, "user-4").blockingGet();
+    clock.advance(Duration.ofSeconds(TIMEOUT_SECONDS / 2));
+    Session active = sessionService.createSession(APP, "user-4").blockingGet();
+    clock.advance(Duration.ofSeconds(TIMEOUT_SECONDS / 2 + 1));
+
+    assertThat(sessionService.getSession(APP, "user-4", idle.id(), Optional.empty()).blockingGet())
+        .isNull();
+    assertThat(sessionService.listSessions(APP, "user-4").blockingGet().sessionIds())
+        .containsExactly(active.id());
+
+    sessionService.evictExpired();
+
+    assertThat(sessionRepository.findById(rowKey(idle))).isEmpty();
+    assertThat(sessionRepository.findById(rowKey(active))).isPresent();
+  }
+
+  private static String rowKey(Session session) {
+    return PersistentSessionService.storageKey(session.appName(), session.id());
+  }
+
+  private PersistentSessionService newInstance(SimpleMeterRegistry registry) {
+    return newInstance(registry, event -> {});
+  }
+
+  private PersistentSessionService newInstance(
+      SimpleMeterRegistry registry, ApplicationEventPublisher eventPublisher) {
+    return new PersistentSessionService(
+        store, eventPublisher, clock, TIMEOUT_SECONDS, 100, 10, registry);
+  }
+
+  /** Delivers the session changes of one instance to another, as the invalidation bus does. */
+  private static ApplicationEventPublisher relayTo(PersistentSessionService target) {
+    return event -> {
+      if (event instanceof AgentSessionChangedEvent changed) {
+        target.onSessionChanged(AgentSessionChangedEvent.remote(changed.getInvalidationId()));
+      }
+    };
+  }
+
+  private Event userEvent(String text) {
+    return Event.builder()
+        .id(Event.generateEventId())
+        .author("user")
+        .content(Content.fromParts(Part.fromText(text)))
+        .timestamp(clock.millis())
+        .build();
+  }
+
+  private Event stateEvent(String key, Object value) {
+    ConcurrentMap<String, Object> delta = new ConcurrentHashMap<>();
+    delta.put(key, value);
+    return Event.builder()
+        .id(Event.generateEventId())
+        .author("propiedad-assistant")
+        .actions(EventActions.builder().stateDelta(delta).build())
+        .timestamp(clock.millis())
+        .build();
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    private MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
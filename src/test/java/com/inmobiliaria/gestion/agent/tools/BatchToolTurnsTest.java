@@ -0,0 +1,154 @@
+package com.inmobiliaria.gestion.agent.tools;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.adk.agents.LlmAgent;
+import com.google.adk.agents.RunConfig;
+import com.google.adk.models.LlmRequest;
+import com.google.adk.models.LlmResponse;
+import com.google.adk.runner.InMemoryRunner;
+import com.google.adk.sessions.Session;
+import com.google.adk.tools.FunctionTool;
+import com.google.genai.types.Content;
+import com.google.genai.types.Part;
+import com.inmobiliaria.gestion.agent.StubLlm;
+import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
+import com.inmobiliaria.gestion.propiedad.dto.CreatePropiedadRequest;
+import com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse;
+import com.inmobiliaria.gestion.propiedad.service.PropiedadService;
+import com.inmobiliaria.gestion.search.service.SearchService;
+import io.reactivex.rxjava3.core.Flowable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * Drives the real tools through an ADK runner with a scripted model, counting model round trips
+ * for a request that touches several entities.
+ */
+@ExtendWith(MockitoExtension.class)
+class BatchToolTurnsTest {
+
+  private static final List<String> NOMBRES = List.of("Casa Uno", "Casa Dos", "Casa Tres");
+
+  @Mock private PropiedadService propiedadService;
+
+  @Mock private SearchService searchService;
+
+  private final PropiedadResponse created =
+      new PropiedadResponse(1L, "Casa Uno", PropiedadTipo.CASA, "Calle 1", "", 10L, "Inmo Norte");
+
+  @Test
+  @DisplayName("Crear propiedades una por una cuesta un turno del modelo por propiedad")
+  void shouldSpendOneModelTurnPerPropiedadWithSingleTool() {
+    when(propiedadService.create(any(CreatePropiedadRequest.class))).thenReturn(created);
+
+    int modelCalls =
+        run(
+            "createPropiedad",
+            answered ->
+                answered < NOMBRES.size()
+                    ? call("createPropiedad", propiedadArgs(NOMBRES.get(answered)))
+                    : null);
+
+    assertThat(modelCalls).isEqualTo(NOMBRES.size() + 1);
+    verify(propiedadService, times(NOMBRES.size())).create(any(CreatePropiedadRequest.class));
+  }
+
+  @Test
+  @DisplayName("Crear propiedades en lote cuesta un solo turno y una sola llamada al servicio")
+  void shouldCreateAllPropiedadesInOneModelTurnWithBatchTool() {
+    when(propiedadService.createAll(anyList())).thenReturn(List.of(created, created, created));
+
+    int modelCalls =
+        run(
+            "createPropiedades",
+            answered ->
+                answered == 0
+                    ? call(
+                        "createPropiedades",
+                        Map.of(
+                            "propiedades",
+                            NOMBRES.stream().map(BatchToolTurnsTest::propiedadArgs).toList()))
+                    : null);
+
+    assertThat(modelCalls).isEqualTo(2);
+    verify(propiedadService, times(1)).createAll(anyList());
+    verify(propiedadService, never()).create(any(CreatePropiedadRequest.class));
+  }
+
+  /**
+   * Runs one user turn against a model that keeps calling tools as scripted by the number of tool
+   * results it has already seen, and answers with text once the script returns null.
+   */
+  private int run(String toolName, Function<Integer, LlmResponse> script) {
+    AtomicInteger modelCalls = new AtomicInteger();
+    PropiedadTool tool =
+        new PropiedadTool(propiedadService, searchService, new ToolPayloadBudget(16384));
+    LlmAgent agent =
+        LlmAgent.builder()
+            .name("stub-agent")
+            .model(
+                new StubLlm(
+                    request -> {
+                      modelCalls.incrementAndGet();
+                      LlmResponse next = script.apply(toolResults(request));
+                      return Flowable.just(
+                          next != null ? next : StubLlm.text("Propiedades creadas", false));
+                    }))
+            .instruction("Responde en español.")
+            .tools(FunctionTool.create(tool, toolName))
+            .build();
+    InMemoryRunner runner = new InMemoryRunner(agent);
+    Session session =
+        runner.sessionService().createSession(runner.appName(), "user", null, "s-1").blockingGet();
+    runner
+        .runAsync(
+            session,
+            Content.fromParts(Part.fromText("Crea Casa Uno, Casa Dos y Casa Tres")),
+            RunConfig.builder().build())
+        .blockingSubscribe();
+    return modelCalls.get();
+  }
+
+  private static int toolResults(LlmRequest request) {
+    return (int)
+        request.contents().stream()
+            .flatMap(content -> content.parts().orElse(List.of()).stream())
+            .filter(part -> part.functionResponse().isPresent())
+            .count();
+  }
+
+  private static LlmResponse call(String toolName, Map<String, Object> args) {
+    return LlmResponse.builder()
+        .content(
+            Content.builder().role("model").parts(Part.fromFunctionCall(toolName, args)).build())
+        .build();
+  }
+
+  private static Map<String, Object> propiedadArgs(String nombre) {
+    return Map.of(
+        "nombre",
+        nombre,
+        "tipo",
+        "CASA",
+        "inmobiliariaId",
+        10,
+        "direccion",
+        "Calle 1",
+        "observaciones",
+        "");
+  }
+}
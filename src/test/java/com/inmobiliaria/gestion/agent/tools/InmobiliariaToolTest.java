@@ -9,14 +9,21 @@ import com.inmobiliaria.gestion.inmobiliaria.dto.CreateInmobiliariaRequest;
 import com.inmobiliaria.gestion.inmobiliaria.dto.InmobiliariaResponse;
 import com.inmobiliaria.gestion.inmobiliaria.dto.UpdateInmobiliariaRequest;
 import com.inmobiliaria.gestion.inmobiliaria.service.InmobiliariaService;
+import com.inmobiliaria.gestion.search.domain.SearchTipo;
+import com.inmobiliaria.gestion.search.dto.SearchPageResponse;
+import com.inmobiliaria.gestion.search.dto.SearchResultResponse;
+import com.inmobiliaria.gestion.search.service.SearchService;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -24,6 +31,10 @@ class InmobiliariaToolTest {
 
   @Mock private InmobiliariaService inmobiliariaService;
 
+  @Mock private SearchService searchService;
+
+  @Spy private ToolPayloadBudget payloadBudget = new ToolPayloadBudget(16384);
+
   @InjectMocks private InmobiliariaTool inmobiliariaTool;
 
   private InmobiliariaResponse sampleResponse;
@@ -70,6 +81,29 @@ class InmobiliariaToolTest {
     assertTrue(((String) result.get("error")).contains("Error listing inmobiliarias"));
   }
 
+  @Test
+  void searchInmobiliarias_TruncatedToBudget() {
+    // Given
+    ToolPayloadBudget tinyBudget = new ToolPayloadBudget(1);
+    InmobiliariaTool tool = new InmobiliariaTool(inmobiliariaService, searchService, tinyBudget);
+    List<SearchResultResponse> matches =
+        List.of(
+            new SearchResultResponse(SearchTipo.INMOBILIARIA, 1L, "Inmo Norte", null, 1.0),
+            new SearchResultResponse(SearchTipo.INMOBILIARIA, 2L, "Inmo Sur", null, 0.5));
+    when(searchService.search(
+            "inmo", EnumSet.of(SearchTipo.INMOBILIARIA), null, ToolPayloadBudget.DEFAULT_LIMIT))
+        .thenReturn(new SearchPageResponse(matches, null, false));
+    when(searchService.cursorAfter(null, 1)).thenReturn("resume");
+
+    // When
+    Map<String, Object> result = tool.searchInmobiliarias("inmo", null, null);
+
+    // Then
+    assertTrue((Boolean) result.get("success"));
+    assertEquals(1, result.get("count"));
+    assertEquals("resume", result.get("nextCursor"));
+  }
+
   @Test
   void getInmobiliariaById_Success() {
     // Given
@@ -97,6 +131,21 @@ class InmobiliariaToolTest {
     assertNotNull(result.get("error"));
   }
 
+  @Test
+  void getInmobiliariasByIds_ReportsMissingIds() {
+    // Given
+    when(inmobiliariaService.findAllByIds(Set.of(1L, 7L))).thenReturn(List.of(sampleResponse));
+
+    // When
+    Map<String, Object> result = inmobiliariaTool.getInmobiliariasByIds(List.of(1, 7, 1));
+
+    // Then
+    assertTrue((Boolean) result.get("success"));
+    assertEquals(1, result.get("count"));
+    assertEquals(List.of(7L), result.get("missingIds"));
+    verify(inmobiliariaService, times(1)).findAllByIds(any());
+  }
+
   @Test
   void createInmobiliaria_Success() {
     // Given
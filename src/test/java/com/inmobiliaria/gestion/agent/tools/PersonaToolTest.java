@@ -2,26 +2,36 @@ package com.inmobiliaria.gestion.agent.tools;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.inmobiliaria.gestion.persona.domain.PersonaTipo;
 import com.inmobiliaria.gestion.persona.dto.CreatePersonaRequest;
+import com.inmobiliaria.gestion.persona.dto.PersonaPageResponse;
 import com.inmobiliaria.gestion.persona.dto.PersonaResponse;
 import com.inmobiliaria.gestion.persona.dto.UpdatePersonaRequest;
 import com.inmobiliaria.gestion.persona.service.PersonaService;
+import com.inmobiliaria.gestion.search.domain.SearchTipo;
+import com.inmobiliaria.gestion.search.dto.SearchPageResponse;
+import com.inmobiliaria.gestion.search.dto.SearchResultResponse;
+import com.inmobiliaria.gestion.search.service.SearchService;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +39,10 @@ class PersonaToolTest {
 
   @Mock private PersonaService personaService;
 
+  @Mock private SearchService searchService;
+
+  @Spy private ToolPayloadBudget payloadBudget = new ToolPayloadBudget(16384);
+
   @InjectMocks private PersonaTool personaTool;
 
   private PersonaResponse personaResponse;
@@ -51,27 +65,75 @@ class PersonaToolTest {
   }
 
   @Test
-  @DisplayName("Debe listar todas las personas")
+  @DisplayName("Debe listar la primera página de personas con los campos por defecto")
   void shouldListAllPersonas() {
-    when(personaService.findAll()).thenReturn(List.of(personaResponse));
+    when(personaService.findFilteredPage(null, null, null, null, ToolPayloadBudget.DEFAULT_LIMIT))
+        .thenReturn(new PersonaPageResponse(List.of(personaResponse), null, false));
 
-    Map<String, Object> result = personaTool.listAllPersonas();
+    Map<String, Object> result = personaTool.listAllPersonas(null, null, null, null, null, null);
 
-    assertThat(result).containsEntry("success", true).containsEntry("count", 1);
-    verify(personaService, times(1)).findAll();
+    assertThat(result)
+        .containsEntry("success", true)
+        .containsEntry("count", 1)
+        .containsEntry("hasMore", false);
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> personas = (List<Map<String, Object>>) result.get("personas");
+    assertThat(personas.get(0))
+        .containsOnlyKeys("id", "tipoPersona", "nombre", "apellidos", "activo");
+    verify(personaService, times(1))
+        .findFilteredPage(null, null, null, null, ToolPayloadBudget.DEFAULT_LIMIT);
+  }
+
+  @Test
+  @DisplayName("Debe pasar los filtros y devolver el cursor de la siguiente página")
+  void shouldListPersonasWithFiltersAndCursor() {
+    when(personaService.findFilteredPage(PersonaTipo.FISICA, true, "gómez", "c1", 10))
+        .thenReturn(new PersonaPageResponse(List.of(personaResponse), "c2", true));
+
+    Map<String, Object> result =
+        personaTool.listAllPersonas("fisica", true, "gómez", "email, fechaAlta", "c1", 10);
+
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> personas = (List<Map<String, Object>>) result.get("personas");
+    assertThat(personas.get(0))
+        .containsOnlyKeys("id", "email", "fechaAlta")
+        .containsEntry("fechaAlta", "2024-01-01T10:00:00");
+    assertThat(result).containsEntry("hasMore", true).containsEntry("nextCursor", "c2");
   }
 
   @Test
   @DisplayName("Debe manejar errores al listar personas")
   void shouldHandleErrorListingPersonas() {
-    when(personaService.findAll()).thenThrow(new RuntimeException("DB error"));
+    when(personaService.findFilteredPage(null, null, null, null, ToolPayloadBudget.DEFAULT_LIMIT))
+        .thenThrow(new RuntimeException("DB error"));
 
-    Map<String, Object> result = personaTool.listAllPersonas();
+    Map<String, Object> result = personaTool.listAllPersonas(null, null, null, null, null, null);
 
     assertThat(result).containsEntry("success", false);
     assertThat(result.get("error").toString()).contains("Error listing personas");
   }
 
+  @Test
+  @DisplayName("Debe buscar personas por texto")
+  void shouldSearchPersonas() {
+    when(searchService.search(
+            "gomez", EnumSet.of(SearchTipo.PERSONA), "c1", ToolPayloadBudget.DEFAULT_LIMIT))
+        .thenReturn(
+            new SearchPageResponse(
+                List.of(
+                    new SearchResultResponse(
+                        SearchTipo.PERSONA, 1L, "María Gómez", "maria@example.com", 0.5)),
+                "c2",
+                true));
+
+    Map<String, Object> result = personaTool.searchPersonas("gomez", "c1", null);
+
+    assertThat(result)
+        .containsEntry("success", true)
+        .containsEntry("hasMore", true)
+        .containsEntry("nextCursor", "c2");
+  }
+
   @Test
   @DisplayName("Debe obtener una persona por id")
   void shouldGetPersonaById() {
@@ -187,6 +249,41 @@ class PersonaToolTest {
     assertThat(result.get("error").toString()).contains("Error updating persona");
   }
 
+  @Test
+  @DisplayName("Debe actualizar varias personas con una sola llamada al servicio")
+  void shouldUpdatePersonasInOneServiceCall() {
+    PersonaTool.PersonaChanges primera = new PersonaTool.PersonaChanges();
+    primera.setId(1);
+    primera.setActivo(false);
+    PersonaTool.PersonaChanges segunda = new PersonaTool.PersonaChanges();
+    segunda.setId(2);
+    segunda.setTipoPersona("moral");
+    segunda.setRazonSocial("Servicios Delta");
+    when(personaService.updateAll(anyMap())).thenReturn(List.of(personaResponse, personaResponse));
+
+    Map<String, Object> result = personaTool.updatePersonas(List.of(primera, segunda));
+
+    assertThat(result).containsEntry("success", true).containsEntry("count", 2);
+    ArgumentCaptor<Map<Long, UpdatePersonaRequest>> requests = ArgumentCaptor.captor();
+    verify(personaService).updateAll(requests.capture());
+    assertThat(requests.getValue()).containsOnlyKeys(1L, 2L);
+    assertThat(requests.getValue().get(1L).getActivo()).isFalse();
+    assertThat(requests.getValue().get(2L).getTipoPersona()).isEqualTo(PersonaTipo.MORAL);
+  }
+
+  @Test
+  @DisplayName("Debe rechazar un lote que repite la misma persona")
+  void shouldRejectDuplicatedPersonaInBatch() {
+    PersonaTool.PersonaChanges cambio = new PersonaTool.PersonaChanges();
+    cambio.setId(1);
+
+    Map<String, Object> result = personaTool.updatePersonas(List.of(cambio, cambio));
+
+    assertThat(result).containsEntry("success", false);
+    assertThat(result.get("error").toString()).contains("más de una vez");
+    verifyNoInteractions(personaService);
+  }
+
   @Test
   @DisplayName("Debe eliminar una persona")
   void shouldDeletePersona() {
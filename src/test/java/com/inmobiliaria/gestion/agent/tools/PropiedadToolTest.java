@@ -2,23 +2,35 @@ package com.inmobiliaria.gestion.agent.tools;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
 import com.inmobiliaria.gestion.propiedad.dto.CreatePropiedadRequest;
+import com.inmobiliaria.gestion.propiedad.dto.PropiedadPageResponse;
 import com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse;
 import com.inmobiliaria.gestion.propiedad.dto.UpdatePropiedadRequest;
 import com.inmobiliaria.gestion.propiedad.service.PropiedadService;
+import com.inmobiliaria.gestion.search.domain.SearchTipo;
+import com.inmobiliaria.gestion.search.dto.SearchPageResponse;
+import com.inmobiliaria.gestion.search.dto.SearchResultResponse;
+import com.inmobiliaria.gestion.search.service.SearchService;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +38,10 @@ class PropiedadToolTest {
 
   @Mock private PropiedadService propiedadService;
 
+  @Mock private SearchService searchService;
+
+  @Spy private ToolPayloadBudget payloadBudget = new ToolPayloadBudget(16384);
+
   @InjectMocks private PropiedadTool propiedadTool;
 
   private PropiedadResponse sampleResponse;
@@ -45,20 +61,52 @@ class PropiedadToolTest {
 
   @Test
   void listAllPropiedades_success() {
-    when(propiedadService.findAll()).thenReturn(List.of(sampleResponse));
+    when(propiedadService.findFilteredPage(null, null, null, null, ToolPayloadBudget.DEFAULT_LIMIT))
+        .thenReturn(new PropiedadPageResponse(List.of(sampleResponse), null, false));
 
-    Map<String, Object> result = propiedadTool.listAllPropiedades();
+    Map<String, Object> result =
+        propiedadTool.listAllPropiedades(null, null, null, null, null, null);
 
     assertThat(result.get("success")).isEqualTo(true);
     assertThat(result.get("count")).isEqualTo(1);
+    assertThat(result.get("hasMore")).isEqualTo(false);
+    assertThat(result).doesNotContainKey("nextCursor");
     assertThat(result.get("propiedades")).isInstanceOf(List.class);
   }
 
+  @Test
+  void listAllPropiedades_passesFiltersAndProjectsFields() {
+    when(propiedadService.findFilteredPage(10L, PropiedadTipo.CASA, "azul", "c1", 5))
+        .thenReturn(new PropiedadPageResponse(List.of(sampleResponse), "c2", true));
+
+    Map<String, Object> result =
+        propiedadTool.listAllPropiedades(10, "casa", "azul", "nombre,direccion", "c1", 5);
+
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> items = (List<Map<String, Object>>) result.get("propiedades");
+    assertThat(items.get(0))
+        .containsOnlyKeys("id", "nombre", "direccion")
+        .containsEntry("direccion", "Av. Central 123");
+    assertThat(result.get("hasMore")).isEqualTo(true);
+    assertThat(result.get("nextCursor")).isEqualTo("c2");
+  }
+
+  @Test
+  void listAllPropiedades_unknownField_returnsError() {
+    Map<String, Object> result =
+        propiedadTool.listAllPropiedades(null, null, null, "precio", null, null);
+
+    assertThat(result.get("success")).isEqualTo(false);
+    assertThat((String) result.get("error")).contains("Unknown field 'precio'");
+  }
+
   @Test
   void listAllPropiedades_error() {
-    when(propiedadService.findAll()).thenThrow(new RuntimeException("DB down"));
+    when(propiedadService.findFilteredPage(null, null, null, null, ToolPayloadBudget.DEFAULT_LIMIT))
+        .thenThrow(new RuntimeException("DB down"));
 
-    Map<String, Object> result = propiedadTool.listAllPropiedades();
+    Map<String, Object> result =
+        propiedadTool.listAllPropiedades(null, null, null, null, null, null);
 
     assertThat(result.get("success")).isEqualTo(false);
     assertThat((String) result.get("error")).contains("Error listing propiedades");
@@ -66,9 +114,10 @@ class PropiedadToolTest {
 
   @Test
   void listPropiedadesByInmobiliaria_success() {
-    when(propiedadService.findAllByInmobiliaria(10L)).thenReturn(List.of(sampleResponse));
+    when(propiedadService.findFilteredPage(10L, null, null, null, ToolPayloadBudget.DEFAULT_LIMIT))
+        .thenReturn(new PropiedadPageResponse(List.of(sampleResponse), null, false));
 
-    Map<String, Object> result = propiedadTool.listPropiedadesByInmobiliaria(10);
+    Map<String, Object> result = propiedadTool.listPropiedadesByInmobiliaria(10, null, null, null);
 
     assertThat(result.get("success")).isEqualTo(true);
     assertThat(result.get("count")).isEqualTo(1);
@@ -76,13 +125,47 @@ class PropiedadToolTest {
 
   @Test
   void listPropiedadesByInmobiliaria_error() {
-    when(propiedadService.findAllByInmobiliaria(10L)).thenThrow(new RuntimeException("Fail"));
+    when(propiedadService.findFilteredPage(10L, null, null, null, ToolPayloadBudget.DEFAULT_LIMIT))
+        .thenThrow(new RuntimeException("Fail"));
 
-    Map<String, Object> result = propiedadTool.listPropiedadesByInmobiliaria(10);
+    Map<String, Object> result = propiedadTool.listPropiedadesByInmobiliaria(10, null, null, null);
 
     assertThat(result.get("success")).isEqualTo(false);
   }
 
+  @Test
+  void searchPropiedades_success() {
+    when(searchService.search(
+            "av central", EnumSet.of(SearchTipo.PROPIEDAD), null, ToolPayloadBudget.DEFAULT_LIMIT))
+        .thenReturn(
+            new SearchPageResponse(
+                List.of(
+                    new SearchResultResponse(
+                        SearchTipo.PROPIEDAD, 1L, "Residencia Azul", "Av. Central 123", 0.87654)),
+                null,
+                false));
+
+    Map<String, Object> result = propiedadTool.searchPropiedades("av central", null, null);
+
+    assertThat(result.get("success")).isEqualTo(true);
+    assertThat(result.get("count")).isEqualTo(1);
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> items = (List<Map<String, Object>>) result.get("propiedades");
+    assertThat(items.get(0)).containsEntry("id", 1L).containsEntry("score", 0.877);
+  }
+
+  @Test
+  void searchPropiedades_error() {
+    when(searchService.search(
+            "x", EnumSet.of(SearchTipo.PROPIEDAD), null, ToolPayloadBudget.DEFAULT_LIMIT))
+        .thenThrow(new RuntimeException("La búsqueda debe tener entre 2 y 200 caracteres"));
+
+    Map<String, Object> result = propiedadTool.searchPropiedades("x", null, null);
+
+    assertThat(result.get("success")).isEqualTo(false);
+    assertThat((String) result.get("error")).contains("Error searching propiedades");
+  }
+
   @Test
   void getPropiedadById_success() {
     when(propiedadService.findById(1L)).thenReturn(sampleResponse);
@@ -123,6 +206,45 @@ class PropiedadToolTest {
     assertThat((String) result.get("error")).contains("Invalid tipo");
   }
 
+  @Test
+  void createPropiedades_createsAllInOneServiceCall() {
+    when(propiedadService.createAll(anyList())).thenReturn(List.of(sampleResponse, sampleResponse));
+
+    Map<String, Object> result =
+        propiedadTool.createPropiedades(
+            List.of(newPropiedad("Casa Uno", "casa"), newPropiedad("Depto Dos", "Departamento")));
+
+    assertThat(result.get("success")).isEqualTo(true);
+    assertThat(result.get("count")).isEqualTo(2);
+    ArgumentCaptor<List<CreatePropiedadRequest>> requests = ArgumentCaptor.captor();
+    verify(propiedadService).createAll(requests.capture());
+    assertThat(requests.getValue())
+        .extracting(CreatePropiedadRequest::getTipo)
+        .containsExactly(PropiedadTipo.CASA, PropiedadTipo.DEPARTAMENTO);
+  }
+
+  @Test
+  void createPropiedades_invalidItem_createsNothing() {
+    Map<String, Object> result =
+        propiedadTool.createPropiedades(
+            List.of(newPropiedad("Casa Uno", "CASA"), newPropiedad("Nave", "BODEGA")));
+
+    assertThat(result.get("success")).isEqualTo(false);
+    assertThat((String) result.get("error")).contains("Invalid tipo");
+    verifyNoInteractions(propiedadService);
+  }
+
+  @Test
+  void createPropiedades_tooManyItems_returnsError() {
+    List<PropiedadTool.NewPropiedad> propiedades =
+        Collections.nCopies(ToolPayloadBudget.MAX_BATCH_ITEMS + 1, newPropiedad("Casa", "CASA"));
+
+    Map<String, Object> result = propiedadTool.createPropiedades(propiedades);
+
+    assertThat(result.get("success")).isEqualTo(false);
+    assertThat((String) result.get("error")).contains("split the list");
+  }
+
   @Test
   void updatePropiedad_success() {
     when(propiedadService.update(eq(1L), any(UpdatePropiedadRequest.class)))
@@ -160,4 +282,12 @@ class PropiedadToolTest {
 
     assertThat(result.get("success")).isEqualTo(false);
   }
+
+  private static PropiedadTool.NewPropiedad newPropiedad(String nombre, String tipo) {
+    PropiedadTool.NewPropiedad propiedad = new PropiedadTool.NewPropiedad();
+    propiedad.setNombre(nombre);
+    propiedad.setTipo(tipo);
+    propiedad.setInmobiliariaId(10);
+    return propiedad;
+  }
 }
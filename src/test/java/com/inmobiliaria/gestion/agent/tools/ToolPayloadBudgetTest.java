@@ -0,0 +1,103 @@
+package com.inmobiliaria.gestion.agent.tools;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ToolPayloadBudgetTest {
+
+  private static final Set<String> AVAILABLE =
+      new LinkedHashSet<>(List.of("id", "nombre", "direccion", "observaciones"));
+  private static final Set<String> DEFAULTS = new LinkedHashSet<>(List.of("id", "nombre"));
+
+  @Test
+  void resolveFields_usesDefaultsAllOrSelectionWithId() {
+    ToolPayloadBudget budget = new ToolPayloadBudget(1024);
+
+    assertThat(budget.resolveFields(null, AVAILABLE, DEFAULTS)).isEqualTo(DEFAULTS);
+    assertThat(budget.resolveFields("*", AVAILABLE, DEFAULTS)).isEqualTo(AVAILABLE);
+    assertThat(budget.resolveFields(" Direccion , ", AVAILABLE, DEFAULTS))
+        .containsExactly("id", "direccion");
+    assertThatThrownBy(() -> budget.resolveFields("precio", AVAILABLE, DEFAULTS))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("Unknown field 'precio'");
+  }
+
+  @Test
+  void project_keepsSelectedNonNullFields() {
+    ToolPayloadBudget budget = new ToolPayloadBudget(1024);
+    Map<String, Object> row = new HashMap<>(Map.of("id", 1L, "nombre", "Casa"));
+    row.put("direccion", null);
+
+    assertThat(budget.project(row, Set.of("id", "direccion"))).containsOnlyKeys("id");
+  }
+
+  @Test
+  void page_withinBudget_keepsServiceCursor() {
+    ToolPayloadBudget budget = new ToolPayloadBudget(1024);
+
+    Map<String, Object> result =
+        budget.page("propiedades", rows(3), "next", id -> "after:" + id);
+
+    assertThat(result)
+        .containsEntry("success", true)
+        .containsEntry("count", 3)
+        .containsEntry("hasMore", true)
+        .containsEntry("nextCursor", "next");
+  }
+
+  @Test
+  void page_overBudget_truncatesAndResumesAfterLastReturnedRow() {
+    ToolPayloadBudget budget = new ToolPayloadBudget(120);
+
+    Map<String, Object> result = budget.page("propiedades", rows(10), null, id -> "after:" + id);
+
+    int count = (Integer) result.get("count");
+    assertThat(count).isBetween(1, 9);
+    assertThat(result)
+        .containsEntry("hasMore", true)
+        .containsEntry("nextCursor", "after:" + count);
+    assertThat((String) result.get("note")).contains("truncated");
+  }
+
+  @Test
+  void page_alwaysReturnsAtLeastOneRow() {
+    ToolPayloadBudget budget = new ToolPayloadBudget(1);
+
+    Map<String, Object> result = budget.page("propiedades", rows(2), null, id -> "after:" + id);
+
+    assertThat(result).containsEntry("count", 1).containsEntry("nextCursor", "after:1");
+  }
+
+  @Test
+  void rankedPage_overBudget_resumesAfterReturnedPositions() {
+    ToolPayloadBudget budget = new ToolPayloadBudget(120);
+
+    Map<String, Object> result =
+        budget.rankedPage("propiedades", rows(10), "next", kept -> "skip:" + kept);
+
+    assertThat(result).containsEntry("count", 3).containsEntry("nextCursor", "skip:3");
+  }
+
+  @Test
+  void page_lastPage_hasNoCursor() {
+    ToolPayloadBudget budget = new ToolPayloadBudget(1024);
+
+    Map<String, Object> result = budget.page("propiedades", rows(2), null, id -> "after:" + id);
+
+    assertThat(result).containsEntry("hasMore", false).doesNotContainKey("nextCursor");
+  }
+
+  private static List<Map<String, Object>> rows(int count) {
+    return IntStream.rangeClosed(1, count)
+        .<Map<String, Object>>mapToObj(id -> Map.of("id", (long) id, "nombre", "Propiedad " + id))
+        .toList();
+  }
+}
@@ -0,0 +1,111 @@
+package com.inmobiliaria.gestion.auth.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.inmobiliaria.gestion.auth.domain.UserAccount;
+import com.inmobiliaria.gestion.auth.domain.UserRole;
+import com.inmobiliaria.gestion.auth.service.UserAccountChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtAuthenticationCacheTest {
+
+  private MutableClock clock;
+  private JwtAuthenticationCache cache;
+  private UserAccount user;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+    cache = new JwtAuthenticationCache(100, 300, clock, new SimpleMeterRegistry());
+    user = new UserAccount("cache@example.com", "hash", "Cache User", UserRole.ADMIN);
+    ReflectionTestUtils.setField(user, "id", 7L);
+  }
+
+  @Test
+  @DisplayName("Debe devolver la autenticación almacenada para el mismo token")
+  void shouldReturnCachedAuthentication() {
+    cache.put("token-a", payloadExpiringIn(Duration.ofHours(1)), user);
+
+    CachedAuthentication cached = cache.get("token-a");
+
+    assertThat(cached).isNotNull();
+    assertThat(cached.getUser()).isSameAs(user);
+    assertThat(cache.get("token-b")).isNull();
+  }
+
+  @Test
+  @DisplayName("No debe devolver entradas cuyo token ya expiró")
+  void shouldExpireWithToken() {
+    cache.put("token-a", payloadExpiringIn(Duration.ofSeconds(30)), user);
+
+    clock.advance(Duration.ofSeconds(31));
+
+    assertThat(cache.get("token-a")).isNull();
+  }
+
+  @Test
+  @DisplayName("Debe limitar la vida de la entrada al TTL configurado")
+  void shouldExpireAfterTtl() {
+    cache.put("token-a", payloadExpiringIn(Duration.ofHours(1)), user);
+
+    clock.advance(Duration.ofSeconds(301));
+
+    assertThat(cache.get("token-a")).isNull();
+  }
+
+  @Test
+  @DisplayName("Debe invalidar los tokens de un usuario cuando cambian sus credenciales")
+  void shouldInvalidateUserOnAccountChange() {
+    UserAccount other = new UserAccount("other@example.com", "hash", "Other", UserRole.USER);
+    ReflectionTestUtils.setField(other, "id", 8L);
+    cache.put("token-a", payloadExpiringIn(Duration.ofHours(1)), user);
+    cache.put("token-b", payloadExpiringIn(Duration.ofHours(1)), other);
+
+    cache.onUserAccountChanged(new UserAccountChangedEvent(7L));
+
+    assertThat(cache.get("token-a")).isNull();
+    assertThat(cache.get("token-b")).isNotNull();
+  }
+
+  private JwtPayload payloadExpiringIn(Duration duration) {
+    Instant now = clock.instant();
+    return new JwtPayload(7L, "cache@example.com", "Cache User", "ADMIN", now, now.plus(duration));
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now;
+
+    private MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.inmobiliaria.gestion.auth.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.inmobiliaria.gestion.auth.domain.UserAccount;
+import com.inmobiliaria.gestion.auth.domain.UserRole;
+import com.inmobiliaria.gestion.auth.service.UserAccountChangedEvent;
+import com.inmobiliaria.gestion.auth.service.UserAccountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+  @Mock private JwtUtil jwtUtil;
+  @Mock private UserAccountService userAccountService;
+
+  private JwtAuthenticationCache cache;
+  private JwtAuthenticationFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    Clock clock = Clock.systemUTC();
+    cache = new JwtAuthenticationCache(100, 300, clock, new SimpleMeterRegistry());
+    filter = new JwtAuthenticationFilter(jwtUtil, userAccountService, cache);
+  }
+
+  @AfterEach
+  void clearContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("Debe validar el token y consultar al usuario solo en la primera petición")
+  void shouldSkipValidationAndLookupForCachedToken() throws Exception {
+    UserAccount user = new UserAccount("filter@example.com", "hash", "Filter", UserRole.ADMIN);
+    ReflectionTestUtils.setField(user, "id", 3L);
+    Instant now = Instant.now();
+    given(jwtUtil.validateToken("abc.def.ghi"))
+        .willReturn(
+            new JwtPayload(3L, "filter@example.com", "Filter", "ADMIN", now, now.plusSeconds(600)));
+    given(userAccountService.getById(3L)).willReturn(user);
+
+    for (int i = 0; i < 3; i++) {
+      SecurityContextHolder.clearContext();
+      MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/propiedades");
+      request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer abc.def.ghi");
+      MockHttpServletResponse response = new MockHttpServletResponse();
+
+      filter.doFilter(request, response, new MockFilterChain());
+
+      assertThat(response.getStatus()).isEqualTo(200);
+      assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal())
+          .isSameAs(user);
+    }
+
+    verify(jwtUtil, times(1)).validateToken("abc.def.ghi");
+    verify(userAccountService, times(1)).getById(3L);
+  }
+
+  @Test
+  @DisplayName("Debe aplicar una degradación de rol sin esperar a que expire el token")
+  void shouldGrantStoredRoleAfterDemotion() throws Exception {
+    UserAccount admin = new UserAccount("filter@example.com", "hash", "Filter", UserRole.ADMIN);
+    ReflectionTestUtils.setField(admin, "id", 3L);
+    UserAccount demoted = new UserAccount("filter@example.com", "hash", "Filter", UserRole.USER);
+    ReflectionTestUtils.setField(demoted, "id", 3L);
+    Instant now = Instant.now();
+    given(jwtUtil.validateToken("abc.def.ghi"))
+        .willReturn(
+            new JwtPayload(3L, "filter@example.com", "Filter", "ADMIN", now, now.plusSeconds(600)));
+    given(userAccountService.getById(3L)).willReturn(admin, demoted);
+
+    assertThat(authoritiesFor("abc.def.ghi")).containsExactly("ROLE_ADMIN");
+
+    cache.onUserAccountChanged(new UserAccountChangedEvent(3L));
+
+    assertThat(authoritiesFor("abc.def.ghi")).containsExactly("ROLE_USER");
+  }
+
+  private List<String> authoritiesFor(String token) throws Exception {
+    SecurityContextHolder.clearContext();
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/propiedades");
+    request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(request, response, new MockFilterChain());
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    return SecurityContextHolder.getContext().getAuthentication().getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority)
+        .toList();
+  }
+}
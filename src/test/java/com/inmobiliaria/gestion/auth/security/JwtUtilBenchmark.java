@@ -0,0 +1,95 @@
+package com.inmobiliaria.gestion.auth.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.gestion.auth.domain.UserAccount;
+import com.inmobiliaria.gestion.auth.domain.UserRole;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Per-request cost of {@link JwtUtil#validateToken(String)} against the previous implementation
+ * (regex split, a fresh {@link Mac} per call, string signature comparison and a full JSON tree).
+ *
+ * <p>Not part of the test suite; run it from the IDE or with {@code java -cp
+ * target/test-classes:<test classpath> com.inmobiliaria.gestion.auth.security.JwtUtilBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JwtUtilBenchmark {
+
+  private static final String SECRET = "clave-secreta-de-benchmark-con-longitud-suficiente";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final Base64.Encoder urlEncoder = Base64.getUrlEncoder().withoutPadding();
+  private final Base64.Decoder urlDecoder = Base64.getUrlDecoder();
+  private final byte[] secretKey = SECRET.getBytes(StandardCharsets.UTF_8);
+
+  private JwtUtil jwtUtil;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    jwtUtil = new JwtUtil(SECRET, 3600, objectMapper, Clock.systemUTC());
+    UserAccount user =
+        new UserAccount("bench@example.com", "hash", "Usuario Benchmark", UserRole.USER);
+    ReflectionTestUtils.setField(user, "id", 42L);
+    token = jwtUtil.generateToken(user);
+  }
+
+  @Benchmark
+  public JwtPayload current() {
+    return jwtUtil.validateToken(token);
+  }
+
+  @Benchmark
+  public JwtPayload legacy() throws Exception {
+    String[] parts = token.split("\\.");
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(secretKey, "HmacSHA256"));
+    String expected =
+        urlEncoder.encodeToString(
+            mac.doFinal((parts[0] + "." + parts[1]).getBytes(StandardCharsets.UTF_8)));
+    if (!Objects.equals(expected, parts[2])) {
+      throw new IllegalStateException("firma inválida");
+    }
+    JsonNode payload = objectMapper.readTree(urlDecoder.decode(parts[1]));
+    return new JwtPayload(
+        payload.get("uid").asLong(),
+        payload.get("sub").asText(),
+        payload.get("name").asText(),
+        payload.get("role").asText(),
+        Instant.ofEpochSecond(payload.get("iat").asLong()),
+        Instant.ofEpochSecond(payload.get("exp").asLong()));
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(JwtUtilBenchmark.class.getSimpleName()).build()).run();
+  }
+}
@@ -0,0 +1,132 @@
+package com.inmobiliaria.gestion.auth.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.gestion.auth.domain.UserAccount;
+import com.inmobiliaria.gestion.auth.domain.UserRole;
+import com.inmobiliaria.gestion.exception.JwtValidationException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtUtilTest {
+
+  private static final String SECRET = "clave-secreta-de-pruebas-con-longitud-suficiente";
+  private static final Instant NOW = Instant.parse("2025-01-01T10:00:00Z");
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private JwtUtil jwtUtil;
+  private UserAccount user;
+
+  @BeforeEach
+  void setUp() {
+    jwtUtil = new JwtUtil(SECRET, 3600, objectMapper, Clock.fixed(NOW, ZoneOffset.UTC));
+    user = new UserAccount("jwt@example.com", "hash", "Usuario JWT", UserRole.ADMIN);
+    ReflectionTestUtils.setField(user, "id", 7L);
+  }
+
+  @Test
+  @DisplayName("Debe validar un token generado y devolver sus claims")
+  void shouldRoundTripGeneratedToken() {
+    JwtPayload payload = jwtUtil.validateToken(jwtUtil.generateToken(user));
+
+    assertThat(payload.getUserId()).isEqualTo(7L);
+    assertThat(payload.getEmail()).isEqualTo("jwt@example.com");
+    assertThat(payload.getFullName()).isEqualTo("Usuario JWT");
+    assertThat(payload.getRole()).isEqualTo("ADMIN");
+    assertThat(payload.getIssuedAt()).isEqualTo(NOW);
+    assertThat(payload.getExpiresAt()).isEqualTo(NOW.plusSeconds(3600));
+  }
+
+  @Test
+  @DisplayName("Debe rechazar un token con la firma alterada")
+  void shouldRejectTamperedSignature() {
+    String token = jwtUtil.generateToken(user);
+    int signatureStart = token.lastIndexOf('.') + 1;
+    char replaced = token.charAt(signatureStart) == 'A' ? 'B' : 'A';
+    String tampered =
+        token.substring(0, signatureStart) + replaced + token.substring(signatureStart + 1);
+
+    assertThatThrownBy(() -> jwtUtil.validateToken(tampered))
+        .isInstanceOf(JwtValidationException.class)
+        .hasMessage("Firma del token JWT inválida");
+  }
+
+  @Test
+  @DisplayName("Debe rechazar tokens sin exactamente tres segmentos")
+  void shouldRejectMalformedToken() {
+    String token = jwtUtil.generateToken(user);
+
+    assertThatThrownBy(() -> jwtUtil.validateToken("abc.def"))
+        .isInstanceOf(JwtValidationException.class)
+        .hasMessage("Token JWT con formato inválido");
+    assertThatThrownBy(() -> jwtUtil.validateToken(token + ".extra"))
+        .isInstanceOf(JwtValidationException.class)
+        .hasMessage("Token JWT con formato inválido");
+  }
+
+  @Test
+  @DisplayName("Debe rechazar un token expirado")
+  void shouldRejectExpiredToken() {
+    String token = jwtUtil.generateToken(user);
+    JwtUtil later =
+        new JwtUtil(SECRET, 3600, objectMapper, Clock.fixed(NOW.plusSeconds(7200), ZoneOffset.UTC));
+
+    assertThatThrownBy(() -> later.validateToken(token))
+        .isInstanceOf(JwtValidationException.class)
+        .hasMessage("El token JWT ha expirado");
+  }
+
+  @Test
+  @DisplayName("Debe rechazar un token firmado al que le falta un claim obligatorio")
+  void shouldRejectTokenWithMissingClaim() throws Exception {
+    String payload =
+        "{\"sub\":\"jwt@example.com\",\"name\":\"Usuario JWT\",\"role\":\"ADMIN\",\"extra\":{\"a\":[1,2]},"
+            + "\"iat\":"
+            + NOW.getEpochSecond()
+            + ",\"exp\":"
+            + NOW.plusSeconds(60).getEpochSecond()
+            + "}";
+
+    assertThatThrownBy(() -> jwtUtil.validateToken(signedToken(payload)))
+        .isInstanceOf(JwtValidationException.class)
+        .hasMessage("Campo uid ausente en el token");
+  }
+
+  @Test
+  @DisplayName("Debe ignorar los miembros de un claim conocido que contiene un objeto o arreglo")
+  void shouldSkipStructuredValueOfKnownClaim() throws Exception {
+    String payload =
+        "{\"uid\":7,\"sub\":\"jwt@example.com\",\"name\":[\"Usuario\",{\"x\":1}],"
+            + "\"role\":{\"role\":\"ADMIN\",\"exp\":0},"
+            + "\"iat\":"
+            + NOW.getEpochSecond()
+            + ",\"exp\":"
+            + NOW.plusSeconds(60).getEpochSecond()
+            + "}";
+
+    assertThatThrownBy(() -> jwtUtil.validateToken(signedToken(payload)))
+        .isInstanceOf(JwtValidationException.class)
+        .hasMessage("Campo name ausente en el token");
+  }
+
+  private String signedToken(String payloadJson) throws Exception {
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    String header = encoder.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8));
+    String payload = encoder.encodeToString(payloadJson.getBytes(StandardCharsets.UTF_8));
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    byte[] signature = mac.doFinal((header + "." + payload).getBytes(StandardCharsets.US_ASCII));
+    return header + "." + payload + "." + encoder.encodeToString(signature);
+  }
+}
@@ -0,0 +1,104 @@
+package com.inmobiliaria.gestion.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.inmobiliaria.gestion.agent.config.AgentConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Scheduler;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class ReadReplicaDataSourceConfigTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final DataSource dataSource =
+      ReadReplicaDataSourceConfig.routingDataSource(
+          h2("routing_primary"),
+          h2("routing_replica"),
+          new ReadYourWritesTracker(Duration.ofMinutes(1)),
+          registry);
+  private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+  private final DataSourceTransactionManager transactionManager =
+      new DataSourceTransactionManager(dataSource);
+
+  @AfterEach
+  void clearUser() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void readOnlyTransactionsUseTheReplica() {
+    assertThat(inTransaction(true)).endsWith("routing_replica");
+    assertThat(inTransaction(false)).endsWith("routing_primary");
+    assertThat(jdbcTemplate.execute(currentUrl())).endsWith("routing_primary");
+    assertThat(registry.counter("datasource.reads", "pool", "replica").count()).isEqualTo(1);
+  }
+
+  @Test
+  void userReadsOwnWritesFromThePrimary() {
+    SecurityContextHolder.getContext()
+        .setAuthentication(new TestingAuthenticationToken("ana@example.com", null, "USER"));
+    assertThat(inTransaction(true)).endsWith("routing_replica");
+
+    assertThat(inTransaction(false)).endsWith("routing_primary");
+
+    assertThat(inTransaction(true)).endsWith("routing_primary");
+    assertThat(registry.counter("datasource.reads", "pool", "primary").count()).isEqualTo(1);
+
+    SecurityContextHolder.getContext()
+        .setAuthentication(new TestingAuthenticationToken("luis@example.com", null, "USER"));
+    assertThat(inTransaction(true)).endsWith("routing_replica");
+  }
+
+  @Test
+  void agentWritesOffTheRequestThreadPinReadsToThePrimary() {
+    SecurityContextHolder.getContext()
+        .setAuthentication(new TestingAuthenticationToken("sofia@example.com", null, "USER"));
+    Scheduler scheduler = new AgentConfig().agentStreamScheduler();
+    try {
+      Completable.fromRunnable(() -> inTransaction(false)).subscribeOn(scheduler).blockingAwait();
+    } finally {
+      scheduler.shutdown();
+    }
+
+    assertThat(inTransaction(true)).endsWith("routing_primary");
+  }
+
+  @Test
+  void rolledBackWritesDoNotPinReadsToThePrimary() {
+    SecurityContextHolder.getContext()
+        .setAuthentication(new TestingAuthenticationToken("eva@example.com", null, "USER"));
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.executeWithoutResult(
+        status -> {
+          jdbcTemplate.execute(currentUrl());
+          status.setRollbackOnly();
+        });
+
+    assertThat(inTransaction(true)).endsWith("routing_replica");
+  }
+
+  private String inTransaction(boolean readOnly) {
+    TransactionTemplate template = new TransactionTemplate(transactionManager);
+    template.setReadOnly(readOnly);
+    return template.execute(status -> jdbcTemplate.execute(currentUrl()));
+  }
+
+  private static ConnectionCallback<String> currentUrl() {
+    return connection -> connection.getMetaData().getURL();
+  }
+
+  private static DataSource h2(String name) {
+    return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+  }
+}
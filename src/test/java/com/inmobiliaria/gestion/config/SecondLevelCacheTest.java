@@ -0,0 +1,152 @@
+package com.inmobiliaria.gestion.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
+import com.inmobiliaria.gestion.inmobiliaria.dto.UpdateInmobiliariaRequest;
+import com.inmobiliaria.gestion.inmobiliaria.repository.InmobiliariaRepository;
+import com.inmobiliaria.gestion.inmobiliaria.service.InmobiliariaService;
+import com.inmobiliaria.gestion.propiedad.domain.Propiedad;
+import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
+import com.inmobiliaria.gestion.propiedad.dto.CreatePropiedadRequest;
+import com.inmobiliaria.gestion.propiedad.repository.PropiedadRepository;
+import com.inmobiliaria.gestion.propiedad.service.PropiedadService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+// Not @Transactional: Hibernate only fills the shared regions once a transaction commits.
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class SecondLevelCacheTest {
+
+  @Autowired private InmobiliariaService inmobiliariaService;
+  @Autowired private PropiedadService propiedadService;
+  @Autowired private InmobiliariaRepository inmobiliariaRepository;
+  @Autowired private PropiedadRepository propiedadRepository;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+  @Autowired private JdbcTemplate jdbcTemplate;
+  @Autowired private ApplicationEventPublisher eventPublisher;
+  @Autowired private MeterRegistry meterRegistry;
+
+  private Statistics statistics;
+  private Inmobiliaria inmobiliaria;
+
+  @BeforeEach
+  void setUp() {
+    inmobiliaria = new Inmobiliaria();
+    inmobiliaria.setNombre("Inmo Cache");
+    inmobiliaria = inmobiliariaRepository.save(inmobiliaria);
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @AfterEach
+  void cleanUp() {
+    propiedadRepository.deleteAll();
+    inmobiliariaRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Debe resolver la inmobiliaria desde la caché de segundo nivel")
+  void shouldLoadInmobiliariaFromSecondLevelCache() {
+    assertThat(inmobiliariaRepository.findById(inmobiliaria.getId())).isPresent();
+
+    assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+    assertThat(
+            meterRegistry
+                .get("cache.gets")
+                .tag("cache", SecondLevelCacheConfig.INMOBILIARIAS_REGION)
+                .tag("result", "hit")
+                .functionCounter()
+                .count())
+        .isPositive();
+  }
+
+  @Test
+  @DisplayName("Debe reflejar actualizaciones y eliminaciones en la caché de segundo nivel")
+  void shouldInvalidateInmobiliariaOnUpdateAndDelete() {
+    inmobiliariaService.update(
+        inmobiliaria.getId(),
+        new UpdateInmobiliariaRequest("Inmo Renombrada", null, null, null, null));
+
+    assertThat(inmobiliariaRepository.findById(inmobiliaria.getId()))
+        .hasValueSatisfying(found -> assertThat(found.getNombre()).isEqualTo("Inmo Renombrada"));
+
+    inmobiliariaService.delete(inmobiliaria.getId());
+
+    assertThat(inmobiliariaRepository.findById(inmobiliaria.getId())).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Debe cachear el listado por inmobiliaria e invalidarlo al crear propiedades")
+  void shouldCacheListingByInmobiliariaUntilAPropiedadIsCreated() {
+    Long id = inmobiliaria.getId();
+    assertThat(propiedadService.findAllByInmobiliaria(id)).isEmpty();
+    assertThat(propiedadService.findAllByInmobiliaria(id)).isEmpty();
+    assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+    propiedadService.create(
+        new CreatePropiedadRequest("Casa Cache", PropiedadTipo.CASA, null, null, id));
+
+    assertThat(propiedadService.findAllByInmobiliaria(id)).hasSize(1);
+  }
+
+  @Test
+  @DisplayName("Debe invalidar el listado por inmobiliaria tras una escritura masiva por JDBC")
+  void shouldEvictListingAfterBulkJdbcWrite() {
+    Long id = inmobiliaria.getId();
+    Propiedad propiedad = new Propiedad();
+    propiedad.setNombre("Casa Importada");
+    propiedad.setTipo(PropiedadTipo.CASA);
+    propiedad.setInmobiliaria(inmobiliaria);
+    Long propiedadId = propiedadRepository.save(propiedad).getId();
+    assertThat(propiedadService.findAllByInmobiliaria(id)).hasSize(1);
+
+    // Same path as the bulk import: a JDBC write Hibernate never sees, announced without an id.
+    jdbcTemplate.update("UPDATE propiedades SET nombre = 'Casa JDBC' WHERE id = ?", propiedadId);
+    eventPublisher.publishEvent(new DataChangedEvent(DataChangedEvent.PROPIEDAD, null));
+
+    assertThat(propiedadService.findAllByInmobiliaria(id))
+        .singleElement()
+        .satisfies(row -> assertThat(row.getNombre()).isEqualTo("Casa JDBC"));
+  }
+
+  @Test
+  @DisplayName("Con réplica debe invalidar de nuevo tras la ventana de retraso de la réplica")
+  void shouldEvictAgainAfterReplicaLagWindow() throws InterruptedException {
+    Long id = inmobiliaria.getId();
+    SecondLevelCacheEvictor evictor =
+        new SecondLevelCacheEvictor(entityManagerFactory, "jdbc:h2:mem:replica", 0);
+    Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    // The write committed, but the cache holds what a lagging replica returned right after it.
+    jdbcTemplate.update("UPDATE inmobiliarias SET nombre = 'Inmo Renombrada' WHERE id = ?", id);
+    assertThat(cache.containsEntity(Inmobiliaria.class, id)).isTrue();
+
+    evictor.onDataChanged(new DataChangedEvent(DataChangedEvent.INMOBILIARIA, id));
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (cache.containsEntity(Inmobiliaria.class, id) && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertThat(inmobiliariaRepository.findById(id))
+        .hasValueSatisfying(found -> assertThat(found.getNombre()).isEqualTo("Inmo Renombrada"));
+  }
+}
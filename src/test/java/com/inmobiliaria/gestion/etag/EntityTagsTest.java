@@ -0,0 +1,35 @@
+package com.inmobiliaria.gestion.etag;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.inmobiliaria.gestion.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+
+class EntityTagsTest {
+
+  @Test
+  void of_joinsPartsIntoQuotedTag() {
+    assertThat(EntityTags.of(3L, 1L)).isEqualTo("\"3.1\"");
+    assertThat(EntityTags.of(0L)).isEqualTo("\"0\"");
+  }
+
+  @Test
+  void matches_acceptsMissingHeaderWildcardAndListedTag() {
+    String current = EntityTags.of(2L);
+
+    assertThat(EntityTags.matches(null, current)).isTrue();
+    assertThat(EntityTags.matches("*", current)).isTrue();
+    assertThat(EntityTags.matches("\"1\", \"2\"", current)).isTrue();
+  }
+
+  @Test
+  void matches_rejectsStaleAndWeakTags() {
+    String current = EntityTags.of(2L);
+
+    assertThat(EntityTags.matches("\"1\"", current)).isFalse();
+    assertThat(EntityTags.matches("W/\"2\"", current)).isFalse();
+    assertThatThrownBy(() -> EntityTags.requireMatch("\"1\"", current))
+        .isInstanceOf(PreconditionFailedException.class);
+  }
+}
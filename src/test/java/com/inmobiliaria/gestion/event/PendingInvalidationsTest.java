@@ -0,0 +1,83 @@
+package com.inmobiliaria.gestion.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PendingInvalidationsTest {
+
+  private static final String ORIGIN = "instance-a";
+
+  @Test
+  void add_coalescesRepeatedIdsPerType() {
+    PendingInvalidations pending = new PendingInvalidations(10);
+    pending.add("propiedad", 1L);
+    pending.add("propiedad", 1L);
+    pending.add("propiedad", 2L);
+    pending.add("persona", 7L);
+
+    Map<String, Set<Long>> batch = pending.drain();
+
+    assertThat(batch).containsOnlyKeys("propiedad", "persona");
+    assertThat(batch.get("propiedad")).containsExactly(1L, 2L);
+    assertThat(pending.isEmpty()).isTrue();
+  }
+
+  @Test
+  void add_collapsesBurstsAndBulkChangesIntoWildcard() {
+    PendingInvalidations pending = new PendingInvalidations(2);
+    pending.add("propiedad", 1L);
+    pending.add("propiedad", 2L);
+    pending.add("propiedad", 3L);
+    pending.add("persona", 1L);
+    pending.add("persona", null);
+    pending.add("persona", 2L);
+
+    Map<String, Set<Long>> batch = pending.drain();
+
+    assertThat(batch).containsEntry("propiedad", null).containsEntry("persona", null);
+  }
+
+  @Test
+  void encode_roundTripsThroughDecode() {
+    PendingInvalidations pending = new PendingInvalidations(10);
+    pending.add("propiedad", 1L);
+    pending.add("propiedad", 2L);
+    pending.add("inmobiliaria", null);
+
+    List<String> payloads = PendingInvalidations.encode(ORIGIN, pending.drain(), 7900);
+
+    assertThat(payloads).containsExactly("instance-a|propiedad:1;propiedad:2;inmobiliaria:*");
+    assertThat(PendingInvalidations.origin(payloads.get(0))).isEqualTo(ORIGIN);
+    Map<String, Set<Long>> decoded = PendingInvalidations.decode(payloads.get(0));
+    assertThat(decoded.get("propiedad")).containsExactly(1L, 2L);
+    assertThat(decoded).containsEntry("inmobiliaria", null);
+  }
+
+  @Test
+  void encode_splitsPayloadsAtByteLimit() {
+    PendingInvalidations pending = new PendingInvalidations(1000);
+    for (long id = 1; id <= 500; id++) {
+      pending.add("propiedad", id);
+    }
+
+    List<String> payloads = PendingInvalidations.encode(ORIGIN, pending.drain(), 200);
+
+    assertThat(payloads).hasSizeGreaterThan(1).allSatisfy(p -> assertThat(p).hasSizeLessThan(201));
+    assertThat(payloads)
+        .flatExtracting(p -> PendingInvalidations.decode(p).get("propiedad"))
+        .hasSize(500);
+  }
+
+  @Test
+  void decode_skipsMalformedItems() {
+    Map<String, Set<Long>> decoded =
+        PendingInvalidations.decode("instance-b|propiedad:x;:3;persona:4;broken");
+
+    assertThat(decoded).containsOnlyKeys("persona");
+    assertThat(PendingInvalidations.origin("no-separator")).isNull();
+  }
+}
@@ -0,0 +1,155 @@
+package com.inmobiliaria.gestion.exportacion.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
+import com.inmobiliaria.gestion.inmobiliaria.repository.InmobiliariaRepository;
+import com.inmobiliaria.gestion.persona.domain.Persona;
+import com.inmobiliaria.gestion.persona.domain.PersonaTipo;
+import com.inmobiliaria.gestion.persona.repository.PersonaRepository;
+import com.inmobiliaria.gestion.propiedad.domain.Propiedad;
+import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
+import com.inmobiliaria.gestion.propiedad.repository.PropiedadRepository;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+// Not @Transactional: the export reads on the async dispatch thread in its own transaction.
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ExportControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private InmobiliariaRepository inmobiliariaRepository;
+  @Autowired private PropiedadRepository propiedadRepository;
+  @Autowired private PersonaRepository personaRepository;
+
+  @AfterEach
+  void cleanUp() {
+    propiedadRepository.deleteAll();
+    personaRepository.deleteAll();
+    inmobiliariaRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Debe exportar propiedades como NDJSON comprimido con el nombre de la inmobiliaria")
+  void shouldExportPropiedadesAsGzippedNdjson() throws Exception {
+    Inmobiliaria inmobiliaria = createInmobiliaria("Inmo Export");
+    createPropiedad("Casa Export", inmobiliaria);
+    createPropiedad("Local Export", inmobiliaria);
+
+    MvcResult result = export(get("/api/export/propiedades"));
+
+    assertThat(result.getResponse().getHeader("Content-Encoding")).isEqualTo("gzip");
+    String[] lines = gunzip(result.getResponse().getContentAsByteArray()).split("\n");
+    assertThat(lines).hasSize(2);
+    JsonNode first = objectMapper.readTree(lines[0]);
+    assertThat(first.get("nombre").asText()).isEqualTo("Casa Export");
+    assertThat(first.get("inmobiliariaNombre").asText()).isEqualTo("Inmo Export");
+    assertThat(first.has("updatedAt")).isTrue();
+    assertThat(first.has("observaciones")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Debe exportar personas como CSV sin comprimir")
+  void shouldExportPersonasAsCsv() throws Exception {
+    createPersona("Servicios Delta, S.A.");
+
+    MvcResult result =
+        export(get("/api/export/personas").param("formato", "CSV").param("gzip", "false"));
+
+    String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\r\n");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[0]).startsWith("id,tipoPersona,nombre,apellidos,razonSocial,");
+    assertThat(lines[1]).contains(",MORAL,,,\"Servicios Delta, S.A.\",").contains(",true,");
+  }
+
+  @Test
+  @DisplayName("Debe exportar solo las filas posteriores a la posición indicada")
+  void shouldExportIncrementally() throws Exception {
+    Inmobiliaria primera = createInmobiliaria("Primera");
+    Inmobiliaria segunda = createInmobiliaria("Segunda");
+
+    String afterId =
+        gunzip(
+            export(get("/api/export/inmobiliarias").param("desdeId", primera.getId().toString()))
+                .getResponse()
+                .getContentAsByteArray());
+    assertThat(afterId.split("\n")).hasSize(1);
+    assertThat(objectMapper.readTree(afterId).get("id").asLong()).isEqualTo(segunda.getId());
+
+    String afterPosition =
+        gunzip(
+            export(
+                    get("/api/export/inmobiliarias")
+                        .param("desde", segunda.getUpdatedAt().toString())
+                        .param("desdeId", segunda.getId().toString()))
+                .getResponse()
+                .getContentAsByteArray());
+    assertThat(afterPosition).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Debe devolver 404 para un catálogo desconocido")
+  void shouldRejectUnknownCatalog() throws Exception {
+    mockMvc.perform(get("/api/export/usuarios")).andExpect(status().isNotFound());
+  }
+
+  private MvcResult export(MockHttpServletRequestBuilder builder) throws Exception {
+    MvcResult started = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+    return mockMvc
+        .perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(header().exists("Content-Disposition"))
+        .andReturn();
+  }
+
+  private static String gunzip(byte[] compressed) throws Exception {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private Inmobiliaria createInmobiliaria(String nombre) {
+    Inmobiliaria inmobiliaria = new Inmobiliaria();
+    inmobiliaria.setNombre(nombre);
+    return inmobiliariaRepository.save(inmobiliaria);
+  }
+
+  private void createPropiedad(String nombre, Inmobiliaria inmobiliaria) {
+    Propiedad propiedad = new Propiedad();
+    propiedad.setNombre(nombre);
+    propiedad.setTipo(PropiedadTipo.CASA);
+    propiedad.setInmobiliaria(inmobiliaria);
+    propiedadRepository.save(propiedad);
+  }
+
+  private void createPersona(String razonSocial) {
+    Persona persona = new Persona();
+    persona.setTipoPersona(PersonaTipo.MORAL);
+    persona.setRazonSocial(razonSocial);
+    persona.setFechaAlta(LocalDateTime.of(2024, 2, 10, 9, 30));
+    persona.setActivo(true);
+    personaRepository.save(persona);
+  }
+}
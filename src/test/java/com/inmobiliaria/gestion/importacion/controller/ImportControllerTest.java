@@ -0,0 +1,182 @@
+package com.inmobiliaria.gestion.importacion.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
+import com.inmobiliaria.gestion.inmobiliaria.repository.InmobiliariaRepository;
+import com.inmobiliaria.gestion.persona.repository.PersonaRepository;
+import com.inmobiliaria.gestion.propiedad.domain.Propiedad;
+import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
+import com.inmobiliaria.gestion.propiedad.repository.PropiedadRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+// Not @Transactional: rows are written by the background import worker in its own transactions.
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ImportControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private InmobiliariaRepository inmobiliariaRepository;
+  @Autowired private PropiedadRepository propiedadRepository;
+  @Autowired private PersonaRepository personaRepository;
+
+  @AfterEach
+  void cleanUp() {
+    propiedadRepository.deleteAll();
+    personaRepository.deleteAll();
+    inmobiliariaRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Debe importar propiedades desde CSV reportando las filas inválidas")
+  void shouldImportPropiedadesFromCsv() throws Exception {
+    Inmobiliaria inmobiliaria = new Inmobiliaria();
+    inmobiliaria.setNombre("Central Inmuebles");
+    Long inmobiliariaId = inmobiliariaRepository.save(inmobiliaria).getId();
+    String csv =
+        "nombre,tipo,direccion,inmobiliariaId\n"
+            + "\"Casa Azul, jardín\",CASA,Av. Central 123,"
+            + inmobiliariaId
+            + "\n"
+            + ",CASA,Sin nombre,"
+            + inmobiliariaId
+            + "\n"
+            + "Local Norte,LOCAL,Calle 5,999999\n";
+
+    JsonNode job = awaitJob(upload("/api/import/propiedades", "text/csv", csv));
+
+    assertThat(job.get("estado").asText()).isEqualTo("COMPLETADO");
+    assertThat(job.get("filasLeidas").asLong()).isEqualTo(3);
+    assertThat(job.get("filasImportadas").asLong()).isEqualTo(1);
+    assertThat(job.get("filasConError").asLong()).isEqualTo(2);
+    assertThat(job.get("errores").get(0).get("fila").asLong()).isEqualTo(3);
+    assertThat(job.get("errores").get(0).get("mensaje").asText()).startsWith("nombre:");
+    assertThat(job.get("errores").get(1).get("fila").asLong()).isEqualTo(4);
+    assertThat(propiedadRepository.findAll())
+        .singleElement()
+        .satisfies(propiedad -> assertThat(propiedad.getNombre()).isEqualTo("Casa Azul, jardín"));
+  }
+
+  @Test
+  @DisplayName("Debe asignar ids de la secuencia sin chocar con los creados por JPA")
+  void shouldShareIdSequenceWithJpa() throws Exception {
+    Inmobiliaria inmobiliaria = new Inmobiliaria();
+    inmobiliaria.setNombre("Secuencia Inmuebles");
+    Long inmobiliariaId = inmobiliariaRepository.save(inmobiliaria).getId();
+    Propiedad creada = new Propiedad();
+    creada.setNombre("Creada por JPA");
+    creada.setTipo(PropiedadTipo.CASA);
+    creada.setInmobiliaria(inmobiliaria);
+    propiedadRepository.save(creada);
+
+    awaitJob(
+        upload(
+            "/api/import/propiedades",
+            "text/csv",
+            "nombre,tipo,inmobiliariaId\nImportada,CASA," + inmobiliariaId + "\n"));
+    Propiedad otra = new Propiedad();
+    otra.setNombre("Creada después");
+    otra.setTipo(PropiedadTipo.CASA);
+    otra.setInmobiliaria(inmobiliaria);
+    propiedadRepository.save(otra);
+
+    assertThat(propiedadRepository.findAll())
+        .extracting(Propiedad::getId)
+        .hasSize(3)
+        .doesNotHaveDuplicates();
+  }
+
+  @Test
+  @DisplayName("Debe importar personas desde NDJSON reportando las líneas inválidas")
+  void shouldImportPersonasFromNdjson() throws Exception {
+    String ndjson =
+        """
+        {"tipoPersona":"FISICA","nombre":"Ana","fechaAlta":"2024-02-10T09:30:00","activo":true}
+
+        {"tipoPersona":"MORAL","razonSocial":"Delta","fechaAlta":"2024-02-10T09:30:00"}
+        {"tipoPersona":
+        """;
+
+    JsonNode job =
+        awaitJob(upload("/api/import/personas", MediaType.APPLICATION_NDJSON_VALUE, ndjson));
+
+    assertThat(job.get("estado").asText()).isEqualTo("COMPLETADO");
+    assertThat(job.get("filasLeidas").asLong()).isEqualTo(3);
+    assertThat(job.get("filasImportadas").asLong()).isEqualTo(1);
+    assertThat(job.get("filasConError").asLong()).isEqualTo(2);
+    assertThat(job.get("errores").get(0).get("fila").asLong()).isEqualTo(3);
+    assertThat(job.get("errores").get(0).get("mensaje").asText()).startsWith("activo:");
+    assertThat(job.get("errores").get(1).get("fila").asLong()).isEqualTo(4);
+    assertThat(personaRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Debe marcar como fallida la importación con columnas desconocidas")
+  void shouldFailImportWithUnknownColumn() throws Exception {
+    JsonNode job =
+        awaitJob(upload("/api/import/propiedades", "text/csv", "nombre,precio\nCasa,1\n"));
+
+    assertThat(job.get("estado").asText()).isEqualTo("FALLIDO");
+    assertThat(job.get("mensaje").asText()).contains("precio");
+    assertThat(propiedadRepository.count()).isZero();
+  }
+
+  @Test
+  @DisplayName("Debe rechazar un archivo vacío")
+  void shouldRejectEmptyUpload() throws Exception {
+    mockMvc
+        .perform(post("/api/import/personas").contentType("text/csv").content(""))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Debe devolver 404 para una importación inexistente")
+  void shouldReturnNotFoundForUnknownJob() throws Exception {
+    mockMvc.perform(get("/api/import/jobs/desconocido")).andExpect(status().isNotFound());
+  }
+
+  private String upload(String path, String contentType, String content) throws Exception {
+    return mockMvc
+        .perform(post(path).contentType(contentType).content(content))
+        .andExpect(status().isAccepted())
+        .andExpect(header().exists("Location"))
+        .andReturn()
+        .getResponse()
+        .getHeader("Location");
+  }
+
+  private JsonNode awaitJob(String location) throws Exception {
+    for (int attempt = 0; attempt < 200; attempt++) {
+      String body =
+          mockMvc
+              .perform(get(location))
+              .andExpect(status().isOk())
+              .andReturn()
+              .getResponse()
+              .getContentAsString();
+      JsonNode job = objectMapper.readTree(body);
+      String estado = job.get("estado").asText();
+      if (estado.equals("COMPLETADO") || estado.equals("FALLIDO")) {
+        return job;
+      }
+      Thread.sleep(25);
+    }
+    throw new AssertionError("La importación no terminó a tiempo: " + location);
+  }
+}
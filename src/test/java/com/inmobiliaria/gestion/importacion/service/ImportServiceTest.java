@@ -0,0 +1,106 @@
+package com.inmobiliaria.gestion.importacion.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.gestion.exception.ImportQueueFullException;
+import com.inmobiliaria.gestion.importacion.domain.ImportEstado;
+import com.inmobiliaria.gestion.importacion.domain.ImportFormato;
+import com.inmobiliaria.gestion.importacion.dto.ImportJobResponse;
+import com.inmobiliaria.gestion.propiedad.dto.CreatePropiedadRequest;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class ImportServiceTest {
+
+  @Mock private PropiedadImportWriter propiedadWriter;
+  @Mock private PersonaImportWriter personaWriter;
+  @Mock private TransactionTemplate transactionTemplate;
+
+  private final CountDownLatch workersReleased = new CountDownLatch(1);
+  private ImportService importService;
+
+  @BeforeEach
+  void setUp() {
+    // One running job, one queued, Retry-After of 30 seconds.
+    importService =
+        new ImportService(
+            new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            transactionTemplate,
+            event -> {},
+            propiedadWriter,
+            personaWriter,
+            500,
+            1024,
+            10,
+            1,
+            1,
+            30,
+            60);
+  }
+
+  @AfterEach
+  void tearDown() {
+    workersReleased.countDown();
+    importService.shutdown();
+  }
+
+  @Test
+  @DisplayName("Debe rechazar cargas sin lugar libre y volver a aceptarlas al terminar un trabajo")
+  void shouldRejectUploadsBeyondQueuedJobs() throws Exception {
+    given(propiedadWriter.columns())
+        .willAnswer(
+            invocation -> {
+              workersReleased.await();
+              return Set.of("nombre");
+            });
+    given(propiedadWriter.requestType()).willReturn(CreatePropiedadRequest.class);
+
+    ImportJobResponse running = importService.importPropiedades(csv(), ImportFormato.CSV);
+    importService.importPropiedades(csv(), ImportFormato.CSV);
+
+    assertThatThrownBy(() -> importService.importPropiedades(csv(), ImportFormato.CSV))
+        .isInstanceOfSatisfying(
+            ImportQueueFullException.class,
+            ex -> assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(30)));
+
+    workersReleased.countDown();
+
+    assertThat(awaitAccepted()).isNotNull();
+    assertThat(importService.findJob(running.getId()).getEstado())
+        .isIn(ImportEstado.COMPLETADO, ImportEstado.FALLIDO);
+  }
+
+  private static InputStream csv() {
+    return new ByteArrayInputStream("nombre\nCasa Lote\n".getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** Uploads until a slot frees up; the slot is released right after the job finishes. */
+  private ImportJobResponse awaitAccepted() throws InterruptedException {
+    for (int attempt = 0; attempt < 200; attempt++) {
+      try {
+        return importService.importPropiedades(csv(), ImportFormato.CSV);
+      } catch (ImportQueueFullException ex) {
+        Thread.sleep(25);
+      }
+    }
+    throw new AssertionError("Ninguna importación liberó su lugar a tiempo");
+  }
+}
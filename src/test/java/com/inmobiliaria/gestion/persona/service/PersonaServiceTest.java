@@ -5,10 +5,14 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 
+import com.inmobiliaria.gestion.concurrency.OptimisticUpdates;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.exception.InvalidPaginationException;
 import com.inmobiliaria.gestion.exception.ResourceNotFoundException;
 import com.inmobiliaria.gestion.persona.domain.Persona;
 import com.inmobiliaria.gestion.persona.domain.PersonaTipo;
 import com.inmobiliaria.gestion.persona.dto.CreatePersonaRequest;
+import com.inmobiliaria.gestion.persona.dto.PersonaPageResponse;
 import com.inmobiliaria.gestion.persona.dto.PersonaResponse;
 import com.inmobiliaria.gestion.persona.dto.UpdatePersonaRequest;
 import com.inmobiliaria.gestion.persona.repository.PersonaRepository;
@@ -20,12 +24,21 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionOperations;
 
 @ExtendWith(MockitoExtension.class)
 class PersonaServiceTest {
 
   @Mock private PersonaRepository personaRepository;
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private OptimisticUpdates optimisticUpdates =
+      new OptimisticUpdates(TransactionOperations.withoutTransaction(), 3);
 
   @InjectMocks private PersonaService personaService;
 
@@ -88,7 +101,7 @@ class PersonaServiceTest {
             false);
 
     org.mockito.BDDMockito.given(personaRepository.findById(5L)).willReturn(Optional.of(existing));
-    org.mockito.BDDMockito.given(personaRepository.save(any(Persona.class)))
+    org.mockito.BDDMockito.given(personaRepository.saveAndFlush(any(Persona.class)))
         .willAnswer(invocation -> invocation.getArgument(0));
 
     PersonaResponse response = personaService.update(5L, request);
@@ -115,9 +128,8 @@ class PersonaServiceTest {
   @Test
   @DisplayName("Debe encontrar una persona por su identificador")
   void shouldFindPersonaById() {
-    Persona existing = buildPersona();
-    existing.setId(7L);
-    org.mockito.BDDMockito.given(personaRepository.findById(7L)).willReturn(Optional.of(existing));
+    org.mockito.BDDMockito.given(personaRepository.findResponseById(7L))
+        .willReturn(Optional.of(buildResponse(7L)));
 
     PersonaResponse response = personaService.findById(7L);
 
@@ -128,7 +140,8 @@ class PersonaServiceTest {
   @Test
   @DisplayName("Debe lanzar excepción si la persona no existe al consultar")
   void shouldFailFindingPersonaById() {
-    org.mockito.BDDMockito.given(personaRepository.findById(123L)).willReturn(Optional.empty());
+    org.mockito.BDDMockito.given(personaRepository.findResponseById(123L))
+        .willReturn(Optional.empty());
 
     assertThatThrownBy(() -> personaService.findById(123L))
         .isInstanceOf(ResourceNotFoundException.class)
@@ -143,6 +156,7 @@ class PersonaServiceTest {
     personaService.delete(3L);
 
     verify(personaRepository).deleteById(3L);
+    verify(eventPublisher).publishEvent(any(DataChangedEvent.class));
   }
 
   @Test
@@ -158,17 +172,51 @@ class PersonaServiceTest {
   @Test
   @DisplayName("Debe listar todas las personas registradas")
   void shouldListPersonas() {
-    Persona one = buildPersona();
-    Persona two = buildPersona();
-    two.setId(2L);
-    two.setNombre("Lucía");
-    org.mockito.BDDMockito.given(personaRepository.findAll()).willReturn(List.of(one, two));
+    org.mockito.BDDMockito.given(personaRepository.findAllResponses())
+        .willReturn(List.of(buildResponse(1L), buildResponse(2L)));
 
     List<PersonaResponse> responses = personaService.findAll();
 
     assertThat(responses).hasSize(2);
   }
 
+  @Test
+  @DisplayName("Debe devolver una página filtrada con cursor de continuación")
+  void shouldReturnFilteredPageWithContinuationCursor() {
+    PersonaResponse one = buildResponse(1L);
+    PersonaResponse two = buildResponse(2L);
+    org.mockito.BDDMockito.given(
+            personaRepository.findFilteredPageAfter(
+                PersonaTipo.FISICA, true, "%ana%", 0L, PageRequest.of(0, 2)))
+        .willReturn(List.of(one, two));
+    org.mockito.BDDMockito.given(
+            personaRepository.findFilteredPageAfter(
+                PersonaTipo.FISICA, true, "%ana%", 1L, PageRequest.of(0, 2)))
+        .willReturn(List.of(two));
+
+    PersonaPageResponse first =
+        personaService.findFilteredPage(PersonaTipo.FISICA, true, "Ana", null, 1);
+
+    assertThat(first.getItems()).extracting(PersonaResponse::getId).containsExactly(1L);
+    assertThat(first.isHasMore()).isTrue();
+
+    PersonaPageResponse second =
+        personaService.findFilteredPage(
+            PersonaTipo.FISICA, true, "Ana", first.getNextCursor(), 1);
+
+    assertThat(second.getItems()).extracting(PersonaResponse::getId).containsExactly(2L);
+    assertThat(second.getNextCursor()).isNull();
+  }
+
+  @Test
+  @DisplayName("Debe rechazar cursores y tamaños de página inválidos")
+  void shouldRejectInvalidPagination() {
+    assertThatThrownBy(() -> personaService.findFilteredPage(null, null, null, null, 0))
+        .isInstanceOf(InvalidPaginationException.class);
+    assertThatThrownBy(() -> personaService.findFilteredPage(null, null, null, "bm9wZQ", 10))
+        .isInstanceOf(InvalidPaginationException.class);
+  }
+
   private Persona buildPersona() {
     Persona persona = new Persona();
     persona.setTipoPersona(PersonaTipo.FISICA);
@@ -178,4 +226,19 @@ class PersonaServiceTest {
     persona.setActivo(true);
     return persona;
   }
+
+  private PersonaResponse buildResponse(Long id) {
+    return new PersonaResponse(
+        id,
+        PersonaTipo.FISICA,
+        "Ana",
+        "Ramírez",
+        null,
+        null,
+        null,
+        null,
+        null,
+        LocalDateTime.now(),
+        true);
+  }
 }
@@ -1,15 +1,19 @@
 package com.inmobiliaria.gestion.propiedad.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.gestion.etag.CatalogVersions;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
 import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
 import com.inmobiliaria.gestion.inmobiliaria.repository.InmobiliariaRepository;
 import com.inmobiliaria.gestion.propiedad.domain.Propiedad;
@@ -17,14 +21,19 @@ import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
 import com.inmobiliaria.gestion.propiedad.dto.CreatePropiedadRequest;
 import com.inmobiliaria.gestion.propiedad.dto.UpdatePropiedadRequest;
 import com.inmobiliaria.gestion.propiedad.repository.PropiedadRepository;
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @SpringBootTest
@@ -37,6 +46,7 @@ class PropiedadControllerTest {
   @Autowired private ObjectMapper objectMapper;
   @Autowired private PropiedadRepository propiedadRepository;
   @Autowired private InmobiliariaRepository inmobiliariaRepository;
+  @Autowired private CatalogVersions catalogVersions;
 
   @Test
   @DisplayName("Debe crear una propiedad")
@@ -105,6 +115,89 @@ class PropiedadControllerTest {
         .andExpect(status().isNotFound());
   }
 
+  @Test
+  @DisplayName("Debe paginar las propiedades por cursor")
+  void shouldPagePropiedadesWithCursor() throws Exception {
+    Inmobiliaria inmobiliaria = createInmobiliaria("Inmo Paginada");
+    Propiedad primera =
+        propiedadRepository.save(buildPropiedad("Casa 1", PropiedadTipo.CASA, inmobiliaria));
+    propiedadRepository.save(buildPropiedad("Casa 2", PropiedadTipo.CASA, inmobiliaria));
+    Propiedad tercera =
+        propiedadRepository.save(buildPropiedad("Casa 3", PropiedadTipo.CASA, inmobiliaria));
+
+    MvcResult firstPage =
+        mockMvc
+            .perform(
+                get("/api/propiedades/page")
+                    .param("after", String.valueOf(primera.getId() - 1))
+                    .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(2))
+            .andExpect(jsonPath("$.items[0].id").value(primera.getId()))
+            .andExpect(jsonPath("$.items[0].inmobiliariaNombre").value("Inmo Paginada"))
+            .andExpect(jsonPath("$.hasMore").value(true))
+            .andReturn();
+    String cursor =
+        objectMapper
+            .readTree(firstPage.getResponse().getContentAsString())
+            .get("nextCursor")
+            .asText();
+
+    mockMvc
+        .perform(get("/api/propiedades/page").param("cursor", cursor).param("limit", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(1))
+        .andExpect(jsonPath("$.items[0].id").value(tercera.getId()))
+        .andExpect(jsonPath("$.hasMore").value(false))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+  }
+
+  @Test
+  @DisplayName("Debe rechazar un cursor de paginación inválido")
+  void shouldRejectInvalidCursor() throws Exception {
+    mockMvc
+        .perform(get("/api/propiedades/page").param("cursor", "no-es-un-cursor"))
+        .andExpect(status().isBadRequest());
+    mockMvc
+        .perform(get("/api/propiedades/page").param("limit", "0"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  @DisplayName("Debe transmitir las propiedades como NDJSON")
+  void shouldStreamPropiedadesAsNdjson() throws Exception {
+    Inmobiliaria inmobiliaria = createInmobiliaria("Inmo Flujo");
+    try {
+      propiedadRepository.save(buildPropiedad("Casa Flujo", PropiedadTipo.CASA, inmobiliaria));
+      propiedadRepository.save(buildPropiedad("Local Flujo", PropiedadTipo.LOCAL, inmobiliaria));
+
+      MvcResult result =
+          mockMvc
+              .perform(
+                  get("/api/propiedades/stream")
+                      .param("inmobiliariaId", inmobiliaria.getId().toString()))
+              .andExpect(request().asyncStarted())
+              .andReturn();
+
+      String body =
+          mockMvc
+              .perform(asyncDispatch(result))
+              .andExpect(status().isOk())
+              .andReturn()
+              .getResponse()
+              .getContentAsString();
+      String[] lines = body.split("\n");
+      assertThat(lines).hasSize(2);
+      assertThat(objectMapper.readTree(lines[0]).get("nombre").asText()).isEqualTo("Casa Flujo");
+      assertThat(objectMapper.readTree(lines[1]).get("inmobiliariaNombre").asText())
+          .isEqualTo("Inmo Flujo");
+    } finally {
+      propiedadRepository.deleteAll(propiedadRepository.findByInmobiliariaId(inmobiliaria.getId()));
+      inmobiliariaRepository.delete(inmobiliaria);
+    }
+  }
+
   @Test
   @DisplayName("Debe obtener una propiedad por su id")
   void shouldGetPropiedadById() throws Exception {
@@ -143,6 +236,164 @@ class PropiedadControllerTest {
         .andExpect(jsonPath("$.observaciones").value("Remodelada"));
   }
 
+  @Test
+  @DisplayName("Debe responder 304 mientras el listado no cambie")
+  void shouldAnswerNotModifiedWhileListingIsUnchanged() throws Exception {
+    propiedadRepository.save(
+        buildPropiedad("Casa Cache", PropiedadTipo.CASA, createInmobiliaria("Inmo Cache")));
+
+    String etag =
+        mockMvc
+            .perform(get("/api/propiedades"))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+    mockMvc
+        .perform(get("/api/propiedades").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+    catalogVersions.onDataChanged(new DataChangedEvent(DataChangedEvent.INMOBILIARIA, null));
+
+    mockMvc
+        .perform(get("/api/propiedades").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].nombre").value("Casa Cache"));
+  }
+
+  @Test
+  @DisplayName("Debe rechazar con 412 una actualización con If-Match desactualizado")
+  void shouldRejectUpdateWithStaleIfMatch() throws Exception {
+    Propiedad propiedad =
+        propiedadRepository.save(
+            buildPropiedad("Casa Version", PropiedadTipo.CASA, createInmobiliaria("Inmo V")));
+    String etag =
+        mockMvc
+            .perform(get("/api/propiedades/{id}", propiedad.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    String body =
+        objectMapper.writeValueAsString(
+            new UpdatePropiedadRequest("Casa Renovada", null, null, null, null));
+
+    String newEtag =
+        mockMvc
+            .perform(
+                put("/api/propiedades/{id}", propiedad.getId())
+                    .header(HttpHeaders.IF_MATCH, etag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+    assertThat(newEtag).isNotEqualTo(etag);
+
+    mockMvc
+        .perform(
+            put("/api/propiedades/{id}", propiedad.getId())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+        .andExpect(status().isPreconditionFailed());
+    mockMvc
+        .perform(
+            get("/api/propiedades/{id}", propiedad.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, newEtag))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  @DisplayName("Debe aplicar un lote y reportar el resultado de cada operación")
+  void shouldApplyBatchOperations() throws Exception {
+    Inmobiliaria inmobiliaria = createInmobiliaria("Inmo Lote");
+    Propiedad actualizar =
+        propiedadRepository.save(buildPropiedad("Casa Lote", PropiedadTipo.CASA, inmobiliaria));
+    Propiedad eliminar =
+        propiedadRepository.save(buildPropiedad("Local Lote", PropiedadTipo.LOCAL, inmobiliaria));
+    String body =
+        objectMapper.writeValueAsString(
+            List.of(
+                Map.of(
+                    "accion",
+                    "CREAR",
+                    "datos",
+                    new CreatePropiedadRequest(
+                        "Depto Lote",
+                        PropiedadTipo.DEPARTAMENTO,
+                        null,
+                        null,
+                        inmobiliaria.getId())),
+                Map.of(
+                    "accion",
+                    "ACTUALIZAR",
+                    "id",
+                    actualizar.getId(),
+                    "datos",
+                    new UpdatePropiedadRequest("Casa Lote Renovada", null, null, null, null)),
+                Map.of("accion", "ELIMINAR", "id", eliminar.getId()),
+                Map.of("accion", "ELIMINAR", "id", 999_999L),
+                Map.of("accion", "CREAR", "datos", Map.of("tipo", "CASA"))));
+
+    mockMvc
+        .perform(
+            post("/api/propiedades/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.exitosas").value(3))
+        .andExpect(jsonPath("$.fallidas").value(2))
+        .andExpect(jsonPath("$.resultados[0].estado").value(201))
+        .andExpect(jsonPath("$.resultados[0].datos.nombre").value("Depto Lote"))
+        .andExpect(jsonPath("$.resultados[1].estado").value(200))
+        .andExpect(jsonPath("$.resultados[1].datos.nombre").value("Casa Lote Renovada"))
+        .andExpect(jsonPath("$.resultados[2].estado").value(204))
+        .andExpect(jsonPath("$.resultados[3].estado").value(404))
+        .andExpect(jsonPath("$.resultados[4].estado").value(400));
+
+    assertThat(propiedadRepository.existsById(eliminar.getId())).isFalse();
+    assertThat(propiedadRepository.findById(actualizar.getId()))
+        .get()
+        .extracting(Propiedad::getNombre)
+        .isEqualTo("Casa Lote Renovada");
+  }
+
+  @Test
+  @DisplayName("Debe rechazar una segunda operación sobre el mismo id dentro del lote")
+  void shouldRejectRepeatedIdInBatch() throws Exception {
+    Inmobiliaria inmobiliaria = createInmobiliaria("Inmo Repetida");
+    Propiedad propiedad =
+        propiedadRepository.save(buildPropiedad("Casa Doble", PropiedadTipo.CASA, inmobiliaria));
+    String body =
+        objectMapper.writeValueAsString(
+            List.of(
+                Map.of(
+                    "accion",
+                    "ACTUALIZAR",
+                    "id",
+                    propiedad.getId(),
+                    "datos",
+                    new UpdatePropiedadRequest("Casa Doble Renovada", null, null, null, null)),
+                Map.of("accion", "ELIMINAR", "id", propiedad.getId())));
+
+    mockMvc
+        .perform(
+            post("/api/propiedades/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.exitosas").value(1))
+        .andExpect(jsonPath("$.fallidas").value(1))
+        .andExpect(jsonPath("$.resultados[0].estado").value(200))
+        .andExpect(jsonPath("$.resultados[1].estado").value(400));
+
+    assertThat(propiedadRepository.findById(propiedad.getId()))
+        .get()
+        .extracting(Propiedad::getNombre)
+        .isEqualTo("Casa Doble Renovada");
+  }
+
   @Test
   @DisplayName("Debe eliminar una propiedad")
   void shouldDeletePropiedad() throws Exception {
@@ -0,0 +1,109 @@
+package com.inmobiliaria.gestion.propiedad.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
+import com.inmobiliaria.gestion.inmobiliaria.repository.InmobiliariaRepository;
+import com.inmobiliaria.gestion.propiedad.domain.Propiedad;
+import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
+import com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse;
+import com.inmobiliaria.gestion.propiedad.repository.PropiedadRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Regression test guarding against N+1 selects on the propiedad read paths. Uses Hibernate
+ * statistics to count the JDBC statements issued while listing a 1,000-row catalog spread across
+ * several inmobiliarias.
+ */
+@SpringBootTest
+@Transactional
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PropiedadServiceStatementCountTest {
+
+  private static final int PROPIEDADES = 1_000;
+  private static final int INMOBILIARIAS = 25;
+
+  @Autowired private PropiedadService propiedadService;
+  @Autowired private PropiedadRepository propiedadRepository;
+  @Autowired private InmobiliariaRepository inmobiliariaRepository;
+  @Autowired private EntityManager entityManager;
+  @Autowired private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+  private List<Inmobiliaria> inmobiliarias;
+
+  @BeforeEach
+  void setUp() {
+    inmobiliarias = new ArrayList<>();
+    for (int i = 0; i < INMOBILIARIAS; i++) {
+      Inmobiliaria inmobiliaria = new Inmobiliaria();
+      inmobiliaria.setNombre("Inmo " + i);
+      inmobiliarias.add(inmobiliaria);
+    }
+    inmobiliariaRepository.saveAll(inmobiliarias);
+
+    List<Propiedad> propiedades = new ArrayList<>();
+    for (int i = 0; i < PROPIEDADES; i++) {
+      Propiedad propiedad = new Propiedad();
+      propiedad.setNombre("Propiedad " + i);
+      propiedad.setTipo(PropiedadTipo.CASA);
+      propiedad.setInmobiliaria(inmobiliarias.get(i % INMOBILIARIAS));
+      propiedades.add(propiedad);
+    }
+    propiedadRepository.saveAll(propiedades);
+
+    entityManager.flush();
+    entityManager.clear();
+
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  @DisplayName("Debe listar 1,000 propiedades con una sola sentencia SQL")
+  void shouldListAllPropiedadesInSingleStatement() {
+    List<PropiedadResponse> responses = propiedadService.findAll();
+
+    assertThat(responses).hasSize(PROPIEDADES);
+    assertThat(responses).allSatisfy(r -> assertThat(r.getInmobiliariaNombre()).isNotNull());
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Debe filtrar por inmobiliaria sin cargar la asociación por cada fila")
+  void shouldListPropiedadesByInmobiliariaWithoutNPlusOne() {
+    Long inmobiliariaId = inmobiliarias.get(0).getId();
+
+    List<PropiedadResponse> responses = propiedadService.findAllByInmobiliaria(inmobiliariaId);
+
+    assertThat(responses).hasSize(PROPIEDADES / INMOBILIARIAS);
+    // One lookup validating the inmobiliaria plus the projected listing.
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Debe consultar una propiedad por id con una sola sentencia SQL")
+  void shouldFindByIdInSingleStatement() {
+    Long id = propiedadRepository.findAllResponses().get(0).getId();
+    statistics.clear();
+
+    PropiedadResponse response = propiedadService.findById(id);
+
+    assertThat(response.getInmobiliariaNombre()).isEqualTo("Inmo 0");
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+}
@@ -7,12 +7,17 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 
+import com.inmobiliaria.gestion.concurrency.OptimisticUpdates;
+import com.inmobiliaria.gestion.event.DataChangedEvent;
+import com.inmobiliaria.gestion.exception.InvalidPaginationException;
 import com.inmobiliaria.gestion.exception.ResourceNotFoundException;
+import com.inmobiliaria.gestion.exception.VersionConflictException;
 import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
 import com.inmobiliaria.gestion.inmobiliaria.repository.InmobiliariaRepository;
 import com.inmobiliaria.gestion.propiedad.domain.Propiedad;
 import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
 import com.inmobiliaria.gestion.propiedad.dto.CreatePropiedadRequest;
+import com.inmobiliaria.gestion.propiedad.dto.PropiedadPageResponse;
 import com.inmobiliaria.gestion.propiedad.dto.PropiedadResponse;
 import com.inmobiliaria.gestion.propiedad.dto.UpdatePropiedadRequest;
 import com.inmobiliaria.gestion.propiedad.repository.PropiedadRepository;
@@ -24,13 +29,24 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionOperations;
 
 @ExtendWith(MockitoExtension.class)
 class PropiedadServiceTest {
 
   @Mock private PropiedadRepository propiedadRepository;
   @Mock private InmobiliariaRepository inmobiliariaRepository;
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private OptimisticUpdates optimisticUpdates =
+      new OptimisticUpdates(TransactionOperations.withoutTransaction(), 3);
+
   @InjectMocks private PropiedadService propiedadService;
 
   private Inmobiliaria inmobiliaria;
@@ -95,7 +111,7 @@ class PropiedadServiceTest {
             "Actualizada", PropiedadTipo.DEPARTAMENTO, "Nueva 100", "Remodelada", null);
 
     given(propiedadRepository.findById(5L)).willReturn(Optional.of(existente));
-    given(propiedadRepository.save(any(Propiedad.class)))
+    given(propiedadRepository.saveAndFlush(any(Propiedad.class)))
         .willAnswer(invocation -> invocation.getArgument(0));
 
     PropiedadResponse response = propiedadService.update(5L, request);
@@ -124,7 +140,7 @@ class PropiedadServiceTest {
 
     given(propiedadRepository.findById(6L)).willReturn(Optional.of(existente));
     given(inmobiliariaRepository.findById(20L)).willReturn(Optional.of(nuevaInmobiliaria));
-    given(propiedadRepository.save(any(Propiedad.class)))
+    given(propiedadRepository.saveAndFlush(any(Propiedad.class)))
         .willAnswer(invocation -> invocation.getArgument(0));
 
     PropiedadResponse response = propiedadService.update(6L, request);
@@ -163,16 +179,55 @@ class PropiedadServiceTest {
         .hasMessage("Inmobiliaria con id 55 no encontrada");
   }
 
+  @Test
+  @DisplayName("Debe reintentar y combinar una actualización concurrente de otros campos")
+  void shouldMergeConcurrentUpdateOfOtherFields() {
+    Propiedad leida = buildPropiedad(5L, "Casa Vieja", "Calle 1");
+    Propiedad actual = buildPropiedad(5L, "Casa Vieja", "Calle 2");
+    UpdatePropiedadRequest request =
+        new UpdatePropiedadRequest("Casa Nueva", null, null, null, null);
+
+    given(propiedadRepository.findById(5L)).willReturn(Optional.of(leida), Optional.of(actual));
+    given(propiedadRepository.saveAndFlush(any(Propiedad.class)))
+        .willThrow(new ObjectOptimisticLockingFailureException(Propiedad.class, 5L))
+        .willAnswer(invocation -> invocation.getArgument(0));
+
+    PropiedadResponse response = propiedadService.update(5L, request);
+
+    assertThat(response.getNombre()).isEqualTo("Casa Nueva");
+    assertThat(response.getDireccion()).isEqualTo("Calle 2");
+  }
+
+  @Test
+  @DisplayName("Debe devolver el estado actual si otra operación cambió el mismo campo")
+  void shouldReportConflictWhenSameFieldChangedConcurrently() {
+    Propiedad leida = buildPropiedad(5L, "Casa Vieja", "Calle 1");
+    Propiedad actual = buildPropiedad(5L, "Casa Ajena", "Calle 1");
+    UpdatePropiedadRequest request =
+        new UpdatePropiedadRequest("Casa Nueva", null, null, null, null);
+
+    given(propiedadRepository.findById(5L)).willReturn(Optional.of(leida), Optional.of(actual));
+    given(propiedadRepository.saveAndFlush(any(Propiedad.class)))
+        .willThrow(new ObjectOptimisticLockingFailureException(Propiedad.class, 5L));
+
+    assertThatThrownBy(() -> propiedadService.update(5L, request))
+        .isInstanceOfSatisfying(
+            VersionConflictException.class,
+            ex -> {
+              assertThat(ex.getConflictingFields()).containsExactly("nombre");
+              assertThat(((PropiedadResponse) ex.getCurrent()).getNombre())
+                  .isEqualTo("Casa Ajena");
+            });
+  }
+
   @Test
   @DisplayName("Debe obtener una propiedad por su identificador")
   void shouldFindPropiedadById() {
-    Propiedad existente = new Propiedad();
-    existente.setId(8L);
-    existente.setNombre("Oficina Centro");
-    existente.setTipo(PropiedadTipo.OFICINA);
-    existente.setInmobiliaria(inmobiliaria);
+    PropiedadResponse existente =
+        new PropiedadResponse(
+            8L, "Oficina Centro", PropiedadTipo.OFICINA, null, null, 10L, "Inmo Norte");
 
-    given(propiedadRepository.findById(8L)).willReturn(Optional.of(existente));
+    given(propiedadRepository.findResponseById(8L)).willReturn(Optional.of(existente));
 
     PropiedadResponse response = propiedadService.findById(8L);
 
@@ -182,7 +237,7 @@ class PropiedadServiceTest {
   @Test
   @DisplayName("Debe lanzar excepción si la propiedad no existe al consultar por id")
   void shouldFailFindingPropiedadById() {
-    given(propiedadRepository.findById(111L)).willReturn(Optional.empty());
+    given(propiedadRepository.findResponseById(111L)).willReturn(Optional.empty());
 
     assertThatThrownBy(() -> propiedadService.findById(111L))
         .isInstanceOf(ResourceNotFoundException.class)
@@ -197,6 +252,7 @@ class PropiedadServiceTest {
     propiedadService.delete(12L);
 
     verify(propiedadRepository).deleteById(12L);
+    verify(eventPublisher).publishEvent(any(DataChangedEvent.class));
   }
 
   @Test
@@ -212,19 +268,7 @@ class PropiedadServiceTest {
   @Test
   @DisplayName("Debe listar todas las propiedades")
   void shouldListPropiedades() {
-    Propiedad una = new Propiedad();
-    una.setId(1L);
-    una.setNombre("Casa");
-    una.setTipo(PropiedadTipo.CASA);
-    una.setInmobiliaria(inmobiliaria);
-
-    Propiedad dos = new Propiedad();
-    dos.setId(2L);
-    dos.setNombre("Departamento");
-    dos.setTipo(PropiedadTipo.DEPARTAMENTO);
-    dos.setInmobiliaria(inmobiliaria);
-
-    given(propiedadRepository.findAll()).willReturn(List.of(una, dos));
+    given(propiedadRepository.findAllResponses()).willReturn(List.of(pageRow(1L), pageRow(2L)));
 
     List<PropiedadResponse> responses = propiedadService.findAll();
 
@@ -234,18 +278,70 @@ class PropiedadServiceTest {
   @Test
   @DisplayName("Debe listar las propiedades de una inmobiliaria específica")
   void shouldListPropiedadesByInmobiliaria() {
-    Propiedad una = new Propiedad();
-    una.setId(1L);
-    una.setNombre("Casa");
-    una.setTipo(PropiedadTipo.CASA);
-    una.setInmobiliaria(inmobiliaria);
-
-    given(inmobiliariaRepository.findById(10L)).willReturn(Optional.of(inmobiliaria));
-    given(propiedadRepository.findByInmobiliariaId(eq(10L))).willReturn(List.of(una));
+    given(inmobiliariaRepository.existsById(10L)).willReturn(true);
+    given(propiedadRepository.findResponsesByInmobiliariaId(eq(10L)))
+        .willReturn(List.of(pageRow(1L)));
 
     List<PropiedadResponse> responses = propiedadService.findAllByInmobiliaria(10L);
 
     assertThat(responses).hasSize(1);
-    verify(propiedadRepository).findByInmobiliariaId(10L);
+    verify(propiedadRepository).findResponsesByInmobiliariaId(10L);
+  }
+
+  @Test
+  @DisplayName("Debe devolver una página con cursor de continuación cuando hay más resultados")
+  void shouldReturnPageWithContinuationCursor() {
+    given(propiedadRepository.findPageAfter(0L, PageRequest.of(0, 3)))
+        .willReturn(List.of(pageRow(1L), pageRow(2L), pageRow(3L)));
+    given(propiedadRepository.findPageAfter(2L, PageRequest.of(0, 3)))
+        .willReturn(List.of(pageRow(3L)));
+
+    PropiedadPageResponse first = propiedadService.findPage(null, null, null, 2);
+
+    assertThat(first.getItems()).extracting(PropiedadResponse::getId).containsExactly(1L, 2L);
+    assertThat(first.isHasMore()).isTrue();
+
+    PropiedadPageResponse second = propiedadService.findPage(null, null, first.getNextCursor(), 2);
+
+    assertThat(second.getItems()).extracting(PropiedadResponse::getId).containsExactly(3L);
+    assertThat(second.isHasMore()).isFalse();
+    assertThat(second.getNextCursor()).isNull();
+  }
+
+  @Test
+  @DisplayName("Debe rechazar tamaños de página fuera de rango")
+  void shouldRejectPageSizeOutOfRange() {
+    assertThatThrownBy(() -> propiedadService.findPage(null, null, null, 501))
+        .isInstanceOf(InvalidPaginationException.class);
+  }
+
+  @Test
+  @DisplayName("Debe filtrar la página escapando el fragmento de nombre")
+  void shouldReturnFilteredPageWithEscapedNamePattern() {
+    given(
+            propiedadRepository.findFilteredPageAfter(
+                null, PropiedadTipo.CASA, "%50\\% azul%", 0L, PageRequest.of(0, 3)))
+        .willReturn(List.of(pageRow(1L), pageRow(2L), pageRow(3L)));
+
+    PropiedadPageResponse page =
+        propiedadService.findFilteredPage(null, PropiedadTipo.CASA, " 50% Azul ", null, 2);
+
+    assertThat(page.getItems()).extracting(PropiedadResponse::getId).containsExactly(1L, 2L);
+    assertThat(page.getNextCursor()).isEqualTo(propiedadService.cursorAfter(2L));
+  }
+
+  private PropiedadResponse pageRow(Long id) {
+    return new PropiedadResponse(
+        id, "Casa " + id, PropiedadTipo.CASA, null, null, 10L, "Inmo Norte");
+  }
+
+  private Propiedad buildPropiedad(Long id, String nombre, String direccion) {
+    Propiedad propiedad = new Propiedad();
+    propiedad.setId(id);
+    propiedad.setNombre(nombre);
+    propiedad.setTipo(PropiedadTipo.CASA);
+    propiedad.setDireccion(direccion);
+    propiedad.setInmobiliaria(inmobiliaria);
+    return propiedad;
   }
 }
@@ -0,0 +1,127 @@
+package com.inmobiliaria.gestion.search.controller;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.inmobiliaria.gestion.inmobiliaria.domain.Inmobiliaria;
+import com.inmobiliaria.gestion.inmobiliaria.repository.InmobiliariaRepository;
+import com.inmobiliaria.gestion.persona.domain.Persona;
+import com.inmobiliaria.gestion.persona.domain.PersonaTipo;
+import com.inmobiliaria.gestion.persona.repository.PersonaRepository;
+import com.inmobiliaria.gestion.propiedad.domain.Propiedad;
+import com.inmobiliaria.gestion.propiedad.domain.PropiedadTipo;
+import com.inmobiliaria.gestion.propiedad.repository.PropiedadRepository;
+import java.time.LocalDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@Transactional
+@ActiveProfiles("test")
+class SearchControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+  @Autowired private ObjectMapper objectMapper;
+  @Autowired private InmobiliariaRepository inmobiliariaRepository;
+  @Autowired private PropiedadRepository propiedadRepository;
+  @Autowired private PersonaRepository personaRepository;
+
+  @Test
+  @DisplayName("Debe encontrar coincidencias en los tres catálogos ordenadas por relevancia")
+  void shouldSearchAcrossCatalogs() throws Exception {
+    Inmobiliaria inmobiliaria = createInmobiliaria("Central Inmuebles");
+    createPropiedad("Casa Azul", "Av. Central 123", inmobiliaria);
+    createPropiedad("Local Norte", "Calle 5", inmobiliaria);
+    createPersona("Servicios Central S.A.");
+
+    mockMvc
+        .perform(get("/api/search").param("q", "  CENTRAL "))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(3))
+        .andExpect(jsonPath("$.items[0].tipo").value("INMOBILIARIA"))
+        .andExpect(jsonPath("$.items[0].titulo").value("Central Inmuebles"))
+        .andExpect(jsonPath("$.items[1].tipo").value("PERSONA"))
+        .andExpect(jsonPath("$.items[2].tipo").value("PROPIEDAD"))
+        .andExpect(jsonPath("$.items[2].detalle").value("Av. Central 123"))
+        .andExpect(jsonPath("$.hasMore").value(false));
+  }
+
+  @Test
+  @DisplayName("Debe paginar los resultados y filtrar por catálogo")
+  void shouldPageResultsOfSelectedCatalog() throws Exception {
+    Inmobiliaria inmobiliaria = createInmobiliaria("Inmo Norte");
+    createPropiedad("Residencia Palmas 1", null, inmobiliaria);
+    createPropiedad("Residencia Palmas 2", null, inmobiliaria);
+    createPersona("Palmas Consultores");
+
+    String body =
+        mockMvc
+            .perform(
+                get("/api/search")
+                    .param("q", "palmas")
+                    .param("tipos", "PROPIEDAD")
+                    .param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items.length()").value(1))
+            .andExpect(jsonPath("$.items[0].tipo").value("PROPIEDAD"))
+            .andExpect(jsonPath("$.hasMore").value(true))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    JsonNode first = objectMapper.readTree(body);
+
+    mockMvc
+        .perform(
+            get("/api/search")
+                .param("q", "palmas")
+                .param("tipos", "PROPIEDAD")
+                .param("limit", "1")
+                .param("cursor", first.get("nextCursor").asText()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(1))
+        .andExpect(jsonPath("$.items[0].titulo").value("Residencia Palmas 2"))
+        .andExpect(jsonPath("$.hasMore").value(false))
+        .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+  }
+
+  @Test
+  @DisplayName("Debe rechazar consultas demasiado cortas")
+  void shouldRejectShortQuery() throws Exception {
+    mockMvc.perform(get("/api/search").param("q", " a ")).andExpect(status().isBadRequest());
+  }
+
+  private Inmobiliaria createInmobiliaria(String nombre) {
+    Inmobiliaria inmobiliaria = new Inmobiliaria();
+    inmobiliaria.setNombre(nombre);
+    return inmobiliariaRepository.save(inmobiliaria);
+  }
+
+  private void createPropiedad(String nombre, String direccion, Inmobiliaria inmobiliaria) {
+    Propiedad propiedad = new Propiedad();
+    propiedad.setNombre(nombre);
+    propiedad.setTipo(PropiedadTipo.CASA);
+    propiedad.setDireccion(direccion);
+    propiedad.setInmobiliaria(inmobiliaria);
+    propiedadRepository.save(propiedad);
+  }
+
+  private void createPersona(String razonSocial) {
+    Persona persona = new Persona();
+    persona.setTipoPersona(PersonaTipo.MORAL);
+    persona.setRazonSocial(razonSocial);
+    persona.setFechaAlta(LocalDateTime.now());
+    persona.setActivo(true);
+    personaRepository.save(persona);
+  }
+}